@@ -11,5 +11,10 @@ public final class CacheConstants {
      */
     public static final String DICTIONARY_QUERIES = "dictionary-queries";
 
+    /*
+     * Entity ids of the dictionary entries, by domain and value
+     */
+    public static final String DICTIONARY_ENTITY_IDS = "dictionary-entity-ids";
+
     private CacheConstants() {}
 }
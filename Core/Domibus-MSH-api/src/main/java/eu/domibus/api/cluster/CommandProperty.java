@@ -11,6 +11,8 @@ public class CommandProperty {
 
     public static final String PMODE_PARTY_NAMES = "PMODE_PARTY_NAMES";
     public static final String FINAL_RECIPIENTS = "FINAL_RECIPIENTS";
+    public static final String PARTY_NAME = "PARTY_NAME";
+    public static final String CONNECTIVITY_STATUS = "CONNECTIVITY_STATUS";
 
     private CommandProperty() {}
 }
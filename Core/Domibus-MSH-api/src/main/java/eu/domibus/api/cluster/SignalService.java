@@ -34,6 +34,11 @@ public interface SignalService {
      */
     void signalDeleteFinalRecipientCache(List<String> finalRecipients);
 
+    /**
+     * Signals the new connectivity status of a party to the other servers in the cluster
+     */
+    void signalPartyStatusChange(String partyName, String connectivityStatus);
+
     /**
      * signals Logging set level to other servers in the cluster
      *
@@ -44,6 +44,16 @@ public interface JMSManager {
      * @return a list of JmsMessage
      */
     List<JmsMessage> browseClusterMessages(String source, String selector);
+
+    /**
+     * Operation to browse a JMS source with restrictions given by the selector, stopping after maxCount messages.
+     *
+     * @param source   queue or topic
+     * @param selector selector
+     * @param maxCount maximum number of messages browsed; no limit if 0 or less
+     * @return a list of JmsMessage
+     */
+    List<JmsMessage> browseClusterMessages(String source, String selector, int maxCount);
     
     void sendMessageToQueue(JmsMessage message, String destination);
 
@@ -6,6 +6,7 @@ package eu.domibus.api.model;
  */
 public enum MessageState {
     READY,
+    RESERVED,
     PROCESS,
     WAITING,
     DEL,
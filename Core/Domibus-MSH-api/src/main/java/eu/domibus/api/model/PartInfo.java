@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
  */
 @NamedQueries({
         @NamedQuery(name = "PartInfo.findPartInfos", query = "select distinct pi from PartInfo pi left join fetch pi.partPropertyRefs where pi.userMessage.entityId=:ENTITY_ID order by pi.partOrder"),
+        @NamedQuery(name = "PartInfo.findPartInfosByUserMessageEntityIds", query = "select distinct pi from PartInfo pi left join fetch pi.partPropertyRefs where pi.userMessage.entityId in :ENTITY_IDS order by pi.partOrder"),
         @NamedQuery(name = "PartInfo.findPartInfoByUserMessageEntityIdAndCid", query = "select distinct pi from PartInfo pi left join fetch pi.partPropertyRefs where pi.userMessage.entityId=:ENTITY_ID and pi.href=:CID"),
         @NamedQuery(name = "PartInfo.findPartInfoByUserMessageIdAndCid", query = "select distinct pi from PartInfo pi left join fetch pi.partPropertyRefs where pi.userMessage.messageId=:MESSAGE_ID and pi.href=:CID"),
         @NamedQuery(name = "PartInfo.findFilenames", query = "select pi.fileName from PartInfo pi where pi.userMessage.entityId IN :MESSAGEIDS and pi.fileName is not null"),
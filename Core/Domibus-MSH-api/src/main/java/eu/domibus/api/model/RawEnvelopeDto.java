@@ -53,8 +53,18 @@ public class RawEnvelopeDto {
         return rawXml;
     }
 
+    /**
+     * Returns the raw xml as a stream, decompressed while it is read
+     */
     public InputStream getRawXmlMessageAsStream() {
-        return new ByteArrayInputStream(getUncompressedRawData());
+        if (!this.compressed) {
+            return new ByteArrayInputStream(getRawMessage());
+        }
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(getRawMessage()));
+        } catch (IOException e) {
+            throw new DomibusCoreException(DomibusCoreErrorCode.DOM_008, "Failed to unzip raw envelope data with id " + id, e);
+        }
     }
 
     private byte[] getUncompressedRawData() {
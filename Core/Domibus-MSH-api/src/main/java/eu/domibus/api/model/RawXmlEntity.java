@@ -70,6 +70,14 @@ public class RawXmlEntity extends AbstractNoGeneratedPkEntity {
         this.compressed = true;
     }
 
+    /**
+     * Sets raw xml content that was already compressed with GZIP
+     */
+    public void setCompressedRawXML(byte[] compressedRawXML) {
+        this.rawXML = compressedRawXML;
+        this.compressed = compressedRawXML != null;
+    }
+
     public Boolean getCompressed() {
         return BooleanUtils.isTrue(compressed);
     }
@@ -50,6 +50,16 @@ import java.util.Set;
                 name    =   "UserMessage.findPartitions_ORACLE",
                 query   =   "SELECT partition_name, high_value FROM user_tab_partitions WHERE table_name = :TNAME",
                 resultSetMapping = "PartitionMapping"),
+        @NamedNativeQuery(
+                name    =   "UserMessage.findPartitionsForUser_MYSQL",
+                query   =   "SELECT PARTITION_NAME, CAST(PARTITION_DESCRIPTION AS UNSIGNED) AS HIGH_VALUE FROM information_schema.PARTITIONS " +
+                            "WHERE TABLE_SCHEMA = :DB_USER AND UPPER(TABLE_NAME) = :TNAME AND PARTITION_NAME IS NOT NULL AND PARTITION_DESCRIPTION <> 'MAXVALUE'",
+                resultSetMapping = "PartitionMapping"),
+        @NamedNativeQuery(
+                name    =   "UserMessage.findPartitions_MYSQL",
+                query   =   "SELECT PARTITION_NAME, CAST(PARTITION_DESCRIPTION AS UNSIGNED) AS HIGH_VALUE FROM information_schema.PARTITIONS " +
+                            "WHERE TABLE_SCHEMA = DATABASE() AND UPPER(TABLE_NAME) = :TNAME AND PARTITION_NAME IS NOT NULL AND PARTITION_DESCRIPTION <> 'MAXVALUE'",
+                resultSetMapping = "PartitionMapping"),
 })
 
 @SqlResultSetMapping(
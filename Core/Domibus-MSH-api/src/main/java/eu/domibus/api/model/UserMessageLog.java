@@ -13,16 +13,20 @@ import java.util.Date;
 @Entity
 @Table(name = "TB_USER_MESSAGE_LOG")
 @NamedQueries({
-        @NamedQuery(name = "UserMessageLog.findRetryMessages",
-                query = "select userMessageLog.entityId " +
-                        "from UserMessageLog userMessageLog " +
-                        "where userMessageLog.entityId >= :MIN_ENTITY_ID " +
-                        "and userMessageLog.entityId < :MAX_ENTITY_ID " +
-                        "and userMessageLog.messageStatus = :WAITING_FOR_RETRY " +
-                        "and userMessageLog.nextAttempt < :CURRENT_TIMESTAMP " +
-                        "and 1 <= userMessageLog.sendAttempts " +
-                        "and userMessageLog.sendAttempts <= userMessageLog.sendAttemptsMax " +
-                        "and (userMessageLog.scheduled is null or userMessageLog.scheduled=false)"),
+        @NamedQuery(name = "UserMessageLog.findRetryMessagesPage",
+                query = "select new eu.domibus.api.model.UserMessageLogRetryDto(uml.entityId, uml.creationTime, uml.nextAttempt, mpc.value) " +
+                        "from UserMessageLog uml " +
+                        "join uml.userMessage um " +
+                        "left join um.mpc mpc " +
+                        "where uml.entityId >= :MIN_ENTITY_ID " +
+                        "and uml.entityId < :MAX_ENTITY_ID " +
+                        "and uml.entityId > :LAST_ENTITY_ID " +
+                        "and uml.messageStatus = :WAITING_FOR_RETRY " +
+                        "and uml.nextAttempt < :CURRENT_TIMESTAMP " +
+                        "and 1 <= uml.sendAttempts " +
+                        "and uml.sendAttempts <= uml.sendAttemptsMax " +
+                        "and (uml.scheduled is null or uml.scheduled=false) " +
+                        "order by uml.entityId"),
         @NamedQuery(name = "UserMessageLog.getMessageStatusById", query = "select userMessageLog.messageStatus from UserMessageLog userMessageLog where userMessageLog.userMessage.messageId=:MESSAGE_ID"),
         @NamedQuery(name = "UserMessageLog.getMessageStatusByIdAndRole", query = "select userMessageLog.messageStatus from UserMessageLog userMessageLog where userMessageLog.userMessage.messageId=:MESSAGE_ID " +
                 "and userMessageLog.mshRole = :MSH_ROLE"),
@@ -43,7 +47,9 @@ import java.util.Date;
                         "and um.mpc = :MPC                                                                              " +
                         "and uml.deleted IS NOT NULL                                                                    " +
                         "and uml.deleted < :DATE                                                                        " +
-                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false)"),
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and um.entityId > :LAST_ENTITY_ID                                                              " +
+                        "order by um.entityId                                                                           "),
         @NamedQuery(name = "UserMessageLog.findMessagesWithSenderAndRecipientAndWithoutStatusDuringPeriod",
                 query = "SELECT DISTINCT new eu.domibus.api.model.UserMessageLogDto(um.entityId, um.messageId, um.mshRole.entityId)" +
                         "FROM UserMessageLog uml                                                                      " +
@@ -104,7 +110,9 @@ import java.util.Date;
                         "and um.mpc = :MPC                                                                              " +
                         "and uml.deleted is null                                                                        " +
                         "and uml.received < :DATE                                                                       " +
-                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false)"),
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and um.entityId > :LAST_ENTITY_ID                                                              " +
+                        "order by um.entityId                                                                           "),
         @NamedQuery(name = "UserMessageLog.findDownloadedUserMessagesOlderThan",
                 query = "SELECT new eu.domibus.api.model.UserMessageLogDto(um.entityId,um.messageId,uml.backend,p)      " + // need this property in WSPlugin
                         "FROM UserMessageLog uml                                                                        " +
@@ -113,7 +121,9 @@ import java.util.Date;
                         "where uml.messageStatus IN :MSG_STATUSES                                                       " +
                         "and um.mpc = :MPC                                                                              " +
                         "and uml.downloaded is not null and uml.downloaded < :DATE                                      " +
-                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false)"),
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and um.entityId > :LAST_ENTITY_ID                                                              " +
+                        "order by um.entityId                                                                           "),
         @NamedQuery(name = "UserMessageLog.findSentUserMessagesOlderThan",
                 query = "SELECT new eu.domibus.api.model.UserMessageLogDto(um.entityId,um.messageId,uml.backend,p)      " + // need this property in WSPlugin
                         "FROM UserMessageLog uml                                                                        " +
@@ -123,7 +133,9 @@ import java.util.Date;
                         "and um.mpc = :MPC                                                                              " +
                         "and uml.modificationTime is not null                                                           " +
                         "and uml.modificationTime < :DATE                                                               " +
-                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false)"),
+                        "and ((:EARCHIVE_IS_ACTIVE = true and uml.archived is not null) or :EARCHIVE_IS_ACTIVE = false) " +
+                        "and um.entityId > :LAST_ENTITY_ID                                                              " +
+                        "order by um.entityId                                                                           "),
         @NamedQuery(name = "UserMessageLog.findAllMessages",
                 query = "SELECT um.entityId                 as " + UserMessageLogDto.ENTITY_ID + "             ,     " +
                         "       um.messageId                as " + UserMessageLogDto.MESSAGE_ID + "            ,     " +
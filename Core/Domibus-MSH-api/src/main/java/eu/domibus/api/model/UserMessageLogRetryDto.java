@@ -0,0 +1,50 @@
+package eu.domibus.api.model;
+
+import java.util.Date;
+
+/**
+ * Projection of the {@link UserMessageLog} columns needed to schedule the retry of a user message.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class UserMessageLogRetryDto {
+
+    protected final Long entityId;
+    protected final Date creationTime;
+    protected final Date nextAttempt;
+    protected final String mpc;
+
+    public UserMessageLogRetryDto(Long entityId, Date creationTime, Date nextAttempt, String mpc) {
+        this.entityId = entityId;
+        this.creationTime = creationTime;
+        this.nextAttempt = nextAttempt;
+        this.mpc = mpc;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    public Date getNextAttempt() {
+        return nextAttempt;
+    }
+
+    public String getMpc() {
+        return mpc;
+    }
+
+    @Override
+    public String toString() {
+        return "UserMessageLogRetryDto{" +
+                "entityId=" + entityId +
+                ", creationTime=" + creationTime +
+                ", nextAttempt=" + nextAttempt +
+                ", mpc='" + mpc + '\'' +
+                '}';
+    }
+}
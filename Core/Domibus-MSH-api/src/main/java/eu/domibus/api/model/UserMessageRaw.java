@@ -14,6 +14,7 @@ import javax.persistence.*;
         @NamedQuery(name = "RawDto.findByMessageIdAndRole", query = "SELECT new eu.domibus.api.model.RawEnvelopeDto(l.entityId,l.rawXML,l.compressed, l.userMessage.entityId) FROM UserMessageRaw l " +
                 "where l.userMessage.messageId=:MESSAGE_ID and l.userMessage.mshRole = :MSH_ROLE"),
         @NamedQuery(name = "RawDto.findByEntityId", query = "SELECT new eu.domibus.api.model.RawEnvelopeDto(l.entityId,l.rawXML,l.compressed) FROM UserMessageRaw l where l.entityId=:ENTITY_ID"),
+        @NamedQuery(name = "RawDto.findByEntityIds", query = "SELECT new eu.domibus.api.model.RawEnvelopeDto(l.entityId,l.rawXML,l.compressed) FROM UserMessageRaw l where l.entityId in :ENTITY_IDS"),
         @NamedQuery(name = "Raw.deleteByMessageID", query = "DELETE FROM UserMessageRaw r where r.entityId=:MESSAGE_ENTITY_ID"),
         @NamedQuery(name = "RawDto.findByUserMessageId", query = "SELECT new eu.domibus.api.model.RawEnvelopeDto(l.entityId,l.rawXML,l.compressed) " +
                 "FROM UserMessageRaw l where l.userMessage.entityId=:USER_MESSAGE_ID"),
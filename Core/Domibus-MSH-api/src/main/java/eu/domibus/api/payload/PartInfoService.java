@@ -17,6 +17,8 @@ public interface PartInfoService {
 
     List<PartInfo> findPartInfo(long entityId);
 
+    List<PartInfo> findPartInfos(List<Long> entityIds);
+
     Long findPartInfoTotalLength(long entityId);
 
     PartInfo findPartInfo(Long messageEntityId, String cid);
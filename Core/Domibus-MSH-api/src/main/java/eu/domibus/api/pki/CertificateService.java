@@ -21,6 +21,13 @@ public interface CertificateService {
 
     boolean isCertificateValid(X509Certificate cert) throws DomibusCertificateException;
 
+    /**
+     * Discards the cached validation results of the certificates for the given domain
+     *
+     * @param domain the domain whose truststore was reloaded
+     */
+    void resetCertificateValidationCache(Domain domain);
+
     boolean isCertificateChainValid(KeyStore trustStore, String alias);
 
     /**
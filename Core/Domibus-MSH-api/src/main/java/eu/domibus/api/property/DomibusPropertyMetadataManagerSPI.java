@@ -46,6 +46,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_UI_SUPPORT_TEAM_NAME = "domibus.ui.support.team.name";
     String DOMIBUS_UI_SUPPORT_TEAM_EMAIL = "domibus.ui.support.team.email";
     String DOMIBUS_UI_CSV_MAX_ROWS = "domibus.ui.csv.rows.max";
+    String DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE = "domibus.ui.csv.streaming.page.size";
     String DOMIBUS_UI_MESSAGE_LOGS_COUNT_LIMIT = "domibus.ui.pages.messageLogs.countLimit";
     String DOMIBUS_UI_MESSAGE_LOGS_DEFAULT_INTERVAL = "domibus.ui.pages.messageLogs.interval.default";
     String DOMIBUS_UI_MESSAGE_LOGS_LANDING_PAGE = "domibus.ui.pages.messageLogs.landingPage.enabled";
@@ -82,8 +83,13 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_CACHE_LOCATION = "domibus.cache.location";
     String DOMIBUS_CRL_BY_URL_CACHE_ENABLED = "domibus.certificate.crlByUrl.cache.enabled";
     String DOMIBUS_CRL_BY_CERT_CACHE_ENABLED = "domibus.certificate.crlByCert.cache.enabled";
+    String DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL = "domibus.certificate.validation.cache.ttl";
     String DOMIBUS_CERTIFICATE_CRL_EXCLUDED_PROTOCOLS = "domibus.certificate.crl.excludedProtocols";
     String DOMIBUS_CERTIFICATE_CRL_HTTP_TIMEOUT = "domibus.certificate.crl.http.timeout";
+    String DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED = "domibus.certificate.crl.prefetch.enabled";
+    String DOMIBUS_CERTIFICATE_CRL_PREFETCH_CRON = "domibus.certificate.crl.prefetch.cron";
+    String DOMIBUS_CERTIFICATE_CRL_PREFETCH_REFRESH_MARGIN = "domibus.certificate.crl.prefetch.refreshMargin";
+    String DOMIBUS_CERTIFICATE_CRL_PREFETCH_MAX_STALENESS = "domibus.certificate.crl.prefetch.maxStaleness";
     String DOMIBUS_PLUGIN_LOGIN_MAXIMUM_ATTEMPT = "domibus.plugin.login.maximum.attempt";
     String DOMIBUS_PLUGIN_LOGIN_SUSPENSION_TIME = "domibus.plugin.login.suspension.time";
     String DOMIBUS_PASSWORD_POLICY_PATTERN = "domibus.passwordPolicy.pattern";//NOSONAR
@@ -107,6 +113,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_MSH_MESSAGEID_SUFFIX = "domibus.msh.messageid.suffix";
     String DOMIBUS_MSH_RETRY_MESSAGE_EXPIRATION_DELAY = "domibus.msh.retry.messageExpirationDelay";
     String DOMIBUS_MSH_RETRY_TIMEOUT_DELAY = "domibus.msh.retry.timeoutDelay";
+    String DOMIBUS_MSH_RETRY_MAX_MESSAGES_PER_JOB = "domibus.msh.retry.maxMessagesPerJob";
     String DOMIBUS_DYNAMICDISCOVERY_USE_DYNAMIC_DISCOVERY = "domibus.dynamicdiscovery.useDynamicDiscovery";
     String DOMIBUS_SMLZONE = "domibus.smlzone";
     String DOMIBUS_DYNAMICDISCOVERY_CLIENT_SPECIFICATION = "domibus.dynamicdiscovery.client.specification";
@@ -142,6 +149,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED = "domibus.partyinfo.roles.validation.enabled";
     String DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED = "domibus.pmode.legconfiguration.mpc.validation.enabled";
     String DOMIBUS_PMODE_LEGCONFIGURATION_MPC_ENABLED = "domibus.pmode.legconfiguration.mpc.enabled";
+    String DOMIBUS_PMODE_LEG_NAME_CACHE_SIZE = "domibus.pmode.legname.cache.size";
     String DOMIBUS_PMODE_VALIDATION_ACTION_PATTERN = "domibus.pmode.validation.action.pattern";
     String DOMIBUS_PMODE_VALIDATION_SERVICE_VALUE_PATTERN = "domibus.pmode.validation.service.value.pattern";
     String DOMIBUS_PMODE_VALIDATION_SERVICE_TYPE_PATTERN = "domibus.pmode.validation.service.type.pattern";
@@ -164,7 +172,12 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SENT_MAX_DELETE = "domibus.retentionWorker.message.retention.sent.max.delete";
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_DELETED_MAX_DELETE = "domibus.retentionWorker.message.retention.payload_deleted.max.delete";
     String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_BATCH_DELETE = "domibus.retentionWorker.message.retention.batch.delete";
+    String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE = "domibus.retentionWorker.message.retention.scan.pageSize";
+    String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE = "domibus.retentionWorker.message.retention.schedule.batchSize";
+    String DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_FILES_ASYNC = "domibus.retentionWorker.message.retention.payloadFiles.async";
     String DOMIBUS_RETENTION_JMS_CONCURRENCY = "domibus.retention.jms.concurrency";
+    String DOMIBUS_PARTITIONS_WORKER_CRON = "domibus.partitions.worker.cron";
+    String DOMIBUS_PARTITIONS_CREATION_DAYS_TO_CHECK = "domibus.partitions.creation.days_to_check";
     String DOMIBUS_PARTITIONS_DROP_CHECK_MESSAGES_EARCHIVED = "domibus.partitions.drop.check.messages.earchived";
     String DOMIBUS_DISPATCH_EBMS_ERROR_UNRECOVERABLE_RETRY = "domibus.dispatch.ebms.error.unrecoverable.retry";
     String DOMIBUS_PROXY_ENABLED = DOMIBUS_PROXY_PREFIX + "enabled";
@@ -178,6 +191,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_SEND_MESSAGE_FAILURE_DELETE_PAYLOAD = "domibus.sendMessage.failure.delete.payload";
     String DOMIBUS_SEND_MESSAGE_SUCCESS_DELETE_PAYLOAD = "domibus.sendMessage.success.delete.payload";
     String DOMIBUS_SEND_MESSAGE_ATTEMPT_AUDIT_ACTIVE = "domibus.sendMessage.attempt.audit.active";
+    String DOMIBUS_MESSAGING_HEADER_FAST_PARSING_ACTIVE = "domibus.messaging.header.fastParsing.active";
     String DOMIBUS_LOGGING_PAYLOAD_PRINT = "domibus.logging.payload.print";
     String DOMIBUS_LOGGING_METADATA_PRINT = "domibus.logging.metadata.print";
     String DOMIBUS_LOGGING_REMOTE_CERTIFICATES_PRINT = "domibus.logging.remote.certificates.print";
@@ -214,6 +228,8 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_ALERT_CLEANER_CRON = "domibus.alert.cleaner.cron";
     String DOMIBUS_ALERT_RETRY_CRON = "domibus.alert.retry.cron";
     String DOMIBUS_SPLIT_AND_JOIN_RECEIVE_EXPIRATION_CRON = "domibus.splitAndJoin.receive.expiration.cron";
+    String DOMIBUS_SPLIT_AND_JOIN_RECEIVE_REJOIN_STREAMING = "domibus.splitAndJoin.receive.rejoin.streaming";
+    String DOMIBUS_SPLIT_AND_JOIN_SEND_SPLIT_CONCURRENCY = "domibus.splitAndJoin.send.split.concurrency";
 
     String DOMIBUS_MONITORING_CONNECTION_CRON = "domibus.monitoring.connection.cron";
     String DOMIBUS_MONITORING_CONNECTION_SELF_CRON = "domibus.monitoring.connection.self.cron";
@@ -313,6 +329,8 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PULL_MPC_INITIATOR_SEPARATOR = "domibus.pull.mpc_initiator_separator";
     String DOMIBUS_PULL_RECEIPT_QUEUE_CONCURRENCY = "domibus.pull.receipt.queue.concurrency";
     String DOMIBUS_PULL_QUEUE_CONCURENCY = "domibus.pull.queue.concurency";
+    String DOMIBUS_PULL_LOCK_BATCH_SIZE = "domibus.pull.lock.batch.size";
+    String DOMIBUS_PULL_LOCK_BATCH_LEASE = "domibus.pull.lock.batch.lease";
 
     String DOMIBUS_EXTENSION_IAM_AUTHENTICATION_IDENTIFIER = "domibus.extension.iam.authentication.identifier";
     String DOMIBUS_EXTENSION_IAM_AUTHORIZATION_IDENTIFIER = "domibus.extension.iam.authorization.identifier";
@@ -323,6 +341,11 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_PAYLOAD_TEMP_JOB_RETENTION_DIRECTORIES = "domibus.payload.temp.job.retention.directories";
     String DOMIBUS_PAYLOAD_LIMIT_28ATTACHMENTS_PER_MESSAGE = "domibus.payload.limit.28attachments.per.message";
     String DOMIBUS_PAYLOAD_DECOMPRESSION_VALIDATION_ACTIVE = "domibus.payload.decompression.validation.active";
+    String DOMIBUS_PAYLOAD_FILESYSTEM_CHANNEL_WRITE_ACTIVE = "domibus.payload.filesystem.channel.write.active";
+    String DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT = "domibus.payload.filesystem.layout";
+    String DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC = "domibus.payload.filesystem.fsync";
+    String DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE = "domibus.payload.filesystem.fsync.group.size";
+    String DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY = "domibus.payload.filesystem.fsync.group.maxDelay";
     String DOMIBUS_INSTANCE_NAME = "domibus.instance.name";
 
     String DOMIBUS_CONFIG_LOCATION = "domibus.config.location";
@@ -436,6 +459,8 @@ public interface DomibusPropertyMetadataManagerSPI {
 
     String DOMIBUS_EARCHIVE_ACTIVE = "domibus.earchive.active";
     String DOMIBUS_EARCHIVE_EXPORT_EMPTY = "domibus.earchive.export.empty";
+    String DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY = "domibus.earchive.export.concurrency";
+    String DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE = "domibus.earchive.export.prefetch.size";
     String DOMIBUS_EARCHIVE_STORAGE_LOCATION = "domibus.earchive.storage.location";
     String DOMIBUS_EARCHIVE_CRON = "domibus.earchive.cron";
     String DOMIBUS_EARCHIVE_SANITY_CRON = "domibus.earchive.sanitizer.cron";
@@ -443,6 +468,7 @@ public interface DomibusPropertyMetadataManagerSPI {
     String DOMIBUS_EARCHIVE_BATCH_SIZE = "domibus.earchive.batch.size";
     String DOMIBUS_EARCHIVE_BATCH_SIZE_PAYLOAD = "domibus.earchive.batch.size.payload";
     String DOMIBUS_EARCHIVE_BATCH_MAX = "domibus.earchive.batch.max";
+    String DOMIBUS_EARCHIVE_BATCH_QUEUED_MAX = "domibus.earchive.batch.queued.max";
     String DOMIBUS_EARCHIVE_BATCH_RETRY_TIMEOUT = "domibus.earchive.batch.retry.timeout";
     String DOMIBUS_EARCHIVE_BATCH_MPCS = "domibus.earchive.batch.mpcs";
     String DOMIBUS_EARCHIVE_NOTIFICATION_URL = "domibus.earchive.notification.url";
@@ -0,0 +1,263 @@
+-- ********************************************************************************************************
+-- Domibus 5.1.4 MySQL partitioning
+--
+-- Range partitions by ID_PK the tables sharing the date prefixed id of the user message (yyMMddHH + 10 digits).
+-- MySQL does not support foreign keys on partitioned tables and requires every unique key of a partitioned table
+-- to contain the partitioning column: PARTITION_TB_USER_MESSAGE drops the foreign keys involving the partitioned
+-- tables and replaces their unique keys with non unique indexes.
+--
+-- The uniqueness of the user and signal message ids is kept by the non partitioned tables TB_USER_MESSAGE_ID and
+-- TB_SIGNAL_MESSAGE_ID, which hold the unique keys dropped from TB_USER_MESSAGE and TB_SIGNAL_MESSAGE. They are
+-- maintained by triggers, so a duplicate message id makes the insert of the message fail in the same transaction, as
+-- the original unique keys did. DROP_PARTITION deletes their rows for the dropped partition, which does not fire the
+-- delete triggers.
+--
+-- PARTITION_TB_USER_MESSAGE moves all the existing messages into the default partition P1970, which is never dropped.
+-- The daily partitions are then created in advance by the partitions worker (ADD_PARTITION) and dropped by the
+-- PARTITIONS retention strategy (DROP_PARTITION), which also deletes the rows of the non partitioned child tables.
+--
+-- Usage: mysql -u <user> -p <schema> < partitions-procedures-5.1.4.sql
+--        CALL PARTITION_TB_USER_MESSAGE();
+-- ********************************************************************************************************
+
+CREATE TABLE IF NOT EXISTS TB_USER_MESSAGE_ID
+(
+    ID_PK          BIGINT       NOT NULL,
+    MESSAGE_ID     VARCHAR(255) NULL,
+    MSH_ROLE_ID_FK BIGINT       NOT NULL,
+    CONSTRAINT PK_USER_MESSAGE_ID PRIMARY KEY (ID_PK),
+    CONSTRAINT UK_USER_MSG_ID_MESSAGE_ID UNIQUE (MESSAGE_ID, MSH_ROLE_ID_FK)
+);
+
+CREATE TABLE IF NOT EXISTS TB_SIGNAL_MESSAGE_ID
+(
+    ID_PK             BIGINT       NOT NULL,
+    SIGNAL_MESSAGE_ID VARCHAR(255) NULL,
+    MSH_ROLE_ID_FK    BIGINT       NOT NULL,
+    CONSTRAINT PK_SIGNAL_MESSAGE_ID PRIMARY KEY (ID_PK),
+    CONSTRAINT UK_SIGNAL_MSG_ID_MESSAGE_ID UNIQUE (SIGNAL_MESSAGE_ID, MSH_ROLE_ID_FK)
+);
+
+DELIMITER //
+
+-- the triggers are created before the unique keys are dropped by PARTITION_TB_USER_MESSAGE, so that no message stored
+-- in the meantime is missed
+DROP TRIGGER IF EXISTS TRG_USER_MESSAGE_ID_INSERT //
+CREATE TRIGGER TRG_USER_MESSAGE_ID_INSERT AFTER INSERT ON TB_USER_MESSAGE
+    FOR EACH ROW
+BEGIN
+    INSERT INTO TB_USER_MESSAGE_ID (ID_PK, MESSAGE_ID, MSH_ROLE_ID_FK) VALUES (NEW.ID_PK, NEW.MESSAGE_ID, NEW.MSH_ROLE_ID_FK);
+END //
+
+DROP TRIGGER IF EXISTS TRG_USER_MESSAGE_ID_UPDATE //
+CREATE TRIGGER TRG_USER_MESSAGE_ID_UPDATE AFTER UPDATE ON TB_USER_MESSAGE
+    FOR EACH ROW
+BEGIN
+    IF NOT (NEW.MESSAGE_ID <=> OLD.MESSAGE_ID) OR NEW.MSH_ROLE_ID_FK <> OLD.MSH_ROLE_ID_FK THEN
+        UPDATE TB_USER_MESSAGE_ID SET MESSAGE_ID = NEW.MESSAGE_ID, MSH_ROLE_ID_FK = NEW.MSH_ROLE_ID_FK WHERE ID_PK = OLD.ID_PK;
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS TRG_USER_MESSAGE_ID_DELETE //
+CREATE TRIGGER TRG_USER_MESSAGE_ID_DELETE AFTER DELETE ON TB_USER_MESSAGE
+    FOR EACH ROW
+BEGIN
+    DELETE FROM TB_USER_MESSAGE_ID WHERE ID_PK = OLD.ID_PK;
+END //
+
+DROP TRIGGER IF EXISTS TRG_SIGNAL_MESSAGE_ID_INSERT //
+CREATE TRIGGER TRG_SIGNAL_MESSAGE_ID_INSERT AFTER INSERT ON TB_SIGNAL_MESSAGE
+    FOR EACH ROW
+BEGIN
+    INSERT INTO TB_SIGNAL_MESSAGE_ID (ID_PK, SIGNAL_MESSAGE_ID, MSH_ROLE_ID_FK) VALUES (NEW.ID_PK, NEW.SIGNAL_MESSAGE_ID, NEW.MSH_ROLE_ID_FK);
+END //
+
+DROP TRIGGER IF EXISTS TRG_SIGNAL_MESSAGE_ID_UPDATE //
+CREATE TRIGGER TRG_SIGNAL_MESSAGE_ID_UPDATE AFTER UPDATE ON TB_SIGNAL_MESSAGE
+    FOR EACH ROW
+BEGIN
+    IF NOT (NEW.SIGNAL_MESSAGE_ID <=> OLD.SIGNAL_MESSAGE_ID) OR NEW.MSH_ROLE_ID_FK <> OLD.MSH_ROLE_ID_FK THEN
+        UPDATE TB_SIGNAL_MESSAGE_ID SET SIGNAL_MESSAGE_ID = NEW.SIGNAL_MESSAGE_ID, MSH_ROLE_ID_FK = NEW.MSH_ROLE_ID_FK WHERE ID_PK = OLD.ID_PK;
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS TRG_SIGNAL_MESSAGE_ID_DELETE //
+CREATE TRIGGER TRG_SIGNAL_MESSAGE_ID_DELETE AFTER DELETE ON TB_SIGNAL_MESSAGE
+    FOR EACH ROW
+BEGIN
+    DELETE FROM TB_SIGNAL_MESSAGE_ID WHERE ID_PK = OLD.ID_PK;
+END //
+
+DROP PROCEDURE IF EXISTS PARTITION_EXECUTE_STATEMENTS //
+CREATE PROCEDURE PARTITION_EXECUTE_STATEMENTS()
+BEGIN
+    DECLARE v_done INT DEFAULT FALSE;
+    DECLARE v_statement VARCHAR(4000);
+    DECLARE c_statements CURSOR FOR SELECT s.STATEMENT FROM TMP_PARTITION_STATEMENTS s ORDER BY s.ID;
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_done = TRUE;
+
+    OPEN c_statements;
+    read_loop: LOOP
+        FETCH c_statements INTO v_statement;
+        IF v_done THEN
+            LEAVE read_loop;
+        END IF;
+        SET @partition_statement = v_statement;
+        PREPARE stmt FROM @partition_statement;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE c_statements;
+
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITION_STATEMENTS;
+END //
+
+DROP PROCEDURE IF EXISTS PARTITION_PREPARE_STATEMENTS //
+CREATE PROCEDURE PARTITION_PREPARE_STATEMENTS()
+BEGIN
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITION_STATEMENTS;
+    CREATE TEMPORARY TABLE TMP_PARTITION_STATEMENTS (ID INT AUTO_INCREMENT PRIMARY KEY, STATEMENT VARCHAR(4000));
+
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITIONED_TABLES;
+    CREATE TEMPORARY TABLE TMP_PARTITIONED_TABLES (TABLE_NAME VARCHAR(64) PRIMARY KEY);
+    INSERT INTO TMP_PARTITIONED_TABLES VALUES ('TB_USER_MESSAGE'), ('TB_USER_MESSAGE_LOG'), ('TB_USER_MESSAGE_RAW'),
+                                              ('TB_SIGNAL_MESSAGE'), ('TB_SIGNAL_MESSAGE_LOG'), ('TB_SIGNAL_MESSAGE_RAW'),
+                                              ('TB_RECEIPT');
+END //
+
+DROP PROCEDURE IF EXISTS PARTITION_TB_USER_MESSAGE //
+CREATE PROCEDURE PARTITION_TB_USER_MESSAGE()
+BEGIN
+    DECLARE v_high_value BIGINT;
+
+    -- everything stored until the end of the current day goes into the default partition
+    SET v_high_value = CAST(CONCAT(DATE_FORMAT(UTC_DATE() + INTERVAL 1 DAY, '%y%m%d'), '00', '0000000000') AS UNSIGNED);
+
+    -- copy the ids of the existing messages, still unique at this point, before their unique keys are dropped
+    INSERT INTO TB_USER_MESSAGE_ID (ID_PK, MESSAGE_ID, MSH_ROLE_ID_FK)
+    SELECT um.ID_PK, um.MESSAGE_ID, um.MSH_ROLE_ID_FK
+    FROM TB_USER_MESSAGE um
+    WHERE NOT EXISTS (SELECT 1 FROM TB_USER_MESSAGE_ID i WHERE i.ID_PK = um.ID_PK);
+
+    INSERT INTO TB_SIGNAL_MESSAGE_ID (ID_PK, SIGNAL_MESSAGE_ID, MSH_ROLE_ID_FK)
+    SELECT sm.ID_PK, sm.SIGNAL_MESSAGE_ID, sm.MSH_ROLE_ID_FK
+    FROM TB_SIGNAL_MESSAGE sm
+    WHERE NOT EXISTS (SELECT 1 FROM TB_SIGNAL_MESSAGE_ID i WHERE i.ID_PK = sm.ID_PK);
+
+    CALL PARTITION_PREPARE_STATEMENTS();
+
+    INSERT INTO TMP_PARTITION_STATEMENTS (STATEMENT)
+    SELECT CONCAT('ALTER TABLE ', rc.TABLE_NAME, ' DROP FOREIGN KEY ', rc.CONSTRAINT_NAME)
+    FROM information_schema.REFERENTIAL_CONSTRAINTS rc
+    WHERE rc.CONSTRAINT_SCHEMA = DATABASE()
+      AND EXISTS (SELECT 1
+                  FROM TMP_PARTITIONED_TABLES t
+                  WHERE t.TABLE_NAME IN (UPPER(rc.TABLE_NAME), UPPER(rc.REFERENCED_TABLE_NAME)));
+
+    INSERT INTO TMP_PARTITION_STATEMENTS (STATEMENT)
+    SELECT CONCAT('ALTER TABLE ', st.TABLE_NAME, ' DROP INDEX ', st.INDEX_NAME, ', ADD INDEX ', st.INDEX_NAME,
+                  ' (', GROUP_CONCAT(st.COLUMN_NAME ORDER BY st.SEQ_IN_INDEX), ')')
+    FROM information_schema.STATISTICS st
+    WHERE st.TABLE_SCHEMA = DATABASE()
+      AND st.NON_UNIQUE = 0
+      AND st.INDEX_NAME <> 'PRIMARY'
+      AND UPPER(st.TABLE_NAME) IN (SELECT t.TABLE_NAME FROM TMP_PARTITIONED_TABLES t)
+    GROUP BY st.TABLE_NAME, st.INDEX_NAME;
+
+    INSERT INTO TMP_PARTITION_STATEMENTS (STATEMENT)
+    SELECT CONCAT('ALTER TABLE ', tb.TABLE_NAME, ' PARTITION BY RANGE (ID_PK) (PARTITION P1970 VALUES LESS THAN (',
+                  v_high_value, '), PARTITION PMAX VALUES LESS THAN MAXVALUE)')
+    FROM information_schema.TABLES tb
+    WHERE tb.TABLE_SCHEMA = DATABASE()
+      AND UPPER(tb.TABLE_NAME) IN (SELECT t.TABLE_NAME FROM TMP_PARTITIONED_TABLES t);
+
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITIONED_TABLES;
+    CALL PARTITION_EXECUTE_STATEMENTS();
+END //
+
+-- Splits the PMAX partition of the partitioned tables that do not have the partition yet
+DROP PROCEDURE IF EXISTS ADD_PARTITION //
+CREATE PROCEDURE ADD_PARTITION(IN partition_name VARCHAR(30), IN high_value BIGINT)
+BEGIN
+    CALL PARTITION_PREPARE_STATEMENTS();
+
+    INSERT INTO TMP_PARTITION_STATEMENTS (STATEMENT)
+    SELECT CONCAT('ALTER TABLE ', p.TABLE_NAME, ' REORGANIZE PARTITION PMAX INTO (PARTITION ', partition_name,
+                  ' VALUES LESS THAN (', high_value, '), PARTITION PMAX VALUES LESS THAN MAXVALUE)')
+    FROM information_schema.PARTITIONS p
+    WHERE p.TABLE_SCHEMA = DATABASE()
+      AND p.PARTITION_NAME = 'PMAX'
+      AND UPPER(p.TABLE_NAME) IN (SELECT t.TABLE_NAME FROM TMP_PARTITIONED_TABLES t)
+      AND NOT EXISTS (SELECT 1
+                      FROM information_schema.PARTITIONS existing
+                      WHERE existing.TABLE_SCHEMA = p.TABLE_SCHEMA
+                        AND existing.TABLE_NAME = p.TABLE_NAME
+                        AND existing.PARTITION_NAME = partition_name);
+
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITIONED_TABLES;
+    CALL PARTITION_EXECUTE_STATEMENTS();
+END //
+
+-- Deletes the rows of the non partitioned child tables, drops the partition from all the partitioned tables and then
+-- deletes the message ids of the partition
+DROP PROCEDURE IF EXISTS DROP_PARTITION //
+CREATE PROCEDURE DROP_PARTITION(IN partition_name VARCHAR(30))
+BEGIN
+    DECLARE v_low_value BIGINT DEFAULT 0;
+    DECLARE v_high_value BIGINT;
+    DECLARE v_position BIGINT;
+
+    IF partition_name IN ('P1970', 'PMAX') THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'The default partitions cannot be dropped';
+    END IF;
+
+    SELECT CAST(p.PARTITION_DESCRIPTION AS UNSIGNED), p.PARTITION_ORDINAL_POSITION
+    INTO v_high_value, v_position
+    FROM information_schema.PARTITIONS p
+    WHERE p.TABLE_SCHEMA = DATABASE()
+      AND UPPER(p.TABLE_NAME) = 'TB_USER_MESSAGE'
+      AND p.PARTITION_NAME = partition_name;
+
+    IF v_high_value IS NULL THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Partition not found on TB_USER_MESSAGE';
+    END IF;
+
+    SELECT CAST(p.PARTITION_DESCRIPTION AS UNSIGNED)
+    INTO v_low_value
+    FROM information_schema.PARTITIONS p
+    WHERE p.TABLE_SCHEMA = DATABASE()
+      AND UPPER(p.TABLE_NAME) = 'TB_USER_MESSAGE'
+      AND p.PARTITION_ORDINAL_POSITION = v_position - 1;
+
+    DELETE pp FROM TB_PART_PROPERTIES pp INNER JOIN TB_PART_INFO pi ON pp.PART_INFO_ID_FK = pi.ID_PK
+    WHERE pi.USER_MESSAGE_ID_FK >= v_low_value AND pi.USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_PART_INFO WHERE USER_MESSAGE_ID_FK >= v_low_value AND USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_MESSAGE_PROPERTIES WHERE USER_MESSAGE_ID_FK >= v_low_value AND USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_SEND_ATTEMPT WHERE USER_MESSAGE_ID_FK >= v_low_value AND USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_ERROR_LOG WHERE USER_MESSAGE_ID_FK >= v_low_value AND USER_MESSAGE_ID_FK < v_high_value;
+    DELETE ap FROM TB_MESSAGE_ACKNW_PROP ap INNER JOIN TB_MESSAGE_ACKNW a ON ap.MESSAGE_ACK_ID_FK = a.ID_PK
+    WHERE a.USER_MESSAGE_ID_FK >= v_low_value AND a.USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_MESSAGE_ACKNW WHERE USER_MESSAGE_ID_FK >= v_low_value AND USER_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_SJ_MESSAGE_FRAGMENT WHERE ID_PK >= v_low_value AND ID_PK < v_high_value;
+    DELETE f FROM TB_SJ_MESSAGE_FRAGMENT f INNER JOIN TB_SJ_MESSAGE_GROUP g ON f.GROUP_ID_FK = g.ID_PK
+    WHERE g.SOURCE_MESSAGE_ID_FK >= v_low_value AND g.SOURCE_MESSAGE_ID_FK < v_high_value;
+    DELETE FROM TB_SJ_MESSAGE_GROUP WHERE SOURCE_MESSAGE_ID_FK >= v_low_value AND SOURCE_MESSAGE_ID_FK < v_high_value;
+
+    CALL PARTITION_PREPARE_STATEMENTS();
+
+    INSERT INTO TMP_PARTITION_STATEMENTS (STATEMENT)
+    SELECT CONCAT('ALTER TABLE ', p.TABLE_NAME, ' DROP PARTITION ', p.PARTITION_NAME)
+    FROM information_schema.PARTITIONS p
+    WHERE p.TABLE_SCHEMA = DATABASE()
+      AND p.PARTITION_NAME = partition_name
+      AND UPPER(p.TABLE_NAME) IN (SELECT t.TABLE_NAME FROM TMP_PARTITIONED_TABLES t);
+
+    DROP TEMPORARY TABLE IF EXISTS TMP_PARTITIONED_TABLES;
+    CALL PARTITION_EXECUTE_STATEMENTS();
+
+    -- dropping a partition does not fire the delete triggers; the ids are kept until the messages are really gone
+    DELETE FROM TB_USER_MESSAGE_ID WHERE ID_PK >= v_low_value AND ID_PK < v_high_value;
+    DELETE FROM TB_SIGNAL_MESSAGE_ID WHERE ID_PK >= v_low_value AND ID_PK < v_high_value;
+END //
+
+DELIMITER ;
@@ -4,6 +4,7 @@ import org.springframework.jms.core.JmsOperations;
 
 import javax.jms.Destination;
 import javax.jms.Topic;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,22 @@ public interface InternalJMSManager {
 
     List<InternalJmsMessage> browseClusterMessages(String source, String selector);
 
+    /**
+     * Browses the messages of a queue matching the selector, stopping as soon as maxCount messages were found
+     *
+     * @param source   the queue name
+     * @param selector the selector
+     * @param maxCount the maximum number of messages returned; no limit if 0 or less
+     * @return the first messages matching the selector
+     */
+    default List<InternalJmsMessage> browseClusterMessages(String source, String selector, int maxCount) {
+        final List<InternalJmsMessage> messages = browseClusterMessages(source, selector);
+        if (maxCount <= 0 || messages.size() <= maxCount) {
+            return messages;
+        }
+        return new ArrayList<>(messages.subList(0, maxCount));
+    }
+
     InternalJmsMessage consumeMessage(String source, String customMessageId);
 
     /**
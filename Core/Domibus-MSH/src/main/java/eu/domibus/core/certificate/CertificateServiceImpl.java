@@ -98,6 +98,8 @@ public class CertificateServiceImpl implements CertificateService {
 
     private final SecurityUtilImpl securityUtil;
 
+    private final CertificateValidationCache certificateValidationCache;
+
     public CertificateServiceImpl(CRLService crlService,
                                   DomibusPropertyProvider domibusPropertyProvider,
                                   CertificateDao certificateDao,
@@ -109,7 +111,8 @@ public class CertificateServiceImpl implements CertificateService {
                                   DomainContextProvider domainContextProvider,
                                   SecurityUtilImpl securityUtil,
                                   AlertConfigurationService alertConfigurationService,
-                                  AuditService auditService) {
+                                  AuditService auditService,
+                                  CertificateValidationCache certificateValidationCache) {
         this.crlService = crlService;
         this.domibusPropertyProvider = domibusPropertyProvider;
         this.certificateDao = certificateDao;
@@ -123,6 +126,7 @@ public class CertificateServiceImpl implements CertificateService {
         this.alertConfigurationService = alertConfigurationService;
         this.auditService = auditService;
         this.securityUtil = securityUtil;
+        this.certificateValidationCache = certificateValidationCache;
     }
 
     @Override
@@ -162,6 +166,18 @@ public class CertificateServiceImpl implements CertificateService {
 
     @Override
     public boolean isCertificateValid(X509Certificate cert) throws DomibusCertificateException {
+        if (certificateValidationCache.isEnabled()) {
+            return certificateValidationCache.getOrValidate(cert, this::validateCertificate);
+        }
+        return validateCertificate(cert);
+    }
+
+    @Override
+    public void resetCertificateValidationCache(Domain domain) {
+        certificateValidationCache.evict(domain);
+    }
+
+    protected boolean validateCertificate(X509Certificate cert) throws DomibusCertificateException {
         boolean isValid = checkValidity(cert);
         if (!isValid) {
             LOG.warn("Certificate is not valid:[{}] ", cert);
@@ -0,0 +1,153 @@
+package eu.domibus.core.certificate;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.pki.DomibusCertificateException;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.certificate.crl.CRLService;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Service;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL;
+
+/**
+ * Caches the validation results of the certificates, per domain and certificate fingerprint.
+ * <p>
+ * A result is kept for the configured time to live but never longer than the expiry date of the certificate and the next
+ * update of the CRL it was checked against; the results of a domain are discarded when its truststore is reloaded.
+ * The validations that failed with an exception are not cached.
+ * <p>
+ * The metrics certificate_validation_cache_hit and certificate_validation_cache_miss count the lookups while
+ * certificate_validation_timer measures the validations that were not served from the cache.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class CertificateValidationCache {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CertificateValidationCache.class);
+
+    protected static final int MAX_ENTRIES = 10000;
+
+    protected final Map<String, CachedValidation> validations = new ConcurrentHashMap<>();
+
+    private final CRLService crlService;
+
+    private final DomibusPropertyProvider domibusPropertyProvider;
+
+    private final DomainContextProvider domainContextProvider;
+
+    private final MetricRegistry metricRegistry;
+
+    public CertificateValidationCache(CRLService crlService,
+                                      DomibusPropertyProvider domibusPropertyProvider,
+                                      DomainContextProvider domainContextProvider,
+                                      MetricRegistry metricRegistry) {
+        this.crlService = crlService;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.domainContextProvider = domainContextProvider;
+        this.metricRegistry = metricRegistry;
+    }
+
+    public boolean isEnabled() {
+        return getTimeToLive() > 0;
+    }
+
+    /**
+     * Returns the cached validation result of the certificate or validates it and caches the result
+     */
+    public boolean getOrValidate(X509Certificate cert, Predicate<X509Certificate> validator) {
+        final String key = getDomainPrefix(domainContextProvider.getCurrentDomainSafely()) + getFingerprint(cert);
+        final long now = System.currentTimeMillis();
+        final CachedValidation cachedValidation = validations.get(key);
+        if (cachedValidation != null && cachedValidation.expiration > now) {
+            metricRegistry.counter(name(CertificateValidationCache.class, "certificate_validation_cache_hit")).inc();
+            LOG.trace("Validation result of certificate [{}] served from the cache", key);
+            return cachedValidation.valid;
+        }
+        metricRegistry.counter(name(CertificateValidationCache.class, "certificate_validation_cache_miss")).inc();
+
+        final boolean valid;
+        try (Timer.Context ignored = metricRegistry.timer(name(CertificateValidationCache.class, "certificate_validation", "timer")).time()) {
+            valid = validator.test(cert);
+        }
+        final long expiration = getExpiration(cert, now);
+        if (expiration > now && hasCapacity(now)) {
+            validations.put(key, new CachedValidation(valid, expiration));
+            LOG.debug("Cached the validation result [{}] of certificate [{}] until [{}]", valid, key, new Date(expiration));
+        }
+        return valid;
+    }
+
+    /**
+     * Discards the cached validation results of the domain
+     */
+    public void evict(Domain domain) {
+        final String domainPrefix = getDomainPrefix(domain);
+        LOG.debug("Discarding the cached certificate validation results of domain [{}]", domain);
+        validations.keySet().removeIf(key -> key.startsWith(domainPrefix));
+    }
+
+    protected long getExpiration(X509Certificate cert, long now) {
+        long expiration = Math.min(now + TimeUnit.SECONDS.toMillis(getTimeToLive()), cert.getNotAfter().getTime());
+        if (cert.getNotBefore().getTime() > now) {
+            expiration = Math.min(expiration, cert.getNotBefore().getTime());
+        }
+        final Date crlNextUpdate = crlService.getNextUpdate(cert);
+        if (crlNextUpdate != null) {
+            expiration = Math.min(expiration, crlNextUpdate.getTime());
+        }
+        return expiration;
+    }
+
+    protected boolean hasCapacity(long now) {
+        if (validations.size() < MAX_ENTRIES) {
+            return true;
+        }
+        validations.values().removeIf(cachedValidation -> cachedValidation.expiration <= now);
+        return validations.size() < MAX_ENTRIES;
+    }
+
+    protected String getFingerprint(X509Certificate cert) {
+        try {
+            return DigestUtils.sha256Hex(cert.getEncoded());
+        } catch (CertificateEncodingException e) {
+            throw new DomibusCertificateException("Could not encode certificate", e);
+        }
+    }
+
+    protected String getDomainPrefix(Domain domain) {
+        return (domain == null ? "" : domain.getCode()) + "|";
+    }
+
+    protected long getTimeToLive() {
+        final Integer timeToLive = domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+        return timeToLive == null ? 0 : timeToLive;
+    }
+
+    protected static class CachedValidation {
+
+        protected final boolean valid;
+
+        protected final long expiration;
+
+        protected CachedValidation(boolean valid, long expiration) {
+            this.valid = valid;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package eu.domibus.core.certificate.crl;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.pki.MultiDomainCryptoService;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.scheduler.DomibusQuartzJobBean;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.BooleanUtils;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED;
+
+/**
+ * Downloads in the background the CRLs of the truststore certificates before their next update.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@DisallowConcurrentExecution
+public class CRLPrefetchJob extends DomibusQuartzJobBean {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CRLPrefetchJob.class);
+
+    @Autowired
+    private CRLService crlService;
+
+    @Autowired
+    private MultiDomainCryptoService multiDomainCryptoService;
+
+    @Autowired
+    private DomibusPropertyProvider domibusPropertyProvider;
+
+    @Override
+    protected void executeJob(JobExecutionContext context, Domain domain) {
+        if (BooleanUtils.isNotTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED))) {
+            LOG.debug("CRL prefetch is disabled for domain [{}]", domain);
+            return;
+        }
+        LOG.debug("Refreshing the CRLs of the truststore certificates for domain [{}]", domain);
+        try {
+            crlService.refreshCRLs(getCertificates(multiDomainCryptoService.getTrustStore(domain)));
+        } catch (KeyStoreException e) {
+            LOG.warn("Could not read the truststore certificates of domain [{}]", domain, e);
+        }
+    }
+
+    protected List<X509Certificate> getCertificates(KeyStore trustStore) throws KeyStoreException {
+        List<X509Certificate> certificates = new ArrayList<>();
+        final Enumeration<String> aliases = trustStore.aliases();
+        for (String alias : Collections.list(aliases)) {
+            final Certificate certificate = trustStore.getCertificate(alias);
+            if (certificate instanceof X509Certificate) {
+                certificates.add((X509Certificate) certificate);
+            }
+        }
+        return certificates;
+    }
+}
@@ -1,6 +1,8 @@
 package eu.domibus.core.certificate.crl;
 
 import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.List;
 
 /**
  * Created by Cosmin Baciu on 07-Jul-16.
@@ -18,6 +20,23 @@ public interface CRLService {
      */
     boolean isCertificateRevoked(X509Certificate cert) throws DomibusCRLException;
 
+    /**
+     * Returns the earliest next update of the CRLs the certificate was last checked against
+     *
+     * @param cert the pki checked for revocation
+     * @return the next update or null if the certificate was not checked against a CRL announcing its next update
+     */
+    Date getNextUpdate(X509Certificate cert);
+
+    /**
+     * Downloads the CRLs of the distribution points of the certificates and of the distribution points already known,
+     * when they were not downloaded yet or when their next update is close. The last downloaded CRL of a distribution
+     * point is kept when the download fails.
+     *
+     * @param certificates the certificates of the truststore
+     */
+    void refreshCRLs(List<X509Certificate> certificates);
+
     /**
      * Reset cache and Crl Protocols
      */
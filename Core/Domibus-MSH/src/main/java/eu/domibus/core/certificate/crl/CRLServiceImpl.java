@@ -1,6 +1,8 @@
 package eu.domibus.core.certificate.crl;
 
 import eu.domibus.api.cache.DomibusLocalCacheService;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
@@ -9,11 +11,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigInteger;
 import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static eu.domibus.api.cache.DomibusLocalCacheService.CRL_BY_CERT;
@@ -35,6 +38,13 @@ public class CRLServiceImpl implements CRLService {
     @Autowired
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Autowired
+    protected DomainContextProvider domainContextProvider;
+
+    protected final Map<String, Date> crlNextUpdates = new ConcurrentHashMap<>();
+
+    protected final Map<Domain, PrefetchedDomainCRLs> prefetchedCrls = new ConcurrentHashMap<>();
+
     private volatile List<String> supportedCrlProtocols;
 
     private Object supportedCrlProtocolsLock = new Object();
@@ -109,10 +119,37 @@ public class CRLServiceImpl implements CRLService {
     }
 
     protected boolean isCertificateRevoked(X509Certificate cert, String crlDistributionPointURL) {
-        boolean useCache = BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CRL_BY_URL_CACHE_ENABLED));
+        final boolean prefetchEnabled = isPrefetchEnabled();
+        PrefetchedDomainCRLs domainCrls = null;
+        boolean stale = false;
+        if (prefetchEnabled) {
+            domainCrls = getPrefetchedDomainCRLs();
+            domainCrls.usedCrlUrls.add(crlDistributionPointURL);
+            final PrefetchedCRL prefetchedCrl = domainCrls.crls.get(crlDistributionPointURL);
+            stale = prefetchedCrl != null && isStale(prefetchedCrl);
+            if (prefetchedCrl != null && !stale) {
+                LOG.debug("Checking the certificate against the prefetched CRL [{}]", crlDistributionPointURL);
+                return isRevoked(cert, prefetchedCrl, crlDistributionPointURL);
+            }
+            if (stale) {
+                LOG.warn("The prefetched CRL [{}] could not be refreshed since its next update [{}]: downloading it", crlDistributionPointURL, prefetchedCrl.getNextUpdate());
+            }
+        }
+
+        // a stale prefetched CRL might also be the one cached by url
+        boolean useCache = !stale && BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CRL_BY_URL_CACHE_ENABLED));
         LOG.debug("CRL by url cache is [{}]", useCache ? "enabled" : "disabled");
         X509CRL crl = crlUtil.downloadCRL(crlDistributionPointURL, useCache);
         LOG.debug("Downloaded CRL is [{}]", crl.getIssuerDN().getName());
+        if (crl.getNextUpdate() != null) {
+            crlNextUpdates.put(crlDistributionPointURL, crl.getNextUpdate());
+        }
+        if (prefetchEnabled) {
+            // the distribution point is refreshed in the background from now on
+            final PrefetchedCRL prefetchedCrl = domainCrls.crls.compute(crlDistributionPointURL,
+                    (url, existing) -> existing == null || isStale(existing) ? new PrefetchedCRL(crl, null) : existing);
+            return isRevoked(cert, prefetchedCrl, crlDistributionPointURL);
+        }
         if (crl.isRevoked(cert)) {
             LOG.warn("The certificate is revoked by CRL: " + crlDistributionPointURL);
             return true;
@@ -120,6 +157,120 @@ public class CRLServiceImpl implements CRLService {
         return false;
     }
 
+    protected boolean isRevoked(X509Certificate cert, PrefetchedCRL prefetchedCrl, String crlDistributionPointURL) {
+        if (prefetchedCrl.isRevoked(cert)) {
+            LOG.warn("The certificate is revoked by CRL: " + crlDistributionPointURL);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A prefetched CRL is stale when it could not be refreshed for more than the configured maximum staleness after its next update
+     */
+    protected boolean isStale(PrefetchedCRL prefetchedCrl) {
+        final Date nextUpdate = prefetchedCrl.getNextUpdate();
+        if (nextUpdate == null) {
+            return false;
+        }
+        final Integer maxStaleness = domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_MAX_STALENESS);
+        final long staleAfter = nextUpdate.getTime() + TimeUnit.SECONDS.toMillis(maxStaleness == null ? 0 : maxStaleness);
+        return System.currentTimeMillis() > staleAfter;
+    }
+
+    @Override
+    public void refreshCRLs(List<X509Certificate> certificates) {
+        final PrefetchedDomainCRLs domainCrls = getPrefetchedDomainCRLs();
+        final Set<String> crlUrls = domainCrls.takeUsedCrlUrls();
+        for (X509Certificate certificate : certificates) {
+            crlUrls.addAll(getSupportedCrlDistributionPoints(crlUtil.getCrlDistributionPoints(certificate)));
+        }
+        // the CRLs neither referenced by the truststore nor used since the last refresh are no longer refreshed
+        domainCrls.crls.keySet().retainAll(crlUrls);
+        final Integer refreshMargin = domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_REFRESH_MARGIN);
+        final Date refreshDate = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(refreshMargin == null ? 0 : refreshMargin));
+        LOG.debug("Refreshing the CRLs expiring before [{}] out of [{}] distribution points", refreshDate, crlUrls.size());
+
+        for (String crlUrl : crlUrls) {
+            try {
+                refreshCRL(domainCrls.crls, crlUrl, refreshDate);
+            } catch (DomibusCRLException e) {
+                LOG.warn("Could not refresh the CRL [{}]; the last downloaded CRL is kept", crlUrl, e);
+            }
+        }
+    }
+
+    protected void refreshCRL(Map<String, PrefetchedCRL> crls, String crlUrl, Date refreshDate) {
+        final PrefetchedCRL current = crls.get(crlUrl);
+        final PrefetchedCRL refreshed;
+        if (current == null || current.isBaseRefreshNeeded(refreshDate)) {
+            LOG.debug("Downloading the CRL [{}]", crlUrl);
+            final X509CRL baseCrl = crlUtil.downloadCRL(crlUrl, false);
+            refreshed = new PrefetchedCRL(baseCrl, downloadDeltaCRL(baseCrl));
+        } else if (current.isDeltaRefreshNeeded(refreshDate)) {
+            LOG.debug("Downloading the delta of the CRL [{}]", crlUrl);
+            final X509CRL deltaCrl = downloadDeltaCRL(current.getBaseCrl());
+            if (deltaCrl == null) {
+                LOG.warn("Could not refresh the delta of the CRL [{}]; the last downloaded delta CRL is kept", crlUrl);
+                return;
+            }
+            refreshed = current.withDeltaCrl(deltaCrl);
+        } else {
+            return;
+        }
+        crls.put(crlUrl, refreshed);
+        if (refreshed.getNextUpdate() != null) {
+            crlNextUpdates.put(crlUrl, refreshed.getNextUpdate());
+        }
+    }
+
+    /**
+     * Downloads the delta CRL announced by the base CRL, ignoring the delta CRLs that do not apply to it
+     */
+    protected X509CRL downloadDeltaCRL(X509CRL baseCrl) {
+        final List<String> deltaCrlUrls = getSupportedCrlDistributionPoints(crlUtil.getDeltaCrlDistributionPoints(baseCrl));
+        if (deltaCrlUrls.isEmpty()) {
+            return null;
+        }
+        final BigInteger baseCrlNumber = crlUtil.getCrlNumber(baseCrl);
+        for (String deltaCrlUrl : deltaCrlUrls) {
+            try {
+                final X509CRL deltaCrl = crlUtil.downloadCRL(deltaCrlUrl, false);
+                final BigInteger deltaBaseCrlNumber = crlUtil.getBaseCrlNumber(deltaCrl);
+                if (baseCrlNumber == null || deltaBaseCrlNumber == null || deltaBaseCrlNumber.compareTo(baseCrlNumber) > 0
+                        || !deltaCrl.getIssuerX500Principal().equals(baseCrl.getIssuerX500Principal())) {
+                    LOG.warn("Ignoring the delta CRL [{}] which does not apply to the base CRL number [{}]", deltaCrlUrl, baseCrlNumber);
+                    continue;
+                }
+                return deltaCrl;
+            } catch (DomibusCRLException e) {
+                LOG.warn("Could not download the delta CRL [{}]", deltaCrlUrl, e);
+            }
+        }
+        return null;
+    }
+
+    protected PrefetchedDomainCRLs getPrefetchedDomainCRLs() {
+        return prefetchedCrls.computeIfAbsent(domainContextProvider.getCurrentDomain(), domain -> new PrefetchedDomainCRLs());
+    }
+
+    protected boolean isPrefetchEnabled() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED));
+    }
+
+    @Override
+    public Date getNextUpdate(X509Certificate cert) {
+        List<String> crlDistributionPoints = crlUtil.getCrlDistributionPoints(cert);
+        if (crlDistributionPoints == null) {
+            return null;
+        }
+        return crlDistributionPoints.stream()
+                .map(crlNextUpdates::get)
+                .filter(Objects::nonNull)
+                .min(Date::compareTo)
+                .orElse(null);
+    }
+
     private boolean isURLSupported(final String crlURL) {
         if (!CRLUrlType.isURLSupported(crlURL)) {
             return false;
@@ -152,7 +303,27 @@ public class CRLServiceImpl implements CRLService {
     public void resetCacheCrlProtocols() {
         LOG.debug("Clearing supported Crl protocols and cache.");
         this.supportedCrlProtocols = null;
+        this.crlNextUpdates.clear();
+        this.prefetchedCrls.clear();
         this.domibusLocalCacheService.clearCache(CRL_BY_CERT);
     }
 
+    /**
+     * The CRLs prefetched for a domain, by distribution point url, and the distribution points used since the last refresh
+     */
+    protected static class PrefetchedDomainCRLs {
+
+        protected final Map<String, PrefetchedCRL> crls = new ConcurrentHashMap<>();
+
+        protected final Set<String> usedCrlUrls = ConcurrentHashMap.newKeySet();
+
+        protected Set<String> takeUsedCrlUrls() {
+            final Set<String> result = new LinkedHashSet<>();
+            for (Iterator<String> iterator = usedCrlUrls.iterator(); iterator.hasNext(); ) {
+                result.add(iterator.next());
+                iterator.remove();
+            }
+            return result;
+        }
+    }
 }
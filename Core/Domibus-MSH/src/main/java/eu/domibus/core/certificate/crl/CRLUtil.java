@@ -7,10 +7,13 @@ import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bouncycastle.asn1.ASN1InputStream;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.DERIA5String;
 import org.bouncycastle.asn1.DEROctetString;
 import org.bouncycastle.asn1.x509.*;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
@@ -196,7 +199,49 @@ public class CRLUtil {
      * @return the list of CRL urls of this certificate
      */
     public List<String> getCrlDistributionPoints(X509Certificate cert) {
-        byte[] crldpExt = cert.getExtensionValue(org.bouncycastle.asn1.x509.Extension.cRLDistributionPoints.getId());
+        return getDistributionPoints(cert.getExtensionValue(org.bouncycastle.asn1.x509.Extension.cRLDistributionPoints.getId()));
+    }
+
+    /**
+     * Extracts the delta CRL distribution point URLs from the "Freshest CRL" extension of a base CRL.
+     * If the extension is unavailable, returns an empty list.
+     *
+     * @param crl a base CRL
+     * @return the list of delta CRL urls of this CRL
+     */
+    public List<String> getDeltaCrlDistributionPoints(X509CRL crl) {
+        return getDistributionPoints(crl.getExtensionValue(org.bouncycastle.asn1.x509.Extension.freshestCRL.getId()));
+    }
+
+    /**
+     * @param crl a CRL
+     * @return the CRL number or null if the CRL has no CRL number extension
+     */
+    public BigInteger getCrlNumber(X509CRL crl) {
+        return getIntegerExtension(crl, org.bouncycastle.asn1.x509.Extension.cRLNumber);
+    }
+
+    /**
+     * @param crl a delta CRL
+     * @return the number of the base CRL the delta CRL applies to or null if the CRL is not a delta CRL
+     */
+    public BigInteger getBaseCrlNumber(X509CRL crl) {
+        return getIntegerExtension(crl, org.bouncycastle.asn1.x509.Extension.deltaCRLIndicator);
+    }
+
+    protected BigInteger getIntegerExtension(X509CRL crl, ASN1ObjectIdentifier extension) {
+        byte[] extensionValue = crl.getExtensionValue(extension.getId());
+        if (extensionValue == null) {
+            return null;
+        }
+        try {
+            return ASN1Integer.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extensionValue)).getValue();
+        } catch (IOException e) {
+            throw new DomibusCRLException("Error while reading the CRL extension [" + extension.getId() + "]", e);
+        }
+    }
+
+    protected List<String> getDistributionPoints(byte[] crldpExt) {
         if (crldpExt == null) {
             return new ArrayList<>();
         }
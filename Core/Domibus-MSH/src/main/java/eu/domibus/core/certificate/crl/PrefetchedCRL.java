@@ -0,0 +1,106 @@
+package eu.domibus.core.certificate.crl;
+
+import java.math.BigInteger;
+import java.security.cert.CRLReason;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A base CRL and its optional delta CRL, downloaded in the background.
+ * <p>
+ * The serial numbers revoked by the base CRL and its delta CRL are indexed in a hash set so that the revocation status
+ * of a certificate issued by the CRL issuer is checked in constant time. The certificates of other issuers, listed by
+ * indirect CRLs, are checked against the CRLs themselves.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class PrefetchedCRL {
+
+    private final X509CRL baseCrl;
+
+    private final X509CRL deltaCrl;
+
+    private final Set<BigInteger> revokedSerials = new HashSet<>();
+
+    private boolean indirect;
+
+    public PrefetchedCRL(X509CRL baseCrl, X509CRL deltaCrl) {
+        this.baseCrl = baseCrl;
+        this.deltaCrl = deltaCrl;
+        index(baseCrl);
+        index(deltaCrl);
+    }
+
+    public boolean isRevoked(X509Certificate cert) {
+        if (!indirect && cert.getIssuerX500Principal().equals(baseCrl.getIssuerX500Principal())) {
+            return revokedSerials.contains(cert.getSerialNumber());
+        }
+        if (deltaCrl != null) {
+            final X509CRLEntry deltaEntry = deltaCrl.getRevokedCertificate(cert);
+            if (deltaEntry != null) {
+                return deltaEntry.getRevocationReason() != CRLReason.REMOVE_FROM_CRL;
+            }
+        }
+        return baseCrl.isRevoked(cert);
+    }
+
+    /**
+     * @return a new instance indexing the base CRL with the given delta CRL
+     */
+    public PrefetchedCRL withDeltaCrl(X509CRL newDeltaCrl) {
+        return new PrefetchedCRL(baseCrl, newDeltaCrl);
+    }
+
+    /**
+     * The base CRL is refreshed when its next update is before the refresh date or when it does not announce one
+     */
+    public boolean isBaseRefreshNeeded(Date refreshDate) {
+        return baseCrl.getNextUpdate() == null || baseCrl.getNextUpdate().before(refreshDate);
+    }
+
+    public boolean isDeltaRefreshNeeded(Date refreshDate) {
+        return deltaCrl != null && (deltaCrl.getNextUpdate() == null || deltaCrl.getNextUpdate().before(refreshDate));
+    }
+
+    /**
+     * @return the earliest next update of the base and delta CRLs
+     */
+    public Date getNextUpdate() {
+        if (deltaCrl == null || deltaCrl.getNextUpdate() == null) {
+            return baseCrl.getNextUpdate();
+        }
+        if (baseCrl.getNextUpdate() == null || deltaCrl.getNextUpdate().before(baseCrl.getNextUpdate())) {
+            return deltaCrl.getNextUpdate();
+        }
+        return baseCrl.getNextUpdate();
+    }
+
+    public X509CRL getBaseCrl() {
+        return baseCrl;
+    }
+
+    public X509CRL getDeltaCrl() {
+        return deltaCrl;
+    }
+
+    protected void index(X509CRL crl) {
+        if (crl == null || crl.getRevokedCertificates() == null) {
+            return;
+        }
+        for (X509CRLEntry entry : crl.getRevokedCertificates()) {
+            if (entry.getCertificateIssuer() != null) {
+                indirect = true;
+            }
+            if (entry.getRevocationReason() == CRLReason.REMOVE_FROM_CRL) {
+                revokedSerials.remove(entry.getSerialNumber());
+            } else {
+                revokedSerials.add(entry.getSerialNumber());
+            }
+        }
+    }
+}
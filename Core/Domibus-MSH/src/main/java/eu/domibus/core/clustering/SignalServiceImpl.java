@@ -115,6 +115,19 @@ public class SignalServiceImpl implements SignalService {
         sendMessage(commandProperties);
     }
 
+    @Override
+    public void signalPartyStatusChange(String partyName, String connectivityStatus) {
+        LOG.debug("Signaling connectivity status [{}] of party [{}] for [{}] domain", connectivityStatus, partyName, domainContextProvider.getCurrentDomain().getCode());
+
+        Map<String, String> commandProperties = new HashMap<>();
+        commandProperties.put(Command.COMMAND, Command.PARTY_STATUS_CHANGE);
+        commandProperties.put(CommandProperty.PARTY_NAME, partyName);
+        commandProperties.put(CommandProperty.CONNECTIVITY_STATUS, connectivityStatus);
+        commandProperties.put(MessageConstants.DOMAIN, domainContextProvider.getCurrentDomain().getCode());
+
+        sendMessage(commandProperties);
+    }
+
     @Override
     public void signalLoggingSetLevel(String name, String level) {
 
@@ -133,6 +133,7 @@ public class MultiDomainCryptoServiceImpl implements MultiDomainCryptoService {
     public void resetTrustStore(Domain domain) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
         domainCertificateProvider.resetTrustStore();
+        certificateService.resetCertificateValidationCache(domain);
     }
 
     @Override
@@ -196,13 +197,16 @@ public class MultiDomainCryptoServiceImpl implements MultiDomainCryptoService {
     @Override
     public boolean addCertificate(Domain domain, X509Certificate certificate, String alias, boolean overwrite) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
-        return domainCertificateProvider.addCertificate(certificate, alias, overwrite);
+        final boolean added = domainCertificateProvider.addCertificate(certificate, alias, overwrite);
+        certificateService.resetCertificateValidationCache(domain);
+        return added;
     }
 
     @Override
     public void addCertificate(Domain domain, List<CertificateEntry> certificates, boolean overwrite) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
         domainCertificateProvider.addCertificate(certificates, overwrite);
+        certificateService.resetCertificateValidationCache(domain);
     }
 
     @Override
@@ -214,19 +218,23 @@ public class MultiDomainCryptoServiceImpl implements MultiDomainCryptoService {
     @Override
     public boolean removeCertificate(Domain domain, String alias) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
-        return domainCertificateProvider.removeCertificate(alias);
+        final boolean removed = domainCertificateProvider.removeCertificate(alias);
+        certificateService.resetCertificateValidationCache(domain);
+        return removed;
     }
 
     @Override
     public void removeCertificate(Domain domain, List<String> aliases) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
         domainCertificateProvider.removeCertificate(aliases);
+        certificateService.resetCertificateValidationCache(domain);
     }
 
     @Override
     public void reset(Domain domain) {
         final DomainCryptoService domainCertificateProvider = getDomainCertificateProvider(domain);
         domainCertificateProvider.resetStores();
+        certificateService.resetCertificateValidationCache(domain);
     }
 
     @Override
@@ -296,6 +304,7 @@ public class MultiDomainCryptoServiceImpl implements MultiDomainCryptoService {
         storeReplacer.accept(domainCertificateProvider);
 
         domibusLocalCacheService.clearCache(CERT_VALIDATION_BY_ALIAS);
+        certificateService.resetCertificateValidationCache(domain);
         saveCertificateAndLogRevocation(domain);
     }
 
@@ -0,0 +1,20 @@
+package eu.domibus.core.csv;
+
+import java.util.List;
+
+/**
+ * Provides the rows of a streamed CSV export, one page at a time
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@FunctionalInterface
+public interface CsvPageProvider<T> {
+
+    /**
+     * @param last the last row of the previous page, null for the first page; the page continues after it (keyset paging)
+     * @param max  the maximum number of rows of the page
+     * @return the rows of the page; a page smaller than {@code max} is the last one
+     */
+    List<? extends T> getPage(T last, int max);
+}
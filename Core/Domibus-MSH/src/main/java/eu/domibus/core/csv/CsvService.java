@@ -2,8 +2,10 @@ package eu.domibus.core.csv;
 
 import eu.domibus.api.exceptions.RequestValidationException;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 
 /**
@@ -14,6 +16,24 @@ public interface CsvService {
 
     String exportToCSV(List<?> list, Class<?> tClass, final Map<String, String> customColumnNames, List<String> excludedColumns);
 
+    /**
+     * Writes the CSV directly to the output stream, loading the rows page by page; the number of rows is not limited
+     *
+     * @param outputStream      the stream the CSV is written to, in UTF-8
+     * @param tClass            the class of the exported rows, used to determine the columns
+     * @param customColumnNames needed in case different column titles than the attribute name
+     * @param excludedColumns   the list of excluded columns from the export
+     * @param pageProvider      loads the rows, {@link #getStreamingPageSize()} at a time
+     * @param rowConverter      converts a loaded row to the exported row
+     * @return the number of rows written
+     */
+    <T> long exportToCSV(OutputStream outputStream, Class<?> tClass, final Map<String, String> customColumnNames, List<String> excludedColumns,
+                         CsvPageProvider<T> pageProvider, Function<T, ?> rowConverter);
+
+    boolean isStreamingExportEnabled();
+
+    int getStreamingPageSize();
+
     int getMaxNumberRowsToExport();
 
     String getCsvFilename(String module, String domainName);
@@ -13,14 +13,21 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
-import java.io.StringWriter;
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_UI_CSV_MAX_ROWS;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE;
 import static java.util.Arrays.asList;
 
 /**
@@ -38,6 +45,7 @@ public class CsvServiceImpl implements CsvService {
     private final DomibusPropertyProvider domibusPropertyProvider;
     private final List<CsvSerializer> csvSerializers;
     private final DomibusStringUtil domibusStringUtil;
+    private final Map<Class<?>, List<CsvColumn>> csvColumns = new ConcurrentHashMap<>();
 
     public CsvServiceImpl(DomibusPropertyProvider domibusPropertyProvider, List<CsvSerializer> csvSerializers, DomibusStringUtil domibusStringUtil) {
         this.domibusPropertyProvider = domibusPropertyProvider;
@@ -59,6 +67,44 @@ public class CsvServiceImpl implements CsvService {
         return result.toString();
     }
 
+    @Override
+    public <T> long exportToCSV(OutputStream outputStream, Class<?> theClass, Map<String, String> customColumnNames,
+                                List<String> excludedColumns, CsvPageProvider<T> pageProvider, Function<T, ?> rowConverter) {
+        final int pageSize = getStreamingPageSize();
+        if (pageSize <= 0) {
+            throw new CsvException(DomibusCoreErrorCode.DOM_001, "The streaming CSV export is not enabled", null);
+        }
+        final CSVWriter csvBuilder = new CSVWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), ',', '\'', '"', "\n");
+        final List<CsvColumn> columns = getExportedColumns(theClass, excludedColumns);
+        createCSVColumnHeader(csvBuilder, columns.stream().map(CsvColumn::getField).collect(Collectors.toList()), customColumnNames);
+
+        long rows = 0;
+        T last = null;
+        List<? extends T> page;
+        do {
+            page = pageProvider.getPage(last, pageSize);
+            for (T elem : page) {
+                writeCSVRow(csvBuilder, serializeRow(rowConverter.apply(elem), columns));
+                last = elem;
+            }
+            rows += page.size();
+            flush(csvBuilder);
+            LOG.debug("Exported [{}] rows of [{}] to CSV", rows, theClass.getSimpleName());
+        } while (page.size() == pageSize);
+        return rows;
+    }
+
+    @Override
+    public boolean isStreamingExportEnabled() {
+        return getStreamingPageSize() > 0;
+    }
+
+    @Override
+    public int getStreamingPageSize() {
+        final Integer pageSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE);
+        return pageSize == null ? 0 : pageSize;
+    }
+
     @Override
     public int getMaxNumberRowsToExport() {
         return domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_MAX_ROWS);
@@ -124,6 +170,55 @@ public class CsvServiceImpl implements CsvService {
         return getAllFields(fields, clazz);
     }
 
+    /**
+     * The columns of a class are computed once: the fields are made accessible and their getters unreflected
+     */
+    protected List<CsvColumn> getExportedColumns(Class<?> theClass, List<String> excludedColumns) {
+        final List<String> excludedCols = excludedColumns == null ? new ArrayList<>() : excludedColumns;
+        return csvColumns.computeIfAbsent(theClass, this::createColumns).stream()
+                .filter(column -> !excludedCols.contains(column.getField().getName()))
+                .collect(Collectors.toList());
+    }
+
+    protected List<CsvColumn> createColumns(Class<?> theClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<CsvColumn> columns = new ArrayList<>();
+        for (Field field : getAllFields(theClass)) {
+            try {
+                field.setAccessible(true);
+                MethodHandle getter = lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+                columns.add(new CsvColumn(field, getter));
+            } catch (IllegalAccessException e) {
+                throw new CsvException(DomibusCoreErrorCode.DOM_001, "Could not access the field [" + field.getName() + "] for the CSV export", e);
+            }
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    protected List<String> serializeRow(Object elem, List<CsvColumn> columns) {
+        List<String> fieldValues = new ArrayList<>(columns.size());
+        for (CsvColumn column : columns) {
+            try {
+                fieldValues.add(serializeValue(column.getGetter().invoke(elem)));
+            } catch (Throwable e) {
+                LOG.error("Exception while writing on CSV ", e);
+                throw new CsvException(DomibusCoreErrorCode.DOM_001, "Exception while writing on CSV", e);
+            }
+        }
+        return fieldValues;
+    }
+
+    protected void flush(CSVWriter csvBuilder) {
+        try {
+            csvBuilder.flush();
+        } catch (IOException e) {
+            throw new CsvException(DomibusCoreErrorCode.DOM_001, "Exception while writing on CSV", e);
+        }
+    }
+
     protected void writeCSVRow(CSVWriter csvBuilder, List<String> values) {
         csvBuilder.writeNext(values.toArray(new String[0]), true);
     }
@@ -167,7 +262,10 @@ public class CsvServiceImpl implements CsvService {
 
     protected String serializeFieldValue(Field field, Object elem) throws IllegalAccessException {
         LOG.trace("Serialization for field [{}]", field);
-        Object fieldValue = field.get(elem);
+        return serializeValue(field.get(elem));
+    }
+
+    protected String serializeValue(Object fieldValue) {
         for (CsvSerializer serializer : csvSerializers) {
             if (serializer.canHandle(fieldValue)) {
                 LOG.trace("Serializer: [{}]", this);
@@ -179,4 +277,26 @@ public class CsvServiceImpl implements CsvService {
         return Objects.toString(fieldValue, StringUtils.EMPTY);
     }
 
+    /**
+     * A field exported as a CSV column, with its precomputed getter
+     */
+    protected static class CsvColumn {
+
+        private final Field field;
+
+        private final MethodHandle getter;
+
+        protected CsvColumn(Field field, MethodHandle getter) {
+            this.field = field;
+            this.getter = getter;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public MethodHandle getGetter() {
+            return getter;
+        }
+    }
 }
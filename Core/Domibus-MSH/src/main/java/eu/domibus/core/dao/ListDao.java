@@ -2,12 +2,11 @@ package eu.domibus.core.dao;
 
 import eu.domibus.api.model.AbstractBaseEntity;
 import eu.domibus.api.model.DomibusBaseEntity;
+import org.springframework.beans.PropertyAccessorFactory;
 
 import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Predicate;
-import javax.persistence.criteria.Root;
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +18,8 @@ import java.util.Map;
  */
 public abstract class ListDao<T extends DomibusBaseEntity> extends BasicDao<T> {
 
+    private static final String ENTITY_ID = "entityId";
+
     /**
      * @param typeOfT The entity class this DAO provides access to
      */
@@ -68,4 +69,81 @@ public abstract class ListDao<T extends DomibusBaseEntity> extends BasicDao<T> {
         query.setMaxResults(max);
         return query.getResultList();
     }
+
+    /**
+     * Loads the page following the given entity, by keyset and not by offset, so the cost of a page does not grow with its position.
+     * The entities are ordered by the sort column, with the null values first in ascending order and last in descending order, and
+     * then by entity id; a sort column which is neither comparable nor an entity is ignored and the entities are only ordered by entity id.
+     *
+     * @param last the last entity of the previous page, null for the first page
+     */
+    public List<T> findPagedAfter(final T last, final int max, final String sortColumn, final boolean asc, final Map<String, Object> filters) {
+        final CriteriaBuilder cb = this.em.getCriteriaBuilder();
+        final CriteriaQuery<T> cq = cb.createQuery(typeOfT);
+        final Root<T> ele = cq.from(typeOfT);
+        cq.select(ele);
+        List<Predicate> predicates = new ArrayList<>(getPredicates(filters, cb, ele));
+        final Path<Comparable> keysetPath = getKeysetPath(ele, sortColumn);
+        final Path<Long> entityIdPath = ele.get(ENTITY_ID);
+        if (last != null) {
+            predicates.add(getKeysetPredicate(cb, keysetPath, entityIdPath, getKeysetValue(last, sortColumn), last.getEntityId(), asc));
+        }
+        cq.where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
+        List<Order> orders = new ArrayList<>();
+        if (keysetPath != null) {
+            final Expression<Integer> nullsOrder = cb.<Integer>selectCase().when(cb.isNull(keysetPath), 0).otherwise(1);
+            orders.add(asc ? cb.asc(nullsOrder) : cb.desc(nullsOrder));
+            orders.add(asc ? cb.asc(keysetPath) : cb.desc(keysetPath));
+        }
+        orders.add(cb.asc(entityIdPath));
+        cq.orderBy(orders);
+        final TypedQuery<T> query = this.em.createQuery(cq);
+        query.setMaxResults(max);
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Path<Comparable> getKeysetPath(Root<T> ele, String sortColumn) {
+        if (sortColumn == null) {
+            return null;
+        }
+        final Path<?> path = ele.get(getSortColumn(sortColumn));
+        final Class<?> javaType = path.getJavaType();
+        if (DomibusBaseEntity.class.isAssignableFrom(javaType)) {
+            return path.get(ENTITY_ID);
+        }
+        if (javaType.isPrimitive() || Comparable.class.isAssignableFrom(javaType)) {
+            return (Path<Comparable>) path;
+        }
+        return null;
+    }
+
+    protected Comparable getKeysetValue(T last, String sortColumn) {
+        if (sortColumn == null) {
+            return null;
+        }
+        final Object value = PropertyAccessorFactory.forBeanPropertyAccess(last).getPropertyValue(getSortColumn(sortColumn));
+        if (value instanceof DomibusBaseEntity) {
+            return ((DomibusBaseEntity) value).getEntityId();
+        }
+        return value instanceof Comparable ? (Comparable) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Predicate getKeysetPredicate(CriteriaBuilder cb, Path<Comparable> keysetPath, Path<Long> entityIdPath,
+                                           Comparable lastValue, long lastEntityId, boolean asc) {
+        final Predicate afterLastEntityId = cb.greaterThan(entityIdPath, lastEntityId);
+        if (keysetPath == null) {
+            return afterLastEntityId;
+        }
+        if (lastValue == null) {
+            // the null values come first in ascending order and last in descending order
+            return asc ? cb.or(cb.and(cb.isNull(keysetPath), afterLastEntityId), cb.isNotNull(keysetPath))
+                    : cb.and(cb.isNull(keysetPath), afterLastEntityId);
+        }
+        final Predicate afterLastValue = cb.or(
+                asc ? cb.greaterThan(keysetPath, lastValue) : cb.lessThan(keysetPath, lastValue),
+                cb.and(cb.equal(keysetPath, lastValue), afterLastEntityId));
+        return asc ? afterLastValue : cb.or(cb.isNull(keysetPath), afterLastValue);
+    }
 }
@@ -84,6 +84,12 @@ public class EArchiveBatchDao extends BasicDao<EArchiveBatchEntity> {
         return query.getResultList();
     }
 
+    public long countBatchesByStatus(List<EArchiveBatchStatus> statuses) {
+        TypedQuery<Long> query = this.em.createNamedQuery("EArchiveBatchEntity.countByStatus", Long.class);
+        query.setParameter("STATUSES", statuses);
+        return query.getSingleResult();
+    }
+
     public List<EArchiveBatchEntity> getBatchRequestList(EArchiveBatchFilter filter) {
 
         CriteriaBuilder builder = em.getCriteriaBuilder();
@@ -19,6 +19,7 @@ import java.util.List;
 @NamedQuery(name = "EArchiveBatchEntity.findByEntityId", query = "FROM EArchiveBatchEntity batch where batch.entityId = :BATCH_ENTITY_ID")
 @NamedQuery(name = "EArchiveBatchEntity.findByBatchId", query = "FROM EArchiveBatchEntity batch where batch.batchId = :BATCH_ID")
 @NamedQuery(name = "EArchiveBatchEntity.findByStatus", query = "FROM EArchiveBatchEntity b where b.eArchiveBatchStatus in :STATUSES order by b.entityId asc")
+@NamedQuery(name = "EArchiveBatchEntity.countByStatus", query = "SELECT COUNT(b) FROM EArchiveBatchEntity b where b.eArchiveBatchStatus in :STATUSES")
 @NamedQuery(name = "EArchiveBatchEntity.updateStatusByDate", query = "UPDATE EArchiveBatchEntity b set b.eArchiveBatchStatus=:NEW_STATUS where b.eArchiveBatchStatus in :STATUSES and b.dateRequested < :LIMIT_DATE")
 public class EArchiveBatchEntity extends AbstractBaseEntity {
 
@@ -2,6 +2,7 @@ package eu.domibus.core.earchive.eark;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.function.Supplier;
 
 /**
  * @author François Gautier
@@ -9,7 +10,7 @@ import java.nio.file.Path;
  */
 public class ArchivingFileDTO {
 
-    private InputStream inputStream;
+    private final Supplier<InputStream> inputStreamSupplier;
 
     private Long size;
 
@@ -20,19 +21,33 @@ public class ArchivingFileDTO {
     private Path path;
 
     public ArchivingFileDTO(InputStream inputStream, Long size, String mimeType) {
-        this.inputStream = inputStream;
+        this(() -> inputStream, size, mimeType);
+    }
+
+    /**
+     * @param inputStreamSupplier opens the stream of the file; it is only called when the file is read
+     */
+    public ArchivingFileDTO(Supplier<InputStream> inputStreamSupplier, Long size, String mimeType) {
+        this.inputStreamSupplier = inputStreamSupplier;
         this.size = size;
         this.mimeType = mimeType;
     }
 
+    /**
+     * Opens the stream of the file; the caller is responsible for closing it
+     */
     public InputStream getInputStream() {
-        return inputStream;
+        return inputStreamSupplier.get();
     }
 
     public Long getSize() {
         return size;
     }
 
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
     public String getMimeType() {
         return mimeType;
     }
@@ -56,8 +71,7 @@ public class ArchivingFileDTO {
     @Override
     public String toString() {
         return "ArchivingFileDTO{" +
-                "inputStream=" + inputStream +
-                ", size=" + size +
+                "size=" + size +
                 ", mimeType='" + mimeType + '\'' +
                 ", path=" + path +
                 ", checkSum=" + checkSum +
@@ -1,9 +1,10 @@
 package eu.domibus.core.earchive.eark;
 
 import java.io.InputStream;
+import java.util.function.Supplier;
 
 public class ArchivingFileDTOBuilder {
-    private InputStream inputStream;
+    private Supplier<InputStream> inputStreamSupplier;
     private Long size;
     private String mimeType;
 
@@ -12,7 +13,12 @@ public class ArchivingFileDTOBuilder {
     }
 
     public ArchivingFileDTOBuilder setInputStream(InputStream inputStream) {
-        this.inputStream = inputStream;
+        this.inputStreamSupplier = () -> inputStream;
+        return this;
+    }
+
+    public ArchivingFileDTOBuilder setInputStreamSupplier(Supplier<InputStream> inputStreamSupplier) {
+        this.inputStreamSupplier = inputStreamSupplier;
         return this;
     }
 
@@ -27,6 +33,6 @@ public class ArchivingFileDTOBuilder {
     }
 
     public ArchivingFileDTO build() {
-        return new ArchivingFileDTO(inputStream, size, mimeType);
+        return new ArchivingFileDTO(inputStreamSupplier, size, mimeType);
     }
 }
\ No newline at end of file
@@ -25,13 +25,17 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.activation.DataHandler;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static eu.domibus.api.property.DomibusGeneralConstants.JSON_MAPPER_BEAN;
 import static eu.domibus.messaging.MessageConstants.COMPRESSION_PROPERTY_KEY;
@@ -65,21 +69,46 @@ public class EArchivingFileService {
     @Timer(clazz = EArchivingFileService.class, value = "earchive_getArchivingFiles")
     @Counter(clazz = EArchivingFileService.class, value = "earchive_getArchivingFiles")
     public Map<String, ArchivingFileDTO> getArchivingFiles(Long entityId) {
+        return getArchivingFiles(entityId, userMessageRawEnvelopeDao.findRawXmlByEntityId(entityId), partInfoService.findPartInfo(entityId));
+    }
+
+    /**
+     * Loads the files of several user messages with one query for the raw envelopes and one query for the part infos.
+     * The streams of the files are not opened: each one is opened when its file is read.
+     *
+     * @param entityIds the entity ids of the user messages
+     * @return the files of every user message, by entity id of the user message
+     */
+    @Transactional(readOnly = true)
+    @Timer(clazz = EArchivingFileService.class, value = "earchive_getArchivingFilesBulk")
+    @Counter(clazz = EArchivingFileService.class, value = "earchive_getArchivingFilesBulk")
+    public Map<Long, Map<String, ArchivingFileDTO>> getArchivingFiles(List<Long> entityIds) {
+        final Map<Long, RawEnvelopeDto> rawEnvelopes = userMessageRawEnvelopeDao.findRawXmlByEntityIds(entityIds).stream()
+                .collect(Collectors.toMap(RawEnvelopeDto::getId, Function.identity()));
+        final Map<Long, List<PartInfo>> partInfos = partInfoService.findPartInfos(entityIds).stream()
+                .collect(Collectors.groupingBy(partInfo -> partInfo.getUserMessage().getEntityId()));
+
+        Map<Long, Map<String, ArchivingFileDTO>> files = new HashMap<>();
+        for (Long entityId : entityIds) {
+            files.put(entityId, getArchivingFiles(entityId, rawEnvelopes.get(entityId), partInfos.getOrDefault(entityId, new ArrayList<>())));
+        }
+        return files;
+    }
+
+    protected Map<String, ArchivingFileDTO> getArchivingFiles(Long entityId, RawEnvelopeDto rawXmlByMessageId, List<PartInfo> partInfos) {
         HashMap<String, ArchivingFileDTO> files = new HashMap<>();
 
-        RawEnvelopeDto rawXmlByMessageId = userMessageRawEnvelopeDao.findRawXmlByEntityId(entityId);
         if (rawXmlByMessageId != null) {
             files.put(SOAP_ENVELOPE_XML,
                     ArchivingFileDTOBuilder.getInstance()
                             .setMimeType("application/xml")
                             .setSize((long) rawXmlByMessageId.getRawMessage().length)
-                            .setInputStream(rawXmlByMessageId.getRawXmlMessageAsStream())
+                            .setInputStreamSupplier(rawXmlByMessageId::getRawXmlMessageAsStream)
                             .build());
         } else {
             LOG.debug("No userMessageRaw found for entityId [{}]", entityId);
         }
 
-        final List<PartInfo> partInfos = partInfoService.findPartInfo(entityId);
         //getMimetype in properties
         for (PartInfo partInfo : partInfos) {
             Map<String, String> props = getProps(partInfo);
@@ -102,15 +131,19 @@ public class EArchivingFileService {
         if (partInfo.getPayloadDatahandler() == null) {
             throw new DomibusEArchiveExportException(DomibusCoreErrorCode.DOM_009, entityId, "Could not find attachment for [" + partInfo.getHref() + "], messageId [" + partInfo.getUserMessage().getMessageId() + "] and entityId [" + entityId + "]");
         }
-        try {
-            return ArchivingFileDTOBuilder.getInstance()
-                    .setMimeType(mimeType)
-                    .setSize(partInfo.getLength())
-                    .setInputStream(new DecompressionDataSource(partInfo.getPayloadDatahandler().getDataSource(), mimeType).getInputStream())
-                    .build();
-        } catch (IOException e) {
-            throw new DomibusEArchiveException("Error getting input stream for attachment [" + partInfo.getHref() + "], messageId [" + partInfo.getUserMessage().getMessageId() + "] and entityId [" + entityId + "]", e);
-        }
+        final DataHandler dataHandler = partInfo.getPayloadDatahandler();
+        final String href = partInfo.getHref();
+        return ArchivingFileDTOBuilder.getInstance()
+                .setMimeType(mimeType)
+                .setSize(partInfo.getLength())
+                .setInputStreamSupplier(() -> {
+                    try {
+                        return new DecompressionDataSource(dataHandler.getDataSource(), mimeType).getInputStream();
+                    } catch (IOException e) {
+                        throw new DomibusEArchiveException("Error getting input stream for attachment [" + href + "] and entityId [" + entityId + "]", e);
+                    }
+                })
+                .build();
     }
 
     private boolean messageIsCompressed(Map<String, String> props, String mimeType) {
@@ -131,15 +164,19 @@ public class EArchivingFileService {
         if (partInfo.getPayloadDatahandler() == null) {
             throw new DomibusEArchiveExportException(DomibusCoreErrorCode.DOM_009, entityId, "Could not find attachment for [" + partInfo.getHref() + "], messageId [" + partInfo.getUserMessage().getMessageId() + "] and entityId [" + entityId + "]");
         }
-        try {
-            return ArchivingFileDTOBuilder.getInstance()
-                    .setMimeType(partInfo.getMime())
-                    .setSize(partInfo.getLength())
-                    .setInputStream(partInfo.getPayloadDatahandler().getInputStream())
-                    .build();
-        } catch (IOException e) {
-            throw new DomibusEArchiveExportException(entityId, "Error getting input stream for attachment [" + partInfo.getHref() + "], messageId [" + partInfo.getUserMessage().getMessageId() + "] and entityId [" + entityId + "]", e);
-        }
+        final DataHandler dataHandler = partInfo.getPayloadDatahandler();
+        final String href = partInfo.getHref();
+        return ArchivingFileDTOBuilder.getInstance()
+                .setMimeType(partInfo.getMime())
+                .setSize(partInfo.getLength())
+                .setInputStreamSupplier(() -> {
+                    try {
+                        return dataHandler.getInputStream();
+                    } catch (IOException e) {
+                        throw new DomibusEArchiveExportException(entityId, "Error getting input stream for attachment [" + href + "] and entityId [" + entityId + "]", e);
+                    }
+                })
+                .build();
     }
 
     protected String getFileName(PartInfo info, String extension) {
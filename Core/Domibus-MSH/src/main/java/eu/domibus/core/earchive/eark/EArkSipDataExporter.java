@@ -0,0 +1,305 @@
+package eu.domibus.core.earchive.eark;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.earchive.DomibusEArchiveException;
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.api.util.FileServiceUtil;
+import eu.domibus.core.earchive.EArchiveBatchUserMessage;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.input.CountingInputStream;
+import org.roda_project.commons_ip2.model.IPConstants;
+import org.roda_project.commons_ip2.model.MetsWrapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE;
+
+/**
+ * Exports the files of the user messages of a batch into the representation of the E-ARK SIP.
+ * <p>
+ * Every data file is read and written once: its SHA-256 checksum is computed and its bytes are counted while it is
+ * copied to the eArchive storage. The files of a message are loaded on the calling thread, together with the files of
+ * the next messages when the export prefetch size is greater than 1; only their metadata is prefetched, the stream of a
+ * file being opened when the file is written. When the export concurrency is greater than 1, the files are
+ * written by the Domibus task executor, at most {@code concurrency} messages at a time, while the next messages are
+ * loaded. The METS entries are always added in the order of the batch, and in the order of the file names for a message.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class EArkSipDataExporter {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(EArkSipDataExporter.class);
+
+    protected static final double BYTES_IN_MB = 1024D * 1024D;
+
+    /**
+     * The entity ids of the prefetched messages are bound in IN lists, which Oracle limits to 1000 elements
+     */
+    protected static final int MAX_PREFETCH_SIZE = 1000;
+
+    private final EArchivingFileService eArchivingFileService;
+
+    private final EARKSIPFileService eArkSipBuilderService;
+
+    private final FileServiceUtil fileServiceUtil;
+
+    private final DomainTaskExecutor domainTaskExecutor;
+
+    private final DomibusPropertyProvider domibusPropertyProvider;
+
+    private final MetricRegistry metricRegistry;
+
+    public EArkSipDataExporter(EArchivingFileService eArchivingFileService,
+                               EARKSIPFileService eArkSipBuilderService,
+                               FileServiceUtil fileServiceUtil,
+                               DomainTaskExecutor domainTaskExecutor,
+                               DomibusPropertyProvider domibusPropertyProvider,
+                               MetricRegistry metricRegistry) {
+        this.eArchivingFileService = eArchivingFileService;
+        this.eArkSipBuilderService = eArkSipBuilderService;
+        this.fileServiceUtil = fileServiceUtil;
+        this.domainTaskExecutor = domainTaskExecutor;
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.metricRegistry = metricRegistry;
+    }
+
+    public void exportUserMessages(List<EArchiveBatchUserMessage> userMessages, Path batchDirectory, MetsWrapper mainMETSWrapper) {
+        final int concurrency = getConcurrency();
+        final int prefetchSize = getPrefetchSize();
+        LOG.debug("Exporting the files of [{}] messages using [{}] concurrent writers and loading [{}] messages at a time", userMessages.size(), concurrency, prefetchSize);
+
+        final long startTime = System.nanoTime();
+        final Deque<PendingExport> pendingExports = new ArrayDeque<>();
+        final Map<Long, Map<String, ArchivingFileDTO>> prefetchedFiles = new HashMap<>();
+        long bytes = 0;
+        try {
+            for (int i = 0; i < userMessages.size(); i++) {
+                final EArchiveBatchUserMessage userMessage = userMessages.get(i);
+                LOG.debug("Add messageId [{}]", userMessage.getMessageId());
+                final Map<String, ArchivingFileDTO> archivingFiles = getArchivingFiles(userMessages, i, prefetchSize, prefetchedFiles);
+                final List<DataFile> dataFiles = getDataFiles(userMessage, archivingFiles, batchDirectory);
+                if (concurrency <= 1) {
+                    writeDataFiles(dataFiles);
+                    bytes += addDataFilesToMETS(dataFiles, mainMETSWrapper);
+                    continue;
+                }
+                if (pendingExports.size() >= concurrency) {
+                    bytes += completeExport(pendingExports.poll(), mainMETSWrapper);
+                }
+                pendingExports.add(new PendingExport(domainTaskExecutor.submit(() -> writeDataFiles(dataFiles), false), dataFiles));
+            }
+            while (!pendingExports.isEmpty()) {
+                bytes += completeExport(pendingExports.poll(), mainMETSWrapper);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error exporting the message files: cancelling the pending exports", e);
+            pendingExports.forEach(PendingExport::cancel);
+            throw e;
+        }
+
+        updateThroughputMetrics(userMessages.size(), bytes, System.nanoTime() - startTime);
+    }
+
+    protected int getConcurrency() {
+        final Integer concurrency = domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY);
+        return concurrency == null ? 1 : concurrency;
+    }
+
+    protected int getPrefetchSize() {
+        final Integer prefetchSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE);
+        if (prefetchSize == null) {
+            return 1;
+        }
+        if (prefetchSize > MAX_PREFETCH_SIZE) {
+            LOG.warn("The eArchive export prefetch size [{}] is greater than the maximum [{}]: using the maximum", prefetchSize, MAX_PREFETCH_SIZE);
+            return MAX_PREFETCH_SIZE;
+        }
+        return prefetchSize;
+    }
+
+    /**
+     * Returns the files of the user message at the given index. When the prefetch size is greater than 1, the files of
+     * the next {@code prefetchSize} messages are loaded together once the previously loaded messages were consumed.
+     */
+    protected Map<String, ArchivingFileDTO> getArchivingFiles(List<EArchiveBatchUserMessage> userMessages, int index, int prefetchSize,
+                                                              Map<Long, Map<String, ArchivingFileDTO>> prefetchedFiles) {
+        final Long entityId = userMessages.get(index).getUserMessageEntityId();
+        if (prefetchSize <= 1) {
+            return eArchivingFileService.getArchivingFiles(entityId);
+        }
+        Map<String, ArchivingFileDTO> archivingFiles = prefetchedFiles.remove(entityId);
+        if (archivingFiles == null) {
+            final List<Long> entityIds = userMessages.subList(index, Math.min(index + prefetchSize, userMessages.size())).stream()
+                    .map(EArchiveBatchUserMessage::getUserMessageEntityId)
+                    .collect(Collectors.toList());
+            LOG.debug("Loading the files of [{}] messages", entityIds.size());
+            prefetchedFiles.putAll(eArchivingFileService.getArchivingFiles(entityIds));
+            archivingFiles = prefetchedFiles.remove(entityId);
+        }
+        return archivingFiles == null ? new HashMap<>() : archivingFiles;
+    }
+
+    protected List<DataFile> getDataFiles(EArchiveBatchUserMessage userMessage, Map<String, ArchivingFileDTO> messageFiles, Path batchDirectory) {
+        final Map<String, ArchivingFileDTO> archivingFiles = new TreeMap<>(messageFiles);
+        final String messageFolder = fileServiceUtil.URLEncode(userMessage.getMessageId());
+        final Path dir = Paths.get(batchDirectory.toFile().getAbsolutePath(), "representations", "representation1", "data", messageFolder);
+
+        List<DataFile> dataFiles = new ArrayList<>();
+        for (Map.Entry<String, ArchivingFileDTO> file : archivingFiles.entrySet()) {
+            LOG.trace("Process file [{}]", file.getKey());
+            final ArchivingFileDTO archivingFileDTO = file.getValue();
+            archivingFileDTO.setPath(Paths.get(dir.toFile().getAbsolutePath(), file.getKey()));
+            dataFiles.add(new DataFile(IPConstants.DATA_FOLDER + messageFolder + IPConstants.ZIP_PATH_SEPARATOR + file.getKey(), archivingFileDTO));
+        }
+        return dataFiles;
+    }
+
+    protected void writeDataFiles(List<DataFile> dataFiles) {
+        dataFiles.forEach(this::writeDataFile);
+    }
+
+    protected void writeDataFile(DataFile dataFile) {
+        final ArchivingFileDTO archivingFileDTO = dataFile.getArchivingFileDTO();
+        final MessageDigest messageDigest = getMessageDigest();
+        try (InputStream inputStream = archivingFileDTO.getInputStream();
+             CountingInputStream countingInputStream = new CountingInputStream(new DigestInputStream(inputStream, messageDigest))) {
+            eArkSipBuilderService.createDataFile(archivingFileDTO.getPath(), countingInputStream);
+            dataFile.setWrittenBytes(countingInputStream.getByteCount());
+            // the raw envelopes are decompressed while they are written: the size of the file is only known once written
+            archivingFileDTO.setSize(countingInputStream.getByteCount());
+        } catch (IOException e) {
+            throw new DomibusEArchiveException("Could not createDataFile on dir [" + archivingFileDTO.getPath().getParent() + "] and file [" + archivingFileDTO + "]", e);
+        }
+        archivingFileDTO.setCheckSum(Hex.encodeHexString(messageDigest.digest()));
+    }
+
+    protected long completeExport(PendingExport pendingExport, MetsWrapper mainMETSWrapper) {
+        try {
+            pendingExport.getFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomibusEArchiveException("Interrupted while exporting the message files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DomibusEArchiveException("Could not export the message files", e.getCause());
+        }
+        return addDataFilesToMETS(pendingExport.getDataFiles(), mainMETSWrapper);
+    }
+
+    protected long addDataFilesToMETS(List<DataFile> dataFiles, MetsWrapper mainMETSWrapper) {
+        long bytes = 0;
+        for (DataFile dataFile : dataFiles) {
+            eArkSipBuilderService.addDataFileInfoToMETS(mainMETSWrapper, dataFile.getRelativePath(), dataFile.getArchivingFileDTO());
+            bytes += dataFile.getWrittenBytes();
+        }
+        return bytes;
+    }
+
+    protected void updateThroughputMetrics(int messages, long bytes, long durationInNanos) {
+        final double seconds = Math.max(durationInNanos, 1L) / 1_000_000_000D;
+        final double megabytesPerSecond = bytes / BYTES_IN_MB / seconds;
+        final double messagesPerSecond = messages / seconds;
+        LOG.info("Exported [{}] messages and [{}] bytes in [{}] ms, throughput [{}] messages/s and [{}] MB/s", messages, bytes,
+                durationInNanos / 1_000_000, String.format("%.2f", messagesPerSecond), String.format("%.2f", megabytesPerSecond));
+
+        metricRegistry.meter(name(EArkSipDataExporter.class, "export", "messages")).mark(messages);
+        metricRegistry.meter(name(EArkSipDataExporter.class, "export", "bytes")).mark(bytes);
+        metricRegistry.histogram(name(EArkSipDataExporter.class, "export", "throughputMessagesPerSecond")).update(Math.round(messagesPerSecond));
+        metricRegistry.histogram(name(EArkSipDataExporter.class, "export", "throughputMBPerSecond")).update(Math.round(megabytesPerSecond));
+    }
+
+    private static MessageDigest getMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DomibusEArchiveException(DomibusCoreErrorCode.DOM_001, "SHA-256 should be supported");
+        }
+    }
+
+    /**
+     * A file of a user message, with its path relative to the representation folder
+     */
+    protected static class DataFile {
+
+        private final String relativePath;
+
+        private final ArchivingFileDTO archivingFileDTO;
+
+        private long writtenBytes;
+
+        protected DataFile(String relativePath, ArchivingFileDTO archivingFileDTO) {
+            this.relativePath = relativePath;
+            this.archivingFileDTO = archivingFileDTO;
+        }
+
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        public ArchivingFileDTO getArchivingFileDTO() {
+            return archivingFileDTO;
+        }
+
+        public long getWrittenBytes() {
+            return writtenBytes;
+        }
+
+        public void setWrittenBytes(long writtenBytes) {
+            this.writtenBytes = writtenBytes;
+        }
+    }
+
+    /**
+     * The files of a user message being written by the task executor
+     */
+    protected static class PendingExport {
+
+        private final Future<?> future;
+
+        private final List<DataFile> dataFiles;
+
+        protected PendingExport(Future<?> future, List<DataFile> dataFiles) {
+            this.future = future;
+            this.dataFiles = dataFiles;
+        }
+
+        public Future<?> getFuture() {
+            return future;
+        }
+
+        public List<DataFile> getDataFiles() {
+            return dataFiles;
+        }
+
+        protected void cancel() {
+            future.cancel(true);
+        }
+    }
+}
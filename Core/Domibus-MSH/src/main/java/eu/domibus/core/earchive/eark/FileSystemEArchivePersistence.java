@@ -1,10 +1,8 @@
 package eu.domibus.core.earchive.eark;
 
 import eu.domibus.api.earchive.DomibusEArchiveException;
-import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.earchive.DomibusEArchiveExportException;
 import eu.domibus.api.earchive.EArchiveRequestType;
-import eu.domibus.api.util.FileServiceUtil;
 import eu.domibus.core.earchive.BatchEArchiveDTO;
 import eu.domibus.core.earchive.EArchiveBatchUserMessage;
 import eu.domibus.core.earchive.alerts.EArchivingEventService;
@@ -15,7 +13,6 @@ import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.property.DomibusVersionService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
 import org.roda_project.commons_ip.utils.IPException;
 import org.roda_project.commons_ip2.model.IPConstants;
@@ -27,14 +24,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author François Gautier
@@ -57,7 +50,8 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
     private final EARKSIPFileService eArkSipBuilderService;
 
     private final EArchivingEventService eArchivingEventService;
-    private final FileServiceUtil fileServiceUtil;
+
+    private final EArkSipDataExporter eArkSipDataExporter;
 
 
     public FileSystemEArchivePersistence(EArchiveFileStorageProvider storageProvider,
@@ -65,13 +59,13 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
                                          EArchivingFileService eArchivingFileService,
                                          EARKSIPFileService earksipFileService,
                                          EArchivingEventService eArchivingEventService,
-                                         FileServiceUtil fileServiceUtil) {
+                                         EArkSipDataExporter eArkSipDataExporter) {
         this.storageProvider = storageProvider;
         this.domibusVersionService = domibusVersionService;
         this.eArchivingFileService = eArchivingFileService;
         this.eArkSipBuilderService = earksipFileService;
         this.eArchivingEventService = eArchivingEventService;
-        this.fileServiceUtil = fileServiceUtil;
+        this.eArkSipDataExporter = eArkSipDataExporter;
     }
 
     @Override
@@ -132,45 +126,7 @@ public class FileSystemEArchivePersistence implements EArchivePersistence {
 
     protected void addRepresentation1(List<EArchiveBatchUserMessage> userMessageEntityIds, Path batchDirectory, MetsWrapper mainMETSWrapper) {
         eArkSipBuilderService.addBatchJsonToMETS(mainMETSWrapper, BATCH_JSON_PATH);
-        for (EArchiveBatchUserMessage eArchiveBatchUserMessage : userMessageEntityIds) {
-            LOG.debug("Add messageId [{}]", eArchiveBatchUserMessage.getMessageId());
-            addUserMessage(eArchiveBatchUserMessage, batchDirectory, mainMETSWrapper);
-        }
-    }
-
-    private void addUserMessage(EArchiveBatchUserMessage eArchiveBatchUserMessage, Path batchDirectory, MetsWrapper mainMETSWrapper) {
-        Map<String, ArchivingFileDTO> archivingFile = eArchivingFileService.getArchivingFiles(eArchiveBatchUserMessage.getUserMessageEntityId());
-
-        for (Map.Entry<String, ArchivingFileDTO> file : archivingFile.entrySet()) {
-            LOG.trace("Process file [{}]", file.getKey());
-            String messageFolder = fileServiceUtil.URLEncode(eArchiveBatchUserMessage.getMessageId());
-
-            String relativePathToMessageFolder = IPConstants.DATA_FOLDER + messageFolder + IPConstants.ZIP_PATH_SEPARATOR + file.getKey();
-
-            Path dir = Paths.get(batchDirectory.toFile().getAbsolutePath(), "representations", "representation1", "data", messageFolder);
-            Path path = Paths.get(dir.toFile().getAbsolutePath(), file.getKey());
-
-            ArchivingFileDTO archivingFileDTO = file.getValue();
-            archivingFileDTO.setPath(path);
-            MessageDigest instance = getMessageDigest();
-
-            try (InputStream inputStream = archivingFileDTO.getInputStream();
-                 InputStream digestInputStream = new DigestInputStream(inputStream, instance)) {
-                eArkSipBuilderService.createDataFile(path, digestInputStream);
-            } catch (IOException e) {
-                throw new DomibusEArchiveException("Could not createDataFile on dir [" + dir + "] and file [" + archivingFileDTO + "]", e);
-            }
-            archivingFileDTO.setCheckSum(Hex.encodeHexString(instance.digest()));
-            eArkSipBuilderService.addDataFileInfoToMETS(mainMETSWrapper, relativePathToMessageFolder, archivingFileDTO);
-        }
-    }
-
-    private static MessageDigest getMessageDigest() {
-        try {
-            return MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException e) {
-            throw new DomibusEArchiveException(DomibusCoreErrorCode.DOM_001, "SHA-256 should be supported");
-        }
+        eArkSipDataExporter.exportUserMessages(userMessageEntityIds, batchDirectory, mainMETSWrapper);
     }
 
 }
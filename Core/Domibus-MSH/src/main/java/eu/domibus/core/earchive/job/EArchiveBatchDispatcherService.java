@@ -71,7 +71,12 @@ public class EArchiveBatchDispatcherService {
         long maxEntityIdToArchived = eArchivingJobService.getMaxEntityIdToArchived(eArchiveRequestType);
         int batchMaxSize = getProperty(DOMIBUS_EARCHIVE_BATCH_SIZE);
         int batchPayloadMaxSize = getProperty(DOMIBUS_EARCHIVE_BATCH_SIZE_PAYLOAD) * 1024 * 1024;
-        int maxNumberOfBatchesCreated = getProperty(DOMIBUS_EARCHIVE_BATCH_MAX);
+        int configuredMaxNumberOfBatches = getProperty(DOMIBUS_EARCHIVE_BATCH_MAX);
+        int maxNumberOfBatchesCreated = getNumberOfBatchesToCreate(configuredMaxNumberOfBatches);
+        if (configuredMaxNumberOfBatches > 0 && maxNumberOfBatchesCreated == 0) {
+            LOG.info("The eArchive export queue is full: no eArchive batch of type [{}] is created", eArchiveRequestType);
+            return;
+        }
         LOG.trace("Start eArchive batch lastEntityIdProcessed [{}], " +
                         "maxEntityIdToArchived [{}], " +
                         "batchMaxSize [{}], " +
@@ -107,6 +112,21 @@ public class EArchiveBatchDispatcherService {
         }
     }
 
+    /**
+     * Limits the number of batches created so that the number of batches queued or being exported does not exceed
+     * {@code domibus.earchive.batch.queued.max}, letting the export listeners catch up after a traffic spike
+     */
+    protected int getNumberOfBatchesToCreate(int maxNumberOfBatchesCreated) {
+        final Integer maxQueuedBatches = domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_BATCH_QUEUED_MAX);
+        if (maxQueuedBatches == null || maxQueuedBatches <= 0) {
+            return maxNumberOfBatchesCreated;
+        }
+        final long pendingExportBatches = eArchivingJobService.countPendingExportBatches();
+        final int numberOfBatchesToCreate = (int) Math.max(0, Math.min(maxNumberOfBatchesCreated, maxQueuedBatches - pendingExportBatches));
+        LOG.debug("[{}] eArchive batches queued or being exported, maximum [{}]: creating at most [{}] batches", pendingExportBatches, maxQueuedBatches, numberOfBatchesToCreate);
+        return numberOfBatchesToCreate;
+    }
+
     private boolean batchCreated(Long lastEntityIdProcessed, Long newLastEntityIdProcessed) {
         return !Objects.equals(newLastEntityIdProcessed, lastEntityIdProcessed);
     }
@@ -160,6 +160,14 @@ public class EArchivingJobService {
         return eArchiveBatchDao.merge(entity);
     }
 
+    /**
+     * @return the number of batches queued or being exported
+     */
+    @Transactional(readOnly = true)
+    public long countPendingExportBatches() {
+        return eArchiveBatchDao.countBatchesByStatus(Arrays.asList(EArchiveBatchStatus.QUEUED, EArchiveBatchStatus.STARTED));
+    }
+
     @Transactional(readOnly = true)
     public long getMaxEntityIdToArchived(EArchiveRequestType eArchiveRequestType) {
         if (eArchiveRequestType == EArchiveRequestType.SANITIZER) {
@@ -122,7 +122,7 @@ public abstract class AbstractUserMessageSender implements MessageSender {
         ReliabilityChecker.CheckResult reliabilityCheckResult = ReliabilityChecker.CheckResult.SEND_FAIL;
         ResponseResult responseResult = null;
         SOAPMessage responseSoapMessage = null;
-        String requestRawXMLMessage = null;
+        byte[] requestCompressedRawXMLMessage = null;
 
         LegConfiguration legConfiguration = null;
         final String pModeKey;
@@ -197,7 +197,7 @@ public abstract class AbstractUserMessageSender implements MessageSender {
             responseSoapMessage = mshDispatcher.dispatch(requestSoapMessage, receiverUrl, policy, legConfiguration, pModeKey);
             signalMessageSoapEnvelopeSpiDelegate.afterReceiving(responseSoapMessage);
 
-            requestRawXMLMessage = soapUtil.getRawXMLMessage(requestSoapMessage);
+            requestCompressedRawXMLMessage = soapUtil.getCompressedRawXMLMessage(requestSoapMessage);
             responseResult = responseHandler.verifyResponse(responseSoapMessage, messageId);
 
             reliabilityCheckResult = reliabilityChecker.check(requestSoapMessage, responseSoapMessage, responseResult, legConfiguration);
@@ -228,7 +228,7 @@ public abstract class AbstractUserMessageSender implements MessageSender {
             }
 
             getLog().debug("Finally handle reliability");
-            reliabilityService.handleReliability(userMessage, userMessageLog, reliabilityCheckResult, requestRawXMLMessage, responseSoapMessage, responseResult, legConfiguration, attempt);
+            reliabilityService.handleReliability(userMessage, userMessageLog, reliabilityCheckResult, requestCompressedRawXMLMessage, responseSoapMessage, responseResult, legConfiguration, attempt);
             if (ReliabilityChecker.CheckResult.OK == reliabilityCheckResult) {
                 getLog().businessInfo(isTestMessage ? DomibusMessageCode.BUS_TEST_MESSAGE_SEND_SUCCESS : DomibusMessageCode.BUS_MESSAGE_SEND_SUCCESS,
                         userMessage.getPartyInfo().getFromParty(), userMessage.getPartyInfo().getToParty());
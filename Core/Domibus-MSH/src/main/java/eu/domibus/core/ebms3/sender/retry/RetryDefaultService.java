@@ -3,6 +3,7 @@ package eu.domibus.core.ebms3.sender.retry;
 import eu.domibus.api.model.MSHRole;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.api.model.UserMessageLog;
+import eu.domibus.api.model.UserMessageLogRetryDto;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.common.model.configuration.LegConfiguration;
@@ -22,9 +23,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_RETRY_MAX_MESSAGES_PER_JOB;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MSH_RETRY_TIMEOUT_DELAY;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.apache.commons.lang3.time.DateUtils.MILLIS_PER_MINUTE;
@@ -39,6 +41,8 @@ public class RetryDefaultService implements RetryService {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(RetryDefaultService.class);
 
+    protected static final int RETRY_MESSAGES_PAGE_SIZE = 1000;
+
     @Autowired
     protected DomibusPropertyProvider domibusPropertyProvider;
 
@@ -113,10 +117,13 @@ public class RetryDefaultService implements RetryService {
         userMessageService.scheduleSending(userMessage, userMessageLog);
     }
 
+    /**
+     * Returns the messages to be retried, at most {@code domibus.msh.retry.maxMessagesPerJob}. The messages are read in
+     * pages of projections and, when there are more messages than the maximum, they are picked in turns from each MPC.
+     * The pages are no longer read once every MPC found has the maximum number of messages.
+     */
     @Override
     public List<Long> getMessagesNotAlreadyScheduled() {
-        List<Long> result = new ArrayList<>();
-
         int maxRetryTimeout = pModeProvider.getMaxRetryTimeout();
         int retryTimeoutDelay = domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_TIMEOUT_DELAY);
         LOG.trace("maxRetryTimeout [{}], retryTimeoutDelay [{}]", maxRetryTimeout, retryTimeoutDelay);
@@ -128,27 +135,80 @@ public class RetryDefaultService implements RetryService {
         long maxEntityId = dateUtil.getMaxEntityId(0);
 
         LOG.trace("minEntityId [{}], maxEntityId [{}]", minEntityId, maxEntityId);
-        final List<Long> messageEntityIdsToSend = userMessageLogDao.findRetryMessages(minEntityId, maxEntityId);
-        if (messageEntityIdsToSend.isEmpty()) {
+
+        int maxMessagesPerJob = domibusPropertyProvider.getIntegerProperty(DOMIBUS_MSH_RETRY_MAX_MESSAGES_PER_JOB);
+        // messages to be retried grouped by MPC, each group ordered by entity id
+        final Map<String, List<Long>> messageEntityIdsByMpc = new LinkedHashMap<>();
+        long lastEntityId = minEntityId - 1;
+        List<UserMessageLogRetryDto> page;
+        do {
+            if (isEveryMpcFull(messageEntityIdsByMpc, maxMessagesPerJob)) {
+                LOG.debug("Found [{}] messages to be retried for each MPC, the remaining messages are not read", maxMessagesPerJob);
+                break;
+            }
+            page = userMessageLogDao.findRetryMessagesPage(minEntityId, maxEntityId, lastEntityId, RETRY_MESSAGES_PAGE_SIZE);
+            LOG.trace("Found [{}] messages to be send after entityId [{}]", page.size(), lastEntityId);
+            for (UserMessageLogRetryDto retryMessage : page) {
+                lastEntityId = retryMessage.getEntityId();
+                // START - This part should NOT be propagated to 5.2 (TSID is making the filter works correctly)
+                if (!isCreatedWithinTimeout(retryMessage, now, timeOutMin)) {
+                    continue;
+                }
+                // END - This part should NOT be propagated to 5.2
+                final List<Long> mpcEntityIds = messageEntityIdsByMpc.computeIfAbsent(retryMessage.getMpc(), mpc -> new ArrayList<>());
+                if (maxMessagesPerJob <= 0 || mpcEntityIds.size() < maxMessagesPerJob) {
+                    mpcEntityIds.add(retryMessage.getEntityId());
+                }
+            }
+        } while (page.size() == RETRY_MESSAGES_PAGE_SIZE);
+
+        if (messageEntityIdsByMpc.isEmpty()) {
             LOG.trace("No message found to be resend");
+            return new ArrayList<>();
+        }
+        return pickInTurns(messageEntityIdsByMpc, maxMessagesPerJob);
+    }
+
+    protected boolean isEveryMpcFull(Map<String, List<Long>> messageEntityIdsByMpc, int maxMessagesPerJob) {
+        if (maxMessagesPerJob <= 0 || messageEntityIdsByMpc.isEmpty()) {
+            return false;
+        }
+        return messageEntityIdsByMpc.values().stream().allMatch(entityIds -> entityIds.size() >= maxMessagesPerJob);
+    }
+
+    protected boolean isCreatedWithinTimeout(UserMessageLogRetryDto retryMessage, ZonedDateTime now, int timeOutMin) {
+        long timeout = timeOutMin * MILLIS_PER_MINUTE;
+        if ((retryMessage.getCreationTime().getTime() + timeout) > now.toInstant().toEpochMilli()) {
+            LOG.debug("Add EntityId [{}] creationTime [{}] now [{}] timeout [{} m]", retryMessage.getEntityId(), retryMessage.getCreationTime().toInstant().atOffset(ZoneOffset.UTC), now, timeOutMin);
+            return true;
+        }
+        LOG.debug("Ignore EntityId [{}] creationTime [{}] now [{}] timeout [{} m]", retryMessage.getEntityId(), retryMessage.getCreationTime().toInstant().atOffset(ZoneOffset.UTC), now, timeOutMin);
+        return false;
+    }
+
+    /**
+     * Picks one message from each MPC in turn until the maximum number of messages is reached or there are no more
+     * messages; a maximum lower or equal to 0 means no limit.
+     */
+    protected List<Long> pickInTurns(Map<String, List<Long>> messageEntityIdsByMpc, int maxMessages) {
+        final int total = messageEntityIdsByMpc.values().stream().mapToInt(List::size).sum();
+        if (maxMessages <= 0 || total <= maxMessages) {
+            final List<Long> result = new ArrayList<>(total);
+            messageEntityIdsByMpc.values().forEach(result::addAll);
             return result;
         }
-        LOG.trace("Found messages to be send [{}]", messageEntityIdsToSend);
-
-        // START - This part should NOT be propagated to 5.2 (TSID is making the filter works correctly)
-        for (Long entityId : messageEntityIdsToSend) {
-            UserMessageLog byEntityId = userMessageLogDao.findByEntityId(entityId);
-
-            long timeout = timeOutMin * MILLIS_PER_MINUTE;
-            if ((byEntityId.getCreationTime().getTime() + timeout) > now.toInstant().toEpochMilli()) {
-                LOG.debug("Add EntityId [{}] creationTime [{}] now [{}] timeout [{} m]", entityId, byEntityId.getCreationTime().toInstant().atOffset(ZoneOffset.UTC), now, timeOutMin);
-                result.add(entityId);
-            } else {
-                LOG.debug("Ignore EntityId [{}] creationTime [{}] now [{}] timeout [{} m]", entityId, byEntityId.getCreationTime().toInstant().atOffset(ZoneOffset.UTC), now, timeOutMin);
+        LOG.info("There are [{}] messages to be retried, only [{}] will be scheduled now", total, maxMessages);
+        final List<Long> result = new ArrayList<>(maxMessages);
+        final List<Iterator<Long>> iterators = messageEntityIdsByMpc.values().stream()
+                .map(List::iterator)
+                .collect(Collectors.toList());
+        while (result.size() < maxMessages) {
+            for (Iterator<Long> iterator : iterators) {
+                if (iterator.hasNext() && result.size() < maxMessages) {
+                    result.add(iterator.next());
+                }
             }
         }
-        // END - This part should NOT be propagated to 5.2
-
         return result;
     }
 
@@ -143,6 +143,11 @@ public class ErrorLogDao extends ListDao<ErrorLogEntry> {
         return initializeChildren(super.findPaged(from, max, sortColumn, asc, filters));
     }
 
+    @Override
+    public List<ErrorLogEntry> findPagedAfter(final ErrorLogEntry last, final int max, final String sortColumn, final boolean asc, final Map<String, Object> filters) {
+        return initializeChildren(super.findPagedAfter(last, max, sortColumn, asc, filters));
+    }
+
     private List<ErrorLogEntry> initializeChildren(List<ErrorLogEntry> errorLogEntries) {
         for (ErrorLogEntry errorLogEntry : errorLogEntries) {
             initializeChildren(errorLogEntry);
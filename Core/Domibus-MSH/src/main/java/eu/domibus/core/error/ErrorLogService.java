@@ -33,6 +33,13 @@ public interface ErrorLogService {
 
     List<ErrorLogEntry> findPaged(int from, int max, String sortColumn, boolean asc, Map<String, Object> filters);
 
+    /**
+     * Loads the page following the given entry, by keyset
+     *
+     * @param last the last entry of the previous page, null for the first page
+     */
+    List<ErrorLogEntry> findPagedAfter(ErrorLogEntry last, int max, String sortColumn, boolean asc, Map<String, Object> filters);
+
     long countEntries(Map<String, Object> filters);
 
     List<? extends ErrorResult> getErrors(String messageId, MSHRole mshRole);
@@ -105,6 +105,11 @@ public class ErrorLogServiceImpl implements ErrorLogService {
         return errorLogDao.findPaged(from, max, sortColumn, asc, filters);
     }
 
+    @Override
+    public List<ErrorLogEntry> findPagedAfter(final ErrorLogEntry last, final int max, final String sortColumn, final boolean asc, final Map<String, Object> filters) {
+        return errorLogDao.findPagedAfter(last, max, sortColumn, asc, filters);
+    }
+
     @Override
     public List<? extends ErrorResult> getErrors(String messageId, MSHRole mshRole) {
         List<ErrorLogEntry> errorsForMessage = errorLogDao.getErrorsForMessage(messageId, mshRole);
@@ -175,6 +175,13 @@ public class JMSManagerImpl implements JMSManager {
         return jmsMessageMapper.convert(messagesSPI);
     }
 
+    @Override
+    public List<JmsMessage> browseClusterMessages(String source, String selector, int maxCount) {
+        LOG.debug("browseClusterMessages using selector [{}] and max count [{}]", selector, maxCount);
+        List<InternalJmsMessage> messagesSPI = internalJmsManager.browseClusterMessages(source, selector, maxCount);
+        return jmsMessageMapper.convert(messagesSPI);
+    }
+
     @Override
     public void convertAndSendToQueue(final Object message, final Queue destination, final String selector) {
         MessagePostProcessor messagePostProcessor = message1 -> {
@@ -568,7 +575,8 @@ public class JMSManagerImpl implements JMSManager {
         }
         selector = getDomainSelector(selector);
 
-        List<JmsMessage> messages = browseClusterMessages(queueName, selector);
+        // the browse stops at the limit so that the whole queue is not read and converted for each listing
+        List<JmsMessage> messages = browseClusterMessages(queueName, selector, intMaxPendingMessagesRetrieveCount);
         LOG.info("[{}] messages selected from queue [{}] with selector [{}]", (messages != null ? messages.size() : 0), queueName, selector);
 
         int countOfMessagesIncluded = 0;
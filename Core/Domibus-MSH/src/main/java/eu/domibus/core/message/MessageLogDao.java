@@ -99,4 +99,19 @@ public abstract class MessageLogDao<F extends DomibusBaseEntity> extends ListDao
         return result;
     }
 
+    /**
+     * Loads the page following the given row, by keyset and not by offset, so the cost of a page does not grow with its position
+     *
+     * @param last the last row of the previous page, null for the first page
+     */
+    public List<MessageLogInfo> findAllInfoPagedAfter(MessageLogInfo last, int max, String column, boolean asc, Map<String, Object> filters, List<String> fields) {
+        MessageLogInfoFilter filterService = getMessageLogInfoFilter();
+        String keysetMessageLogQuery = filterService.getKeysetMessageLogQuery(last, column, asc, filters, fields);
+        TypedQuery<MessageLogInfo> typedQuery = em.createQuery(keysetMessageLogQuery, MessageLogInfo.class);
+        TypedQuery<MessageLogInfo> queryParameterized = filterService.applyParameters(typedQuery, filters);
+        filterService.applyKeysetParameters(queryParameterized, last, column);
+        queryParameterized.setMaxResults(max);
+        return queryParameterized.getResultList();
+    }
+
 }
@@ -88,6 +88,8 @@ public class MessageLogInfo {
 
     private Date archived;
 
+    private Long entityId;
+
     public MessageLogInfo() {
     }
 
@@ -103,7 +105,8 @@ public class MessageLogInfo {
                           final String originalSender,
                           final String finalRecipient,
                           final String refToMessageId,
-                          final Boolean testMessage) {
+                          final Boolean testMessage,
+                          final Long entityId) {
         this.messageType = MessageType.SIGNAL_MESSAGE;
         this.messageId = messageId;
         this.messageStatusId = messageStatusId;
@@ -118,6 +121,7 @@ public class MessageLogInfo {
         this.finalRecipient = finalRecipient;
         this.refToMessageId = refToMessageId;
         this.testMessage = testMessage;
+        this.entityId = entityId;
 
         this.partLength = 0L;
     }
@@ -148,10 +152,11 @@ public class MessageLogInfo {
                           final Long serviceId,
                           final String pluginType,
                           final Long partLength,
-                          final Date archived
+                          final Date archived,
+                          final Long entityId
     ) {
         this(messageId, messageStatusId, mshRoleId, deleted, received, conversationId, fromPartyIdPk, toPartyIdPk,
-                originalSender, finalRecipient, refToMessageId, testMessage);
+                originalSender, finalRecipient, refToMessageId, testMessage, entityId);
 
         this.messageType = MessageType.USER_MESSAGE;
         this.notificationStatusId = notificationStatusId;
@@ -435,6 +440,14 @@ public class MessageLogInfo {
         this.archived = archived;
     }
 
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
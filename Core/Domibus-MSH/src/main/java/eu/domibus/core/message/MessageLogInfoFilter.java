@@ -16,6 +16,7 @@ import javax.persistence.TypedQuery;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static eu.domibus.api.model.DomibusDatePrefixedSequenceIdGeneratorGenerator.*;
 import static eu.domibus.web.rest.MessageLogResource.*;
@@ -61,9 +62,15 @@ public abstract class MessageLogInfoFilter {
     public static final String MAX_ENTITY_ID = "maxEntityId";
     public static final String RECEIVED_FROM = "receivedFrom";
     public static final String RECEIVED_TO = "receivedTo";
+    public static final String KEYSET_LAST_VALUE = "keysetLastValue";
+    public static final String KEYSET_LAST_ENTITY_ID = "keysetLastEntityId";
+    private static final List<String> DICTIONARY_KEYS = Arrays.asList(LOG_MSH_ROLE, LOG_MESSAGE_STATUS, LOG_NOTIFICATION_STATUS,
+            MESSAGE_PARTY_INFO_FROM_FROM_PARTY_ID, MESSAGE_PARTY_INFO_TO_TO_PARTY_ID);
 
     Map<String, FilterParameterExtractor> parameterExtractors = new HashMap<>();
 
+    Map<String, Function<MessageLogInfo, Object>> keysetValueExtractors = new HashMap<>();
+
     @Autowired
     ServiceDao serviceDao;
 
@@ -99,6 +106,22 @@ public abstract class MessageLogInfoFilter {
 
         parameterExtractors.put(PROPERTY_FROM_PARTY_ID, (filter) -> handlePartyIdDictionary(filter));
         parameterExtractors.put(PROPERTY_TO_PARTY_ID, (filter) -> handlePartyIdDictionary(filter));
+
+        keysetValueExtractors.put("messageId", MessageLogInfo::getMessageId);
+        keysetValueExtractors.put(PROPERTY_MSH_ROLE, MessageLogInfo::getMshRoleId);
+        keysetValueExtractors.put(PROPERTY_MESSAGE_STATUS, MessageLogInfo::getMessageStatusId);
+        keysetValueExtractors.put(PROPERTY_NOTIFICATION_STATUS, MessageLogInfo::getNotificationStatusId);
+        keysetValueExtractors.put("deleted", MessageLogInfo::getDeleted);
+        keysetValueExtractors.put("received", MessageLogInfo::getReceived);
+        keysetValueExtractors.put("sendAttempts", MessageLogInfo::getSendAttempts);
+        keysetValueExtractors.put("sendAttemptsMax", MessageLogInfo::getSendAttemptsMax);
+        keysetValueExtractors.put("nextAttempt", MessageLogInfo::getNextAttempt);
+        keysetValueExtractors.put(PROPERTY_FROM_PARTY_ID, MessageLogInfo::getFromPartyIdPk);
+        keysetValueExtractors.put(PROPERTY_TO_PARTY_ID, MessageLogInfo::getToPartyIdPk);
+        keysetValueExtractors.put("refToMessageId", MessageLogInfo::getRefToMessageId);
+        keysetValueExtractors.put("conversationId", MessageLogInfo::getConversationId);
+        keysetValueExtractors.put("failed", MessageLogInfo::getFailed);
+        keysetValueExtractors.put("restored", MessageLogInfo::getRestored);
     }
 
     protected String getHQLKey(String originalColumn) {
@@ -283,6 +306,77 @@ public abstract class MessageLogInfoFilter {
 
     public abstract String getFilterMessageLogQuery(String column, boolean asc, Map<String, Object> filters, List<String> fields);
 
+    /**
+     * Builds the query of the page following the given row (keyset paging). The rows are ordered by the sort column, with the null
+     * values first in ascending order and last in descending order, and then by entity id; the columns whose value is not part of
+     * {@link MessageLogInfo} are not supported and the rows are then only ordered by entity id.
+     *
+     * @param last the last row of the previous page, null for the first page
+     * @return String query
+     */
+    public String getKeysetMessageLogQuery(MessageLogInfo last, String column, boolean asc, Map<String, Object> filters, List<String> fields) {
+        StringBuilder result = new StringBuilder(getFilterMessageLogQuery(null, asc, filters, fields));
+        String keysetColumn = getKeysetColumn(column);
+        if (last != null) {
+            setSeparator(result.toString(), result);
+            result.append(getKeysetCondition(keysetColumn, asc, getKeysetValue(column, last) == null));
+        }
+        result.append(" order by ");
+        if (keysetColumn != null) {
+            String direction = asc ? " asc" : " desc";
+            result.append("case when ").append(keysetColumn).append(" is null then 0 else 1 end").append(direction).append(", ")
+                    .append(keysetColumn).append(direction).append(", ");
+        }
+        result.append(LOG_MESSAGE_ENTITY_ID).append(" asc");
+        return result.toString();
+    }
+
+    /**
+     * Sets the parameters of the query built by {@link #getKeysetMessageLogQuery(MessageLogInfo, String, boolean, Map, List)}
+     */
+    public <E> TypedQuery<E> applyKeysetParameters(TypedQuery<E> query, MessageLogInfo last, String column) {
+        if (last == null) {
+            return query;
+        }
+        query.setParameter(KEYSET_LAST_ENTITY_ID, last.getEntityId());
+        Object lastValue = getKeysetValue(column, last);
+        if (getKeysetColumn(column) != null && lastValue != null) {
+            query.setParameter(KEYSET_LAST_VALUE, lastValue);
+        }
+        return query;
+    }
+
+    protected String getKeysetColumn(String column) {
+        if (column == null || !keysetValueExtractors.containsKey(column)) {
+            return null;
+        }
+        String hqlKey = getHQLKey(column);
+        if (StringUtils.isBlank(hqlKey)) {
+            return null;
+        }
+        return DICTIONARY_KEYS.contains(hqlKey) ? hqlKey + ".entityId" : hqlKey;
+    }
+
+    protected Object getKeysetValue(String column, MessageLogInfo last) {
+        Function<MessageLogInfo, Object> extractor = column == null ? null : keysetValueExtractors.get(column);
+        return extractor == null ? null : extractor.apply(last);
+    }
+
+    protected String getKeysetCondition(String keysetColumn, boolean asc, boolean lastValueNull) {
+        String afterLastEntityId = LOG_MESSAGE_ENTITY_ID + " > :" + KEYSET_LAST_ENTITY_ID;
+        if (keysetColumn == null) {
+            return afterLastEntityId;
+        }
+        if (lastValueNull) {
+            // the null values come first in ascending order and last in descending order
+            return asc ? "((" + keysetColumn + " is null and " + afterLastEntityId + ") or " + keysetColumn + " is not null)"
+                    : "(" + keysetColumn + " is null and " + afterLastEntityId + ")";
+        }
+        String afterLastValue = keysetColumn + (asc ? " > :" : " < :") + KEYSET_LAST_VALUE
+                + " or (" + keysetColumn + " = :" + KEYSET_LAST_VALUE + " and " + afterLastEntityId + ")";
+        return asc ? "(" + afterLastValue + ")" : "(" + keysetColumn + " is null or " + afterLastValue + ")";
+    }
+
     /**
      * Constructs the query body based on different conditions
      *
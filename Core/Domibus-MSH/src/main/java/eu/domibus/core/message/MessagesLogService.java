@@ -18,4 +18,11 @@ public interface MessagesLogService {
 
     List<MessageLogInfo> findAllInfoCSV(MessageType messageType, int max, String orderByColumn, boolean asc, Map<String, Object> filters, List<String> fields);
 
+    /**
+     * Loads the page of the CSV export following the given row, by keyset
+     *
+     * @param last the last row of the previous page, null for the first page
+     */
+    List<MessageLogInfo> findAllInfoCSV(MessageType messageType, MessageLogInfo last, int max, String orderByColumn, boolean asc, Map<String, Object> filters, List<String> fields);
+
 }
@@ -92,6 +92,17 @@ public class MessagesLogServiceImpl implements MessagesLogService {
         return resultList;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<MessageLogInfo> findAllInfoCSV(MessageType messageType, MessageLogInfo last, int max, String orderByColumn, boolean asc, Map<String, Object> filters, List<String> fields) {
+        MessageLogDao dao = getMessageLogDao(messageType);
+        List<MessageLogInfo> resultList = dao.findAllInfoPagedAfter(last, max, orderByColumn, asc, filters, fields);
+        resultList.forEach(msgInfo -> {
+            messageLogDictionaryDataService.addDictionaryData(fields, msgInfo);
+        });
+        return resultList;
+    }
+
     protected List<MessageLogInfo> countAndFilter(MessageLogDao dao, int from, int max, String column, boolean asc, Map<String, Object> filters,
                                                   List<String> fields, MessageLogResultRO result) {
         List<MessageLogInfo> resultList = new ArrayList<>();
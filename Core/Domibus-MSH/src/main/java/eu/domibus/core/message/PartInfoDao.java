@@ -16,6 +16,9 @@ import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +45,18 @@ public class PartInfoDao extends BasicDao<PartInfo> {
         return partInfos;
     }
 
+    /**
+     * Finds the part infos of several user messages in one query; the part properties of all the part infos are loaded in one additional query
+     */
+    public List<PartInfo> findPartInfoByUserMessageEntityIds(final List<Long> userMessageEntityIds) {
+        final Query query = this.em.createNamedQuery("PartInfo.findPartInfosByUserMessageEntityIds");
+        query.setParameter("ENTITY_IDS", userMessageEntityIds);
+        query.setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false);
+        List<PartInfo> partInfos = query.getResultList();
+        setPartProperties(partInfos);
+        return partInfos;
+    }
+
     public PartInfo findPartInfoByUserMessageEntityIdAndCid(final Long userMessageEntityId, String cid) {
         final TypedQuery<PartInfo> query = this.em.createNamedQuery("PartInfo.findPartInfoByUserMessageEntityIdAndCid", PartInfo.class);
         query.setParameter("ENTITY_ID", userMessageEntityId);
@@ -71,6 +86,31 @@ public class PartInfoDao extends BasicDao<PartInfo> {
         return query.getResultList();
     }
 
+    private void setPartProperties(List<PartInfo> partInfos) {
+        final List<Long> entityIDs = partInfos.stream()
+                .filter(partInfo -> CollectionUtils.isNotEmpty(partInfo.getPartPropertyRefs()))
+                .flatMap(partInfo -> partInfo.getPartPropertyRefs().stream())
+                .map(PartPropertyRef::getPropertyId)
+                .distinct()
+                .collect(Collectors.toList());
+        if (entityIDs.isEmpty()) {
+            LOG.debug("No part property refs found");
+            return;
+        }
+        LOG.debug("Getting PartProperty collection for entity IDs: [{}]", entityIDs);
+        final Map<Long, PartProperty> partProperties = partPropertyDao.findByEntityIDs(entityIDs).stream()
+                .collect(Collectors.toMap(PartProperty::getEntityId, Function.identity()));
+        for (PartInfo partInfo : partInfos) {
+            if (CollectionUtils.isEmpty(partInfo.getPartPropertyRefs())) {
+                continue;
+            }
+            partInfo.setPartProperties(partInfo.getPartPropertyRefs().stream()
+                    .map(partPropertyRef -> partProperties.get(partPropertyRef.getPropertyId()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+        }
+    }
+
     private void setPartProperties(PartInfo partInfo) {
         if (partInfo == null) {
             LOG.debug("partInfo is null");
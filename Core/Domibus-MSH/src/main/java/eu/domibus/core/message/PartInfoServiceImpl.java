@@ -7,6 +7,7 @@ import eu.domibus.api.model.MSHRole;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.Property;
 import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.payload.PartInfoService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
 import eu.domibus.api.property.DomibusPropertyProvider;
@@ -16,6 +17,7 @@ import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.ebms3.EbMS3ExceptionBuilder;
 import eu.domibus.core.payload.persistence.PayloadPersistenceHelper;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileLayout;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.logging.DomibusMessageCode;
@@ -24,6 +26,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,15 +35,15 @@ import javax.activation.DataHandler;
 import javax.activation.DataSource;
 import javax.crypto.Cipher;
 import javax.mail.util.ByteArrayDataSource;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_DISPATCHER_SPLIT_AND_JOIN_PAYLOADS_SCHEDULE_THRESHOLD;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_FILES_ASYNC;
 
 /**
  * @author François Gautier
@@ -64,6 +67,15 @@ public class PartInfoServiceImpl implements PartInfoService {
     @Autowired
     protected PayloadPersistenceHelper payloadPersistenceHelper;
 
+    @Autowired
+    protected PayloadFileLayout payloadFileLayout;
+
+    @Autowired
+    protected DomainContextProvider domainContextProvider;
+
+    @Autowired
+    protected ApplicationEventPublisher applicationEventPublisher;
+
     @Override
     public void create(PartInfo partInfo, UserMessage userMessage) {
         partInfo.setUserMessage(userMessage);
@@ -92,6 +104,11 @@ public class PartInfoServiceImpl implements PartInfoService {
         return partInfoDao.findPartInfoByUserMessageEntityId(entityId);
     }
 
+    @Override
+    public List<PartInfo> findPartInfos(List<Long> entityIds) {
+        return partInfoDao.findPartInfoByUserMessageEntityIds(entityIds);
+    }
+
     @Override
     public Long findPartInfoTotalLength(long entityId) {
         List<Long> list = partInfoDao.findPartInfoLengthByUserMessageEntityId(entityId);
@@ -148,12 +165,9 @@ public class PartInfoServiceImpl implements PartInfoService {
         }
 
         try {
-            Path path = Paths.get(filename);
-            if (path == null) {
-                LOG.warn("Trying to delete an empty path, filename [{}]", filename);
-                return;
-            }
-            Files.delete(path);
+            final File payloadFile = payloadFileLayout.resolvePayloadFile(filename);
+            Files.delete(payloadFile.toPath());
+            payloadFileLayout.deleteEmptyShardDirectories(payloadFile);
         } catch (IOException e) {
             LOG.debug("Problem deleting payload data files", e);
         }
@@ -166,6 +180,15 @@ public class PartInfoServiceImpl implements PartInfoService {
             return;
         }
 
+        if (BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_FILES_ASYNC))) {
+            LOG.debug("The [{}] payloads on filesystem will be deleted after the transaction commit", filenames.size());
+            applicationEventPublisher.publishEvent(new PayloadFilesDeletionEvent(domainContextProvider.getCurrentDomainSafely(), filenames));
+            return;
+        }
+        deletePayloadFilesFromFileSystem(filenames);
+    }
+
+    public void deletePayloadFilesFromFileSystem(List<String> filenames) {
         LOG.debug("There are [{}] payloads on filesystem to delete: [{}] ", filenames.size(), filenames);
         for (String filename : filenames) {
             LOG.debug("Deleting payload data file: [{}]", filename);
@@ -227,7 +250,7 @@ public class PartInfoServiceImpl implements PartInfoService {
 
         if (fileName != null) { /* Create payload data handler from File */
             LOG.debug("LoadBinary from file: [{}]", fileName);
-            DataSource fsDataSource = new AutoCloseFileDataSource(fileName);
+            DataSource fsDataSource = new AutoCloseFileDataSource(payloadFileLayout.resolvePayloadFile(fileName).getAbsolutePath());
             createPayloadDataHandler(partInfo, fsDataSource);
             return;
         }
@@ -0,0 +1,31 @@
+package eu.domibus.core.message;
+
+import eu.domibus.api.multitenancy.Domain;
+
+import java.util.List;
+
+/**
+ * This event is published when the payload files of messages deleted in bulk are to be removed after the transaction commit
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class PayloadFilesDeletionEvent {
+
+    protected final Domain domain;
+
+    protected final List<String> filenames;
+
+    public PayloadFilesDeletionEvent(Domain domain, List<String> filenames) {
+        this.domain = domain;
+        this.filenames = filenames;
+    }
+
+    public Domain getDomain() {
+        return domain;
+    }
+
+    public List<String> getFilenames() {
+        return filenames;
+    }
+}
@@ -0,0 +1,37 @@
+package eu.domibus.core.message;
+
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Deletes the payload files of the messages deleted in bulk on the long running task executor, once the deletion of the
+ * messages is committed, so that neither the database transaction waits for the file system nor a rolled back deletion
+ * leaves messages without their payloads.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Component
+public class PayloadFilesDeletionListener {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PayloadFilesDeletionListener.class);
+
+    protected final PartInfoServiceImpl partInfoService;
+
+    protected final DomainTaskExecutor domainTaskExecutor;
+
+    public PayloadFilesDeletionListener(PartInfoServiceImpl partInfoService, DomainTaskExecutor domainTaskExecutor) {
+        this.partInfoService = partInfoService;
+        this.domainTaskExecutor = domainTaskExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEvent(PayloadFilesDeletionEvent event) {
+        LOG.debug("Submitting the deletion of [{}] payload files for domain [{}]", event.getFilenames().size(), event.getDomain());
+        domainTaskExecutor.submitLongRunningTask(() -> partInfoService.deletePayloadFilesFromFileSystem(event.getFilenames()), event.getDomain());
+    }
+}
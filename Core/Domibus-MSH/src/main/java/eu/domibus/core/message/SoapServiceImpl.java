@@ -10,6 +10,7 @@ import eu.domibus.core.util.MessageUtil;
 import eu.domibus.core.util.SoapUtil;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.interceptor.StaxInInterceptor;
 import org.apache.neethi.builders.converters.ConverterException;
@@ -20,9 +21,11 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.soap.SOAPException;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerException;
@@ -55,7 +58,7 @@ public class SoapServiceImpl implements SoapService {
 
 
     public Ebms3Messaging getMessage(final SoapMessage message) throws IOException, EbMS3Exception {
-        final Node messagingNode = getMessagingNode(message);
+        final Node messagingNode = getMessagingNode(message, messageUtil.isFastParsingActive());
         if (messagingNode == null) {
             throw EbMS3ExceptionBuilder.getInstance()
                     .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0009)
@@ -76,12 +79,15 @@ public class SoapServiceImpl implements SoapService {
     }
 
     public String getMessagingAsRAWXml(final SoapMessage message) throws IOException, EbMS3Exception, TransformerException {
-        final Node messagingNode = getMessagingNode(message);
+        final Node messagingNode = getMessagingNode(message, false);
 
         return soapUtil.getRawXMLMessage(messagingNode);
     }
 
-    private Node getMessagingNode(SoapMessage message) throws IOException, EbMS3Exception {
+    /**
+     * @param headerOnly when true, only the Messaging header is converted to DOM instead of the whole SOAP envelope
+     */
+    private Node getMessagingNode(SoapMessage message, boolean headerOnly) throws IOException, EbMS3Exception {
         final InputStream inputStream = message.getContent(InputStream.class);
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         //we use apache cxf IOUtils.copy intentionally here - do not replace it with other libraries
@@ -96,10 +102,81 @@ public class SoapServiceImpl implements SoapService {
                     .message("Messaging header is missing!")
                     .build();
         }
-        final Element soapEnvelope = convert(xmlStreamReader);
+        final Node messagingNode;
+        if (headerOnly) {
+            messagingNode = readMessagingNode(xmlStreamReader);
+        } else {
+            final Element soapEnvelope = convert(xmlStreamReader);
+            messagingNode = soapEnvelope.getElementsByTagNameNS(ObjectFactory._Messaging_QNAME.getNamespaceURI(), ObjectFactory._Messaging_QNAME.getLocalPart()).item(0);
+        }
         message.removeContent(XMLStreamReader.class);
         message.setContent(InputStream.class, new ByteArrayInputStream(data));
-        return soapEnvelope.getElementsByTagNameNS(ObjectFactory._Messaging_QNAME.getNamespaceURI(), ObjectFactory._Messaging_QNAME.getLocalPart()).item(0);
+        return messagingNode;
+    }
+
+    /**
+     * Skips the SOAP stream until the Messaging element and converts only this element to DOM
+     *
+     * @return the Messaging element or null if the stream does not contain it
+     */
+    protected Node readMessagingNode(XMLStreamReader reader) {
+        try {
+            int event = reader.getEventType();
+            while (true) {
+                if (event == XMLStreamConstants.START_ELEMENT && ObjectFactory._Messaging_QNAME.equals(reader.getName())) {
+                    Document doc = xmlUtil.getDocumentBuilderFactoryNamespaceAware().newDocumentBuilder().newDocument();
+                    readElement(doc, doc, reader);
+                    return doc.getDocumentElement();
+                }
+                if (!reader.hasNext()) {
+                    LOG.debug("Messaging element not found in the SOAP stream");
+                    return null;
+                }
+                event = reader.next();
+            }
+        } catch (ParserConfigurationException | XMLStreamException ex) {
+            throw new ConverterException(ex);
+        }
+    }
+
+    /**
+     * Converts to DOM the element on which the reader is positioned, leaving the reader on the end of the element
+     */
+    protected void readElement(Document doc, Node parent, XMLStreamReader reader) throws XMLStreamException {
+        final Element element = doc.createElementNS(StringUtils.defaultIfEmpty(reader.getNamespaceURI(), null), getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            final String qualifiedName = StringUtils.isEmpty(prefix) ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, qualifiedName, reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(StringUtils.defaultIfEmpty(reader.getAttributeNamespace(i), null),
+                    getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        parent.appendChild(element);
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    readElement(doc, element, reader);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    element.appendChild(doc.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.CDATA:
+                    element.appendChild(doc.createCDATASection(reader.getText()));
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private String getQualifiedName(String prefix, String localName) {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + ":" + localName;
     }
 
     protected Element convert(XMLStreamReader reader) {
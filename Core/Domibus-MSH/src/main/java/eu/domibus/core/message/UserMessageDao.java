@@ -2,6 +2,8 @@ package eu.domibus.core.message;
 
 import eu.domibus.api.messaging.DuplicateMessageFoundException;
 import eu.domibus.api.model.*;
+import eu.domibus.api.property.DataBaseEngine;
+import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.core.dao.BasicDao;
 import eu.domibus.core.message.dictionary.MshRoleDao;
 import eu.domibus.core.message.dictionary.PartyIdDao;
@@ -43,11 +45,15 @@ public class UserMessageDao extends BasicDao<UserMessage> {
 
     private final PartyIdDao partyIdDao;
 
-    public UserMessageDao(MessageStatusDao messageStatusDao, MshRoleDao mshRoleDao, PartyIdDao partyIdDao) {
+    private final DomibusConfigurationService domibusConfigurationService;
+
+    public UserMessageDao(MessageStatusDao messageStatusDao, MshRoleDao mshRoleDao, PartyIdDao partyIdDao,
+                          DomibusConfigurationService domibusConfigurationService) {
         super(UserMessage.class);
         this.messageStatusDao = messageStatusDao;
         this.mshRoleDao = mshRoleDao;
         this.partyIdDao = partyIdDao;
+        this.domibusConfigurationService = domibusConfigurationService;
     }
 
     @Transactional(readOnly = true)
@@ -130,9 +136,15 @@ public class UserMessageDao extends BasicDao<UserMessage> {
     @Timer(clazz = UserMessageDao.class, value = "findPotentialExpiredPartitions")
     @Counter(clazz = UserMessageDao.class, value = "findPotentialExpiredPartitions")
     public List<DatabasePartition> findAllPartitions(String dbUser) {
-        Query q = em.createNamedQuery("UserMessage.findPartitionsForUser_ORACLE");
+        Query q;
+        if (isMySQL()) {
+            q = em.createNamedQuery("UserMessage.findPartitionsForUser_MYSQL");
+            q.setParameter("DB_USER", dbUser);
+        } else {
+            q = em.createNamedQuery("UserMessage.findPartitionsForUser_ORACLE");
+            q.setParameter("DB_USER", dbUser.toUpperCase());
+        }
         q.setParameter("TNAME", UserMessage.TB_USER_MESSAGE);
-        q.setParameter("DB_USER", dbUser.toUpperCase());
         final List<DatabasePartition> partitions = q.getResultList();
         LOG.debug("Partitions [{}]", partitions);
         return partitions;
@@ -142,13 +154,44 @@ public class UserMessageDao extends BasicDao<UserMessage> {
     @Timer(clazz = UserMessageDao.class, value = "findPotentialExpiredPartitions")
     @Counter(clazz = UserMessageDao.class, value = "findPotentialExpiredPartitions")
     public List<DatabasePartition> findAllPartitions() {
-        Query q = em.createNamedQuery("UserMessage.findPartitions_ORACLE");
+        Query q = em.createNamedQuery(isMySQL() ? "UserMessage.findPartitions_MYSQL" : "UserMessage.findPartitions_ORACLE");
         q.setParameter("TNAME", UserMessage.TB_USER_MESSAGE);
         final List<DatabasePartition> partitions = q.getResultList();
         LOG.debug("Partitions [{}]", partitions);
         return partitions;
     }
 
+    /**
+     * Creates a new range partition of the message tables; only needed on MySQL, Oracle creates the partitions automatically
+     *
+     * @param partitionName the name of the partition
+     * @param highValue     the entity ids stored in the partition are lower than this value
+     */
+    @Timer(clazz = UserMessageDao.class, value = "createPartition")
+    @Counter(clazz = UserMessageDao.class, value = "createPartition")
+    @Transactional
+    public void createPartition(String partitionName, Long highValue) {
+        StoredProcedureQuery query = em.createStoredProcedureQuery("ADD_PARTITION")
+                .registerStoredProcedureParameter("partition_name", String.class, ParameterMode.IN)
+                .registerStoredProcedureParameter("high_value", Long.class, ParameterMode.IN)
+                .setParameter("partition_name", partitionName)
+                .setParameter("high_value", highValue);
+        try {
+            query.execute();
+        } finally {
+            try {
+                query.unwrap(ProcedureOutputs.class).release();
+                LOG.debug("Finished releasing create partition procedure");
+            } catch (Exception ex) {
+                LOG.error("Finally exception when using the procedure to create partitions", ex);
+            }
+        }
+    }
+
+    protected boolean isMySQL() {
+        return DataBaseEngine.MYSQL == domibusConfigurationService.getDataBaseEngine();
+    }
+
     @Timer(clazz = UserMessageDao.class, value = "dropPartition")
     @Counter(clazz = UserMessageDao.class, value = "dropPartition")
     @Transactional
@@ -50,6 +50,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -595,6 +596,43 @@ public class UserMessageDefaultService implements UserMessageService {
         //add messageId to MDC map
         addMessageIdToMDC(messageId);
         final UserMessageLog userMessageLog = userMessageLogDao.findByMessageIdSafely(messageId, mshRole);
+        deleteMessage(messageId, mshRole, userMessageLog);
+    }
+
+    /**
+     * Deletes the messages having the given entity ids, each message in its own transaction so a message that cannot be
+     * deleted does not prevent the deletion of the others. The messages already purged are skipped.
+     */
+    public void deleteMessagesByEntityIds(List<Long> entityIds) {
+        LOG.debug("Deleting [{}] messages", entityIds.size());
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Long entityId : entityIds) {
+            try {
+                transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        deleteMessageByEntityId(entityId);
+                    }
+                });
+            } catch (Exception e) {
+                LOG.error("Failed to delete message with entity id [{}]", entityId, e);
+            }
+        }
+    }
+
+    protected void deleteMessageByEntityId(Long entityId) {
+        final UserMessageLog userMessageLog = userMessageLogDao.findByEntityIdSafely(entityId);
+        if (userMessageLog == null) {
+            LOG.debug("Message with entity id [{}] not found, skipping its deletion", entityId);
+            return;
+        }
+        final UserMessage userMessage = userMessageLog.getUserMessage();
+        final String messageId = userMessage.getMessageId();
+        addMessageIdToMDC(messageId);
+        deleteMessage(messageId, userMessage.getMshRole().getRole(), userMessageLog);
+    }
+
+    protected void deleteMessage(String messageId, MSHRole mshRole, UserMessageLog userMessageLog) {
         final SignalMessage signalMessage = signalMessageDao.findByUserMessageIdWithUserMessage(messageId, mshRole);
         final UserMessage userMessage = getUserMessage(messageId, signalMessage, userMessageLog);
         notifyMessageDeletedAndClearPayload(userMessageLog, userMessage);
@@ -26,7 +26,6 @@ import javax.persistence.*;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.function.Consumer;
@@ -83,13 +82,19 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
         this.mpcDao = mpcDao;
     }
 
-    public List<Long> findRetryMessages(final long minEntityId, final long maxEntityId) {
-        TypedQuery<Long> query = this.em.createNamedQuery("UserMessageLog.findRetryMessages", Long.class);
+    /**
+     * Returns one page of the messages to be retried, ordered by entity id; the next page starts after the entity id of
+     * the last message of the current one.
+     */
+    public List<UserMessageLogRetryDto> findRetryMessagesPage(final long minEntityId, final long maxEntityId, final long lastEntityId, final int pageSize) {
+        TypedQuery<UserMessageLogRetryDto> query = this.em.createNamedQuery("UserMessageLog.findRetryMessagesPage", UserMessageLogRetryDto.class);
 
         query.setParameter("MIN_ENTITY_ID", minEntityId);
         query.setParameter("MAX_ENTITY_ID", maxEntityId);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
         query.setParameter("WAITING_FOR_RETRY", messageStatusDao.findByValue(MessageStatus.WAITING_FOR_RETRY));
         query.setParameter("CURRENT_TIMESTAMP", dateUtil.getUtcDate());
+        query.setMaxResults(pageSize);
 
         return query.getResultList();
     }
@@ -322,38 +327,58 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
     }
 
     public List<UserMessageLogDto> getDeletedUserMessagesOlderThan(Date date, String mpc, Integer expiredDeletedMessagesLimit, boolean eArchiveIsActive) {
+        return getDeletedUserMessagesOlderThan(date, mpc, expiredDeletedMessagesLimit, eArchiveIsActive, 0L);
+    }
+
+    /**
+     * Keyset paged variant: returns, ordered by entity id, the messages having an entity id greater than {@code lastEntityId}
+     */
+    public List<UserMessageLogDto> getDeletedUserMessagesOlderThan(Date date, String mpc, Integer expiredDeletedMessagesLimit, boolean eArchiveIsActive, long lastEntityId) {
         return getMessagesOlderThan(date, mpcDao.findMpc(mpc), expiredDeletedMessagesLimit, "UserMessageLog.findDeletedUserMessagesOlderThan",
-                eArchiveIsActive, messageStatusDao.getEntitiesOf(Arrays.asList(MessageStatus.DELETED)));
+                eArchiveIsActive, messageStatusDao.getEntitiesOf(Arrays.asList(MessageStatus.DELETED)), lastEntityId);
     }
 
     public List<UserMessageLogDto> getUndownloadedUserMessagesOlderThan(Date date, String mpc, Integer expiredNotDownloadedMessagesLimit, boolean eArchiveIsActive) {
+        return getUndownloadedUserMessagesOlderThan(date, mpc, expiredNotDownloadedMessagesLimit, eArchiveIsActive, 0L);
+    }
+
+    public List<UserMessageLogDto> getUndownloadedUserMessagesOlderThan(Date date, String mpc, Integer expiredNotDownloadedMessagesLimit, boolean eArchiveIsActive, long lastEntityId) {
         List<MessageStatusEntity> msgStatuses = messageStatusDao.getEntitiesOf(Arrays.asList(MessageStatus.RECEIVED, MessageStatus.RECEIVED_WITH_WARNINGS));
         return getMessagesOlderThan(date, mpcDao.findMpc(mpc), expiredNotDownloadedMessagesLimit, "UserMessageLog.findUndownloadedUserMessagesOlderThan",
-                eArchiveIsActive, msgStatuses);
+                eArchiveIsActive, msgStatuses, lastEntityId);
     }
 
     public List<UserMessageLogDto> getDownloadedUserMessagesOlderThan(Date date, String mpc, Integer expiredDownloadedMessagesLimit, boolean eArchiveIsActive) {
+        return getDownloadedUserMessagesOlderThan(date, mpc, expiredDownloadedMessagesLimit, eArchiveIsActive, 0L);
+    }
+
+    public List<UserMessageLogDto> getDownloadedUserMessagesOlderThan(Date date, String mpc, Integer expiredDownloadedMessagesLimit, boolean eArchiveIsActive, long lastEntityId) {
         List<MessageStatusEntity> msgStatuses = messageStatusDao.getEntitiesOf(Arrays.asList(MessageStatus.DOWNLOADED));
         return getMessagesOlderThan(date, mpcDao.findMpc(mpc), expiredDownloadedMessagesLimit, "UserMessageLog.findDownloadedUserMessagesOlderThan",
-                eArchiveIsActive, msgStatuses);
+                eArchiveIsActive, msgStatuses, lastEntityId);
     }
 
     private List<UserMessageLogDto> getMessagesOlderThan(Date startDate, MpcEntity mpc, Integer expiredMessagesLimit, String queryName, boolean eArchiveIsActive,
-                                                         List<MessageStatusEntity> msgStatuses) {
+                                                         List<MessageStatusEntity> msgStatuses, long lastEntityId) {
         Query query = em.createNamedQuery(queryName);
         query.setParameter("DATE", startDate);
         query.setParameter("MPC", mpc);
         query.setParameter("EARCHIVE_IS_ACTIVE", eArchiveIsActive);
         query.setParameter("MSG_STATUSES", msgStatuses);
+        query.setParameter("LAST_ENTITY_ID", lastEntityId);
 
         query.setMaxResults(expiredMessagesLimit);
         return query.getResultList();
     }
 
     public List<UserMessageLogDto> getSentUserMessagesOlderThan(Date date, String mpc, Integer expiredSentMessagesLimit, boolean eArchiveIsActive) {
+        return getSentUserMessagesOlderThan(date, mpc, expiredSentMessagesLimit, eArchiveIsActive, 0L);
+    }
+
+    public List<UserMessageLogDto> getSentUserMessagesOlderThan(Date date, String mpc, Integer expiredSentMessagesLimit, boolean eArchiveIsActive, long lastEntityId) {
         List<MessageStatusEntity> msgStatuses = messageStatusDao.getEntitiesOf(Arrays.asList(MessageStatus.ACKNOWLEDGED, MessageStatus.SEND_FAILURE));
         return getMessagesOlderThan(date, mpcDao.findMpc(mpc), expiredSentMessagesLimit, "UserMessageLog.findSentUserMessagesOlderThan",
-                eArchiveIsActive, msgStatuses);
+                eArchiveIsActive, msgStatuses, lastEntityId);
     }
 
     public List<UserMessageLogDto> getAllMessages() {
@@ -455,7 +480,7 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
         Object singleResult = countQuery.getSingleResult();
         //check countQuery.getSingleResult() is not null
         if (singleResult != null) {
-            result = ((BigDecimal) singleResult).intValue();
+            result = ((Number) singleResult).intValue();
         }
 
         LOG.debug("Count by message status result [{}] for mpc [{}] on partition [{}]", result, mpc, partitionName);
@@ -544,7 +569,7 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
         try {
             List<Long> statusIds = messageStatusDao.getEntityIdsOf(MessageStatus.getNonArchivableStates());
             countQuery.setParameter("MESSAGE_STATUS_IDS", statusIds);
-            int result = ((BigDecimal) countQuery.getSingleResult()).intValue();
+            int result = ((Number) countQuery.getSingleResult()).intValue();
             LOG.debug("count unarchived messages result [{}]", result);
             return result;
         } catch (NoResultException nre) {
@@ -563,7 +588,7 @@ public class UserMessageLogDao extends MessageLogDao<UserMessageLog> {
             final Query countQuery = em.createNativeQuery(sqlString);
             List<Long> statusIds = messageStatusDao.getEntityIdsOf(messageStatuses);
             countQuery.setParameter("MESSAGE_STATUS_IDS", statusIds);
-            int result = ((BigDecimal) countQuery.getSingleResult()).intValue();
+            int result = ((Number) countQuery.getSingleResult()).intValue();
             LOG.debug("count by message status result [{}]", result);
             return result;
         } catch (NoResultException nre) {
@@ -3,7 +3,6 @@ package eu.domibus.core.message.compression;
 import eu.domibus.api.message.compression.DecompressionDataSource;
 import eu.domibus.api.model.*;
 import eu.domibus.api.property.DomibusPropertyMetadataManagerSPI;
-import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.ErrorCode;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
@@ -11,6 +10,8 @@ import eu.domibus.core.ebms3.EbMS3ExceptionBuilder;
 import eu.domibus.core.message.dictionary.PartPropertyDictionaryService;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinConfigurationService;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinHelper;
+import eu.domibus.core.property.PropertyHandle;
+import eu.domibus.core.property.PropertyHandleProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.logging.DomibusMessageCode;
@@ -20,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
+import javax.annotation.PostConstruct;
 import java.io.*;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
@@ -45,7 +47,14 @@ public class CompressionService {
     protected PartPropertyDictionaryService partPropertyDictionaryService;
 
     @Autowired
-    protected DomibusPropertyProvider domibusPropertyProvider;
+    protected PropertyHandleProvider propertyHandleProvider;
+
+    protected PropertyHandle<Boolean> decompressionValidationActiveHandle;
+
+    @PostConstruct
+    public void init() {
+        decompressionValidationActiveHandle = propertyHandleProvider.getBooleanHandle(DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_DECOMPRESSION_VALIDATION_ACTIVE);
+    }
 
     /**
      * This method is responsible for compression of payloads in a ebMS3 AS4 conformant way in case of {@link eu.domibus.api.model.MSHRole#SENDING}
@@ -176,7 +185,7 @@ public class CompressionService {
         }
         partInfo.setCompressed(true);
         LOG.businessInfo(DomibusMessageCode.BUS_MESSAGE_PAYLOAD_DECOMPRESSION, partInfo.getHref());
-        if (!domibusPropertyProvider.getBooleanProperty(DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_DECOMPRESSION_VALIDATION_ACTIVE)) {
+        if (!decompressionValidationActiveHandle.getValue()) {
             LOG.debug("Property [{}] is not enabled, ", DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_DECOMPRESSION_VALIDATION_ACTIVE);
             return;
         }
@@ -1,17 +1,33 @@
 package eu.domibus.core.message.dictionary;
 
+import eu.domibus.api.cache.CacheConstants;
 import eu.domibus.api.exceptions.DomibusCoreErrorCode;
 import eu.domibus.api.exceptions.DomibusCoreException;
 import eu.domibus.api.model.AbstractBaseEntity;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.common.DomibusCacheConstants;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.PersistenceException;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 /**
+ * Finds or creates dictionary entries.
+ * <p>
+ * The entity ids of the entries are kept, per domain, in the {@link CacheConstants#DICTIONARY_ENTITY_IDS} cache so that
+ * the entries already known are read by id (from the persistence context or the second level cache) instead of being
+ * queried by value. The cache is cleared together with all the other caches, on all the nodes of the cluster.
+ * The creation of the entries is serialized per entry, using striped locks.
+ *
  * @author Ion Perpegel
  * @since 5.0
  */
@@ -19,14 +35,39 @@ public abstract class AbstractDictionaryService {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(AbstractDictionaryService.class);
 
-    protected <T extends AbstractBaseEntity> T findOrCreateEntity(Callable<T> findTask, Callable<T> findOrCreateTask, String entityDescription) {
-        T entity = callTask(findTask);
+    protected static final int LOCK_STRIPES = 64;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    @Qualifier(DomibusCacheConstants.CACHE_MANAGER)
+    protected CacheManager cacheManager;
+
+    @Autowired
+    protected DomainContextProvider domainContextProvider;
+
+    protected AbstractDictionaryService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    protected <T extends AbstractBaseEntity> T findOrCreateEntity(Function<Long, T> findByIdTask, Callable<T> findTask, Callable<T> findOrCreateTask, String entityDescription) {
+        final String cacheKey = getCacheKey(entityDescription);
+        T entity = findCachedEntity(cacheKey, findByIdTask);
+        if (entity != null) {
+            LOG.trace("Dictionary entry [{}] found in cache with id [{}]", entityDescription, entity.getEntityId());
+            return entity;
+        }
+
+        entity = callTask(findTask);
         if (entity != null) {
             LOG.debug("Dictionary entry [{}] found with id [{}]", entityDescription, entity.getEntityId());
+            cacheEntityId(cacheKey, entity);
             return entity;
         }
 
-        synchronized (this) {
+        synchronized (getLock(cacheKey)) {
             try {
                 LOG.debug("Dictionary entry [{}] not found, calling findOrCreate...", entityDescription);
                 callTask(findOrCreateTask);
@@ -40,10 +81,52 @@ public abstract class AbstractDictionaryService {
             }
             entity = callTask(findTask);
             LOG.debug("Dictionary entry [{}] created with id [{}]", entityDescription, entity.getEntityId());
+            cacheEntityId(cacheKey, entity);
             return entity;
         }
     }
 
+    protected <T extends AbstractBaseEntity> T findCachedEntity(String cacheKey, Function<Long, T> findByIdTask) {
+        final Cache cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        final Cache.ValueWrapper valueWrapper = cache.get(cacheKey);
+        if (valueWrapper == null || valueWrapper.get() == null) {
+            return null;
+        }
+        final T entity = findByIdTask.apply((Long) valueWrapper.get());
+        if (entity == null) {
+            LOG.debug("Dictionary entry [{}] with id [{}] no longer exists", cacheKey, valueWrapper.get());
+            cache.evict(cacheKey);
+        }
+        return entity;
+    }
+
+    protected void cacheEntityId(String cacheKey, AbstractBaseEntity entity) {
+        final Cache cache = getCache();
+        if (cache == null || entity == null) {
+            return;
+        }
+        cache.put(cacheKey, entity.getEntityId());
+    }
+
+    protected Cache getCache() {
+        if (cacheManager == null) {
+            return null;
+        }
+        return cacheManager.getCache(CacheConstants.DICTIONARY_ENTITY_IDS);
+    }
+
+    protected String getCacheKey(String entityDescription) {
+        final Domain domain = domainContextProvider != null ? domainContextProvider.getCurrentDomainSafely() : null;
+        return (domain != null ? domain.getCode() : null) + ":" + entityDescription;
+    }
+
+    protected Object getLock(String cacheKey) {
+        return locks[(cacheKey.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
     private <T> T callTask(Callable<T> task) {
         try {
             return task.call();
@@ -28,7 +28,7 @@ public class ActionDictionaryService extends AbstractDictionaryService {
         Callable<ActionEntity> findOrCreateTask = () -> actionDao.findOrCreateAction(value);
         String entityDescription = "ActionEntity value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(actionDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
@@ -27,7 +27,7 @@ public class AgreementDictionaryService extends AbstractDictionaryService {
         Callable<AgreementRefEntity> findOrCreateTask = () -> agreementDao.findOrCreateAgreement(value, type);
         String entityDescription = "AgreementRefEntity value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(agreementDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
@@ -22,7 +22,7 @@ public class MessagePropertyDictionaryService extends AbstractDictionaryService
         Callable<MessageProperty> findOrCreateTask = () -> messagePropertyDao.findOrCreateProperty(name, value, type);
         String entityDescription = "MessageProperty name=[" + name + "] value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(messagePropertyDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
@@ -28,7 +28,7 @@ public class MpcDictionaryService extends AbstractDictionaryService {
         Callable<MpcEntity> findOrCreateTask = () -> mpcDao.findOrCreateMpc(value);
         String entityDescription = "MpcEntity value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(mpcDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
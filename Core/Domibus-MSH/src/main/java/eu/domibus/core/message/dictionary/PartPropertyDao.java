@@ -3,6 +3,7 @@ package eu.domibus.core.message.dictionary;
 import eu.domibus.api.model.PartProperty;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.core.dao.BasicDao;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.support.DataAccessUtils;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,6 +23,8 @@ import java.util.List;
 @Repository
 public class PartPropertyDao extends BasicDao<PartProperty> {
 
+    protected static final int IN_LIST_MAX_SIZE = 1000;
+
     @Autowired
     protected DomainContextProvider domainProvider;
 
@@ -70,7 +74,21 @@ public class PartPropertyDao extends BasicDao<PartProperty> {
         return DataAccessUtils.singleResult(query.getResultList());
     }
 
+    /**
+     * Finds the part properties having the given entity ids; the ids are queried in chunks so that the IN lists do not exceed the Oracle limit
+     */
     public List<PartProperty> findByEntityIDs(final List<Long> entityIDs) {
+        if (entityIDs.size() <= IN_LIST_MAX_SIZE) {
+            return findByEntityIDsChunk(entityIDs);
+        }
+        final List<PartProperty> partProperties = new ArrayList<>();
+        for (List<Long> chunk : ListUtils.partition(entityIDs, IN_LIST_MAX_SIZE)) {
+            partProperties.addAll(findByEntityIDsChunk(chunk));
+        }
+        return partProperties;
+    }
+
+    protected List<PartProperty> findByEntityIDsChunk(final List<Long> entityIDs) {
         final Query query = this.em.createNamedQuery("PartProperty.findByIDs");
         query.setParameter("IDS", entityIDs);
         List<PartProperty> partInfos = query.getResultList();
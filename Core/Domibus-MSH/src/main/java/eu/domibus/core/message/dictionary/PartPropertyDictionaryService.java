@@ -28,7 +28,7 @@ public class PartPropertyDictionaryService extends AbstractDictionaryService {
         Callable<PartProperty> findOrCreateTask = () -> partPropertyDao.findOrCreateProperty(name, value, type);
         String entityDescription = "PartProperty name=[" + name + "] value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(partPropertyDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
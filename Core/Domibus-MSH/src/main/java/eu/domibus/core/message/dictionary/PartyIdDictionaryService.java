@@ -24,7 +24,7 @@ public class PartyIdDictionaryService extends AbstractDictionaryService {
         Callable<PartyId> findOrCreateTask = () -> partyIdDao.findOrCreateParty(value, type);
         String entityDescription = "PartyId value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(partyIdDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
@@ -28,7 +28,7 @@ public class PartyRoleDictionaryService extends AbstractDictionaryService {
         Callable<PartyRole> findOrCreateTask = () -> partyRoleDao.findOrCreateRole(value);
         String entityDescription = "PartyRole value=[" + value + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(partyRoleDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
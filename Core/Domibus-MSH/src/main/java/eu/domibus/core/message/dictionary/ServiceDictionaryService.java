@@ -28,7 +28,7 @@ public class ServiceDictionaryService extends AbstractDictionaryService {
         Callable<ServiceEntity> findOrCreateTask = () -> serviceDao.findOrCreateService(value, type);
         String entityDescription = "ServiceEntity value=[" + value + "] type=[" + type + "]";
 
-        return this.findOrCreateEntity(findTask, findOrCreateTask, entityDescription);
+        return this.findOrCreateEntity(serviceDao::read, findTask, findOrCreateTask, entityDescription);
     }
 
 }
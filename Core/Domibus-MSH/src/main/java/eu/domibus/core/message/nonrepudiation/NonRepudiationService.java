@@ -17,7 +17,13 @@ import java.util.Map;
 
 public interface NonRepudiationService {
 
-    void saveRawEnvelope(String rawXMLMessage, UserMessage userMessage);
+    /**
+     * Saves the raw envelope of the user message
+     *
+     * @param compressedRawXMLMessage the raw XML envelope, compressed with GZIP
+     * @param userMessage             the user message of the envelope
+     */
+    void saveRawEnvelope(byte[] compressedRawXMLMessage, UserMessage userMessage);
 
     UserMessageRaw createUserMessageRaw(SOAPMessage request) throws TransformerException;
 
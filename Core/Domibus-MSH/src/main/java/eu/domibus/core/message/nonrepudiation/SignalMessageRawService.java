@@ -22,9 +22,12 @@ public class SignalMessageRawService {
         this.signalMessageRawEnvelopeDao = signalMessageRawEnvelopeDao;
     }
 
+    /**
+     * Saves the raw envelope of the signal message, already compressed with GZIP
+     */
     @Transactional
-    public void saveSignalMessageRawService(String rawXml, Long signalMessageId) {
-        LOG.debug("saveSignalMessageRawService: [{}]", signalMessageId);
+    public void saveCompressedSignalMessageRaw(byte[] compressedRawXml, Long signalMessageId) {
+        LOG.debug("saveCompressedSignalMessageRaw: [{}]", signalMessageId);
 
         //findByReference does not verify if the signal message id is saved in the database; it just returns a proxy that is used for saving the SignalMessageRaw
         final SignalMessage signalMessage = signalMessageDao.findByReference(signalMessageId);
@@ -34,7 +37,7 @@ public class SignalMessageRawService {
 
         LOG.debug("Creating SignalMessageRaw for signal with id [{}]", signalMessageId);
         SignalMessageRaw signalMessageRaw = new SignalMessageRaw();
-        signalMessageRaw.setRawXML(rawXml);
+        signalMessageRaw.setCompressedRawXML(compressedRawXml);
         signalMessageRaw.setSignalMessage(signalMessage);
 
         signalMessageRawEnvelopeDao.create(signalMessageRaw);
@@ -65,6 +65,16 @@ public class UserMessageRawEnvelopeDao extends BasicDao<UserMessageRaw> {
         return resultList.get(0);
     }
 
+    /**
+     * Finds the raw envelopes of several user messages in one query; the id of a returned envelope is the entity id of its user message
+     */
+    public List<RawEnvelopeDto> findRawXmlByEntityIds(final List<Long> entityIds) {
+        TypedQuery<RawEnvelopeDto> namedQuery = em.createNamedQuery("RawDto.findByEntityIds", RawEnvelopeDto.class);
+        namedQuery.setParameter("ENTITY_IDS", entityIds);
+        LOG.debug("[findRawXmlByEntityIds][Messages]:[{}]", entityIds);
+        return namedQuery.getResultList();
+    }
+
     public RawEnvelopeDto findUserMessageEnvelopeById(final long userMessageId) {
         TypedQuery<RawEnvelopeDto> namedQuery = em.createNamedQuery("RawDto.findByUserMessageId", RawEnvelopeDto.class);
         namedQuery.setParameter("USER_MESSAGE_ID", userMessageId);
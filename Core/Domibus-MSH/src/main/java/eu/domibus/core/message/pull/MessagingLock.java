@@ -29,7 +29,10 @@ import static eu.domibus.api.model.MessageState.READY;
         @NamedQuery(name = "MessagingLock.findDeletedMessages",
                 query = "SELECT m from MessagingLock m where messageState = 'DEL'"),
         @NamedQuery(name = "MessagingLock.findReadyToPull", query = "from MessagingLock where messageState = 'READY' and mpc=:MPC and lower(initiator)=lower(:INITIATOR) AND messageType='PULL' and nextAttempt<:CURRENT_TIMESTAMP and staled>:CURRENT_TIMESTAMP order by entityId"),
-        @NamedQuery(name = "MessagingLock.findWaitingForReceipt", query = "from MessagingLock where messageState = 'WAITING' AND nextAttempt<:CURRENT_TIMESTAMP order by entityId")
+        @NamedQuery(name = "MessagingLock.findWaitingForReceipt", query = "from MessagingLock where messageState = 'WAITING' AND nextAttempt<:CURRENT_TIMESTAMP order by entityId"),
+        @NamedQuery(name = "MessagingLock.releaseReserved", query = "update MessagingLock m set m.messageState = 'READY' where m.messageId in :MESSAGE_IDS and m.messageState = 'RESERVED' and m.modificationTime < :RESERVED_BEFORE"),
+        @NamedQuery(name = "MessagingLock.markReservedServed", query = "update MessagingLock m set m.messageState = 'PROCESS' where m.messageId = :MESSAGE_ID and m.messageState = 'RESERVED'"),
+        @NamedQuery(name = "MessagingLock.resetStaleReservations", query = "update MessagingLock m set m.messageState = 'READY' where m.messageType = 'PULL' and m.messageState = 'RESERVED' and m.modificationTime < :RESERVED_BEFORE")
 })
 @NamedNativeQuery(name = "MessagingLock.lockQuerySkipBlocked_Oracle",
         query = "SELECT ID_PK,MESSAGE_TYPE,MESSAGE_RECEIVED,MESSAGE_STATE,MESSAGE_ID,INITIATOR,MPC,SEND_ATTEMPTS,SEND_ATTEMPTS_MAX,NEXT_ATTEMPT,FK_TIMEZONE_OFFSET,MESSAGE_STALED,CREATED_BY,CREATION_TIME,MODIFIED_BY,MODIFICATION_TIME " +
@@ -55,6 +58,30 @@ import static eu.domibus.api.model.MessageState.READY;
                 "LIMIT 1 " +
                 "FOR UPDATE SKIP LOCKED ",
         resultClass = MessagingLock.class)
+@NamedNativeQuery(name = "MessagingLock.lockBatchQuerySkipBlocked_Oracle",
+        query = "SELECT ID_PK,MESSAGE_TYPE,MESSAGE_RECEIVED,MESSAGE_STATE,MESSAGE_ID,INITIATOR,MPC,SEND_ATTEMPTS,SEND_ATTEMPTS_MAX,NEXT_ATTEMPT,FK_TIMEZONE_OFFSET,MESSAGE_STALED,CREATED_BY,CREATION_TIME,MODIFIED_BY,MODIFICATION_TIME " +
+                "FROM TB_MESSAGING_LOCK ml " +
+                "WHERE ml.MESSAGE_STATE='READY' " +
+                "AND ml.MPC=:MPC " +
+                "AND LOWER(ml.INITIATOR)=LOWER(:INITIATOR) " +
+                "AND ml.MESSAGE_TYPE='PULL' " +
+                "AND ml.NEXT_ATTEMPT<:CURRENT_TIMESTAMP " +
+                "AND ml.MESSAGE_STALED>:CURRENT_TIMESTAMP " +
+                "AND ROWNUM <= :BATCH_SIZE " +
+                "FOR UPDATE SKIP LOCKED",
+        resultClass = MessagingLock.class)
+@NamedNativeQuery(name = "MessagingLock.lockBatchQuerySkipBlocked_MySQL",
+        query = "SELECT ID_PK,MESSAGE_TYPE,MESSAGE_RECEIVED,MESSAGE_STATE,MESSAGE_ID,INITIATOR,MPC,SEND_ATTEMPTS,SEND_ATTEMPTS_MAX,NEXT_ATTEMPT,FK_TIMEZONE_OFFSET,MESSAGE_STALED,CREATED_BY,CREATION_TIME,MODIFIED_BY,MODIFICATION_TIME " +
+                "FROM TB_MESSAGING_LOCK ml " +
+                "WHERE ml.MESSAGE_STATE='READY' " +
+                "AND ml.MPC=:MPC " +
+                "AND LOWER(ml.INITIATOR)=LOWER(:INITIATOR) " +
+                "AND ml.MESSAGE_TYPE='PULL' " +
+                "AND ml.NEXT_ATTEMPT<:CURRENT_TIMESTAMP " +
+                "AND ml.MESSAGE_STALED>:CURRENT_TIMESTAMP " +
+                "LIMIT :BATCH_SIZE " +
+                "FOR UPDATE SKIP LOCKED ",
+        resultClass = MessagingLock.class)
 @NamedNativeQuery(name = "MessagingLock.lockByMessageId",
         query = "SELECT ID_PK,MESSAGE_TYPE,MESSAGE_RECEIVED,MESSAGE_STATE,MESSAGE_ID,INITIATOR,MPC,SEND_ATTEMPTS,SEND_ATTEMPTS_MAX,NEXT_ATTEMPT,FK_TIMEZONE_OFFSET,MESSAGE_STALED,CREATED_BY,CREATION_TIME,MODIFIED_BY,MODIFICATION_TIME FROM TB_MESSAGING_LOCK ml where ml.MESSAGE_ID=?1 ",
         resultClass = MessagingLock.class)
@@ -1,5 +1,6 @@
 package eu.domibus.core.message.pull;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -11,6 +12,14 @@ public interface MessagingLockDao {
 
     PullMessageId getNextPullMessageToProcess(String initiator, String mpc);
 
+    List<PullMessageId> getNextPullMessagesToProcess(String initiator, String mpc, int batchSize);
+
+    boolean markReservedPullMessageServed(String messageId);
+
+    int releaseReservedPullMessages(List<String> messageIds, Date reservedBefore);
+
+    int resetStaleReservations(Date reservedBefore);
+
     MessagingLock getLock(String messageId);
 
     void save(MessagingLock messagingLock);
@@ -13,8 +13,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static eu.domibus.core.message.pull.PullMessageState.EXPIRED;
 import static eu.domibus.core.message.pull.PullMessageState.RETRY;
@@ -40,6 +42,12 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
 
     private static final String CURRENT_TIMESTAMP = "CURRENT_TIMESTAMP";
 
+    private static final String BATCH_SIZE = "BATCH_SIZE";
+
+    private static final String MESSAGE_IDS = "MESSAGE_IDS";
+
+    private static final String RESERVED_BEFORE = "RESERVED_BEFORE";
+
     @PersistenceContext(unitName = JPAConstants.PERSISTENCE_UNIT_NAME)
     private EntityManager entityManager;
 
@@ -65,29 +73,7 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
             q.setParameter(CURRENT_TIMESTAMP, dateUtil.getUtcDate());
             final MessagingLock messagingLock = (MessagingLock) q.getSingleResult();
             LOG.debug("[getNextPullMessageToProcess]:id[{}] locked", messagingLock.getEntityId());
-            final String messageId = messagingLock.getMessageId();
-            final int sendAttempts = messagingLock.getSendAttempts();
-            final int sendAttemptsMax = messagingLock.getSendAttemptsMax();
-            final Date messageStaled = messagingLock.getStaled();
-
-            final Timestamp currentDate = new Timestamp(System.currentTimeMillis());
-            LOG.debug("expiration date[{}], current date[{}] ", messageStaled, currentDate);
-            if (messageStaled.compareTo(currentDate) < 0) {
-                messagingLock.setMessageState(MessageState.DEL);
-                return new PullMessageId(messageId, EXPIRED, String.format("Maximum time to send the message has been reached:[%tc]", messageStaled));
-            }
-            LOG.debug("sendattempts[{}], sendattemptsmax[{}]", sendAttempts, sendAttemptsMax);
-            if (sendAttempts >= sendAttemptsMax) {
-                messagingLock.setMessageState(MessageState.DEL);
-                return new PullMessageId(messageId, EXPIRED, String.format("Maximum number of attempts to send the message has been reached:[%d]", sendAttempts));
-            }
-            if (sendAttempts >= 0) {
-                messagingLock.setMessageState(MessageState.PROCESS);
-            }
-            if (sendAttempts > 0) {
-                return new PullMessageId(messageId, RETRY);
-            }
-            return new PullMessageId(messageId);
+            return toPullMessageId(messagingLock, MessageState.PROCESS);
         } catch (NoResultException ne) {
             LOG.trace("No message to lock found for for mpc=[{}], initiator=[{}]", mpc, initiator, ne);
             return null;
@@ -99,6 +85,105 @@ public class MessagingLockDaoImpl implements MessagingLockDao {
 
     }
 
+    /**
+     * Locks up to batchSize messages ready to be pulled in one query and marks them as reserved, in a single transaction.
+     * A reserved message is marked as being processed only when it is served to a pull request, see {@link #markReservedPullMessageServed(String)}.
+     * The messages that reached their expiration date or their maximum number of attempts are marked as deleted and returned with the {@link PullMessageState#EXPIRED} state.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<PullMessageId> getNextPullMessagesToProcess(final String initiator, final String mpc, final int batchSize) {
+        try {
+            String sqlString = (DataBaseEngine.ORACLE == domibusConfigurationService.getDataBaseEngine() ? "MessagingLock.lockBatchQuerySkipBlocked_Oracle" :
+                    "MessagingLock.lockBatchQuerySkipBlocked_MySQL");
+            Query q = entityManager.createNamedQuery(sqlString, MessagingLock.class);
+            q.setParameter(MPC, mpc);
+            q.setParameter(INITIATOR, initiator);
+            q.setParameter(CURRENT_TIMESTAMP, dateUtil.getUtcDate());
+            q.setParameter(BATCH_SIZE, batchSize);
+            final List<MessagingLock> messagingLocks = q.getResultList();
+            LOG.debug("[getNextPullMessagesToProcess]:[{}] messages locked for mpc=[{}], initiator=[{}]", messagingLocks.size(), mpc, initiator);
+            return messagingLocks.stream()
+                    .map(messagingLock -> toPullMessageId(messagingLock, MessageState.RESERVED))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            LOG.error("MessageLock batch lock could not be acquired for mpc=[{}], initiator=[{}]", mpc, initiator, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Marks the reserved message as being processed when it is served to a pull request. Returns false when the message is
+     * not reserved anymore, e.g. its reservation was reset and the message was reserved again by another server.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean markReservedPullMessageServed(final String messageId) {
+        Query query = entityManager.createNamedQuery("MessagingLock.markReservedServed");
+        query.setParameter(MESSAGE_ID, messageId);
+        final boolean served = query.executeUpdate() == 1;
+        LOG.debug("[markReservedPullMessageServed]:message [{}] served [{}]", messageId, served);
+        return served;
+    }
+
+    /**
+     * Puts back in the READY state the reserved messages that were not served to a pull request. The modification time of a
+     * reserved message is the time of its reservation: the messages reserved again since reservedBefore, by another server, are not released.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int releaseReservedPullMessages(final List<String> messageIds, final Date reservedBefore) {
+        if (messageIds.isEmpty()) {
+            return 0;
+        }
+        Query query = entityManager.createNamedQuery("MessagingLock.releaseReserved");
+        query.setParameter(MESSAGE_IDS, messageIds);
+        query.setParameter(RESERVED_BEFORE, reservedBefore);
+        final int released = query.executeUpdate();
+        LOG.debug("[releaseReservedPullMessages]:[{}] out of [{}] reserved messages released", released, messageIds.size());
+        return released;
+    }
+
+    /**
+     * Puts back in the READY state the pull messages reserved before the given date and never served, whatever the server that reserved them.
+     * The messages already served to a pull request are in the PROCESS state and are not reset.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int resetStaleReservations(final Date reservedBefore) {
+        Query query = entityManager.createNamedQuery("MessagingLock.resetStaleReservations");
+        query.setParameter(RESERVED_BEFORE, reservedBefore);
+        final int reset = query.executeUpdate();
+        LOG.debug("[resetStaleReservations]:[{}] messages reserved before [{}] reset", reset, reservedBefore);
+        return reset;
+    }
+
+    protected PullMessageId toPullMessageId(final MessagingLock messagingLock, final MessageState lockedState) {
+        final String messageId = messagingLock.getMessageId();
+        final int sendAttempts = messagingLock.getSendAttempts();
+        final int sendAttemptsMax = messagingLock.getSendAttemptsMax();
+        final Date messageStaled = messagingLock.getStaled();
+
+        final Timestamp currentDate = new Timestamp(System.currentTimeMillis());
+        LOG.debug("expiration date[{}], current date[{}] ", messageStaled, currentDate);
+        if (messageStaled.compareTo(currentDate) < 0) {
+            messagingLock.setMessageState(MessageState.DEL);
+            return new PullMessageId(messageId, EXPIRED, String.format("Maximum time to send the message has been reached:[%tc]", messageStaled));
+        }
+        LOG.debug("sendattempts[{}], sendattemptsmax[{}]", sendAttempts, sendAttemptsMax);
+        if (sendAttempts >= sendAttemptsMax) {
+            messagingLock.setMessageState(MessageState.DEL);
+            return new PullMessageId(messageId, EXPIRED, String.format("Maximum number of attempts to send the message has been reached:[%d]", sendAttempts));
+        }
+        if (sendAttempts >= 0) {
+            messagingLock.setMessageState(lockedState);
+        }
+        if (sendAttempts > 0) {
+            return new PullMessageId(messageId, RETRY);
+        }
+        return new PullMessageId(messageId);
+    }
+
     public MessagingLock getLock(final String messageId) {
         try {
             LOG.debug("Message[{}] Getting lock", messageId);
@@ -0,0 +1,225 @@
+package eu.domibus.core.message.pull;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LOCK_BATCH_LEASE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LOCK_BATCH_SIZE;
+
+/**
+ * Serves the pull requests from batches of messages locked together for an initiator and mpc.
+ * <p>
+ * A batch is locked in one query and one transaction; the locked messages are marked as reserved in the database
+ * and kept in a local reservation, from which the next pull requests of the same initiator and mpc are served. A message is
+ * marked as being processed when it is served. The locked messages that reached their expiration date or their maximum
+ * number of attempts are expired right away.
+ * The messages of a reservation not served before its lease expires are put back in the READY state, either by the next
+ * pull request of the same initiator and mpc or by the pull retry job. The pull retry job also resets, on any server, the messages
+ * reserved for longer than twice the lease and never served, and the reservations are released when the server stops.
+ * An emptied reservation is removed.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PullMessageReservationService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PullMessageReservationService.class);
+
+    protected final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    @Autowired
+    protected MessagingLockDao messagingLockDao;
+
+    @Autowired
+    protected PullMessageStateService pullMessageStateService;
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Autowired
+    protected DomainContextProvider domainContextProvider;
+
+    public boolean isBatchedLockActive() {
+        final Integer batchSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+        return batchSize != null && batchSize > 1;
+    }
+
+    /**
+     * Returns the next message reserved for the initiator and mpc, locking a new batch when the reservation is empty or its lease has expired.
+     * A reserved message that is not reserved anymore in the database, because its reservation was reset, is skipped.
+     */
+    public PullMessageId getNextPullMessageToProcess(final String initiator, final String mpc) {
+        final String key = getReservationKey(initiator, mpc);
+        while (true) {
+            final Reservation reservation = reservations.computeIfAbsent(key, k -> new Reservation(domainContextProvider.getCurrentDomainSafely()));
+            synchronized (reservation) {
+                if (reservation.removed) {
+                    // the reservation was emptied and removed by another thread: use the current one
+                    continue;
+                }
+                final long now = System.currentTimeMillis();
+                if (reservation.isExpired(now)) {
+                    releaseReservation(reservation);
+                }
+                if (reservation.messages.isEmpty()) {
+                    final int batchSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+                    final List<PullMessageId> lockedMessages = messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, batchSize);
+                    for (PullMessageId lockedMessage : lockedMessages) {
+                        if (lockedMessage.getState() == PullMessageState.EXPIRED) {
+                            expirePullMessage(lockedMessage);
+                        } else {
+                            reservation.messages.addLast(lockedMessage);
+                        }
+                    }
+                    LOG.debug("Reserved [{}] messages for initiator [{}] and mpc [{}]", reservation.messages.size(), initiator, mpc);
+                    reservation.expiration = now + getLeaseMillis();
+                }
+                final PullMessageId pullMessageId = reservation.messages.pollFirst();
+                if (reservation.messages.isEmpty()) {
+                    removeReservation(key, reservation);
+                }
+                if (pullMessageId == null || messagingLockDao.markReservedPullMessageServed(pullMessageId.getMessageId())) {
+                    return pullMessageId;
+                }
+                LOG.debug("The reservation of message [{}] was reset: the message is not served", pullMessageId.getMessageId());
+            }
+        }
+    }
+
+    /**
+     * Releases the messages of the expired reservations of the current domain
+     */
+    public void releaseExpiredReservations() {
+        final String domainPrefix = getDomainPrefix();
+        final long now = System.currentTimeMillis();
+        reservations.forEach((key, reservation) -> {
+            if (!key.startsWith(domainPrefix)) {
+                return;
+            }
+            synchronized (reservation) {
+                if (!reservation.removed && reservation.isExpired(now)) {
+                    releaseReservation(reservation);
+                    removeReservation(key, reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Puts back in the READY state the messages of the current domain reserved for longer than twice the lease and never served,
+     * whatever the server that reserved them. A server releases its own reservations once their lease expires, so these are the
+     * reservations left behind by a server that stopped abruptly or that did not receive any pull request since. The messages
+     * already served are being processed and are not reset, however long the pull request takes.
+     */
+    public void resetStaleReservations() {
+        if (!isBatchedLockActive()) {
+            return;
+        }
+        final Date reservedBefore = new Date(System.currentTimeMillis() - 2 * getLeaseMillis());
+        final int reset = messagingLockDao.resetStaleReservations(reservedBefore);
+        if (reset > 0) {
+            LOG.info("Reset [{}] pull messages reserved before [{}] and never served", reset, reservedBefore);
+        }
+    }
+
+    /**
+     * Releases the reservations of all the domains when the server stops, so their messages can be pulled from the other servers
+     */
+    @PreDestroy
+    public void releaseReservations() {
+        reservations.forEach((key, reservation) -> {
+            synchronized (reservation) {
+                if (reservation.removed) {
+                    return;
+                }
+                removeReservation(key, reservation);
+                try {
+                    if (reservation.domain != null) {
+                        domainContextProvider.setCurrentDomain(reservation.domain);
+                    }
+                    releaseReservation(reservation);
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not release the messages reserved for [{}]", key, e);
+                } finally {
+                    domainContextProvider.clearCurrentDomain();
+                }
+            }
+        });
+    }
+
+    protected void releaseReservation(Reservation reservation) {
+        final List<String> messageIds = reservation.messages.stream()
+                .map(PullMessageId::getMessageId)
+                .collect(Collectors.toList());
+        reservation.messages.clear();
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        // the messages reserved since the lease expired were reset and reserved again by another server
+        final int released = messagingLockDao.releaseReservedPullMessages(messageIds, new Date(reservation.expiration));
+        LOG.debug("Released [{}] reserved messages not served to a pull request", released);
+    }
+
+    protected void removeReservation(String key, Reservation reservation) {
+        reservation.removed = true;
+        reservations.remove(key, reservation);
+    }
+
+    protected void expirePullMessage(PullMessageId pullMessageId) {
+        try {
+            pullMessageStateService.expirePullMessage(pullMessageId.getMessageId());
+            LOG.debug("[PULL_REQUEST]:Message:[{}] is staled for reason:[{}].", pullMessageId.getMessageId(), pullMessageId.getStaledReason());
+        } catch (RuntimeException e) {
+            LOG.error("Could not expire the pull message [{}]", pullMessageId.getMessageId(), e);
+        }
+    }
+
+    protected String getReservationKey(final String initiator, final String mpc) {
+        return getDomainPrefix() + initiator + "|" + mpc;
+    }
+
+    protected String getDomainPrefix() {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        return (domain == null ? "" : domain.getCode()) + "|";
+    }
+
+    protected long getLeaseMillis() {
+        return TimeUnit.SECONDS.toMillis(domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE));
+    }
+
+    protected static class Reservation {
+
+        protected final Deque<PullMessageId> messages = new ArrayDeque<>();
+
+        protected final Domain domain;
+
+        protected long expiration;
+
+        protected boolean removed;
+
+        protected Reservation(Domain domain) {
+            this.domain = domain;
+        }
+
+        protected boolean isExpired(long now) {
+            return !messages.isEmpty() && expiration <= now;
+        }
+    }
+}
@@ -71,6 +71,9 @@ public class PullMessageServiceImpl implements PullMessageService {
     @Autowired
     private MessagingLockDao messagingLockDao;
 
+    @Autowired
+    protected PullMessageReservationService pullMessageReservationService;
+
     @Autowired
     private PModeProvider pModeProvider;
 
@@ -191,7 +194,7 @@ public class PullMessageServiceImpl implements PullMessageService {
     public String getPullMessageId(final String initiator, final String mpc) {
             PullMessageId pullMessageId = null;
             try {
-                pullMessageId = messagingLockDao.getNextPullMessageToProcess(initiator, mpc);
+                pullMessageId = getNextPullMessageToProcess(initiator, mpc);
             } catch (Exception ex) {
                 LOG.error("Error while locking message ", ex);
             }
@@ -217,6 +220,13 @@ public class PullMessageServiceImpl implements PullMessageService {
         return null;
     }
 
+    protected PullMessageId getNextPullMessageToProcess(final String initiator, final String mpc) {
+        if (pullMessageReservationService.isBatchedLockActive()) {
+            return pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc);
+        }
+        return messagingLockDao.getNextPullMessageToProcess(initiator, mpc);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -26,6 +26,9 @@ public class PullRetryWorker extends DomibusQuartzJobBean {
     @Autowired
     protected AuthUtils authUtils;
 
+    @Autowired
+    protected PullMessageReservationService pullMessageReservationService;
+
     @Override
     protected void executeJob(JobExecutionContext context, Domain domain) throws JobExecutionException {
         try {
@@ -40,6 +43,18 @@ public class PullRetryWorker extends DomibusQuartzJobBean {
             LOG.error("Error while resetting waiting for receipt.", e);
         }
 
+        try {
+            pullMessageReservationService.releaseExpiredReservations();
+        } catch (Exception e) {
+            LOG.error("Error while releasing the expired pull message reservations.", e);
+        }
+
+        try {
+            pullMessageReservationService.resetStaleReservations();
+        } catch (Exception e) {
+            LOG.error("Error while resetting the stale pull message reservations.", e);
+        }
+
         try {
             retryService.bulkDeletePullMessages();
         } catch (Exception e) {
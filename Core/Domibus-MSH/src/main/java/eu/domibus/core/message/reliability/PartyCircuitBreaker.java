@@ -0,0 +1,221 @@
+package eu.domibus.core.message.reliability;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.cluster.SignalService;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.multitenancy.DomainsAware;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.core.message.reliability.ReliabilityServiceImpl.SUCCESS;
+
+/**
+ * Keeps in memory the connectivity status of the parties monitored by the smart retry feature, per domain and party.
+ * <p>
+ * The circuit of a party is CLOSED while its last test message was sent successfully and OPEN otherwise; the user messages
+ * waiting for retry are not sent to a party with an OPEN circuit. When the connection monitoring submits a test message to
+ * such a party the circuit becomes HALF_OPEN until the result of the test message closes or opens it again.
+ * <p>
+ * The status of a party is read from TB_PARTY_STATUS the first time it is needed, so checking if a party is reachable does
+ * not access the database. The changes of the status are signaled to the other servers of the cluster and saved in the
+ * transaction of the test message send attempt, in the order in which they happen. The circuits of a domain are dropped
+ * when the domain is removed.
+ * <p>
+ * The gauges party_circuit_open and party_circuit_half_open count the circuits in each state while the counter
+ * party_circuit_short_circuited counts the send attempts skipped because the party was not reachable.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PartyCircuitBreaker implements DomainsAware {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PartyCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    protected final Map<String, PartyCircuit> circuits = new ConcurrentHashMap<>();
+
+    private final PartyStatusDao partyStatusDao;
+
+    private final SignalService signalService;
+
+    private final DomainContextProvider domainContextProvider;
+
+    private final MetricRegistry metricRegistry;
+
+    public PartyCircuitBreaker(PartyStatusDao partyStatusDao,
+                               SignalService signalService,
+                               DomainContextProvider domainContextProvider,
+                               MetricRegistry metricRegistry) {
+        this.partyStatusDao = partyStatusDao;
+        this.signalService = signalService;
+        this.domainContextProvider = domainContextProvider;
+        this.metricRegistry = metricRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        metricRegistry.gauge(name(PartyCircuitBreaker.class, "party_circuit_open"), () -> (Gauge<Long>) () -> countCircuits(State.OPEN));
+        metricRegistry.gauge(name(PartyCircuitBreaker.class, "party_circuit_half_open"), () -> (Gauge<Long>) () -> countCircuits(State.HALF_OPEN));
+    }
+
+    /**
+     * Checks if the user messages can be sent to the party, without accessing the database once the status of the party is known
+     *
+     * @param partyName the name of the party
+     * @return true if the circuit of the party is CLOSED, which is also the case when the party has no connectivity status yet
+     */
+    public boolean isReachable(String partyName) {
+        final PartyCircuit partyCircuit = getCircuit(partyName);
+        if (partyCircuit.state == State.CLOSED) {
+            return true;
+        }
+        LOG.debug("Party [{}] is not reachable: circuit is [{}]", partyName, partyCircuit.state);
+        metricRegistry.counter(name(PartyCircuitBreaker.class, "party_circuit_short_circuited")).inc();
+        return false;
+    }
+
+    /**
+     * Records the status of the last test message sent to the party; a change of the status is signaled to the cluster and saved
+     *
+     * @param partyName          the name of the party
+     * @param connectivityStatus the status of the send attempt of the test message
+     */
+    public void recordStatus(String partyName, String connectivityStatus) {
+        // load the saved status before computing the transition so the database is not accessed while the map entry is locked
+        getCircuit(partyName);
+
+        final AtomicBoolean statusChanged = new AtomicBoolean();
+        circuits.compute(getKey(partyName), (key, partyCircuit) -> {
+            if (partyCircuit != null && StringUtils.equals(partyCircuit.connectivityStatus, connectivityStatus)) {
+                if (partyCircuit.state == State.HALF_OPEN) {
+                    LOG.debug("Probe of party [{}] failed: circuit is open again", partyName);
+                    return new PartyCircuit(connectivityStatus);
+                }
+                return partyCircuit;
+            }
+            statusChanged.set(true);
+            return new PartyCircuit(connectivityStatus);
+        });
+        if (!statusChanged.get()) {
+            return;
+        }
+        LOG.info("Connectivity status of party [{}] is now [{}]", partyName, connectivityStatus);
+
+        signalService.signalPartyStatusChange(partyName, connectivityStatus);
+        persistStatus(partyName, connectivityStatus);
+    }
+
+    /**
+     * Marks the circuit of the party as HALF_OPEN when a test message is submitted to a party with an OPEN circuit
+     *
+     * @param partyName the name of the party
+     */
+    public void probeSubmitted(String partyName) {
+        final String key = getKey(partyName);
+        final PartyCircuit partyCircuit = circuits.get(key);
+        if (partyCircuit == null || partyCircuit.state != State.OPEN) {
+            return;
+        }
+        LOG.debug("Probing party [{}]: circuit is half open", partyName);
+        circuits.replace(key, partyCircuit, new PartyCircuit(partyCircuit.connectivityStatus, State.HALF_OPEN));
+    }
+
+    /**
+     * Applies the connectivity status signaled by another server of the cluster, without signaling or saving it again
+     *
+     * @param partyName          the name of the party
+     * @param connectivityStatus the new connectivity status of the party
+     */
+    public void statusChanged(String partyName, String connectivityStatus) {
+        LOG.debug("Connectivity status of party [{}] changed to [{}] on another server", partyName, connectivityStatus);
+        circuits.put(getKey(partyName), new PartyCircuit(connectivityStatus));
+    }
+
+    protected PartyCircuit getCircuit(String partyName) {
+        final String key = getKey(partyName);
+        PartyCircuit partyCircuit = circuits.get(key);
+        if (partyCircuit != null) {
+            return partyCircuit;
+        }
+
+        final PartyStatusEntity partyStatus = partyStatusDao.findByName(partyName);
+        if (partyStatus == null) {
+            // no entry exists for the party in the status table: let the send attempt execute for the first time
+            LOG.debug("No connectivity status saved for party [{}]", partyName);
+            partyCircuit = new PartyCircuit(null, State.CLOSED);
+        } else {
+            LOG.debug("Loaded the connectivity status [{}] of party [{}]", partyStatus.getConnectivityStatus(), partyName);
+            partyCircuit = new PartyCircuit(partyStatus.getConnectivityStatus());
+        }
+        final PartyCircuit existingPartyCircuit = circuits.putIfAbsent(key, partyCircuit);
+        return existingPartyCircuit != null ? existingPartyCircuit : partyCircuit;
+    }
+
+    protected void persistStatus(String partyName, String connectivityStatus) {
+        final PartyStatusEntity partyStatus = partyStatusDao.findByName(partyName);
+        if (partyStatus == null) {
+            PartyStatusEntity newPartyStatus = new PartyStatusEntity();
+            newPartyStatus.setConnectivityStatus(connectivityStatus);
+            newPartyStatus.setPartyName(partyName);
+            partyStatusDao.create(newPartyStatus);
+            LOG.debug("Connectivity status entry created for party [{}] with value: [{}]", partyName, connectivityStatus);
+            return;
+        }
+        if (!StringUtils.equals(partyStatus.getConnectivityStatus(), connectivityStatus)) {
+            partyStatus.setConnectivityStatus(connectivityStatus);
+            partyStatusDao.update(partyStatus);
+            LOG.debug("Connectivity status for party [{}] is now: [{}]", partyName, connectivityStatus);
+        }
+    }
+
+    @Override
+    public void onDomainAdded(Domain domain) {
+        // the circuits of the domain are created when its parties are first checked
+    }
+
+    @Override
+    public void onDomainRemoved(Domain domain) {
+        final String keyPrefix = domain.getCode() + ":";
+        circuits.keySet().removeIf(key -> StringUtils.startsWith(key, keyPrefix));
+        LOG.debug("Removed the party circuits of domain [{}]", domain);
+    }
+
+    protected long countCircuits(State state) {
+        return circuits.values().stream().filter(partyCircuit -> partyCircuit.state == state).count();
+    }
+
+    protected String getKey(String partyName) {
+        final Domain domain = domainContextProvider.getCurrentDomainSafely();
+        return (domain != null ? domain.getCode() : StringUtils.EMPTY) + ":" + partyName;
+    }
+
+    protected static class PartyCircuit {
+
+        protected final String connectivityStatus;
+
+        protected final State state;
+
+        protected PartyCircuit(String connectivityStatus) {
+            this(connectivityStatus, SUCCESS.equals(connectivityStatus) ? State.CLOSED : State.OPEN);
+        }
+
+        protected PartyCircuit(String connectivityStatus, State state) {
+            this.connectivityStatus = connectivityStatus;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package eu.domibus.core.message.reliability;
+
+import eu.domibus.api.cluster.Command;
+import eu.domibus.api.cluster.CommandProperty;
+import eu.domibus.core.clustering.CommandTask;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PartyStatusChangeCommandTask implements CommandTask {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PartyStatusChangeCommandTask.class);
+
+    protected PartyCircuitBreaker partyCircuitBreaker;
+
+    public PartyStatusChangeCommandTask(PartyCircuitBreaker partyCircuitBreaker) {
+        this.partyCircuitBreaker = partyCircuitBreaker;
+    }
+
+    @Override
+    public boolean canHandle(String command) {
+        return StringUtils.equalsIgnoreCase(Command.PARTY_STATUS_CHANGE, command);
+    }
+
+    @Override
+    public void execute(Map<String, String> properties) {
+        final String partyName = properties.get(CommandProperty.PARTY_NAME);
+        final String connectivityStatus = properties.get(CommandProperty.CONNECTIVITY_STATUS);
+        if (StringUtils.isAnyBlank(partyName, connectivityStatus)) {
+            LOG.warn("Could not change the connectivity status of party [{}] to [{}]", partyName, connectivityStatus);
+            return;
+        }
+        LOG.debug("Party status change command: party [{}] connectivity status [{}]", partyName, connectivityStatus);
+        partyCircuitBreaker.statusChanged(partyName, connectivityStatus);
+    }
+}
@@ -24,10 +24,11 @@ public interface ReliabilityService {
      *
      * @param userMessage                  the processed message id.
      * @param reliabilityCheckSuccessful the state of the reliability check.
+     * @param requestCompressedRawXMLMessage the raw XML envelope of the request compressed with GZIP, or null if it must not be saved.
      * @param responseResult             status result for reliability.
      * @param legConfiguration           the legconfiguration of this message exchange.
      */
-    void handleReliability(UserMessage userMessage, UserMessageLog userMessageLog, ReliabilityChecker.CheckResult reliabilityCheckSuccessful, String requestRawXMLMessage, SOAPMessage responseSoapMessage, ResponseResult responseResult, LegConfiguration legConfiguration, MessageAttempt attempt);
+    void handleReliability(UserMessage userMessage, UserMessageLog userMessageLog, ReliabilityChecker.CheckResult reliabilityCheckSuccessful, byte[] requestCompressedRawXMLMessage, SOAPMessage responseSoapMessage, ResponseResult responseResult, LegConfiguration legConfiguration, MessageAttempt attempt);
 
     /**
      * Update the connectivity status of a remote party
@@ -4,7 +4,6 @@ import eu.domibus.api.message.attempt.MessageAttempt;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.api.model.UserMessageLog;
 import eu.domibus.api.model.splitandjoin.MessageGroupEntity;
-import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.usermessage.UserMessageService;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.sender.ResponseHandler;
@@ -17,17 +16,23 @@ import eu.domibus.core.message.retention.MessageRetentionDefaultService;
 import eu.domibus.core.message.splitandjoin.MessageGroupDao;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinService;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
+import eu.domibus.core.property.PropertyHandle;
+import eu.domibus.core.property.PropertyHandleProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import javax.xml.soap.SOAPMessage;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_SMART_RETRY_ENABLED;
@@ -60,7 +65,7 @@ public class ReliabilityServiceImpl implements ReliabilityService {
     private UserMessageLogDao userMessageLogDao;
 
     @Autowired
-    private PartyStatusDao partyStatusDao;
+    protected PartyCircuitBreaker partyCircuitBreaker;
 
     @Autowired
     protected UserMessageService userMessageService;
@@ -72,7 +77,9 @@ public class ReliabilityServiceImpl implements ReliabilityService {
     protected ResponseHandler responseHandler;
 
     @Autowired
-    DomibusPropertyProvider domibusPropertyProvider;
+    protected PropertyHandleProvider propertyHandleProvider;
+
+    protected PropertyHandle<Set<String>> smartRetryEnabledPartiesHandle;
 
     @Autowired
     MessageRetentionDefaultService messageRetentionService;
@@ -86,15 +93,15 @@ public class ReliabilityServiceImpl implements ReliabilityService {
      */
     @Override
     @Transactional(propagation = Propagation.REQUIRED)
-    public void handleReliability(UserMessage userMessage, UserMessageLog userMessageLog, final ReliabilityChecker.CheckResult reliabilityCheckResult, String requestRawXMLMessage, SOAPMessage responseSoapMessage, final ResponseResult responseResult, final LegConfiguration legConfiguration, final MessageAttempt attempt) {
+    public void handleReliability(UserMessage userMessage, UserMessageLog userMessageLog, final ReliabilityChecker.CheckResult reliabilityCheckResult, byte[] requestCompressedRawXMLMessage, SOAPMessage responseSoapMessage, final ResponseResult responseResult, final LegConfiguration legConfiguration, final MessageAttempt attempt) {
         LOG.debug("Handling reliability");
 
         final Boolean isTestMessage = userMessage.isTestMessage();
 
         switch (reliabilityCheckResult) {
             case OK:
-                if(StringUtils.isNotBlank(requestRawXMLMessage)) {
-                    nonRepudiationService.saveRawEnvelope(requestRawXMLMessage, userMessage);
+                if(ArrayUtils.isNotEmpty(requestCompressedRawXMLMessage)) {
+                    nonRepudiationService.saveRawEnvelope(requestCompressedRawXMLMessage, userMessage);
                 }
                 responseHandler.saveResponse(responseSoapMessage, userMessage, responseResult.getResponseMessaging());
 
@@ -142,42 +149,32 @@ public class ReliabilityServiceImpl implements ReliabilityService {
 
     @Override
     public void updatePartyState(String status, String partyName) {
-        if (!partyStatusDao.existsWithName(partyName)) {
-            PartyStatusEntity newPs = new PartyStatusEntity();
-            newPs.setConnectivityStatus(status);
-            newPs.setPartyName(partyName);
-            partyStatusDao.create(newPs);
-            LOG.debug("Connectivity status entry created for party [{}] with value: [{}]", partyName, status);
-        } else {
-            PartyStatusEntity existingPs = partyStatusDao.findByName(partyName);
-            if (!existingPs.getConnectivityStatus().equals(status)) {
-                existingPs.setConnectivityStatus(status);
-                partyStatusDao.update(existingPs);
-                LOG.debug("Connectivity status for party [{}] is now: [{}]", partyName, status);
-            }
-        }
+        partyCircuitBreaker.recordStatus(partyName, status);
     }
 
     @Override
     public boolean isPartyReachable(String partyName) {
-        PartyStatusEntity existingPs = partyStatusDao.findByName(partyName);
-        if (existingPs!=null) {
-            return SUCCESS.equals(existingPs.getConnectivityStatus());
-        }
-        return true; //if no entry exists for the party in the status table, let the send attempt to execute for the first time
+        return partyCircuitBreaker.isReachable(partyName);
+    }
+
+    @PostConstruct
+    public void init() {
+        smartRetryEnabledPartiesHandle = propertyHandleProvider.getHandle(DOMIBUS_SMART_RETRY_ENABLED, this::getSmartRetryEnabledParties);
     }
 
     @Override
     public boolean isSmartRetryEnabledForParty(String partyName) {
-        String smartRetryPropVal = domibusPropertyProvider.getProperty(DOMIBUS_SMART_RETRY_ENABLED);
+        return smartRetryEnabledPartiesHandle.getValue().contains(partyName);
+    }
+
+    protected Set<String> getSmartRetryEnabledParties(String smartRetryPropVal) {
         if (StringUtils.isBlank(smartRetryPropVal)) {
-            return false;
+            return Collections.emptySet();
         }
         List<String> smartRetryEnabledParties = Arrays.asList(smartRetryPropVal.split(","));
-        smartRetryEnabledParties = smartRetryEnabledParties.stream()
+        return smartRetryEnabledParties.stream()
                 .map(enabledPartyId -> StringUtils.trim(enabledPartyId))
-                .collect(Collectors.toList());
-        return smartRetryEnabledParties.contains(partyName);
+                .collect(Collectors.toSet());
     }
 
 
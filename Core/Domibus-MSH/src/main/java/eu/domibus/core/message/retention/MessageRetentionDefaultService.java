@@ -1,5 +1,6 @@
 package eu.domibus.core.message.retention;
 
+import com.codahale.metrics.MetricRegistry;
 import eu.domibus.api.jms.JMSManager;
 import eu.domibus.api.jms.JMSMessageBuilder;
 import eu.domibus.api.jms.JmsMessage;
@@ -14,7 +15,9 @@ import eu.domibus.core.pmode.provider.PModeProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -25,6 +28,7 @@ import javax.jms.Queue;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
 import static eu.domibus.jms.spi.InternalJMSConstants.RETENTION_MESSAGE_QUEUE;
 import static eu.domibus.messaging.MessageConstants.*;
@@ -40,6 +44,10 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
 
     public static final String DELETE_TYPE = "DELETE_TYPE";
 
+    public static final String MESSAGE_ENTITY_IDS = "MESSAGE_ENTITY_IDS";
+
+    public static final String MESSAGE_ENTITY_IDS_SEPARATOR = ",";
+
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(MessageRetentionDefaultService.class);
     public static final String NO_MESSAGE_TO_BE_SCHEDULED_FOR_DELETION = "No message to be scheduled for deletion";
 
@@ -74,6 +82,9 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
     @Autowired
     private BackendNotificationService backendNotificationService;
 
+    @Autowired
+    private MetricRegistry metricRegistry;
+
     @Override
     public boolean handlesDeletionStrategy(String retentionStrategy) {
         return DeletionStrategy.DEFAULT == DeletionStrategy.valueOf(retentionStrategy);
@@ -129,13 +140,9 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired downloaded messages for MPC [{}] using deleteMessagesLimit [{}], messageRetentionMinutes [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
-        List<UserMessageLogDto> messagesToClean = userMessageLogDao.getDownloadedUserMessagesOlderThan(messageRetentionDate,
-                mpc, deleteMessagesLimit, eArchiveIsActive);
-        if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0) {
-            deleteMessageMetadataAndPayload(mpc, messagesToClean);
-            return;
-        }
-        deleteMessagePayload(messagesToClean);
+        final boolean deleteMetadata = pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0;
+        scanAndDeleteExpiredMessages(mpc, deleteMessagesLimit, deleteMetadata, (maxResults, lastEntityId) ->
+                userMessageLogDao.getDownloadedUserMessagesOlderThan(messageRetentionDate, mpc, maxResults, eArchiveIsActive, lastEntityId));
     }
 
     protected void deleteExpiredNotDownloadedMessages(String mpc, Integer deleteMessagesLimit, boolean eArchiveIsActive) {
@@ -149,13 +156,9 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired not-downloaded messages for MPC [{}] using deleteMessagesLimit [{}], messageRetentionMinutes [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date payloadRetentionLimit = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
-        List<UserMessageLogDto> messagesToClean = userMessageLogDao.getUndownloadedUserMessagesOlderThan(payloadRetentionLimit,
-                mpc, deleteMessagesLimit, eArchiveIsActive);
-        if (pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0) {
-            deleteMessageMetadataAndPayload(mpc, messagesToClean);
-            return;
-        }
-        deleteMessagePayload(messagesToClean);
+        final boolean deleteMetadata = pModeProvider.isDeleteMessageMetadataByMpcURI(mpc) && metadataRetentionOffset == 0;
+        scanAndDeleteExpiredMessages(mpc, deleteMessagesLimit, deleteMetadata, (maxResults, lastEntityId) ->
+                userMessageLogDao.getUndownloadedUserMessagesOlderThan(payloadRetentionLimit, mpc, maxResults, eArchiveIsActive, lastEntityId));
     }
 
     protected void deleteExpiredSentMessages(String mpc, Integer deleteMessagesLimit, boolean eArchiveIsActive) {
@@ -171,15 +174,8 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired sent messages for MPC [{}] using deleteMessagesLimit [{}], messageRetentionMinutes [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, messageRetentionMinutes, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), messageRetentionMinutes * -1);
-        if (isDeleteMessageMetadata && metadataRetentionOffset == 0) {
-            List<UserMessageLogDto> messagesToClean = userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate,
-                    mpc, deleteMessagesLimit, eArchiveIsActive);
-            deleteMessageMetadataAndPayload(mpc, messagesToClean);
-            return;
-        }
-        List<UserMessageLogDto> messagesToClean = userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate,
-                mpc, deleteMessagesLimit, eArchiveIsActive);
-        deleteMessagePayload(messagesToClean);
+        scanAndDeleteExpiredMessages(mpc, deleteMessagesLimit, isDeleteMessageMetadata && metadataRetentionOffset == 0, (maxResults, lastEntityId) ->
+                userMessageLogDao.getSentUserMessagesOlderThan(messageRetentionDate, mpc, maxResults, eArchiveIsActive, lastEntityId));
     }
 
     protected void deleteExpiredPayloadDeletedMessages(String mpc, Integer deleteMessagesLimit, boolean eArchiveIsActive) {
@@ -193,12 +189,49 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         LOG.debug("Deleting expired deleted messages for MPC [{}] using deleteMessagesLimit [{}], metadataRetentionOffset [{}]",
                 mpc, deleteMessagesLimit, metadataRetentionOffset);
         Date messageRetentionDate = DateUtils.addMinutes(new Date(), 1 - metadataRetentionOffset);  // give 1 minute for the previous state
-        final List<UserMessageLogDto> messagesToClean = userMessageLogDao.getDeletedUserMessagesOlderThan(messageRetentionDate,
-                mpc, deleteMessagesLimit, eArchiveIsActive);
-        deleteMessageMetadataAndPayload(mpc, messagesToClean);
+        scanAndDeleteExpiredMessages(mpc, deleteMessagesLimit, true, (maxResults, lastEntityId) ->
+                userMessageLogDao.getDeletedUserMessagesOlderThan(messageRetentionDate, mpc, maxResults, eArchiveIsActive, lastEntityId));
+    }
+
+    /**
+     * Deletes up to deleteMessagesLimit expired messages. When a scan page size is configured, the expired messages are
+     * read and deleted page by page, each page starting after the highest entity id of the previous one, so that every
+     * query stays bounded and only one page is held in memory.
+     */
+    protected void scanAndDeleteExpiredMessages(String mpc, Integer deleteMessagesLimit, boolean deleteMetadata, ExpiredMessagesQuery expiredMessagesQuery) {
+        final Integer pageSize = getRetentionValue(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE);
+        if (pageSize == null || pageSize <= 0 || deleteMessagesLimit <= pageSize) {
+            cleanExpiredMessages(mpc, expiredMessagesQuery.find(deleteMessagesLimit, 0L), deleteMetadata);
+            return;
+        }
+
+        long lastEntityId = 0L;
+        int remaining = deleteMessagesLimit;
+        while (remaining > 0) {
+            final int maxResults = Math.min(pageSize, remaining);
+            final List<UserMessageLogDto> messagesToClean = expiredMessagesQuery.find(maxResults, lastEntityId);
+            LOG.debug("Found [{}] expired messages for MPC [{}] after entity id [{}]", messagesToClean.size(), mpc, lastEntityId);
+            if (messagesToClean.isEmpty()) {
+                return;
+            }
+            cleanExpiredMessages(mpc, messagesToClean, deleteMetadata);
+            if (messagesToClean.size() < maxResults) {
+                return;
+            }
+            remaining -= messagesToClean.size();
+            lastEntityId = messagesToClean.get(messagesToClean.size() - 1).getEntityId();
+        }
+    }
+
+    protected void cleanExpiredMessages(String mpc, List<UserMessageLogDto> messagesToClean, boolean deleteMetadata) {
+        if (deleteMetadata) {
+            deleteMessageMetadataAndPayload(mpc, messagesToClean);
+            return;
+        }
+        deleteMessagePayload(mpc, messagesToClean);
     }
 
-    private void deleteMessagePayload(List<UserMessageLogDto> messagesToClean) {
+    private void deleteMessagePayload(String mpc, List<UserMessageLogDto> messagesToClean) {
         if (CollectionUtils.isEmpty(messagesToClean)) {
             LOG.debug("Found 0 message payloads to delete");
             return;
@@ -210,6 +243,7 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
                 .collect(Collectors.toList());
         userMessageDefaultService.clearPayloadData(entityIds);
         backendNotificationService.notifyMessageDeleted(messagesToClean);
+        metricRegistry.meter(name(MessageRetentionDefaultService.class, "retention_payloads_deleted", mpc)).mark(deleted);
         LOG.debug("Deleted the payloads of [{}] messages ", deleted);
     }
 
@@ -221,6 +255,7 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         final int deleted = messagesToClean.size();
         LOG.debug("Attempting to delete [{}] messages using mpc [{}]", deleted, mpc);
         deleteMessages(messagesToClean, mpc);
+        metricRegistry.meter(name(MessageRetentionDefaultService.class, "retention_messages_deleted", mpc)).mark(deleted);
         LOG.debug("Deleted [{}] messages using mpc [{}]", deleted, mpc);
     }
 
@@ -244,6 +279,12 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
             return;
         }
 
+        final Integer batchSize = getRetentionValue(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE);
+        if (batchSize != null && batchSize > 1) {
+            scheduleDeleteMessagesByEntityIds(userMessageLogDtos.stream().map(UserMessageLogDto::getEntityId).collect(Collectors.toList()), batchSize);
+            return;
+        }
+
         LOG.debug("Scheduling delete messages [{}]", userMessageLogDtos);
         userMessageLogDtos.forEach(messageLogDto -> {
             JmsMessage message = JMSMessageBuilder.create()
@@ -264,6 +305,12 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
             return;
         }
 
+        final Integer batchSize = getRetentionValue(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE);
+        if (batchSize != null && batchSize > 1) {
+            scheduleDeleteMessagesByEntityIds(userMessages.stream().map(UserMessage::getEntityId).collect(Collectors.toList()), batchSize);
+            return;
+        }
+
         LOG.debug("Scheduling delete messages [{}]", userMessages);
         userMessages.forEach(userMessage -> {
             Map<String, String> properties = userMessageServiceHelper.getProperties(userMessage);
@@ -279,6 +326,20 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
         });
     }
 
+    /**
+     * Sends one JMS message per batch of message entity ids instead of one JMS message per message
+     */
+    protected void scheduleDeleteMessagesByEntityIds(List<Long> entityIds, int batchSize) {
+        LOG.debug("Scheduling delete of [{}] messages in batches of [{}]", entityIds.size(), batchSize);
+        for (List<Long> batch : ListUtils.partition(entityIds, batchSize)) {
+            JmsMessage message = JMSMessageBuilder.create()
+                    .property(DELETE_TYPE, MessageDeleteType.MULTI.name())
+                    .property(MESSAGE_ENTITY_IDS, StringUtils.join(batch, MESSAGE_ENTITY_IDS_SEPARATOR))
+                    .build();
+            jmsManager.sendMessageToQueue(message, retentionMessageQueue);
+        }
+    }
+
     public void deletePayloadOnSendSuccess(UserMessage userMessage, UserMessageLog userMessageLog) {
         if (shouldDeletePayloadOnSendSuccess()) {
             LOG.trace("Message payload cleared on send success.");
@@ -320,23 +381,22 @@ public class MessageRetentionDefaultService implements MessageRetentionService {
             return;
         }
 
-        List<UserMessageLogDto> userMessageLogsToDelete = new ArrayList<>(userMessageLogs);
-
-        while (CollectionUtils.isNotEmpty(userMessageLogsToDelete)) {
-            LOG.debug("messageIds size is [{}]", userMessageLogsToDelete.size());
-            int currentBatch = userMessageLogsToDelete.size();
-            if (currentBatch > maxBatch) {
-                LOG.debug("currentBatch [{}] is higher than maxBatch [{}]", currentBatch, maxBatch);
-                currentBatch = maxBatch;
-            }
-            List<UserMessageLogDto> userMessageLogsBatch = userMessageLogsToDelete.stream().limit(currentBatch).collect(Collectors.toList());
-            userMessageLogsToDelete.removeAll(userMessageLogsBatch);
-            LOG.debug("After removal messageIds size is [{}]", userMessageLogsToDelete.size());
-            userMessageDefaultService.deleteMessages(userMessageLogsBatch);
+        final int batchSize = maxBatch > 0 ? maxBatch : userMessageLogs.size();
+        LOG.debug("Deleting [{}] messages in batches of [{}]", userMessageLogs.size(), batchSize);
+        for (List<UserMessageLogDto> userMessageLogsBatch : ListUtils.partition(userMessageLogs, batchSize)) {
+            userMessageDefaultService.deleteMessages(new ArrayList<>(userMessageLogsBatch));
         }
     }
 
     protected Integer getRetentionValue(String propertyName) {
         return domibusPropertyProvider.getIntegerProperty(propertyName);
     }
+
+    /**
+     * Reads at most maxResults expired messages having an entity id greater than lastEntityId, ordered by entity id
+     */
+    @FunctionalInterface
+    protected interface ExpiredMessagesQuery {
+        List<UserMessageLogDto> find(int maxResults, long lastEntityId);
+    }
 }
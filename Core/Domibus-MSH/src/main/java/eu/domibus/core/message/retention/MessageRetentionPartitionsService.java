@@ -5,6 +5,7 @@ import eu.domibus.api.model.DatabasePartition;
 import eu.domibus.api.model.MessageStatus;
 import eu.domibus.api.multitenancy.Domain;
 import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DataBaseEngine;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.DateUtil;
@@ -26,10 +27,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_ACTIVE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PARTITIONS_CREATION_DAYS_TO_CHECK;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PARTITIONS_DROP_CHECK_MESSAGES_EARCHIVED;
 
 /**
@@ -143,6 +146,25 @@ public class MessageRetentionPartitionsService implements MessageRetentionServic
         }
     }
 
+    /**
+     * Creates in advance the daily partitions of the next days. Oracle creates the partitions automatically (interval
+     * partitioning) so the partitions are only created on MySQL.
+     */
+    @Timer(clazz = MessageRetentionPartitionsService.class, value = "retention_createMissingPartitions")
+    @Counter(clazz = MessageRetentionPartitionsService.class, value = "retention_createMissingPartitions")
+    public void createMissingPartitions() {
+        if (DataBaseEngine.MYSQL != domibusConfigurationService.getDataBaseEngine()) {
+            LOG.debug("Partitions are created automatically by the [{}] database", domibusConfigurationService.getDataBaseEngine());
+            return;
+        }
+        int daysToCheck = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PARTITIONS_CREATION_DAYS_TO_CHECK);
+        Map<String, Long> partitionsToCreate = partitionService.getPartitionsToCreate(findAllPartitions(), dateUtil.getUtcDate(), daysToCheck);
+        for (Map.Entry<String, Long> partition : partitionsToCreate.entrySet()) {
+            LOG.info("Create partition [{}] with high value [{}]", partition.getKey(), partition.getValue());
+            userMessageDao.createPartition(partition.getKey(), partition.getValue());
+        }
+    }
+
     protected void enqueuePartitionCheckEvent(String partitionName) {
         eventService.enqueueEvent(EventType.PARTITION_CHECK, partitionName, new EventProperties(partitionName));
     }
@@ -152,13 +174,7 @@ public class MessageRetentionPartitionsService implements MessageRetentionServic
      * @return the names of the partitions older than this retention, except the DEFAULT_PARTITION and the oldest non default partition
      */
     protected List<String> getExpiredPartitionNames(int maxRetention) {
-        List<DatabasePartition> partitions;
-        if (domibusConfigurationService.isMultiTenantAware()) {
-            Domain currentDomain = domainContextProvider.getCurrentDomain();
-            partitions = userMessageDao.findAllPartitions(dbSchemaUtil.getDatabaseSchema(currentDomain));
-        } else {
-            partitions = userMessageDao.findAllPartitions();
-        }
+        List<DatabasePartition> partitions = findAllPartitions();
         LOG.debug("There are [{}] partitions.", partitions.size());
 
         Date newestPartitionToCheckDate = DateUtils.addMinutes(dateUtil.getUtcDate(), maxRetention * -1);
@@ -185,6 +201,14 @@ public class MessageRetentionPartitionsService implements MessageRetentionServic
         return partitionNames;
     }
 
+    protected List<DatabasePartition> findAllPartitions() {
+        if (domibusConfigurationService.isMultiTenantAware()) {
+            Domain currentDomain = domainContextProvider.getCurrentDomain();
+            return userMessageDao.findAllPartitions(dbSchemaUtil.getDatabaseSchema(currentDomain));
+        }
+        return userMessageDao.findAllPartitions();
+    }
+
     protected static DatabasePartition getNewestNonDefaultPartition(List<DatabasePartition> partitions) {
         return partitions.stream()
                 .filter(p -> !DEFAULT_PARTITION.equalsIgnoreCase(p.getPartitionName()))
@@ -7,9 +7,10 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
-import java.util.Date;
-import java.util.List;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 /**
  * This service class is responsible for the handling of partitions
@@ -37,6 +38,40 @@ public class PartitionService {
         return java.lang.Math.min(highValue, expiredHighValue);
     }
 
+    /**
+     * Computes the daily partitions missing until {@code days} days after {@code fromDate}. The partitions are named after
+     * the first hour of the UTC day they contain and are returned in ascending order, which is the order they must be
+     * created in since a new range partition can only be added after the existing ones.
+     *
+     * @param partitions the existing partitions
+     * @param fromDate   the day from which to check the partitions
+     * @param days       the number of days to check
+     * @return the high values of the partitions to be created, by partition name
+     */
+    public Map<String, Long> getPartitionsToCreate(List<DatabasePartition> partitions, Date fromDate, int days) {
+        Long existingHighValue = partitions.stream()
+                .map(DatabasePartition::getHighValue)
+                .max(Comparator.naturalOrder())
+                .orElse(0L);
+
+        Map<String, Long> partitionsToCreate = new LinkedHashMap<>();
+        ZonedDateTime day = ZonedDateTime.ofInstant(fromDate.toInstant(), ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+        for (int i = 0; i <= days; i++, day = day.plusDays(1)) {
+            Long highValue = getPartitionHighValueFromDate(Date.from(day.plusDays(1).toInstant()));
+            if (highValue <= existingHighValue) {
+                LOG.trace("Partition for day [{}] already exists", day);
+                continue;
+            }
+            partitionsToCreate.put(getPartitionName(Date.from(day.toInstant())), highValue);
+        }
+        LOG.debug("Partitions to create [{}]", partitionsToCreate);
+        return partitionsToCreate;
+    }
+
+    public String getPartitionName(Date partitionDate) {
+        return "P" + dateUtil.getIdPkDateHourPrefix(partitionDate);
+    }
+
     public Long getPartitionHighValueFromDate(Date partitionDate) {
         Long highValue = new Long (dateUtil.getIdPkDateHourPrefix(partitionDate) + DomibusDatePrefixedSequenceIdGeneratorGenerator.MIN);
         LOG.debug("Get partition highValue from date [{}], highValue [{}]", partitionDate, highValue);
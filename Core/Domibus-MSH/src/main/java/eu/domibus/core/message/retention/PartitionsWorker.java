@@ -0,0 +1,41 @@
+package eu.domibus.core.message.retention;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.scheduler.DomibusQuartzJobBean;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_DELETION_STRATEGY;
+
+/**
+ * Creates in advance the partitions of the message tables when the PARTITIONS deletion strategy is used.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@DisallowConcurrentExecution
+public class PartitionsWorker extends DomibusQuartzJobBean {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PartitionsWorker.class);
+
+    @Autowired
+    protected MessageRetentionPartitionsService messageRetentionPartitionsService;
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Override
+    protected void executeJob(JobExecutionContext context, Domain domain) {
+        String deletionStrategy = domibusPropertyProvider.getProperty(DOMIBUS_RETENTION_WORKER_DELETION_STRATEGY);
+        if (!messageRetentionPartitionsService.handlesDeletionStrategy(deletionStrategy)) {
+            LOG.debug("Partitions are not checked for deletion strategy [{}]", deletionStrategy);
+            return;
+        }
+        LOG.debug("Checking the partitions created in advance for domain [{}]", domain);
+        messageRetentionPartitionsService.createMissingPartitions();
+    }
+}
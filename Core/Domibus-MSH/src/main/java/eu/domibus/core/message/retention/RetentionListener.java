@@ -12,12 +12,16 @@ import eu.domibus.core.multitenancy.DomibusDomainException;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.messaging.MessageConstants;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Listeners that deletes messages by their identifiers.
@@ -68,10 +72,22 @@ public class RetentionListener implements MessageListener {
                 userMessageDefaultService.deleteMessage(messageId, mshRole);
                 return;
             }
+            if (MessageDeleteType.MULTI == deleteType) {
+                final List<Long> entityIds = getEntityIds(message.getStringProperty(MessageRetentionDefaultService.MESSAGE_ENTITY_IDS));
+                LOG.debug("Delete [{}] messages", entityIds.size());
+                userMessageDefaultService.deleteMessagesByEntityIds(entityIds);
+                return;
+            }
 
             LOG.warn("Unknown message type [{}], JMS message will be ignored.", deleteType);
         } catch (final JMSException e) {
             LOG.error("Error processing JMS message", e);
         }
     }
+
+    protected List<Long> getEntityIds(String entityIds) {
+        return Arrays.stream(StringUtils.split(entityIds, MessageRetentionDefaultService.MESSAGE_ENTITY_IDS_SEPARATOR))
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+    }
 }
@@ -65,7 +65,8 @@ public class SignalMessageLogInfoFilter extends MessageLogInfoFilter {
                 (fields.contains(ORIGINAL_SENDER) ? PROPS_FROM_VALUE + "," : "'',") +
                 (fields.contains(FINAL_RECIPIENT) ? PROPS_TO_VALUE + "," : "'',") +
                 "signal.refToMessageId," +
-                "message.testMessage" +
+                "message.testMessage," +
+                "log.entityId" +
                 ")" +
                 getQueryBody(filters, fields);
         StringBuilder result = filterQuery(query, column, asc, filters);
@@ -31,6 +31,8 @@ import eu.domibus.core.message.*;
 import eu.domibus.core.message.dictionary.MshRoleDao;
 import eu.domibus.core.message.receipt.AS4ReceiptService;
 import eu.domibus.core.message.retention.MessageRetentionDefaultService;
+import eu.domibus.core.metrics.Counter;
+import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.payload.persistence.PayloadPersistence;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
@@ -69,6 +71,8 @@ import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_SPLIT_AND_JOIN_RECEIVE_REJOIN_STREAMING;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_SPLIT_AND_JOIN_SEND_SPLIT_CONCURRENCY;
 import static org.apache.commons.lang3.BooleanUtils.isTrue;
 
 /**
@@ -171,6 +175,9 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
     @Autowired
     SplitAndJoinHelper splitAndJoinHelper;
 
+    @Autowired
+    protected SplitAndJoinPipelinedSplitter splitAndJoinPipelinedSplitter;
+
     @Override
     public void createUserFragmentsFromSourceFile(String sourceMessageFileName, SOAPMessage sourceMessageRequest, UserMessage userMessage, String contentTypeString, boolean compression) {
         MessageGroupEntity messageGroupEntity = new MessageGroupEntity();
@@ -208,6 +215,12 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
             throw new SplitAndJoinException("Could not get LegConfiguration", e);
         }
 
+        final int splitConcurrency = getSplitConcurrency();
+        if (splitConcurrency > 1) {
+            createUserFragmentsPipelined(sourceMessageFile, sourceMessageRequest, dbUserMessage, messageGroupEntity, contentTypeString, legConfiguration, splitConcurrency);
+            return;
+        }
+
         List<String> fragmentFiles;
         try {
             fragmentFiles = splitSourceMessage(sourceMessageFile, legConfiguration.getSplitting().getFragmentSize());
@@ -222,12 +235,7 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         }
         LOG.debug("Finished deleting source file [{}]", sourceMessageFile);
 
-        final ContentType contentType = ContentType.parse(contentTypeString);
-        MessageHeaderEntity messageHeaderEntity = new MessageHeaderEntity();
-        messageHeaderEntity.setBoundary(contentType.getParameter(BOUNDARY));
-        final String start = contentType.getParameter(START);
-        messageHeaderEntity.setStart(StringUtils.replaceEach(start, new String[]{"<", ">"}, new String[]{"", ""}));
-        messageGroupEntity.setMessageHeaderEntity(messageHeaderEntity);
+        messageGroupEntity.setMessageHeaderEntity(createMessageHeaderEntity(contentTypeString));
 
         splitAndJoinHelper.createMessageFragments(dbUserMessage, messageGroupEntity, fragmentFiles);
 
@@ -236,11 +244,79 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         LOG.debug("Finished processing source message file");
     }
 
+    /**
+     * Creates the message group first and then writes the fragment files in parallel, submitting each fragment for sending as soon as its file is written
+     */
+    protected void createUserFragmentsPipelined(File sourceMessageFile, SOAPMessage sourceMessageRequest, UserMessage dbUserMessage, MessageGroupEntity messageGroupEntity,
+                                                String contentTypeString, LegConfiguration legConfiguration, int splitConcurrency) {
+        final long fragmentSizeInBytes = legConfiguration.getSplitting().getFragmentSize() * MB_IN_BYTES;
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = splitAndJoinPipelinedSplitter.getFragments(sourceMessageFile, getFragmentStorageDirectory(), fragmentSizeInBytes);
+        messageGroupEntity.setFragmentCount((long) fragments.size());
+        messageGroupEntity.setMessageHeaderEntity(createMessageHeaderEntity(contentTypeString));
+
+        final String backendName = splitAndJoinHelper.createMessageGroup(dbUserMessage, messageGroupEntity);
+        splitAndJoinPipelinedSplitter.splitAndSubmit(sourceMessageFile, fragments, splitConcurrency, dbUserMessage, messageGroupEntity, backendName);
+
+        LOG.debug("Deleting source file [{}]", sourceMessageFile);
+        final boolean deleteSuccessful = sourceMessageFile.delete();
+        if (!deleteSuccessful) {
+            LOG.warn("Could not delete source file [{}]", sourceMessageFile);
+        }
+
+        attachmentCleanupService.cleanAttachments(sourceMessageRequest);
+
+        LOG.debug("Finished processing source message file using [{}] concurrent writers", splitConcurrency);
+    }
+
+    protected int getSplitConcurrency() {
+        final Integer splitConcurrency = domibusPropertyProvider.getIntegerProperty(DOMIBUS_SPLIT_AND_JOIN_SEND_SPLIT_CONCURRENCY);
+        return splitConcurrency == null ? 1 : splitConcurrency;
+    }
+
+    protected MessageHeaderEntity createMessageHeaderEntity(String contentTypeString) {
+        final ContentType contentType = ContentType.parse(contentTypeString);
+        MessageHeaderEntity messageHeaderEntity = new MessageHeaderEntity();
+        messageHeaderEntity.setBoundary(contentType.getParameter(BOUNDARY));
+        final String start = contentType.getParameter(START);
+        messageHeaderEntity.setStart(StringUtils.replaceEach(start, new String[]{"<", ">"}, new String[]{"", ""}));
+        return messageHeaderEntity;
+    }
+
+    @Timer(clazz = SplitAndJoinDefaultService.class, value = "rejoinSourceMessage")
+    @Counter(clazz = SplitAndJoinDefaultService.class, value = "rejoinSourceMessage")
     @Override
     public void rejoinSourceMessage(String groupId, String sourceMessageFile, String backendName) {
         LOG.debug("Rejoining SourceMessage for group [{}]", groupId);
 
         final SOAPMessage sourceRequest = rejoinSourceMessage(groupId, new File(sourceMessageFile));
+        processRejoinedSourceMessage(groupId, sourceRequest);
+    }
+
+    @Timer(clazz = SplitAndJoinDefaultService.class, value = "rejoinSourceMessageFromFragments")
+    @Counter(clazz = SplitAndJoinDefaultService.class, value = "rejoinSourceMessageFromFragments")
+    @Override
+    public void rejoinSourceMessageFromFragments(String groupId, String backendName) {
+        LOG.debug("Rejoining SourceMessage for group [{}] directly from the message fragments", groupId);
+
+        final MessageGroupEntity messageGroupEntity = messageGroupDao.findByGroupIdWithMessageHeader(groupId);
+        final List<File> fragmentFilesInOrder = getFragmentFilesInOrder(groupId, messageGroupEntity);
+        final String contentType = createContentType(messageGroupEntity.getMessageHeaderEntity().getBoundary(), messageGroupEntity.getMessageHeaderEntity().getStart());
+
+        final SOAPMessage sourceRequest;
+        try (InputStream sourceMessageStream = openSourceMessageStream(fragmentFilesInOrder, isSourceMessageCompressed(messageGroupEntity))) {
+            sourceRequest = getUserMessage(sourceMessageStream, contentType);
+        } catch (IOException exp) {
+            throw new SplitAndJoinException("Could not rejoin fragments", exp);
+        }
+        processRejoinedSourceMessage(groupId, sourceRequest);
+    }
+
+    @Override
+    public boolean isStreamingRejoinEnabled() {
+        return isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_SPLIT_AND_JOIN_RECEIVE_REJOIN_STREAMING));
+    }
+
+    protected void processRejoinedSourceMessage(String groupId, SOAPMessage sourceRequest) {
         Ebms3Messaging ebms3Messaging = messageUtil.getMessage(sourceRequest);
         UserMessage userMessage = ebms3Converter.convertFromEbms3(ebms3Messaging.getUserMessage());
         userMessage.setSourceMessage(true);
@@ -316,11 +392,22 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         return temporaryDirectoryLocation + "/" + uuid;
     }
 
+    @Timer(clazz = SplitAndJoinDefaultService.class, value = "rejoinMessageFragments")
+    @Counter(clazz = SplitAndJoinDefaultService.class, value = "rejoinMessageFragments")
     @Override
     public File rejoinMessageFragments(String groupId) {
         LOG.debug("Rejoining the SourceMessage for group [{}]", groupId);
 
         final MessageGroupEntity messageGroupEntity = messageGroupDao.findByGroupId(groupId);
+        final List<File> fragmentFilesInOrder = getFragmentFilesInOrder(groupId, messageGroupEntity);
+
+        final File sourceMessageFile = mergeSourceFile(fragmentFilesInOrder, messageGroupEntity);
+        LOG.debug("Rejoined the SourceMessage for group [{}] into file [{}] of length [{}]", groupId, sourceMessageFile, sourceMessageFile.length());
+
+        return sourceMessageFile;
+    }
+
+    protected List<File> getFragmentFilesInOrder(String groupId, MessageGroupEntity messageGroupEntity) {
         if (messageGroupEntity == null) {
             throw new SplitAndJoinException("Could not rejoin fragments: could not find group [" + groupId + "]");
         }
@@ -343,11 +430,7 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
             }
             fragmentFilesInOrder.add(new File(fileName));
         }
-
-        final File sourceMessageFile = mergeSourceFile(fragmentFilesInOrder, messageGroupEntity);
-        LOG.debug("Rejoined the SourceMessage for group [{}] into file [{}] of length [{}]", groupId, sourceMessageFile, sourceMessageFile.length());
-
-        return sourceMessageFile;
+        return fragmentFilesInOrder;
     }
 
     protected SOAPMessage rejoinSourceMessage(String groupId, File sourceMessageFile) {
@@ -363,6 +446,17 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         LOG.debug("Parsing the SOAPMessage from file [{}]", sourceMessageFileName);
 
         try (InputStream rawInputStream = new FileInputStream(sourceMessageFileName)) {
+            return getUserMessage(rawInputStream, contentTypeString);
+        } catch (IOException e) {
+            throw new SplitAndJoinException(e);
+        }
+    }
+
+    /**
+     * Parses the SOAPMessage from the given stream. The stream is not closed.
+     */
+    protected SOAPMessage getUserMessage(InputStream rawInputStream, String contentTypeString) {
+        try {
             MessageImpl messageImpl = new MessageImpl();
             final String temporaryDirectoryLocation = domibusPropertyProvider.getProperty(PayloadFileStorage.TEMPORARY_ATTACHMENT_STORAGE_LOCATION);
             LOG.debug("Using temporaryDirectoryLocation for attachments [{}]", temporaryDirectoryLocation);
@@ -379,6 +473,8 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
             LOG.debug("End createUserMessage");
 
             return soapMessage;
+        } catch (SplitAndJoinException e) {
+            throw e;
         } catch (Exception e) {
             throw new SplitAndJoinException(e);
         }
@@ -807,6 +903,25 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
         }
     }
 
+    /**
+     * Opens a stream reading the fragment files one after the other, without merging them on disk first.
+     * The fragment files are opened only when the previous one has been fully read.
+     */
+    protected InputStream openSourceMessageStream(List<File> fragmentFilesInOrder, boolean compressed) throws IOException {
+        LOG.debug("Streaming the fragment files [{}], compressed [{}]", fragmentFilesInOrder, compressed);
+
+        final InputStream fragmentsStream = new SequenceInputStream(new FragmentFilesEnumeration(fragmentFilesInOrder));
+        if (!compressed) {
+            return fragmentsStream;
+        }
+        try {
+            return new GZIPInputStream(fragmentsStream, PayloadPersistence.DEFAULT_BUFFER_SIZE);
+        } catch (IOException e) {
+            fragmentsStream.close();
+            throw e;
+        }
+    }
+
     protected void decompressGzip(File input, File output) throws IOException {
         try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(input))) {
             try (FileOutputStream out = new FileOutputStream(output)) {
@@ -904,4 +1019,32 @@ public class SplitAndJoinDefaultService implements SplitAndJoinService {
                     .build();
         }
     }
+
+    /**
+     * Opens the fragment files lazily, in order, for a {@link SequenceInputStream}
+     */
+    protected static class FragmentFilesEnumeration implements Enumeration<InputStream> {
+
+        protected final Iterator<File> files;
+
+        protected FragmentFilesEnumeration(List<File> files) {
+            this.files = files.iterator();
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return files.hasNext();
+        }
+
+        @Override
+        public InputStream nextElement() {
+            final File file = files.next();
+            LOG.trace("Opening fragment file [{}]", file);
+            try {
+                return new BufferedInputStream(Files.newInputStream(file.toPath()), PayloadPersistence.DEFAULT_BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new SplitAndJoinException("Could not read fragment file [" + file + "]", e);
+            }
+        }
+    }
 }
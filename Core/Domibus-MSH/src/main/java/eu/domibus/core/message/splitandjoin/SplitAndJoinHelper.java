@@ -57,6 +57,42 @@ public class SplitAndJoinHelper {
         }
     }
 
+    /**
+     * Persists the message group in its own transaction so that the fragments can be submitted one by one afterwards
+     *
+     * @return the backend name of the source message
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String createMessageGroup(UserMessage sourceMessage, MessageGroupEntity messageGroupEntity) {
+        messageGroupDao.create(messageGroupEntity);
+        return userMessageLogDao.findBackendForMessageEntityId(sourceMessage.getEntityId());
+    }
+
+    /**
+     * Submits a single fragment in its own transaction, so that it is enqueued for sending as soon as it is committed
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createMessageFragment(UserMessage sourceMessage, MessageGroupEntity messageGroupEntity, String backendName, String fragmentFile, int index) {
+        try {
+            createMessagingForFragment(sourceMessage, messageGroupEntity, backendName, fragmentFile, index);
+        } catch (MessagingProcessingException e) {
+            throw new SplitAndJoinException("Could not create Messaging for fragment " + index, e);
+        }
+    }
+
+    /**
+     * Marks the group as rejected so that the fragments already submitted are not sent anymore
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void setMessageGroupAsRejected(String groupId) {
+        final MessageGroupEntity messageGroupEntity = messageGroupDao.findByGroupId(groupId);
+        if (messageGroupEntity == null) {
+            return;
+        }
+        messageGroupEntity.setRejected(true);
+        messageGroupDao.update(messageGroupEntity);
+    }
+
     protected void createMessagingForFragment(UserMessage sourceUserMessage, MessageGroupEntity messageGroupEntity, String backendName, String fragmentFile, int index) throws MessagingProcessingException {
         Long fragmentNumber = Long.valueOf(index);
         final UserMessage userMessageFragment = userMessageFactory.createUserMessageFragment(sourceUserMessage, messageGroupEntity, fragmentNumber, fragmentFile);
@@ -82,13 +82,20 @@ public class SplitAndJoinListener implements MessageListener {
 
                 final String backendName = message.getStringProperty(UserMessageService.MSG_BACKEND_NAME);
                 final Domain currentDomain = domainContextProvider.getCurrentDomain();
-                domainTaskExecutor.submitLongRunningTask(
-                        () -> {
-                            final File sourceMessageFile = splitAndJoinService.rejoinMessageFragments(groupId);
-                            userMessageService.scheduleSourceMessageRejoin(groupId, sourceMessageFile.getAbsolutePath(), backendName);
-                        },
-                        () -> splitAndJoinService.splitAndJoinReceiveFailed(groupId, groupId, ErrorCode.EbMS3ErrorCode.EBMS_0004.getCode().getErrorCode().getErrorCodeName(), "Error while rejoining the message fragments for group [" + groupId + "]"),
-                        currentDomain);
+                if (splitAndJoinService.isStreamingRejoinEnabled()) {
+                    domainTaskExecutor.submitLongRunningTask(
+                            () -> splitAndJoinService.rejoinSourceMessageFromFragments(groupId, backendName),
+                            () -> splitAndJoinService.splitAndJoinReceiveFailed(groupId, groupId, ErrorCode.EbMS3ErrorCode.EBMS_0004.getCode().getErrorCode().getErrorCodeName(), "Error while rejoining the SourceMessage for group [" + groupId + "]"),
+                            currentDomain);
+                } else {
+                    domainTaskExecutor.submitLongRunningTask(
+                            () -> {
+                                final File sourceMessageFile = splitAndJoinService.rejoinMessageFragments(groupId);
+                                userMessageService.scheduleSourceMessageRejoin(groupId, sourceMessageFile.getAbsolutePath(), backendName);
+                            },
+                            () -> splitAndJoinService.splitAndJoinReceiveFailed(groupId, groupId, ErrorCode.EbMS3ErrorCode.EBMS_0004.getCode().getErrorCode().getErrorCodeName(), "Error while rejoining the message fragments for group [" + groupId + "]"),
+                            currentDomain);
+                }
             } else if (StringUtils.equals(messageType, UserMessageService.COMMAND_SOURCE_MESSAGE_REJOIN)) {
                 final String groupId = message.getStringProperty(UserMessageService.MSG_GROUP_ID);
                 //for SplitAndJoin the groupId is identical with the SourceMessage id
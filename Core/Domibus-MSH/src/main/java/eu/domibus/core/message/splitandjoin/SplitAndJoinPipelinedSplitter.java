@@ -0,0 +1,179 @@
+package eu.domibus.core.message.splitandjoin;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.model.splitandjoin.MessageGroupEntity;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Splits the SourceMessage file into fragments in parallel and submits every fragment for sending as soon as its file
+ * has been written and synced to disk, instead of waiting for the whole SourceMessage to be split.
+ * <p>
+ * The fragment boundaries are computed upfront; at most {@code concurrency} fragment files are written at the same time
+ * using the Domibus task executor, while the fragments are submitted in order, each one in its own transaction.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class SplitAndJoinPipelinedSplitter {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(SplitAndJoinPipelinedSplitter.class);
+
+    protected static final double BYTES_IN_MB = 1024D * 1024D;
+
+    @Autowired
+    protected DomainTaskExecutor domainTaskExecutor;
+
+    @Autowired
+    protected SplitAndJoinHelper splitAndJoinHelper;
+
+    @Autowired
+    protected MetricRegistry metricRegistry;
+
+    /**
+     * Computes the fragments of the SourceMessage file: all fragments have {@code fragmentSizeInBytes} bytes except the last one, which contains the remaining bytes
+     */
+    public List<Fragment> getFragments(File sourceMessageFile, File storageDirectory, long fragmentSizeInBytes) {
+        final long sourceSize = sourceMessageFile.length();
+        final long fragmentSize = fragmentSizeInBytes > 0 ? fragmentSizeInBytes : Math.max(sourceSize, 1);
+
+        List<Fragment> fragments = new ArrayList<>();
+        long offset = 0;
+        int index = 1;
+        do {
+            final long length = Math.min(fragmentSize, sourceSize - offset);
+            final String fileName = storageDirectory.getAbsolutePath() + File.separator + sourceMessageFile.getName() + SplitAndJoinDefaultService.FRAGMENT_FILENAME_SEPARATOR + index;
+            fragments.add(new Fragment(index, offset, length, fileName));
+            offset += length;
+            index++;
+        } while (offset < sourceSize);
+        return fragments;
+    }
+
+    /**
+     * Writes the fragment files and submits the fragments for sending.
+     * The message group must have been persisted already and must contain the final fragment count.
+     */
+    public void splitAndSubmit(File sourceMessageFile, List<Fragment> fragments, int concurrency, UserMessage sourceMessage, MessageGroupEntity messageGroupEntity, String backendName) {
+        LOG.debug("Splitting SourceMessage [{}] into [{}] fragments using [{}] concurrent writers", sourceMessageFile, fragments.size(), concurrency);
+
+        final long startTime = System.nanoTime();
+        final Deque<Future<?>> pendingWrites = new ArrayDeque<>();
+        int nextFragmentToSubmit = 0;
+        try {
+            for (Fragment fragment : fragments) {
+                if (pendingWrites.size() >= concurrency) {
+                    submitFragment(pendingWrites.poll(), fragments.get(nextFragmentToSubmit++), sourceMessage, messageGroupEntity, backendName);
+                }
+                pendingWrites.add(domainTaskExecutor.submit(() -> writeFragment(sourceMessageFile, fragment), false));
+            }
+            while (!pendingWrites.isEmpty()) {
+                submitFragment(pendingWrites.poll(), fragments.get(nextFragmentToSubmit++), sourceMessage, messageGroupEntity, backendName);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error splitting SourceMessage [{}]: cancelling the remaining fragments", sourceMessageFile, e);
+            pendingWrites.forEach(pendingWrite -> pendingWrite.cancel(true));
+            splitAndJoinHelper.setMessageGroupAsRejected(messageGroupEntity.getGroupId());
+            throw e;
+        }
+
+        updateThroughputMetrics(sourceMessageFile.length(), System.nanoTime() - startTime);
+    }
+
+    protected void submitFragment(Future<?> pendingWrite, Fragment fragment, UserMessage sourceMessage, MessageGroupEntity messageGroupEntity, String backendName) {
+        waitForWrite(pendingWrite, fragment);
+        LOG.debug("Submitting fragment [{}] with file [{}]", fragment.getIndex(), fragment.getFileName());
+        splitAndJoinHelper.createMessageFragment(sourceMessage, messageGroupEntity, backendName, fragment.getFileName(), fragment.getIndex());
+    }
+
+    protected void waitForWrite(Future<?> pendingWrite, Fragment fragment) {
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SplitAndJoinException("Interrupted while writing fragment [" + fragment.getIndex() + "]", e);
+        } catch (ExecutionException e) {
+            throw new SplitAndJoinException("Could not write fragment [" + fragment.getIndex() + "]", e.getCause());
+        }
+    }
+
+    protected void writeFragment(File sourceMessageFile, Fragment fragment) {
+        LOG.debug("Saving fragment file [{}]", fragment.getFileName());
+
+        try (FileChannel source = FileChannel.open(sourceMessageFile.toPath(), StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(new File(fragment.getFileName()).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long transferred = 0;
+            while (transferred < fragment.getLength()) {
+                final long count = source.transferTo(fragment.getOffset() + transferred, fragment.getLength() - transferred, target);
+                if (count <= 0) {
+                    throw new IOException("Unexpected end of file [" + sourceMessageFile + "] at position [" + (fragment.getOffset() + transferred) + "]");
+                }
+                transferred += count;
+            }
+            target.force(true);
+        } catch (IOException e) {
+            throw new SplitAndJoinException("Could not save fragment file [" + fragment.getFileName() + "]", e);
+        }
+    }
+
+    protected void updateThroughputMetrics(long bytes, long durationInNanos) {
+        final double seconds = Math.max(durationInNanos, 1L) / 1_000_000_000D;
+        final double megabytesPerSecond = bytes / BYTES_IN_MB / seconds;
+        LOG.info("Split [{}] bytes in [{}] ms, throughput [{}] MB/s", bytes, durationInNanos / 1_000_000, String.format("%.2f", megabytesPerSecond));
+
+        metricRegistry.meter(name(SplitAndJoinPipelinedSplitter.class, "split", "bytes")).mark(bytes);
+        metricRegistry.histogram(name(SplitAndJoinPipelinedSplitter.class, "split", "throughputMBPerSecond")).update(Math.round(megabytesPerSecond));
+    }
+
+    /**
+     * A fragment of the SourceMessage file
+     */
+    public static class Fragment {
+
+        protected final int index;
+        protected final long offset;
+        protected final long length;
+        protected final String fileName;
+
+        public Fragment(int index, long offset, long length, String fileName) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+            this.fileName = fileName;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+    }
+}
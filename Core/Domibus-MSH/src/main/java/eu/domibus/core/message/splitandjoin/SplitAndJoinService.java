@@ -47,6 +47,21 @@ public interface SplitAndJoinService {
      */
     void rejoinSourceMessage(String groupId, String sourceMessageFile, String backendName);
 
+    /**
+     * Rejoins the source message by streaming the message fragments, without writing the merged source message file on disk
+     *
+     * @param groupId
+     * @param backendName
+     */
+    void rejoinSourceMessageFromFragments(String groupId, String backendName);
+
+    /**
+     * Checks if the source message should be rejoined by streaming the message fragments
+     *
+     * @return true if the streaming rejoin is enabled for the current domain
+     */
+    boolean isStreamingRejoinEnabled();
+
     /**
      * Marks the SourceMessage as failed
      *
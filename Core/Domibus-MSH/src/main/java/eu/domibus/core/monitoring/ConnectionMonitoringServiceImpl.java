@@ -5,6 +5,7 @@ import com.codahale.metrics.MetricRegistry;
 import eu.domibus.api.model.MessageStatus;
 import eu.domibus.api.party.PartyService;
 import eu.domibus.core.ebms3.receiver.handler.AbstractIncomingMessageHandler;
+import eu.domibus.core.message.reliability.PartyCircuitBreaker;
 import eu.domibus.core.message.testservice.TestService;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.messaging.MessagingProcessingException;
@@ -46,6 +47,9 @@ public class ConnectionMonitoringServiceImpl implements ConnectionMonitoringServ
     @Autowired
     private MetricRegistry metricRegistry;
 
+    @Autowired
+    protected PartyCircuitBreaker partyCircuitBreaker;
+
     public ConnectionMonitoringServiceImpl(PartyService partyService, TestService testService, ConnectionMonitoringHelper connectionMonitoringHelper) {
         this.partyService = partyService;
         this.testService = testService;
@@ -170,6 +174,7 @@ public class ConnectionMonitoringServiceImpl implements ConnectionMonitoringServ
                             testMessageCounter.inc();
                             String testMessageId = testService.submitTest(senderParty, receiverParty);
                             LOG.debug("Test message submitted from [{}] to [{}]: [{}]", senderParty, receiverParty, testMessageId);
+                            partyCircuitBreaker.probeSubmitted(receiverParty);
                         } finally {
                             Optional.ofNullable(testMessageCounter).ifPresent(Counter::dec);
                         }
@@ -1,17 +1,21 @@
 package eu.domibus.core.payload.persistence;
 
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.message.compression.CompressionService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileLayout;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileSyncService;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -19,9 +23,10 @@ import org.springframework.stereotype.Service;
 import javax.crypto.Cipher;
 import javax.crypto.CipherOutputStream;
 import java.io.*;
-import java.util.UUID;
 import java.util.zip.GZIPOutputStream;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_CHANNEL_WRITE_ACTIVE;
+
 /**
  * @author Cosmin Baciu
  * @since 4.1
@@ -31,7 +36,7 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(FileSystemPayloadPersistence.class);
 
-    public static final String PAYLOAD_EXTENSION = ".payload";
+    public static final String PAYLOAD_EXTENSION = PayloadFileLayout.PAYLOAD_EXTENSION;
 
     @Autowired
     protected PayloadFileStorageProvider storageProvider;
@@ -48,6 +53,18 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
     @Autowired
     protected PayloadEncryptionService encryptionService;
 
+    @Autowired
+    protected PayloadFileWriter payloadFileWriter;
+
+    @Autowired
+    protected PayloadFileLayout payloadFileLayout;
+
+    @Autowired
+    protected PayloadFileSyncService payloadFileSyncService;
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
     @Override
     public void storeIncomingPayload(PartInfo partInfo, UserMessage userMessage, LegConfiguration legConfiguration) throws IOException {
         if (StringUtils.isBlank(partInfo.getFileName())) {
@@ -64,10 +81,11 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
     protected void saveIncomingPayloadToDisk(PartInfo partInfo, PayloadFileStorage currentStorage, final Boolean encryptionActive) throws IOException {
         LOG.debug("Saving incoming payload [{}] to file disk", partInfo.getHref());
 
-        final File attachmentStore = new File(currentStorage.getStorageDirectory(), UUID.randomUUID().toString() + PAYLOAD_EXTENSION);
+        final File attachmentStore = payloadFileLayout.createPayloadFile(currentStorage.getStorageDirectory());
         partInfo.setFileName(attachmentStore.getAbsolutePath());
         try (final InputStream inputStream = partInfo.getPayloadDatahandler().getInputStream()) {
             final long fileLength = saveIncomingFileToDisk(attachmentStore, inputStream, encryptionActive);
+            payloadFileSyncService.sync(attachmentStore, currentStorage.getStorageDirectory());
             partInfo.setLength(fileLength);
             partInfo.setEncrypted(encryptionActive);
 
@@ -79,6 +97,10 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
     }
 
     protected long saveIncomingFileToDisk(File file, InputStream is, final Boolean encryptionActive) throws IOException {
+        if (isFileChannelWriteActive()) {
+            return saveFileToDiskUsingChannels(file, is, encryptionActive);
+        }
+
         OutputStream outputStream = null;
         try {
             outputStream = new FileOutputStream(file);//NOSONAR the stream is closed in the finally block
@@ -117,11 +139,12 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
 
             backendNotificationService.notifyPayloadSubmitted(userMessage, originalFileName, partInfo, backendName);
 
-            final File attachmentStore = new File(currentStorage.getStorageDirectory(), UUID.randomUUID().toString() + PAYLOAD_EXTENSION);
+            final File attachmentStore = payloadFileLayout.createPayloadFile(currentStorage.getStorageDirectory());
             partInfo.setFileName(attachmentStore.getAbsolutePath());
 
             final Boolean encryptionActive = payloadPersistenceHelper.isPayloadEncryptionActive(userMessage);
             final long fileLength = saveOutgoingFileToDisk(attachmentStore, partInfo, is, userMessage, legConfiguration, encryptionActive);
+            payloadFileSyncService.sync(attachmentStore, currentStorage.getStorageDirectory());
             partInfo.setLength(fileLength);
             partInfo.setEncrypted(encryptionActive);
 
@@ -136,6 +159,10 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
         boolean useCompression = compressionService.handleCompression(userMessage.getMessageId(), partInfo, legConfiguration);
         LOG.debug("Compression for message with id: [{}] applied: [{}]", userMessage.getMessageId(), useCompression);
 
+        if (!useCompression && isFileChannelWriteActive()) {
+            return saveFileToDiskUsingChannels(file, is, encryptionActive);
+        }
+
         OutputStream outputStream = null;
         try {
             outputStream = new FileOutputStream(file); //NOSONAR the stream is closed in the finally block
@@ -162,4 +189,20 @@ public class FileSystemPayloadPersistence implements PayloadPersistence {
         }
     }
 
+    protected long saveFileToDiskUsingChannels(File file, InputStream is, final Boolean encryptionActive) throws IOException {
+        final long total;
+        if (BooleanUtils.isTrue(encryptionActive)) {
+            LOG.debug("Using encryption for file [{}]", file);
+            total = payloadFileWriter.writeEncrypted(is, file, encryptionService.getEncryptCipherForPayload());
+        } else {
+            total = payloadFileWriter.write(is, file);
+        }
+        LOG.debug("Done writing file [{}] using file channels. Written [{}] bytes.", file.getName(), total);
+        return total;
+    }
+
+    protected boolean isFileChannelWriteActive() {
+        return BooleanUtils.isTrue(domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_FILESYSTEM_CHANNEL_WRITE_ACTIVE));
+    }
+
 }
@@ -0,0 +1,151 @@
+package eu.domibus.core.payload.persistence.filesystem;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT;
+
+/**
+ * Decides where the payload files are stored inside the payload storage directory.
+ * <p>
+ * With the {@link #LAYOUT_FLAT} layout all payloads are stored directly in the storage directory. With the {@link #LAYOUT_SHARDED}
+ * layout the payloads are stored in {@code <day>/<two hex characters of the file name>} subdirectories, which keeps
+ * the directories small and lets the payloads of a day be removed together.
+ * The payloads are read from the path saved in the database; when the payload is not found there (e.g. the storage
+ * directory was moved) it is searched in the current storage directory, in both layouts.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PayloadFileLayout {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PayloadFileLayout.class);
+
+    public static final String PAYLOAD_EXTENSION = ".payload";
+
+    public static final String LAYOUT_FLAT = "flat";
+
+    public static final String LAYOUT_SHARDED = "sharded";
+
+    protected static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    protected static final int SHARD_PREFIX_LENGTH = 2;
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Autowired
+    protected PayloadFileStorageProvider storageProvider;
+
+    /**
+     * Creates the path of a new payload file, creating the shard directory if needed
+     */
+    public File createPayloadFile(File storageDirectory) throws IOException {
+        final String fileName = UUID.randomUUID() + PAYLOAD_EXTENSION;
+        if (!isShardedLayout()) {
+            return new File(storageDirectory, fileName);
+        }
+        final File shardDirectory = getShardDirectory(storageDirectory, LocalDate.now(), fileName);
+        Files.createDirectories(shardDirectory.toPath());
+        return new File(shardDirectory, fileName);
+    }
+
+    /**
+     * Resolves the payload file saved in the database, looking in both layouts of the current storage directory if the file is not found at its saved path
+     */
+    public File resolvePayloadFile(String savedFileName) {
+        final File savedFile = new File(savedFileName);
+        if (savedFile.exists()) {
+            return savedFile;
+        }
+        final PayloadFileStorage currentStorage = storageProvider.getCurrentStorage();
+        if (currentStorage == null || currentStorage.getStorageDirectory() == null) {
+            return savedFile;
+        }
+        for (File candidate : getCandidates(currentStorage.getStorageDirectory(), savedFile)) {
+            if (candidate.exists()) {
+                LOG.debug("Payload file [{}] resolved to [{}]", savedFileName, candidate);
+                return candidate;
+            }
+        }
+        LOG.debug("Payload file [{}] not found in the storage directory [{}]", savedFileName, currentStorage.getStorageDirectory());
+        return savedFile;
+    }
+
+    /**
+     * Removes the shard directories of the given payload file if they are empty and belong to a day before yesterday; the directories
+     * of the current day and of the previous day are kept, so a payload file created around midnight never finds its directory deleted
+     */
+    public void deleteEmptyShardDirectories(File payloadFile) {
+        final File shardDirectory = payloadFile.getParentFile();
+        if (shardDirectory == null || shardDirectory.getParentFile() == null) {
+            return;
+        }
+        final File dayDirectory = shardDirectory.getParentFile();
+        final LocalDate day = parseDay(dayDirectory.getName());
+        if (day == null || !day.isBefore(LocalDate.now().minusDays(1))) {
+            return;
+        }
+        if (deleteIfEmpty(shardDirectory.toPath())) {
+            deleteIfEmpty(dayDirectory.toPath());
+        }
+    }
+
+    protected List<File> getCandidates(File storageDirectory, File savedFile) {
+        final String fileName = savedFile.getName();
+        List<File> candidates = new ArrayList<>();
+        final File shardDirectory = savedFile.getParentFile();
+        if (shardDirectory != null && shardDirectory.getParentFile() != null && parseDay(shardDirectory.getParentFile().getName()) != null) {
+            candidates.add(new File(new File(new File(storageDirectory, shardDirectory.getParentFile().getName()), shardDirectory.getName()), fileName));
+        }
+        candidates.add(new File(storageDirectory, fileName));
+        return candidates;
+    }
+
+    protected File getShardDirectory(File storageDirectory, LocalDate day, String fileName) {
+        return new File(new File(storageDirectory, DAY_FORMATTER.format(day)), StringUtils.left(fileName, SHARD_PREFIX_LENGTH));
+    }
+
+    protected boolean isShardedLayout() {
+        return StringUtils.equalsIgnoreCase(LAYOUT_SHARDED, domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT));
+    }
+
+    protected LocalDate parseDay(String directoryName) {
+        try {
+            return LocalDate.parse(directoryName, DAY_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    protected boolean deleteIfEmpty(Path directory) {
+        try {
+            Files.delete(directory);
+            LOG.debug("Deleted empty payload directory [{}]", directory);
+            return true;
+        } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            LOG.debug("Could not delete payload directory [{}]", directory, e);
+            return false;
+        }
+    }
+}
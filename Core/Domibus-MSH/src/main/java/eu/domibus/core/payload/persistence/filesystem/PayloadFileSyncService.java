@@ -0,0 +1,210 @@
+package eu.domibus.core.payload.persistence.filesystem;
+
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.api.exceptions.DomibusCoreException;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE;
+
+/**
+ * Applies the durability policy configured for the payload files:
+ * <ul>
+ *     <li>{@link #FSYNC_NONE}: the files are flushed to disk by the operating system</li>
+ *     <li>{@link #FSYNC_FILE}: every file and its directory are synced to disk before the payload is considered saved</li>
+ *     <li>{@link #FSYNC_GROUP}: the files of a storage directory are synced in groups; every writer waits until the group of its
+ *     file is synced, which happens when the group is full or, at the latest, after the configured maximum delay</li>
+ * </ul>
+ * When a payload file cannot be synced, the writers of the file, or of every file of its group, get a {@link DomibusCoreException}
+ * so that the payload is not considered saved.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PayloadFileSyncService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PayloadFileSyncService.class);
+
+    public static final String FSYNC_NONE = "none";
+
+    public static final String FSYNC_FILE = "file";
+
+    public static final String FSYNC_GROUP = "group";
+
+    protected final Map<String, SyncGroup> groups = new ConcurrentHashMap<>();
+
+    @Autowired
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    /**
+     * Syncs the payload file according to the configured policy; the method returns once the file is durable
+     *
+     * @param file             the payload file
+     * @param storageDirectory the payload storage directory containing the file; the files are grouped per storage directory
+     * @throws DomibusCoreException if the file could not be synced
+     */
+    public void sync(File file, File storageDirectory) {
+        final String policy = domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC);
+        if (StringUtils.equalsIgnoreCase(FSYNC_FILE, policy)) {
+            syncFiles(Collections.singletonList(file));
+            return;
+        }
+        if (StringUtils.equalsIgnoreCase(FSYNC_GROUP, policy)) {
+            final SyncGroup group = groups.computeIfAbsent(String.valueOf(storageDirectory), key -> new SyncGroup());
+            syncInGroup(group, file,
+                    domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE),
+                    domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY));
+            return;
+        }
+        LOG.trace("No fsync for file [{}]", file);
+    }
+
+    /**
+     * Adds the file to the group and waits until the group is synced. The writer completing the group, or the first writer
+     * whose maximum delay expires, syncs the files of the group; when the sync fails, the other writers of the group fail too.
+     */
+    protected void syncInGroup(SyncGroup group, File file, Integer groupSize, Integer maxDelay) {
+        final long delay = maxDelay != null ? maxDelay : 0L;
+        final long deadline = System.currentTimeMillis() + delay;
+        final long batch;
+        List<File> files = null;
+        synchronized (group) {
+            batch = group.currentBatch;
+            group.pendingFiles.add(file);
+            if (groupSize == null || group.pendingFiles.size() >= groupSize) {
+                files = group.takeBatch();
+            }
+            while (files == null && !group.isSynced(batch)) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 && group.currentBatch == batch) {
+                    LOG.debug("Maximum delay reached: syncing the incomplete group of [{}] payload files", group.pendingFiles.size());
+                    files = group.takeBatch();
+                    break;
+                }
+                try {
+                    // once the batch is taken by another writer, wait until it notifies the end of the sync
+                    group.wait(remaining > 0 ? remaining : 0L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Interrupted while waiting for the payload file [" + file + "] to be synced", e);
+                }
+            }
+            if (files == null && group.consumeFailure(batch)) {
+                throw new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Could not sync the group of the payload file [" + file + "]");
+            }
+        }
+        if (files == null) {
+            return;
+        }
+        try {
+            syncFiles(files);
+        } catch (RuntimeException e) {
+            synchronized (group) {
+                group.fail(batch, files.size() - 1);
+            }
+            throw e;
+        } finally {
+            synchronized (group) {
+                group.syncingBatches.remove(batch);
+                group.notifyAll();
+            }
+        }
+    }
+
+    protected void syncFiles(List<File> files) {
+        LOG.debug("Syncing [{}] payload files", files.size());
+        Set<Path> directories = new LinkedHashSet<>();
+        for (File file : files) {
+            syncPath(file.toPath());
+            if (file.getParentFile() != null) {
+                directories.add(file.getParentFile().toPath());
+            }
+        }
+        directories.forEach(this::syncDirectory);
+    }
+
+    protected void syncPath(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "Could not sync payload file [" + path + "]", e);
+        }
+    }
+
+    protected void syncDirectory(Path directory) {
+        // syncing a directory is needed on Linux to make the new entries durable; it is not supported on all platforms
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.trace("Could not sync payload directory [{}]", directory, e);
+        }
+    }
+
+    /**
+     * The files of a storage directory waiting to be synced. A batch is pending while it collects files, then syncing
+     * once it was taken by a writer, then synced. A failed batch is kept until all its other writers were notified.
+     */
+    protected static class SyncGroup {
+
+        protected final List<File> pendingFiles = new ArrayList<>();
+
+        protected final Set<Long> syncingBatches = new HashSet<>();
+
+        protected final Map<Long, Integer> failedBatches = new HashMap<>();
+
+        protected long currentBatch;
+
+        protected List<File> takeBatch() {
+            final List<File> files = new ArrayList<>(pendingFiles);
+            pendingFiles.clear();
+            syncingBatches.add(currentBatch);
+            currentBatch++;
+            return files;
+        }
+
+        protected boolean isSynced(long batch) {
+            return batch < currentBatch && !syncingBatches.contains(batch);
+        }
+
+        protected void fail(long batch, int waitingWriters) {
+            if (waitingWriters > 0) {
+                failedBatches.put(batch, waitingWriters);
+            }
+        }
+
+        protected boolean consumeFailure(long batch) {
+            final Integer waitingWriters = failedBatches.get(batch);
+            if (waitingWriters == null) {
+                return false;
+            }
+            if (waitingWriters <= 1) {
+                failedBatches.remove(batch);
+            } else {
+                failedBatches.put(batch, waitingWriters - 1);
+            }
+            return true;
+        }
+    }
+}
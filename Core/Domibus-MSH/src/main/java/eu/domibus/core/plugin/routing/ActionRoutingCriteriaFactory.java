@@ -35,7 +35,7 @@ public class ActionRoutingCriteriaFactory implements CriteriaFactory {
     }
 
 
-    private class ActionRoutingCriteriaEntity extends RoutingCriteriaEntity {
+    private class ActionRoutingCriteriaEntity extends RoutingCriteriaEntity implements RoutingCriteriaValueExtractor {
 
         private ActionRoutingCriteriaEntity(final String name, final String tooltip, final String inputPattern) {
             super(name, tooltip, inputPattern);
@@ -44,7 +44,12 @@ public class ActionRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
-            return super.matches(userMessage.getActionValue());
+            return super.matches(getCandidateValue(userMessage));
+        }
+
+        @Override
+        public String getCandidateValue(final UserMessage userMessage) {
+            return userMessage.getActionValue();
         }
     }
 }
\ No newline at end of file
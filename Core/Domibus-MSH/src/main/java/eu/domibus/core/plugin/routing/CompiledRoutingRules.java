@@ -0,0 +1,224 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.routing.BackendFilter;
+import eu.domibus.api.routing.RoutingCriteria;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The backend filters of a domain compiled for matching the received user messages.
+ * <p>
+ * The expressions of the routing criteria implementing {@link RoutingCriteriaValueExtractor} are compiled once: expressions
+ * without regular expression metacharacters are compared as literals and the other ones are compiled to {@link Pattern}s.
+ * The expressions of the other routing criteria are matched by the criteria themselves. Each filter having at least one literal
+ * criteria is dispatched on the value of its first literal criteria, so that only the filters which can possibly match
+ * a message are evaluated. The filters keep their priority: the first matching filter in the original order is returned.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class CompiledRoutingRules {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(CompiledRoutingRules.class);
+
+    protected static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final List<BackendFilter> backendFilters;
+
+    private final List<CompiledFilter> compiledFilters = new ArrayList<>();
+
+    /**
+     * The value extractors of the criteria used by the filters, in the order in which they were first encountered
+     */
+    private final List<RoutingCriteriaValueExtractor> criteriaList = new ArrayList<>();
+
+    /**
+     * criteria position -> literal expression -> positions of the filters dispatched on it, in ascending order
+     */
+    private final Map<Integer, Map<String, List<Integer>>> dispatchedFilters = new HashMap<>();
+
+    /**
+     * positions of the filters without literal criteria, which are evaluated for every message
+     */
+    private final List<Integer> undispatchedFilters = new ArrayList<>();
+
+    public CompiledRoutingRules(List<BackendFilter> backendFilters, Map<String, IRoutingCriteria> criteriaMap) {
+        this.backendFilters = backendFilters;
+        if (backendFilters == null) {
+            return;
+        }
+        for (BackendFilter backendFilter : backendFilters) {
+            final CompiledFilter compiledFilter = compileFilter(backendFilter, criteriaMap);
+            if (compiledFilter == null) {
+                continue;
+            }
+            final int position = compiledFilters.size();
+            compiledFilters.add(compiledFilter);
+
+            final CompiledCriteria dispatchCriteria = compiledFilter.getFirstLiteralCriteria();
+            if (dispatchCriteria == null) {
+                undispatchedFilters.add(position);
+                continue;
+            }
+            dispatchedFilters
+                    .computeIfAbsent(dispatchCriteria.criteriaPosition, key -> new HashMap<>())
+                    .computeIfAbsent(dispatchCriteria.literal, key -> new ArrayList<>())
+                    .add(position);
+        }
+        LOG.debug("Compiled [{}] backend filters: [{}] dispatched on literal criteria, [{}] evaluated for every message",
+                compiledFilters.size(), compiledFilters.size() - undispatchedFilters.size(), undispatchedFilters.size());
+    }
+
+    public boolean isBuiltFor(List<BackendFilter> backendFilters) {
+        return this.backendFilters == backendFilters;
+    }
+
+    public BackendFilter getMatchingBackendFilter(final UserMessage userMessage) {
+        final String[] candidateValues = new String[criteriaList.size()];
+        final BitSet candidateFilters = new BitSet(compiledFilters.size());
+        undispatchedFilters.forEach(candidateFilters::set);
+        for (Map.Entry<Integer, Map<String, List<Integer>>> entry : dispatchedFilters.entrySet()) {
+            final String candidateValue = getCandidateValue(entry.getKey(), candidateValues, userMessage);
+            final List<Integer> filterPositions = entry.getValue().get(candidateValue);
+            if (filterPositions != null) {
+                filterPositions.forEach(candidateFilters::set);
+            }
+        }
+
+        for (int position = candidateFilters.nextSetBit(0); position >= 0; position = candidateFilters.nextSetBit(position + 1)) {
+            final CompiledFilter compiledFilter = compiledFilters.get(position);
+            if (compiledFilter.matches(this, candidateValues, userMessage)) {
+                LOG.debug("Filter [{}] matched for message [{}]", compiledFilter.backendFilter, userMessage.getMessageId());
+                return compiledFilter.backendFilter;
+            }
+        }
+        LOG.trace("No filter matched for message [{}]", userMessage.getMessageId());
+        return null;
+    }
+
+    protected String getCandidateValue(int criteriaPosition, String[] candidateValues, UserMessage userMessage) {
+        String candidateValue = candidateValues[criteriaPosition];
+        if (candidateValue == null) {
+            candidateValue = criteriaList.get(criteriaPosition).getCandidateValue(userMessage);
+            candidateValues[criteriaPosition] = candidateValue;
+        }
+        return candidateValue;
+    }
+
+    protected CompiledFilter compileFilter(BackendFilter backendFilter, Map<String, IRoutingCriteria> criteriaMap) {
+        if (!backendFilter.isActive()) {
+            LOG.trace("BackendFilter [{}] is inactive", backendFilter.getBackendName());
+            return null;
+        }
+        final List<CompiledCriteria> compiledCriteriaList = new ArrayList<>();
+        if (CollectionUtils.isNotEmpty(backendFilter.getRoutingCriterias())) {
+            for (RoutingCriteria routingCriteria : backendFilter.getRoutingCriterias()) {
+                final IRoutingCriteria criteria = criteriaMap.get(StringUtils.upperCase(routingCriteria.getName()));
+                if (criteria == null) {
+                    LOG.warn("Unknown routing criteria [{}] in the filter of backend [{}]: the filter will not match any message", routingCriteria.getName(), backendFilter.getBackendName());
+                    return null;
+                }
+                if (routingCriteria.getExpression() == null) {
+                    LOG.warn("Empty expression for routing criteria [{}] in the filter of backend [{}]: the filter will not match any message", routingCriteria.getName(), backendFilter.getBackendName());
+                    return null;
+                }
+                if (criteria instanceof RoutingCriteriaValueExtractor) {
+                    compiledCriteriaList.add(new CompiledCriteria(getCriteriaPosition((RoutingCriteriaValueExtractor) criteria), routingCriteria.getExpression()));
+                } else {
+                    compiledCriteriaList.add(new CompiledCriteria(criteria, routingCriteria.getExpression()));
+                }
+            }
+        }
+        return new CompiledFilter(backendFilter, compiledCriteriaList);
+    }
+
+    protected int getCriteriaPosition(RoutingCriteriaValueExtractor criteria) {
+        int position = criteriaList.indexOf(criteria);
+        if (position < 0) {
+            criteriaList.add(criteria);
+            position = criteriaList.size() - 1;
+        }
+        return position;
+    }
+
+    protected static boolean isLiteral(String expression) {
+        return StringUtils.containsNone(expression, REGEX_METACHARACTERS);
+    }
+
+    protected static class CompiledFilter {
+
+        private final BackendFilter backendFilter;
+        private final List<CompiledCriteria> criteria;
+
+        CompiledFilter(BackendFilter backendFilter, List<CompiledCriteria> criteria) {
+            this.backendFilter = backendFilter;
+            this.criteria = criteria;
+        }
+
+        CompiledCriteria getFirstLiteralCriteria() {
+            return criteria.stream()
+                    .filter(compiledCriteria -> compiledCriteria.literal != null)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        boolean matches(CompiledRoutingRules rules, String[] candidateValues, UserMessage userMessage) {
+            for (CompiledCriteria compiledCriteria : criteria) {
+                //if at least one criteria does not match it means the filter is not matching
+                if (compiledCriteria.uncompiledCriteria != null) {
+                    if (!compiledCriteria.uncompiledCriteria.matches(userMessage, compiledCriteria.expression)) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (!compiledCriteria.matches(rules.getCandidateValue(compiledCriteria.criteriaPosition, candidateValues, userMessage))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    protected static class CompiledCriteria {
+
+        private final int criteriaPosition;
+        private final String literal;
+        private final Pattern pattern;
+        private final IRoutingCriteria uncompiledCriteria;
+        private final String expression;
+
+        CompiledCriteria(IRoutingCriteria uncompiledCriteria, String expression) {
+            this.criteriaPosition = -1;
+            this.literal = null;
+            this.pattern = null;
+            this.uncompiledCriteria = uncompiledCriteria;
+            this.expression = expression;
+        }
+
+        CompiledCriteria(int criteriaPosition, String expression) {
+            this.criteriaPosition = criteriaPosition;
+            this.uncompiledCriteria = null;
+            this.expression = expression;
+            if (isLiteral(expression)) {
+                this.literal = expression;
+                this.pattern = null;
+            } else {
+                this.literal = null;
+                this.pattern = Pattern.compile(expression);
+            }
+        }
+
+        boolean matches(String candidateValue) {
+            if (literal != null) {
+                return literal.equals(candidateValue);
+            }
+            return candidateValue != null && pattern.matcher(candidateValue).matches();
+        }
+    }
+}
@@ -38,7 +38,7 @@ public class FromRoutingCriteriaFactory implements CriteriaFactory {
         return NAME;
     }
 
-    private class FromRoutingCriteriaEntity extends RoutingCriteriaEntity implements IRoutingCriteria {
+    private class FromRoutingCriteriaEntity extends RoutingCriteriaEntity implements IRoutingCriteria, RoutingCriteriaValueExtractor {
 
         private FromRoutingCriteriaEntity(final String name, final String tooltip, final String inputPattern) {
             super(name, tooltip, inputPattern);
@@ -47,13 +47,13 @@ public class FromRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
-            final PartyId partyId = userMessage.getPartyInfo().getFrom().getFromPartyId();
-            if (matches(partyId.getValue() + ":" + partyId.getType())) {
-                return true;
-            }
-
+            return matches(getCandidateValue(userMessage));
+        }
 
-            return false;
+        @Override
+        public String getCandidateValue(final UserMessage userMessage) {
+            final PartyId partyId = userMessage.getPartyInfo().getFrom().getFromPartyId();
+            return partyId.getValue() + ":" + partyId.getType();
         }
 
     }
@@ -0,0 +1,21 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.UserMessage;
+
+/**
+ * Implemented by the Routing Criteria whose expressions are matched against a single value of the user message, so that
+ * the expressions can be compiled and the value extracted once per message, see {@link CompiledRoutingRules}
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public interface RoutingCriteriaValueExtractor {
+
+    /**
+     * Returns the value of the user message against which the expressions of this Routing Criteria are matched
+     *
+     * @param candidate user message
+     * @return the value to match
+     */
+    String getCandidateValue(UserMessage candidate);
+}
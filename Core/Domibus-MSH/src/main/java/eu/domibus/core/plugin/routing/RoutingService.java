@@ -8,6 +8,8 @@ import eu.domibus.api.routing.BackendFilter;
 import eu.domibus.api.routing.RoutingCriteria;
 import eu.domibus.core.converter.BackendFilterCoreMapper;
 import eu.domibus.core.exception.ConfigurationException;
+import eu.domibus.core.metrics.Counter;
+import eu.domibus.core.metrics.Timer;
 import eu.domibus.core.plugin.BackendConnectorProvider;
 import eu.domibus.core.plugin.notification.BackendPlugin;
 import eu.domibus.core.plugin.routing.dao.BackendFilterDao;
@@ -24,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -60,6 +63,7 @@ public class RoutingService {
     protected Map<String, IRoutingCriteria> criteriaMap;
     protected final Object backendFiltersCacheLock = new Object();
     protected volatile Map<Domain, List<BackendFilter>> backendFiltersCache = new HashMap<>();
+    protected final Map<Domain, CompiledRoutingRules> compiledRoutingRulesCache = new ConcurrentHashMap<>();
 
     public void initialize() {
         criteriaMap = new HashMap<>();
@@ -72,6 +76,7 @@ public class RoutingService {
         Domain currentDomain = domainContextProvider.getCurrentDomain();
         LOG.debug("Invalidating the backend filter cache for domain [{}]", currentDomain);
         backendFiltersCache.remove(currentDomain);
+        compiledRoutingRulesCache.remove(currentDomain);
     }
 
     public List<BackendFilter> getBackendFiltersWithCache() {
@@ -226,9 +231,27 @@ public class RoutingService {
         return ((EnableAware) backendConnector).getDomainEnabledPropertyName();
     }
 
+    @Timer(clazz = RoutingService.class, value = "getMatchingBackendFilter")
+    @Counter(clazz = RoutingService.class, value = "getMatchingBackendFilter")
     public BackendFilter getMatchingBackendFilter(final UserMessage userMessage) {
         List<BackendFilter> backendFilters = getBackendFiltersWithCache();
-        return getMatchingBackendFilter(backendFilters, criteriaMap, userMessage);
+        LOG.debug("Getting the backend filter for message [{}] for backendFilters [{}]", userMessage.getMessageId(), backendFilters);
+        return getCompiledRoutingRules(backendFilters).getMatchingBackendFilter(userMessage);
+    }
+
+    /**
+     * Returns the backend filters of the current domain compiled for matching; they are compiled again when the cached
+     * backend filters are replaced.
+     */
+    protected CompiledRoutingRules getCompiledRoutingRules(List<BackendFilter> backendFilters) {
+        final Domain currentDomain = domainContextProvider.getCurrentDomain();
+        CompiledRoutingRules compiledRoutingRules = compiledRoutingRulesCache.get(currentDomain);
+        if (compiledRoutingRules == null || !compiledRoutingRules.isBuiltFor(backendFilters)) {
+            LOG.debug("Compiling the backend filters for domain [{}]", currentDomain);
+            compiledRoutingRules = new CompiledRoutingRules(backendFilters, criteriaMap);
+            compiledRoutingRulesCache.put(currentDomain, compiledRoutingRules);
+        }
+        return compiledRoutingRules;
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_AP_ADMIN')")
@@ -252,45 +275,6 @@ public class RoutingService {
         signalService.signalMessageFiltersUpdated();
     }
 
-    protected BackendFilter getMatchingBackendFilter(final List<BackendFilter> backendFilters, final Map<String, IRoutingCriteria> criteriaMap, final UserMessage userMessage) {
-        String messageId = Optional.ofNullable(userMessage)
-                .map(UserMessage::getMessageId)
-                .orElse(null);
-        LOG.debug("Getting the backend filter for message [{}] for backendFilters [{}]", messageId, backendFilters);
-        for (final BackendFilter filter : backendFilters) {
-            final boolean backendFilterMatching = isBackendFilterMatching(filter, criteriaMap, userMessage);
-            if (backendFilterMatching) {
-                LOG.debug("Filter [{}] matched for message [{}]", filter, messageId);
-                return filter;
-            }
-        }
-        LOG.trace("No filter matched for message [{}]", messageId);
-        return null;
-    }
-
-    protected boolean isBackendFilterMatching(BackendFilter filter, Map<String, IRoutingCriteria> criteriaMap, final UserMessage userMessage) {
-        if (!filter.isActive()) {
-            LOG.trace("BackendFilter [{}] is inactive", filter.getBackendName());
-            return false;
-        }
-        if (!CollectionUtils.isEmpty(filter.getRoutingCriterias())) {
-            for (final RoutingCriteria routingCriteriaEntity : filter.getRoutingCriterias()) {
-                final IRoutingCriteria criteria = criteriaMap.get(StringUtils.upperCase(routingCriteriaEntity.getName()));
-                boolean matches = criteria.matches(userMessage, routingCriteriaEntity.getExpression());
-                if (matches) {
-                    LOG.debug("Criteria [{}] matches for message [{}]", routingCriteriaEntity, userMessage);
-                }
-                //if at least one criteria does not match it means the filter is not matching
-                if (!matches) {
-                    LOG.debug("Criteria [{}] doesn't matches for message [{}]", routingCriteriaEntity, userMessage);
-                    return false;
-                }
-            }
-        }
-        LOG.debug("Criterias [{}] matches for message [{}]", filter.getRoutingCriterias(), userMessage);
-        return true;
-    }
-
     protected void updateFilterIndices(List<BackendFilterEntity> filters) {
         IntStream.range(0, filters.size()).forEach(index -> filters.get(index).setIndex(index + 1));
     }
@@ -36,7 +36,7 @@ public class ServiceRoutingCriteriaFactory implements CriteriaFactory {
         return INPUTPATTERN;
     }
 
-    private class ServiceRoutingCriteriaEntity extends RoutingCriteriaEntity {
+    private class ServiceRoutingCriteriaEntity extends RoutingCriteriaEntity implements RoutingCriteriaValueExtractor {
         private ServiceRoutingCriteriaEntity(final String name, final String tooltip, final String inputPattern) {
             super(name, tooltip, inputPattern);
         }
@@ -44,8 +44,13 @@ public class ServiceRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
+            return matches(getCandidateValue(userMessage));
+        }
+
+        @Override
+        public String getCandidateValue(final UserMessage userMessage) {
             final ServiceEntity service = userMessage.getService();
-            return matches(service.getValue() + ":" + service.getType());
+            return service.getValue() + ":" + service.getType();
         }
 
     }
@@ -36,7 +36,7 @@ public class ToRoutingCriteriaFactory implements CriteriaFactory {
         return null;
     }
 
-    private class ToRoutingCriteriaEntity extends RoutingCriteriaEntity implements IRoutingCriteria {
+    private class ToRoutingCriteriaEntity extends RoutingCriteriaEntity implements IRoutingCriteria, RoutingCriteriaValueExtractor {
 
         private ToRoutingCriteriaEntity(final String name, final String tooltip, final String inputPattern) {
             super(name, tooltip, inputPattern);
@@ -45,11 +45,13 @@ public class ToRoutingCriteriaFactory implements CriteriaFactory {
         @Override
         public boolean matches(final UserMessage userMessage, final String expression) {
             setExpression(expression);
+            return matches(getCandidateValue(userMessage));
+        }
+
+        @Override
+        public String getCandidateValue(final UserMessage userMessage) {
             final PartyId partyId = userMessage.getPartyInfo().getTo().getToPartyId();
-            if (matches(partyId.getValue() + ":" + partyId.getType())) {
-                return true;
-            }
-            return false;
+            return partyId.getValue() + ":" + partyId.getType();
         }
 
     }
@@ -58,6 +58,15 @@ public class CachingPModeProvider extends PModeProvider {
     //Don't access directly, use getter instead
     private volatile Configuration configuration;
 
+    //hash indexes over the lookup tables of the configuration; use getLookupIndex() to access it
+    private volatile PModeLookupIndex lookupIndex;
+
+    //incremented every time the lookup index is invalidated; guarded by lookupIndexLock
+    private long lookupIndexVersion;
+
+    //only guards the publication of the lookup index: no other lock is taken while holding it
+    private final Object lookupIndexLock = new Object();
+
     @Autowired
     private ProcessPartyExtractorProvider processPartyExtractorProvider;
 
@@ -103,7 +112,9 @@ public class CachingPModeProvider extends PModeProvider {
     protected void load() {
         LOG.debug("Initialising the configuration");
         try {
-            this.configuration = this.configurationDAO.readEager();
+            final Configuration loadedConfiguration = this.configurationDAO.readEager();
+            this.lookupIndex = createLookupIndex(loadedConfiguration);
+            this.configuration = loadedConfiguration;
             LOG.debug("Configuration initialized: [{}]", this.configuration.getEntityId());
 
             initPullProcessesCache();
@@ -112,6 +123,50 @@ public class CachingPModeProvider extends PModeProvider {
         }
     }
 
+    /**
+     * Returns the lookup index of the current configuration, building it if the configuration changed since the index was built.
+     */
+    protected PModeLookupIndex getLookupIndex() {
+        final Configuration currentConfiguration = getConfiguration();
+        PModeLookupIndex index = this.lookupIndex;
+        if (index != null && index.isBuiltFor(currentConfiguration)) {
+            return index;
+        }
+        final long version = getLookupIndexVersion();
+        LOG.debug("Building the PMode lookup index");
+        index = createLookupIndex(currentConfiguration);
+        synchronized (lookupIndexLock) {
+            // the configuration was modified in place while the index was built: do not publish an index that may miss the modification
+            if (lookupIndexVersion == version) {
+                this.lookupIndex = index;
+            } else {
+                LOG.debug("The PMode lookup index was invalidated while it was built; it will be built again by the next lookup");
+            }
+        }
+        return index;
+    }
+
+    protected long getLookupIndexVersion() {
+        synchronized (lookupIndexLock) {
+            return lookupIndexVersion;
+        }
+    }
+
+    protected PModeLookupIndex createLookupIndex(Configuration configuration) {
+        final Integer legNameCacheSize = domibusPropertyProvider.getIntegerProperty(DOMIBUS_PMODE_LEG_NAME_CACHE_SIZE);
+        return new PModeLookupIndex(configuration, legNameCacheSize == null ? 0 : legNameCacheSize);
+    }
+
+    /**
+     * Discards the lookup index; it must be called every time the configuration is modified in place, e.g. when parties are added or removed.
+     */
+    protected void invalidateLookupIndex() {
+        synchronized (lookupIndexLock) {
+            lookupIndexVersion++;
+            this.lookupIndex = null;
+        }
+    }
+
     private void initPullProcessesCache() {
         final Set<Mpc> mpcs = getConfiguration().getMpcs();
         for (Mpc mpc : mpcs) {
@@ -264,6 +319,48 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public String findPullLegName(final String agreementName, final String senderParty,
                                   final String receiverParty, final String service, final String action, final String mpc, final Role initiatorRole, final Role responderRole) throws EbMS3Exception {
+        final PModeLookupIndex index = getLookupIndex();
+        final LegNameCache.Key legNameCacheKey = new LegNameCache.Key(true, agreementName, senderParty, receiverParty, service, action, mpc, initiatorRole, responderRole, null, getLegMatchingFlags());
+        final String cachedLegName = index.getLegNameCache().get(legNameCacheKey);
+        if (cachedLegName != null) {
+            LOG.debug("Found pull leg [{}] in the cache", cachedLegName);
+            return cachedLegName;
+        }
+
+        String pullLegName = findPullLegNameUsingIndex(index, agreementName, senderParty, receiverParty, service, action, mpc, initiatorRole, responderRole);
+        if (pullLegName == null) {
+            // the full scan provides the error details
+            pullLegName = findPullLegNameByScanningProcesses(agreementName, senderParty, receiverParty, service, action, mpc, initiatorRole, responderRole);
+        }
+        index.getLegNameCache().put(legNameCacheKey, pullLegName);
+        return pullLegName;
+    }
+
+    /**
+     * Finds the pull leg by looking only at the legs having the requested service and action; returns null when no leg matches.
+     */
+    protected String findPullLegNameUsingIndex(PModeLookupIndex index, final String agreementName, final String senderParty, final String receiverParty,
+                                               final String service, final String action, final String mpc, final Role initiatorRole, final Role responderRole) {
+        ProcessTypePartyExtractor processTypePartyExtractor = processPartyExtractorProvider.getProcessTypePartyExtractor(
+                ONE_WAY_PULL.getUri(), senderParty, receiverParty);
+        for (PModeLookupIndex.ProcessLeg processLeg : index.findProcessLegsByServiceAndActionName(service, action)) {
+            final Process process = processLeg.getProcess();
+            if (equalsIgnoreCase(processLeg.getLeg().getDefaultMpc().getQualifiedName(), mpc)
+                    && matchAgreement(process, agreementName)
+                    && process.getMepBinding() != null && ONE_WAY_PULL.getUri().equals(process.getMepBinding().getValue())
+                    && matchRole(process.getInitiatorRole(), initiatorRole)
+                    && matchRole(process.getResponderRole(), responderRole)
+                    && matchInitiator(process, processTypePartyExtractor.getSenderParty())
+                    && matchResponder(process, processTypePartyExtractor.getReceiverParty())) {
+                LOG.debug("Matched pull leg [{}] of process [{}]", processLeg.getLeg().getName(), process.getName());
+                return processLeg.getLeg().getName();
+            }
+        }
+        return null;
+    }
+
+    protected String findPullLegNameByScanningProcesses(final String agreementName, final String senderParty, final String receiverParty,
+                                                        final String service, final String action, final String mpc, final Role initiatorRole, final Role responderRole) throws EbMS3Exception {
         final List<LegConfiguration> candidates = new ArrayList<>();
         ProcessTypePartyExtractor processTypePartyExtractor = processPartyExtractorProvider.getProcessTypePartyExtractor(
                 ONE_WAY_PULL.getUri(), senderParty, receiverParty);
@@ -317,7 +414,99 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public String findLegName(final String agreementName, final String senderParty, final String receiverParty,
                               final String service, final String action, final Role initiatorRole, final Role responderRole, ProcessingType processingType, String mpc) throws EbMS3Exception {
+        final PModeLookupIndex index = getLookupIndex();
+        final LegNameCache.Key legNameCacheKey = new LegNameCache.Key(false, agreementName, senderParty, receiverParty, service, action, mpc, initiatorRole, responderRole, processingType, getLegMatchingFlags());
+        final String cachedLegName = index.getLegNameCache().get(legNameCacheKey);
+        if (cachedLegName != null) {
+            LOG.debug("Found leg [{}] in the cache", cachedLegName);
+            return cachedLegName;
+        }
+
+        String legName = findLegNameUsingIndex(index, agreementName, senderParty, receiverParty, service, action, initiatorRole, responderRole, processingType, mpc);
+        if (legName == null) {
+            // the full scan provides the error details
+            legName = findLegNameByScanningProcesses(agreementName, senderParty, receiverParty, service, action, initiatorRole, responderRole, processingType, mpc);
+        }
+        index.getLegNameCache().put(legNameCacheKey, legName);
+        return legName;
+    }
+
+    /**
+     * Finds the leg by looking only at the legs having the requested service and action, in the order of the processes
+     * declaring them, so that the first matching leg is the same as the one returned by {@link #findLegNameByScanningProcesses}.
+     * Returns null when no leg matches.
+     */
+    protected String findLegNameUsingIndex(PModeLookupIndex index, final String agreementName, final String senderParty, final String receiverParty,
+                                           final String service, final String action, final Role initiatorRole, final Role responderRole, ProcessingType processingType, String mpc) {
+        final Set<String> processBindings = getProcessBindings(processingType);
+        for (PModeLookupIndex.ProcessLeg processLeg : index.findProcessLegsByServiceAndActionName(service, action)) {
+            final Process process = processLeg.getProcess();
+            final String mepBinding = process.getMepBinding() != null ? process.getMepBinding().getValue() : null;
+            if (processBindings != null && (mepBinding == null || !processBindings.contains(mepBinding))) {
+                continue;
+            }
+            ProcessTypePartyExtractor processTypePartyExtractor = processPartyExtractorProvider.getProcessTypePartyExtractor(mepBinding, senderParty, receiverParty);
+            if (matchMpc(processLeg.getLeg(), mpc)
+                    && matchAgreement(process, agreementName)
+                    && matchInitiator(process, processTypePartyExtractor.getSenderParty())
+                    && matchResponder(process, processTypePartyExtractor.getReceiverParty())
+                    && matchRole(process.getInitiatorRole(), initiatorRole)
+                    && matchRole(process.getResponderRole(), responderRole)) {
+                LOG.debug("Matched leg [{}] of process [{}]", processLeg.getLeg().getName(), process.getName());
+                return processLeg.getLeg().getName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the MEP bindings accepted for the processing type or null if all the bindings are accepted.
+     */
+    protected Set<String> getProcessBindings(ProcessingType processingType) {
+        if (processingType == null) {
+            return null;
+        }
+        if (processingType == ProcessingType.PULL) {
+            return Collections.singleton(ONE_WAY_PULL.getUri());
+        }
+        return new HashSet<>(Arrays.asList(ONE_WAY_PUSH.getUri(), TWO_WAY_PUSH_PUSH.getUri()));
+    }
 
+    /**
+     * Same rules as {@link #checkMpcMismatch(LegConfiguration, LegFilterCriteria)}, without collecting the mismatch details.
+     */
+    protected boolean matchMpc(LegConfiguration candidateLeg, String mpc) {
+        if (StringUtils.isBlank(mpc) && domibusPropertyProvider.getBooleanProperty(DOMIBUS_PMODE_LEGCONFIGURATION_MPC_ENABLED)) {
+            return true;
+        }
+        if (!domibusPropertyProvider.getBooleanProperty(DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED)) {
+            return true;
+        }
+        return equalsIgnoreCase(candidateLeg.getDefaultMpc().getQualifiedName(), mpc);
+    }
+
+    /**
+     * The values of the properties changing the outcome of the leg matching, part of the key of the {@link LegNameCache}.
+     */
+    protected int getLegMatchingFlags() {
+        int flags = 0;
+        if (domibusPropertyProvider.getBooleanProperty(DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED)) {
+            flags |= 1;
+        }
+        if (domibusPropertyProvider.getBooleanProperty(DOMIBUS_PMODE_LEGCONFIGURATION_MPC_ENABLED)) {
+            flags |= 2;
+        }
+        if (domibusPropertyProvider.getBooleanProperty(DOMIBUS_PMODE_LEGCONFIGURATION_MPC_VALIDATION_ENABLED)) {
+            flags |= 4;
+        }
+        if (pullProcessValidator.allowDynamicInitiatorInPullProcess()) {
+            flags |= 8;
+        }
+        return flags;
+    }
+
+    protected String findLegNameByScanningProcesses(final String agreementName, final String senderParty, final String receiverParty,
+                                                    final String service, final String action, final Role initiatorRole, final Role responderRole, ProcessingType processingType, String mpc) throws EbMS3Exception {
         LegFilterCriteria legFilterCriteria = new LegFilterCriteria(agreementName, senderParty, receiverParty, initiatorRole, responderRole, service, action, processingType, mpc);
 
         final List<Process> matchingProcesses = filterMatchingProcesses(legFilterCriteria);
@@ -549,10 +738,9 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public String findActionName(final String action) throws EbMS3Exception {
-        for (final Action action1 : this.getConfiguration().getBusinessProcesses().getActions()) {
-            if (equalsIgnoreCase(action1.getValue(), action)) {
-                return action1.getName();
-            }
+        final Action pmodeAction = getLookupIndex().findActionByValue(action);
+        if (pmodeAction != null) {
+            return pmodeAction.getName();
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0001)
@@ -562,10 +750,9 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public Mpc findMpc(final String mpcValue) throws EbMS3Exception {
-        for (final Mpc mpc : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc.getQualifiedName(), mpcValue)) {
-                return mpc;
-            }
+        final Mpc mpc = getLookupIndex().findMpcByQualifiedName(mpcValue);
+        if (mpc != null) {
+            return mpc;
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0001)
@@ -587,9 +774,9 @@ public class CachingPModeProvider extends PModeProvider {
     }
 
     public String findServiceName(String service, String serviceType) throws EbMS3Exception {
-        for (final Service pmodeService : this.getConfiguration().getBusinessProcesses().getServices()) {
-            if (serviceMatching(service, serviceType, pmodeService))
-                return pmodeService.getName();
+        final Service pmodeService = getLookupIndex().findServiceByValueAndType(service, serviceType);
+        if (pmodeService != null) {
+            return pmodeService.getName();
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0001)
@@ -597,12 +784,6 @@ public class CachingPModeProvider extends PModeProvider {
                 .build();
     }
 
-    private boolean serviceMatching(String serviceValue, String serviceType, Service pmodeService) {
-        return equalsIgnoreCase(serviceValue, pmodeService.getValue())
-                &&
-                equalsIgnoreCase(trimToEmpty(serviceType), trimToEmpty(pmodeService.getServiceType()));
-    }
-
     @Override
     public String findPartyName(final PartyId partyId) throws EbMS3Exception {
         String partyIdType = partyId.getType();
@@ -613,10 +794,10 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public String findPartyName(String partyId, String partyIdType) throws EbMS3Exception {
-        for (final Party party : this.getConfiguration().getBusinessProcesses().getParties()) {
-            if (identifiersMatching(partyId, partyIdType, party.getIdentifiers())) {
-                return party.getName();
-            }
+        final Party party = getLookupIndex().findPartyByIdentifierAndType(partyId, partyIdType);
+        if (party != null) {
+            LOG.trace("Party with type:[{}] and identifier:[{}] matched", partyIdType, partyId);
+            return party.getName();
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0003)
@@ -677,10 +858,9 @@ public class CachingPModeProvider extends PModeProvider {
             return OPTIONAL_AND_EMPTY; // AgreementRef is optional
         }
 
-        for (final Agreement agreement : this.getConfiguration().getBusinessProcesses().getAgreements()) {
-            if (agreementsMatch(agreementRef, agreement)) {
-                return agreement.getName();
-            }
+        final Agreement agreement = getLookupIndex().findAgreementByValueAndType(agreementRef.getValue(), agreementRef.getType());
+        if (agreement != null) {
+            return agreement.getName();
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0001)
@@ -688,32 +868,17 @@ public class CachingPModeProvider extends PModeProvider {
                 .build();
     }
 
-    private boolean agreementsMatch(AgreementRefEntity agreementRef, Agreement agreement) {
-        return equalsIgnoreCase(agreement.getValue(), agreementRef.getValue())
-                &&
-                equalsIgnoreCase(trimToEmpty(agreement.getType()), trimToEmpty(agreementRef.getType()));
-    }
-
     @Override
     public Party getPartyByIdentifier(String partyIdentifier) {
-        for (final Party party : this.getConfiguration().getBusinessProcesses().getParties()) {
-            final List<Identifier> identifiers = party.getIdentifiers();
-            for (Identifier identifier : identifiers) {
-                if (equalsIgnoreCase(identifier.getPartyId(), partyIdentifier)) {
-                    return party;
-                }
-            }
-        }
-        return null;
+        return getLookupIndex().findPartyByIdentifier(partyIdentifier);
     }
 
     @Override
     public Party getSenderParty(final String pModeKey) {
         final String partyKey = this.getSenderPartyNameFromPModeKey(pModeKey);
-        for (final Party party : this.getConfiguration().getBusinessProcesses().getParties()) {
-            if (equalsIgnoreCase(party.getName(), partyKey)) {
-                return party;
-            }
+        final Party party = getLookupIndex().findPartyByName(partyKey);
+        if (party != null) {
+            return party;
         }
         throw new ConfigurationException("No matching sender party found with name: " + partyKey);
     }
@@ -734,6 +899,7 @@ public class CachingPModeProvider extends PModeProvider {
         for (Process process : allProcesses) {
             final Party removedParty = process.removeResponder(partyName);
             if (removedParty != null) {
+                invalidateLookupIndex();
                 LOG.info("Removed party [{}] from process [{}] ->responderParties [{}]", partyName, process.getName());
             }
         }
@@ -748,6 +914,7 @@ public class CachingPModeProvider extends PModeProvider {
             Party party = partyIterator.next();
             if (StringUtils.equalsIgnoreCase(partyName, party.getName())) {
                 partyIterator.remove();
+                invalidateLookupIndex();
                 LOG.info("Removed party [{}] from the party list: businessProcesses->parties", partyName);
                 return party;
             }
@@ -761,11 +928,10 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public Party getPartyByName(final String partyName) {
         LOG.debug("Finding party by name [{}]", partyName);
-        for (final Party party : this.getConfiguration().getBusinessProcesses().getParties()) {
-            if (equalsIgnoreCase(party.getName(), partyName)) {
-                LOG.debug("Found party by name [{}]", partyName);
-                return party;
-            }
+        final Party party = getLookupIndex().findPartyByName(partyName);
+        if (party != null) {
+            LOG.debug("Found party by name [{}]", partyName);
+            return party;
         }
         LOG.debug("Could not find party by name [{}]", partyName);
         return null;
@@ -774,10 +940,9 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public Service getService(final String pModeKey) {
         final String serviceKey = this.getServiceNameFromPModeKey(pModeKey);
-        for (final Service service : this.getConfiguration().getBusinessProcesses().getServices()) {
-            if (equalsIgnoreCase(service.getName(), serviceKey)) {
-                return service;
-            }
+        final Service service = getLookupIndex().findServiceByName(serviceKey);
+        if (service != null) {
+            return service;
         }
         throw new ConfigurationException("no matching service found with name: " + serviceKey);
     }
@@ -785,10 +950,9 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public Action getAction(final String pModeKey) {
         final String actionKey = this.getActionNameFromPModeKey(pModeKey);
-        for (final Action action : this.getConfiguration().getBusinessProcesses().getActions()) {
-            if (equalsIgnoreCase(action.getName(), actionKey)) {
-                return action;
-            }
+        final Action action = getLookupIndex().findActionByName(actionKey);
+        if (action != null) {
+            return action;
         }
         throw new ConfigurationException("no matching action found with name: " + actionKey);
     }
@@ -796,10 +960,9 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public Agreement getAgreement(final String pModeKey) {
         final String agreementKey = this.getAgreementRefNameFromPModeKey(pModeKey);
-        for (final Agreement agreement : this.getConfiguration().getBusinessProcesses().getAgreements()) {
-            if (equalsIgnoreCase(agreement.getName(), agreementKey)) {
-                return agreement;
-            }
+        final Agreement agreement = getLookupIndex().findAgreementByName(agreementKey);
+        if (agreement != null) {
+            return agreement;
         }
         throw new ConfigurationException("no matching agreement found with name: " + agreementKey);
     }
@@ -807,30 +970,23 @@ public class CachingPModeProvider extends PModeProvider {
     @Override
     public LegConfiguration getLegConfiguration(final String pModeKey) {
         final String legKey = this.getLegConfigurationNameFromPModeKey(pModeKey);
-        for (final LegConfiguration legConfiguration : this.getConfiguration().getBusinessProcesses().getLegConfigurations()) {
-            if (equalsIgnoreCase(legConfiguration.getName(), legKey)) {
-                return legConfiguration;
-            }
+        final LegConfiguration legConfiguration = getLookupIndex().findLegConfigurationByName(legKey);
+        if (legConfiguration != null) {
+            return legConfiguration;
         }
         throw new ConfigurationException("no matching legConfiguration found with name: " + legKey);
     }
 
     @Override
     public boolean isMpcExistant(final String mpc) {
-        for (final Mpc mpc1 : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc1.getName(), mpc)) {
-                return true;
-            }
-        }
-        return false;
+        return getLookupIndex().findMpcByName(mpc) != null;
     }
 
     @Override
     public int getRetentionDownloadedByMpcName(final String mpcName) {
-        for (final Mpc mpc1 : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc1.getName(), mpcName)) {
-                return mpc1.getRetentionDownloaded();
-            }
+        final Mpc mpc = getLookupIndex().findMpcByName(mpcName);
+        if (mpc != null) {
+            return mpc.getRetentionDownloaded();
         }
 
         LOG.error("No MPC with name: [{}] found. Assuming message retention of 0 for downloaded messages.", mpcName);
@@ -852,10 +1008,9 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public int getRetentionUndownloadedByMpcName(final String mpcName) {
-        for (final Mpc mpc1 : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc1.getName(), mpcName)) {
-                return mpc1.getRetentionUndownloaded();
-            }
+        final Mpc mpc = getLookupIndex().findMpcByName(mpcName);
+        if (mpc != null) {
+            return mpc.getRetentionUndownloaded();
         }
 
         LOG.error("No MPC with name: [{}] found. Assuming message retention of -1 for undownloaded messages.", mpcName);
@@ -899,22 +1054,15 @@ public class CachingPModeProvider extends PModeProvider {
     }
 
     private Optional<Mpc> findMpcByQualifiedName(String mpcURI) {
-        Set<Mpc> mpcSet = getConfiguration().getMpcs();
-        if (CollectionUtils.isNotEmpty(mpcSet)) {
-            return mpcSet.stream()
-                    .filter(mpc -> equalsIgnoreCase(mpc.getQualifiedName(), mpcURI))
-                    .findFirst();
-        }
-        return Optional.empty();
+        return Optional.ofNullable(getLookupIndex().findMpcByQualifiedName(mpcURI));
     }
 
     @Override
     public boolean isDeleteMessageMetadataByMpcURI(final String mpcURI) {
-        for (final Mpc mpc1 : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc1.getQualifiedName(), mpcURI)) {
-                LOG.debug("Found MPC with name [{}] and isDeleteMessageMetadata [{}]", mpc1.getName(), mpc1.isDeleteMessageMetadata());
-                return mpc1.isDeleteMessageMetadata();
-            }
+        final Mpc mpc = getLookupIndex().findMpcByQualifiedName(mpcURI);
+        if (mpc != null) {
+            LOG.debug("Found MPC with name [{}] and isDeleteMessageMetadata [{}]", mpc.getName(), mpc.isDeleteMessageMetadata());
+            return mpc.isDeleteMessageMetadata();
         }
         LOG.error("No MPC with name: [{}] found. Assuming delete message metadata is false.", mpcURI);
         return false;
@@ -922,16 +1070,15 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public int getRetentionMaxBatchByMpcURI(final String mpcURI, final int maxValue) {
-        for (final Mpc mpc1 : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc1.getQualifiedName(), mpcURI)) {
-                int maxBatch = mpc1.getMaxBatchDelete();
-                LOG.debug("Found MPC with name [{}] and maxBatchDelete [{}]", mpc1.getName(), maxBatch);
-                if (maxBatch <= 0 || maxBatch > maxValue) {
-                    LOG.debug("Using default maxBatch value [{}]", maxValue);
-                    return maxValue;
-                }
-                return maxBatch;
+        final Mpc mpc = getLookupIndex().findMpcByQualifiedName(mpcURI);
+        if (mpc != null) {
+            int maxBatch = mpc.getMaxBatchDelete();
+            LOG.debug("Found MPC with name [{}] and maxBatchDelete [{}]", mpc.getName(), maxBatch);
+            if (maxBatch <= 0 || maxBatch > maxValue) {
+                LOG.debug("Using default maxBatch value [{}]", maxValue);
+                return maxValue;
             }
+            return maxBatch;
         }
 
         LOG.error("No MPC with name: [{}] found. Using default value for message retention batch of [{}].", mpcURI, maxValue);
@@ -959,11 +1106,10 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public Role getBusinessProcessRole(String roleValue) throws EbMS3Exception {
-        for (Role role : this.getConfiguration().getBusinessProcesses().getRoles()) {
-            if (equalsIgnoreCase(role.getValue(), roleValue)) {
-                LOG.debug("Found role [{}]", roleValue);
-                return role;
-            }
+        final Role role = getLookupIndex().findRoleByValue(roleValue);
+        if (role != null) {
+            LOG.debug("Found role [{}]", roleValue);
+            return role;
         }
         boolean rolesEnabled = domibusPropertyProvider.getBooleanProperty(DOMIBUS_PARTYINFO_ROLES_VALIDATION_ENABLED);
         if (rolesEnabled) {
@@ -983,6 +1129,7 @@ public class CachingPModeProvider extends PModeProvider {
     public void refresh() {
         synchronized (configurationLock) {
             this.configuration = null;
+            invalidateLookupIndex();
 
             this.pullProcessByMpcCache.clear();
             this.pullProcessesByInitiatorCache.clear();
@@ -1189,13 +1336,11 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public String getPartyIdType(String partyIdentifier) {
-        for (Party party : getConfiguration().getBusinessProcesses().getParties()) {
-            String partyIdTypeHandleParty = getPartyIdTypeHandleParty(party, partyIdentifier);
-            if (partyIdTypeHandleParty != null) {
-                return partyIdTypeHandleParty;
-            }
+        final Party party = getLookupIndex().findPartyByIdentifier(partyIdentifier);
+        if (party == null) {
+            return null;
         }
-        return null;
+        return getPartyIdTypeHandleParty(party, partyIdentifier);
     }
 
     private String getPartyIdTypeHandleParty(Party party, String partyIdentifier) {
@@ -1209,10 +1354,9 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public String getServiceType(String serviceValue) {
-        for (Service service : getConfiguration().getBusinessProcesses().getServices()) {
-            if (equalsIgnoreCase(service.getValue(), serviceValue)) {
-                return service.getServiceType();
-            }
+        final Service service = getLookupIndex().findServiceByValue(serviceValue);
+        if (service != null) {
+            return service.getServiceType();
         }
         return null;
     }
@@ -1306,10 +1450,9 @@ public class CachingPModeProvider extends PModeProvider {
 
     @Override
     public String findMpcUri(final String mpcName) throws EbMS3Exception {
-        for (final Mpc mpc : this.getConfiguration().getMpcs()) {
-            if (equalsIgnoreCase(mpc.getName(), mpcName)) {
-                return mpc.getQualifiedName();
-            }
+        final Mpc mpc = getLookupIndex().findMpcByName(mpcName);
+        if (mpc != null) {
+            return mpc.getQualifiedName();
         }
         throw EbMS3ExceptionBuilder.getInstance()
                 .ebMS3ErrorCode(ErrorCode.EbMS3ErrorCode.EBMS_0001)
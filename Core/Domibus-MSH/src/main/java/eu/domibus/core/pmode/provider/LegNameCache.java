@@ -0,0 +1,116 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.Role;
+import eu.domibus.plugin.ProcessingType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded cache of the leg names found for the message metadata, valid for one version of the PMode.
+ * <p>
+ * Only successful matches are cached; when the cache is full the least recently used entry is evicted to make room for
+ * the new one. A size lower or equal to 0 disables the cache.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class LegNameCache {
+
+    private final int maxSize;
+
+    private final Map<Key, String> legNames;
+
+    public LegNameCache(int maxSize) {
+        this.maxSize = maxSize;
+        // access ordered: the eldest entry is the least recently used one
+        this.legNames = Collections.synchronizedMap(new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public String get(Key key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return legNames.get(key);
+    }
+
+    public void put(Key key, String legName) {
+        if (!isEnabled() || legName == null) {
+            return;
+        }
+        legNames.put(key, legName);
+    }
+
+    public int size() {
+        return legNames.size();
+    }
+
+    /**
+     * The message metadata and the values of the properties influencing the leg matching.
+     */
+    public static class Key {
+
+        private final boolean pull;
+        private final String agreementName;
+        private final String senderParty;
+        private final String receiverParty;
+        private final String service;
+        private final String action;
+        private final String mpc;
+        private final Role initiatorRole;
+        private final Role responderRole;
+        private final ProcessingType processingType;
+        private final int matchingFlags;
+        private final int hashCode;
+
+        public Key(boolean pull, String agreementName, String senderParty, String receiverParty, String service, String action, String mpc,
+                   Role initiatorRole, Role responderRole, ProcessingType processingType, int matchingFlags) {
+            this.pull = pull;
+            this.agreementName = agreementName;
+            this.senderParty = senderParty;
+            this.receiverParty = receiverParty;
+            this.service = service;
+            this.action = action;
+            this.mpc = mpc;
+            this.initiatorRole = initiatorRole;
+            this.responderRole = responderRole;
+            this.processingType = processingType;
+            this.matchingFlags = matchingFlags;
+            this.hashCode = Objects.hash(pull, agreementName, senderParty, receiverParty, service, action, mpc, initiatorRole, responderRole, processingType, matchingFlags);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return pull == key.pull
+                    && matchingFlags == key.matchingFlags
+                    && Objects.equals(agreementName, key.agreementName)
+                    && Objects.equals(senderParty, key.senderParty)
+                    && Objects.equals(receiverParty, key.receiverParty)
+                    && Objects.equals(service, key.service)
+                    && Objects.equals(action, key.action)
+                    && Objects.equals(mpc, key.mpc)
+                    && Objects.equals(initiatorRole, key.initiatorRole)
+                    && Objects.equals(responderRole, key.responderRole)
+                    && processingType == key.processingType;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.Process;
+import eu.domibus.common.model.configuration.*;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+
+/**
+ * Immutable, pre-computed hash indexes over the lookup tables of a PMode {@link Configuration}.
+ * <p>
+ * The keys are normalized to lower case so that the lookups keep the case-insensitive semantics of the linear scans
+ * previously performed by {@link CachingPModeProvider}. When several entries share the same key, the first one in the
+ * iteration order of the configuration wins, as it did with the linear scans.
+ * <p>
+ * An index is bound to the {@link Configuration} instance it was built from; a new index is built every time the PMode
+ * is reloaded or the list of parties is modified at runtime (e.g. by dynamic discovery). The {@link LegNameCache} of
+ * recently matched legs follows the same lifecycle.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class PModeLookupIndex {
+
+    private final Configuration configuration;
+
+    private final Map<Pair<String, String>, Party> partiesByIdentifierAndType;
+    private final Map<String, Party> partiesByIdentifier;
+    private final Map<String, Party> partiesByName;
+    private final Map<Pair<String, String>, Service> servicesByValueAndType;
+    private final Map<String, Service> servicesByValue;
+    private final Map<String, Service> servicesByName;
+    private final Map<String, Action> actionsByValue;
+    private final Map<String, Action> actionsByName;
+    private final Map<Pair<String, String>, Agreement> agreementsByValueAndType;
+    private final Map<String, Agreement> agreementsByName;
+    private final Map<String, Mpc> mpcsByQualifiedName;
+    private final Map<String, Mpc> mpcsByName;
+    private final Map<String, LegConfiguration> legConfigurationsByName;
+    private final Map<String, Role> rolesByValue;
+    private final Map<Pair<String, String>, List<ProcessLeg>> processLegsByServiceAndAction;
+    private final LegNameCache legNameCache;
+
+    public PModeLookupIndex(Configuration configuration) {
+        this(configuration, 0);
+    }
+
+    public PModeLookupIndex(Configuration configuration, int legNameCacheSize) {
+        this.configuration = configuration;
+        this.legNameCache = new LegNameCache(legNameCacheSize);
+
+        final BusinessProcesses businessProcesses = configuration.getBusinessProcesses();
+        final List<Party> parties = businessProcesses != null ? businessProcesses.getParties() : null;
+        partiesByIdentifierAndType = new HashMap<>();
+        partiesByIdentifier = new HashMap<>();
+        if (parties != null) {
+            for (Party party : parties) {
+                for (Identifier identifier : party.getIdentifiers()) {
+                    partiesByIdentifierAndType.putIfAbsent(identifierKey(identifier.getPartyId(), getIdentifierPartyIdType(identifier)), party);
+                    partiesByIdentifier.putIfAbsent(normalize(identifier.getPartyId()), party);
+                }
+            }
+        }
+        partiesByName = indexBy(parties, Party::getName);
+
+        final Set<Service> services = businessProcesses != null ? businessProcesses.getServices() : null;
+        servicesByValueAndType = new HashMap<>();
+        if (services != null) {
+            services.forEach(service -> servicesByValueAndType.putIfAbsent(valueAndTypeKey(service.getValue(), service.getServiceType()), service));
+        }
+        servicesByValue = indexBy(services, Service::getValue);
+        servicesByName = indexBy(services, Service::getName);
+
+        final Set<Action> actions = businessProcesses != null ? businessProcesses.getActions() : null;
+        actionsByValue = indexBy(actions, Action::getValue);
+        actionsByName = indexBy(actions, Action::getName);
+
+        final Set<Agreement> agreements = businessProcesses != null ? businessProcesses.getAgreements() : null;
+        agreementsByValueAndType = new HashMap<>();
+        if (agreements != null) {
+            agreements.forEach(agreement -> agreementsByValueAndType.putIfAbsent(valueAndTypeKey(agreement.getValue(), agreement.getType()), agreement));
+        }
+        agreementsByName = indexBy(agreements, Agreement::getName);
+
+        final Set<Mpc> mpcs = configuration.getMpcs();
+        mpcsByQualifiedName = indexBy(mpcs, Mpc::getQualifiedName);
+        mpcsByName = indexBy(mpcs, Mpc::getName);
+
+        legConfigurationsByName = indexBy(businessProcesses != null ? businessProcesses.getLegConfigurations() : null, LegConfiguration::getName);
+        rolesByValue = indexBy(businessProcesses != null ? businessProcesses.getRoles() : null, Role::getValue);
+
+        processLegsByServiceAndAction = new HashMap<>();
+        final List<Process> processes = businessProcesses != null ? businessProcesses.getProcesses() : null;
+        if (processes != null) {
+            for (Process process : processes) {
+                if (process.getLegs() == null) {
+                    continue;
+                }
+                for (LegConfiguration leg : process.getLegs()) {
+                    processLegsByServiceAndAction
+                            .computeIfAbsent(serviceAndActionKey(leg), key -> new ArrayList<>())
+                            .add(new ProcessLeg(process, leg));
+                }
+            }
+        }
+    }
+
+    public boolean isBuiltFor(Configuration configuration) {
+        return this.configuration == configuration;
+    }
+
+    /**
+     * Finds the party having an identifier matching the party id and party id type; an empty party id type only
+     * matches identifiers having no party id type.
+     */
+    public Party findPartyByIdentifierAndType(String partyId, String partyIdType) {
+        return partiesByIdentifierAndType.get(identifierKey(partyId, partyIdType));
+    }
+
+    public Party findPartyByIdentifier(String partyId) {
+        return partiesByIdentifier.get(normalize(partyId));
+    }
+
+    public Party findPartyByName(String partyName) {
+        return partiesByName.get(normalize(partyName));
+    }
+
+    /**
+     * Finds the service matching the value and type; a blank service type only matches services having no type.
+     */
+    public Service findServiceByValueAndType(String serviceValue, String serviceType) {
+        return servicesByValueAndType.get(valueAndTypeKey(serviceValue, serviceType));
+    }
+
+    public Service findServiceByValue(String serviceValue) {
+        return servicesByValue.get(normalize(serviceValue));
+    }
+
+    public Service findServiceByName(String serviceName) {
+        return servicesByName.get(normalize(serviceName));
+    }
+
+    public Action findActionByValue(String actionValue) {
+        return actionsByValue.get(normalize(actionValue));
+    }
+
+    public Action findActionByName(String actionName) {
+        return actionsByName.get(normalize(actionName));
+    }
+
+    /**
+     * Finds the agreement matching the value and type; a blank agreement type only matches agreements having no type.
+     */
+    public Agreement findAgreementByValueAndType(String agreementValue, String agreementType) {
+        return agreementsByValueAndType.get(valueAndTypeKey(agreementValue, agreementType));
+    }
+
+    public Agreement findAgreementByName(String agreementName) {
+        return agreementsByName.get(normalize(agreementName));
+    }
+
+    public Mpc findMpcByQualifiedName(String mpcQualifiedName) {
+        return mpcsByQualifiedName.get(normalize(mpcQualifiedName));
+    }
+
+    public Mpc findMpcByName(String mpcName) {
+        return mpcsByName.get(normalize(mpcName));
+    }
+
+    public LegConfiguration findLegConfigurationByName(String legName) {
+        return legConfigurationsByName.get(normalize(legName));
+    }
+
+    public Role findRoleByValue(String roleValue) {
+        return rolesByValue.get(normalize(roleValue));
+    }
+
+    /**
+     * Returns the legs having the given service and action names, paired with their processes, in the order in which
+     * the processes and their legs are declared in the configuration.
+     */
+    public List<ProcessLeg> findProcessLegsByServiceAndActionName(String serviceName, String actionName) {
+        return processLegsByServiceAndAction.getOrDefault(ImmutablePair.of(normalize(serviceName), normalize(actionName)), Collections.emptyList());
+    }
+
+    public LegNameCache getLegNameCache() {
+        return legNameCache;
+    }
+
+    protected static Pair<String, String> serviceAndActionKey(LegConfiguration leg) {
+        final String serviceName = leg.getService() != null ? leg.getService().getName() : null;
+        final String actionName = leg.getAction() != null ? leg.getAction().getName() : null;
+        return ImmutablePair.of(normalize(serviceName), normalize(actionName));
+    }
+
+    protected static <T> Map<String, T> indexBy(Collection<T> values, Function<T, String> keyExtractor) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, T> result = new HashMap<>(values.size() * 2);
+        for (T value : values) {
+            result.putIfAbsent(normalize(keyExtractor.apply(value)), value);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    protected static Pair<String, String> identifierKey(String partyId, String partyIdType) {
+        return ImmutablePair.of(normalize(partyId), normalize(StringUtils.defaultString(partyIdType)));
+    }
+
+    protected static Pair<String, String> valueAndTypeKey(String value, String type) {
+        return ImmutablePair.of(normalize(value), normalize(trimToEmpty(type)));
+    }
+
+    protected static String getIdentifierPartyIdType(Identifier identifier) {
+        if (identifier.getPartyIdType() != null && StringUtils.isNotEmpty(identifier.getPartyIdType().getValue())) {
+            return identifier.getPartyIdType().getValue();
+        }
+        return null;
+    }
+
+    protected static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A leg configuration together with one of the processes declaring it.
+     */
+    public static class ProcessLeg {
+
+        private final Process process;
+        private final LegConfiguration leg;
+
+        public ProcessLeg(Process process, LegConfiguration leg) {
+            this.process = process;
+            this.leg = leg;
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public LegConfiguration getLeg() {
+            return leg;
+        }
+    }
+}
@@ -468,6 +468,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
         Party newConfigurationParty = buildNewConfigurationParty(name, partyIdType, newEndpoint);
         LOG.debug("Add new configuration party in Pmode [{}]", newConfigurationParty.getName());
         getConfiguration().getBusinessProcesses().addParty(newConfigurationParty);
+        invalidateLookupIndex();
 
         return newConfigurationParty;
     }
@@ -519,6 +520,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
             if (responderParty == null) {
                 LOG.info("Adding party [{}] in the process responder parties [{}]", configurationParty.getName(), candidate.getName());
                 candidate.getResponderParties().add(configurationParty);
+                invalidateLookupIndex();
             }
         }
     }
@@ -558,6 +560,7 @@ public class DynamicDiscoveryPModeProvider extends CachingPModeProvider {
             }
             if (!partyFound) {
                 candidate.getInitiatorParties().add(configurationParty);
+                invalidateLookupIndex();
             }
         }
     }
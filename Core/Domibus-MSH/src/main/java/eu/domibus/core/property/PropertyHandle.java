@@ -0,0 +1,116 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Typed handle on a Domibus property which keeps the parsed value of the property for each domain.
+ * The value is loaded on the first read and reloaded on the first read following a change of the property, so that
+ * frequent readers neither go through the property cache nor parse the value on every call.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class PropertyHandle<T> {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PropertyHandle.class);
+
+    protected static final String DOMAIN_MDC_KEY = DomibusLogger.MDC_PROPERTY_PREFIX + DomibusLogger.MDC_DOMAIN;
+
+    protected final String propertyName;
+
+    protected final BooleanSupplier domainPropertySupplier;
+
+    /**
+     * Loads the parsed value of the property for a domain code or, when the domain code is null, without a domain
+     */
+    protected final Function<String, T> loader;
+
+    protected final Map<String, T> domainValues = new ConcurrentHashMap<>();
+
+    protected volatile T globalValue;
+
+    protected volatile Boolean domainProperty;
+
+    protected volatile long version;
+
+    public PropertyHandle(String propertyName, BooleanSupplier domainPropertySupplier, Function<String, T> loader) {
+        this.propertyName = propertyName;
+        this.domainPropertySupplier = domainPropertySupplier;
+        this.loader = loader;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * @return the value of the property for the current domain
+     */
+    public T getValue() {
+        return getValueForDomainCode(isDomainProperty() ? MDC.get(DOMAIN_MDC_KEY) : null);
+    }
+
+    /**
+     * @return the value of the property for the given domain
+     */
+    public T getValue(Domain domain) {
+        return getValueForDomainCode(isDomainProperty() && domain != null ? domain.getCode() : null);
+    }
+
+    /**
+     * Discards the loaded values; they are loaded again on the next read
+     */
+    public synchronized void refresh() {
+        LOG.debug("Refreshing the handle of property [{}]", propertyName);
+        version++;
+        globalValue = null;
+        domainValues.clear();
+    }
+
+    protected T getValueForDomainCode(String domainCode) {
+        T value = domainCode == null ? globalValue : domainValues.get(domainCode);
+        if (value != null) {
+            return value;
+        }
+        return load(domainCode);
+    }
+
+    protected T load(String domainCode) {
+        final long loadedVersion = version;
+        final T value = loader.apply(domainCode);
+        LOG.debug("Loaded the value [{}] of property [{}] for domain [{}]", value, propertyName, domainCode);
+        if (value != null) {
+            store(domainCode, value, loadedVersion);
+        }
+        return value;
+    }
+
+    protected synchronized void store(String domainCode, T value, long loadedVersion) {
+        if (loadedVersion != version) {
+            LOG.debug("Property [{}] changed while its value was loaded; the value is not kept", propertyName);
+            return;
+        }
+        if (domainCode == null) {
+            globalValue = value;
+            return;
+        }
+        domainValues.put(domainCode, value);
+    }
+
+    protected boolean isDomainProperty() {
+        Boolean result = domainProperty;
+        if (result == null) {
+            result = domainPropertySupplier.getAsBoolean();
+            domainProperty = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainsAware;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+
+/**
+ * Creates typed handles on the Domibus properties, meant to be kept in fields by the services reading a property
+ * for each message. The handles are refreshed when the property changes, locally or on another node of the cluster.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PropertyHandleProvider implements DomainsAware {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PropertyHandleProvider.class);
+
+    protected final DomibusPropertyProvider domibusPropertyProvider;
+
+    protected final GlobalPropertyMetadataManager globalPropertyMetadataManager;
+
+    protected final PrimitivePropertyTypesManager primitivePropertyTypesManager;
+
+    protected final PropertyHandleRegistry propertyHandleRegistry;
+
+    public PropertyHandleProvider(DomibusPropertyProvider domibusPropertyProvider,
+                                  GlobalPropertyMetadataManager globalPropertyMetadataManager,
+                                  PrimitivePropertyTypesManager primitivePropertyTypesManager,
+                                  PropertyHandleRegistry propertyHandleRegistry) {
+        this.domibusPropertyProvider = domibusPropertyProvider;
+        this.globalPropertyMetadataManager = globalPropertyMetadataManager;
+        this.primitivePropertyTypesManager = primitivePropertyTypesManager;
+        this.propertyHandleRegistry = propertyHandleRegistry;
+    }
+
+    public PropertyHandle<Integer> getIntegerHandle(String propertyName) {
+        return getHandle(propertyName, value -> primitivePropertyTypesManager.getIntegerInternal(propertyName, value));
+    }
+
+    public PropertyHandle<Long> getLongHandle(String propertyName) {
+        return getHandle(propertyName, value -> primitivePropertyTypesManager.getLongInternal(propertyName, value));
+    }
+
+    public PropertyHandle<Boolean> getBooleanHandle(String propertyName) {
+        return getHandle(propertyName, value -> primitivePropertyTypesManager.getBooleanInternal(propertyName, value));
+    }
+
+    /**
+     * @param propertyName the name of the property
+     * @param parser       converts the raw value of the property; the property is read again while the parser returns null
+     * @return a new handle on the property
+     */
+    public <T> PropertyHandle<T> getHandle(String propertyName, Function<String, T> parser) {
+        LOG.debug("Creating handle for property [{}]", propertyName);
+        final PropertyHandle<T> propertyHandle = new PropertyHandle<>(propertyName,
+                () -> globalPropertyMetadataManager.getPropertyMetadata(propertyName).isDomain(),
+                domainCode -> parser.apply(getRawValue(propertyName, domainCode)));
+        propertyHandleRegistry.register(propertyHandle);
+        return propertyHandle;
+    }
+
+    protected String getRawValue(String propertyName, String domainCode) {
+        if (domainCode == null) {
+            return domibusPropertyProvider.getProperty(propertyName);
+        }
+        return domibusPropertyProvider.getProperty(new Domain(domainCode, domainCode), propertyName);
+    }
+
+    @Override
+    public void onDomainAdded(Domain domain) {
+        propertyHandleRegistry.refreshAll();
+    }
+
+    @Override
+    public void onDomainRemoved(Domain domain) {
+        propertyHandleRegistry.refreshAll();
+    }
+}
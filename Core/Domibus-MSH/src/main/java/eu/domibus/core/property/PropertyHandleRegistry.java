@@ -0,0 +1,43 @@
+package eu.domibus.core.property;
+
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps track of the created property handles in order to refresh them when the properties change
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class PropertyHandleRegistry {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(PropertyHandleRegistry.class);
+
+    protected final Map<String, List<PropertyHandle<?>>> handlesByPropertyName = new ConcurrentHashMap<>();
+
+    public void register(PropertyHandle<?> propertyHandle) {
+        LOG.debug("Registering handle for property [{}]", propertyHandle.getPropertyName());
+        handlesByPropertyName.computeIfAbsent(propertyHandle.getPropertyName(), propertyName -> new CopyOnWriteArrayList<>()).add(propertyHandle);
+    }
+
+    public void refresh(String propertyName) {
+        final List<PropertyHandle<?>> propertyHandles = handlesByPropertyName.get(propertyName);
+        if (propertyHandles == null) {
+            LOG.trace("No handle registered for property [{}]", propertyName);
+            return;
+        }
+        propertyHandles.forEach(PropertyHandle::refresh);
+    }
+
+    public void refreshAll() {
+        LOG.debug("Refreshing all property handles");
+        handlesByPropertyName.values().forEach(propertyHandles -> propertyHandles.forEach(PropertyHandle::refresh));
+    }
+}
@@ -38,15 +38,19 @@ public class PropertyProviderDispatcher {
 
     private final PropertyProviderHelper propertyProviderHelper;
 
+    private final PropertyHandleRegistry propertyHandleRegistry;
+
     public PropertyProviderDispatcher(GlobalPropertyMetadataManager globalPropertyMetadataManager,
                                       PropertyRetrieveManager propertyRetrieveManager,
                                       PropertyChangeManager propertyChangeManager, ClassUtil classUtil,
-                                      PropertyProviderHelper propertyProviderHelper) {
+                                      PropertyProviderHelper propertyProviderHelper,
+                                      PropertyHandleRegistry propertyHandleRegistry) {
         this.globalPropertyMetadataManager = globalPropertyMetadataManager;
         this.propertyRetrieveManager = propertyRetrieveManager;
         this.propertyChangeManager = propertyChangeManager;
         this.classUtil = classUtil;
         this.propertyProviderHelper = propertyProviderHelper;
+        this.propertyHandleRegistry = propertyHandleRegistry;
     }
 
     @Cacheable(cacheManager = DomibusCacheConstants.CACHE_MANAGER, value = DomibusLocalCacheService.DOMIBUS_PROPERTY_CACHE, key = CACHE_KEY_EXPRESSION)
@@ -67,18 +71,23 @@ public class PropertyProviderDispatcher {
 
     @CacheEvict(value = DomibusLocalCacheService.DOMIBUS_PROPERTY_CACHE, key = CACHE_KEY_EXPRESSION, beforeInvocation = true)
     public void setInternalOrExternalProperty(Domain domain, String propertyName, String propertyValue, boolean broadcast) throws DomibusPropertyException {
-        DomibusPropertyMetadata propMeta = globalPropertyMetadataManager.getPropertyMetadata(propertyName);
-        if (propMeta.isStoredGlobally()) {
-            setInternalPropertyValue(domain, propertyName, propertyValue, broadcast);
-            return;
-        }
-
-        DomibusPropertyManagerExt manager = globalPropertyMetadataManager.getManagerForProperty(propertyName);
-        if (manager == null) {
-            throw new DomibusPropertyException("Could not find manager for not globally stored property " + propertyName);
+        try {
+            DomibusPropertyMetadata propMeta = globalPropertyMetadataManager.getPropertyMetadata(propertyName);
+            if (propMeta.isStoredGlobally()) {
+                setInternalPropertyValue(domain, propertyName, propertyValue, broadcast);
+                return;
+            }
+
+            DomibusPropertyManagerExt manager = globalPropertyMetadataManager.getManagerForProperty(propertyName);
+            if (manager == null) {
+                throw new DomibusPropertyException("Could not find manager for not globally stored property " + propertyName);
+            }
+
+            setExternalPropertyValue(domain, propertyName, propertyValue, broadcast, manager);
+        } finally {
+            // the property handles are refreshed also when the former value was restored after an error
+            propertyHandleRegistry.refresh(propertyName);
         }
-
-        setExternalPropertyValue(domain, propertyName, propertyValue, broadcast, manager);
     }
 
     protected String getExternalPropertyValue(String propertyName, Domain domain, DomibusPropertyManagerExt manager) {
@@ -45,11 +45,13 @@ public class CronExpressionChangeListener implements DomibusPropertyChangeListen
 
     Map<String, String> propertyToJobMap = Stream.of(new String[][]{
             {DOMIBUS_CERTIFICATE_CHECK_CRON, "saveCertificateAndLogRevocationJob"},
+            {DOMIBUS_CERTIFICATE_CRL_PREFETCH_CRON, "crlPrefetchJob"},
             {DOMIBUS_PLUGIN_ACCOUNT_UNLOCK_CRON, "activateSuspendedPluginUsersJob"},
             {DOMIBUS_PLUGIN_PASSWORD_POLICIES_CHECK_CRON, "pluginUserPasswordPolicyAlertJob"},
             {DOMIBUS_PAYLOAD_TEMP_JOB_RETENTION_CRON, "temporaryPayloadRetentionJob"},
             {DOMIBUS_MSH_RETRY_CRON, "retryWorkerJob"},
             {DOMIBUS_RETENTION_WORKER_CRON_EXPRESSION, "retentionWorkerJob"},
+            {DOMIBUS_PARTITIONS_WORKER_CRON, "partitionsWorkerJob"},
             {DOMIBUS_ONGOING_MESSAGES_SANITIZING_WORKER_CRON, "ongoingMessagesSanitizingWorkerJob"},
             {DOMIBUS_MSH_PULL_CRON, "pullRequestWorkerJob"},
             {DOMIBUS_PULL_RETRY_CRON, "pullRetryWorkerJob"},
@@ -14,6 +14,7 @@ import eu.domibus.core.alerts.job.AlertRetryJob;
 import eu.domibus.core.alerts.job.multitenancy.AlertCleanerSuperJob;
 import eu.domibus.core.alerts.job.multitenancy.AlertRetrySuperJob;
 import eu.domibus.core.certificate.SaveCertificateAndLogRevocationJob;
+import eu.domibus.core.certificate.crl.CRLPrefetchJob;
 import eu.domibus.core.earchive.job.EArchivingCleanupJob;
 import eu.domibus.core.earchive.job.EArchivingContinuousJob;
 import eu.domibus.core.earchive.job.EArchivingSanitizerJob;
@@ -25,6 +26,7 @@ import eu.domibus.core.message.pull.MessagePullerJob;
 import eu.domibus.core.message.pull.PullRetryWorker;
 import eu.domibus.core.message.resend.MessageResendJob;
 import eu.domibus.core.message.retention.OngoingMessagesSanitizingWorker;
+import eu.domibus.core.message.retention.PartitionsWorker;
 import eu.domibus.core.message.retention.RetentionWorker;
 import eu.domibus.core.message.splitandjoin.SplitAndJoinExpirationWorker;
 import eu.domibus.core.monitoring.ConnectionMonitoringJob;
@@ -169,6 +171,28 @@ public class DomainSchedulerFactoryConfiguration {
         return obj;
     }
 
+    @Bean
+    public JobDetailFactoryBean partitionsWorkerJob() {
+        JobDetailFactoryBean obj = new JobDetailFactoryBean();
+        obj.setJobClass(PartitionsWorker.class);
+        obj.setDurability(true);
+        return obj;
+    }
+
+    @Bean
+    @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+    public CronTriggerFactoryBean partitionsWorkerTrigger() {
+        if (domainContextProvider.getCurrentDomainSafely() == null) {
+            return null;
+        }
+
+        CronTriggerFactoryBean obj = new CronTriggerFactoryBean();
+        obj.setJobDetail(partitionsWorkerJob().getObject());
+        obj.setCronExpression(domibusPropertyProvider.getProperty(DOMIBUS_PARTITIONS_WORKER_CRON));
+        obj.setStartDelay(JOB_START_DELAY_IN_MS);
+        return obj;
+    }
+
     @Bean
     public JobDetailFactoryBean ongoingMessagesSanitizingWorkerJob() {
         JobDetailFactoryBean obj = new JobDetailFactoryBean();
@@ -462,6 +486,27 @@ public class DomainSchedulerFactoryConfiguration {
         return obj;
     }
 
+    @Bean
+    public JobDetailFactoryBean crlPrefetchJob() {
+        JobDetailFactoryBean obj = new JobDetailFactoryBean();
+        obj.setJobClass(CRLPrefetchJob.class);
+        obj.setDurability(true);
+        return obj;
+    }
+
+    @Bean
+    @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+    public CronTriggerFactoryBean crlPrefetchTrigger() {
+        if (domainContextProvider.getCurrentDomainSafely() == null) {
+            return null;
+        }
+        CronTriggerFactoryBean obj = new CronTriggerFactoryBean();
+        obj.setJobDetail(crlPrefetchJob().getObject());
+        obj.setCronExpression(domibusPropertyProvider.getProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_CRON));
+        obj.setStartDelay(JOB_START_DELAY_IN_MS);
+        return obj;
+    }
+
     @Bean
     public JobDetailFactoryBean connectionMonitoringJob() {
         JobDetailFactoryBean obj = new JobDetailFactoryBean();
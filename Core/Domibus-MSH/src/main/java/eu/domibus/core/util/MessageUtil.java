@@ -9,9 +9,12 @@ import eu.domibus.api.util.xml.XMLUtil;
 import eu.domibus.common.ErrorCode;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.ebms3.EbMS3ExceptionBuilder;
+import eu.domibus.core.property.PropertyHandle;
+import eu.domibus.core.property.PropertyHandleProvider;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -20,6 +23,7 @@ import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import javax.annotation.PostConstruct;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
@@ -37,6 +41,7 @@ import javax.xml.transform.stream.StreamResult;
 import java.io.StringWriter;
 import java.util.*;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_MESSAGING_HEADER_FAST_PARSING_ACTIVE;
 import static org.apache.wss4j.common.WSS4JConstants.WSU_NS;
 import static org.apache.wss4j.common.WSS4JConstants.WSU_PREFIX;
 
@@ -98,16 +103,38 @@ public class MessageUtil {
 
     protected XMLUtil xmlUtil;
 
+    protected final PropertyHandleProvider propertyHandleProvider;
+
+    protected PropertyHandle<Boolean> fastParsingActiveHandle;
+
+    /**
+     * The unmarshallers are not thread-safe; when the fast parsing is active, each thread reuses its own unmarshallers
+     */
+    protected final ThreadLocal<Unmarshaller> messagingUnmarshaller = new ThreadLocal<>();
+
+    protected final ThreadLocal<Unmarshaller> messageFragmentUnmarshaller = new ThreadLocal<>();
+
     public MessageUtil(@Qualifier("jaxbContextEBMS") JAXBContext jaxbContext,
                        @Qualifier("jaxbContextMessageFragment") JAXBContext jaxbContextMessageFragment,
                        DomibusDateFormatter domibusDateFormatter,
                        SoapUtil soapUtil,
-                       XMLUtil xmlUtil) {
+                       XMLUtil xmlUtil,
+                       PropertyHandleProvider propertyHandleProvider) {
         this.jaxbContext = jaxbContext;
         this.jaxbContextMessageFragment = jaxbContextMessageFragment;
         this.domibusDateFormatter = domibusDateFormatter;
         this.soapUtil = soapUtil;
         this.xmlUtil = xmlUtil;
+        this.propertyHandleProvider = propertyHandleProvider;
+    }
+
+    @PostConstruct
+    public void init() {
+        fastParsingActiveHandle = propertyHandleProvider.getBooleanHandle(DOMIBUS_MESSAGING_HEADER_FAST_PARSING_ACTIVE);
+    }
+
+    public boolean isFastParsingActive() {
+        return BooleanUtils.isTrue(fastParsingActiveHandle.getValue());
     }
 
     @SuppressWarnings("unchecked")
@@ -116,6 +143,11 @@ public class MessageUtil {
 
         final Node messagingXml = (Node) soapMessage.getSOAPHeader().getChildElements(ObjectFactory._Messaging_QNAME).next();
 
+        if (isFastParsingActive()) {
+            LOG.debug("Unmarshalling the Messaging instance directly from the DOM node");
+            return getUnmarshaller(messagingUnmarshaller, jaxbContext).unmarshal(messagingXml, Ebms3Messaging.class).getValue();
+        }
+
         XMLStreamReader reader = xmlUtil.getXmlStreamReaderFromNode(messagingXml);
 
         final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller(); //Those are not thread-safe, therefore a new one is created each call
@@ -696,6 +728,11 @@ public class MessageUtil {
             }
 
             final Node messagingXml = (Node) iterator.next();
+            if (isFastParsingActive()) {
+                LOG.debug("Unmarshalling the MessageFragmentType instance directly from the DOM node");
+                return getUnmarshaller(messageFragmentUnmarshaller, jaxbContextMessageFragment).unmarshal(messagingXml, Ebms3MessageFragmentType.class).getValue();
+            }
+
             XMLStreamReader reader = xmlUtil.getXmlStreamReaderFromNode(messagingXml);
 
             final Unmarshaller unmarshaller = jaxbContextMessageFragment.createUnmarshaller(); //Those are not thread-safe, therefore a new one is created each call
@@ -708,6 +745,19 @@ public class MessageUtil {
         }
     }
 
+    /**
+     * Returns the unmarshaller of the current thread, which is created on the first call
+     */
+    protected Unmarshaller getUnmarshaller(ThreadLocal<Unmarshaller> threadUnmarshaller, JAXBContext context) throws JAXBException {
+        Unmarshaller unmarshaller = threadUnmarshaller.get();
+        if (unmarshaller == null) {
+            LOG.debug("Creating the unmarshaller of the current thread");
+            unmarshaller = context.createUnmarshaller();
+            threadUnmarshaller.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
     public Ebms3Messaging getMessage(SOAPMessage request) {
         Ebms3Messaging ebms3Messaging;
         try {
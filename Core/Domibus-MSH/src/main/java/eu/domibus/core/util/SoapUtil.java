@@ -20,14 +20,16 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.soap.*;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_LOGGING_EBMS3_ERROR_PRINT;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_LOGGING_PAYLOAD_PRINT;
@@ -45,6 +47,11 @@ public class SoapUtil {
     protected DomibusPropertyProvider domibusPropertyProvider;
     protected XMLUtil xmlUtil;
 
+    /**
+     * The identity transformers are not thread-safe; each thread reuses its own transformer to serialize the raw XML
+     */
+    protected final ThreadLocal<Transformer> rawXmlTransformer = new ThreadLocal<>();
+
     public SoapUtil(DomibusPropertyProvider domibusPropertyProvider, XMLUtil xmlUtil) {
         this.domibusPropertyProvider = domibusPropertyProvider;
         this.xmlUtil = xmlUtil;
@@ -55,8 +62,7 @@ public class SoapUtil {
     public void logMessage(SOAPMessage request) throws IOException, TransformerException {
         if (LOG.isDebugEnabled() && domibusPropertyProvider.getBooleanProperty(DOMIBUS_LOGGING_PAYLOAD_PRINT)) {
             try (StringWriter sw = new StringWriter()) {
-                TransformerFactory transformerFactory = xmlUtil.getTransformerFactory();
-                transformerFactory.newTransformer().transform(new DOMSource(request.getSOAPPart()), new StreamResult(sw));
+                transform(request.getSOAPPart(), new StreamResult(sw));
 
                 LOG.debug(sw.toString());
                 LOG.debug("received attachments:");
@@ -120,18 +126,65 @@ public class SoapUtil {
         return getRawXmlFromNode(node);
     }
 
+    /**
+     * Serializes the SOAP part of the message directly into a GZIP stream, without building the raw XML as a String
+     *
+     * @param soapMessage the SOAP message
+     * @return the GZIP compressed raw XML of the SOAP part, encoded in UTF-8
+     */
+    public byte[] getCompressedRawXMLMessage(SOAPMessage soapMessage) throws TransformerException {
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream zipStream = new GZIPOutputStream(byteStream)) {
+            writeRawXMLMessage(soapMessage.getSOAPPart(), zipStream);
+        } catch (IOException e) {
+            throw new TransformerException("Could not compress the raw XML message", e);
+        }
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Serializes the node directly into the output stream, without building the raw XML as a String
+     *
+     * @param node         the node to serialize, usually the SOAP part of a message
+     * @param outputStream the stream receiving the raw XML encoded in UTF-8; it is not closed
+     */
+    public void writeRawXMLMessage(Node node, OutputStream outputStream) throws TransformerException {
+        transform(node, new StreamResult(outputStream));
+    }
+
     protected String getRawXmlFromNode(Node node) throws TransformerException {
         final StringWriter rawXmlMessageWriter = new StringWriter();
 
-        TransformerFactory transformerFactory = xmlUtil.getTransformerFactory();
-
-        transformerFactory.newTransformer().transform(
-                new DOMSource(node),
-                new StreamResult(rawXmlMessageWriter));
+        transform(node, new StreamResult(rawXmlMessageWriter));
 
         return rawXmlMessageWriter.toString();
     }
 
+    protected void transform(Node node, StreamResult result) throws TransformerException {
+        final Transformer transformer = getRawXmlTransformer();
+        try {
+            transformer.transform(new DOMSource(node), result);
+        } catch (TransformerException | RuntimeException e) {
+            LOG.debug("Discarding the raw XML transformer of the current thread after a failed transformation");
+            rawXmlTransformer.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the identity transformer of the current thread, which is created on the first call
+     */
+    protected Transformer getRawXmlTransformer() throws TransformerException {
+        Transformer transformer = rawXmlTransformer.get();
+        if (transformer == null) {
+            LOG.debug("Creating the raw XML transformer of the current thread");
+            transformer = xmlUtil.getTransformerFactory().newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+            rawXmlTransformer.set(transformer);
+        }
+        return transformer;
+    }
+
     public SOAPMessage createSOAPMessage(final String rawXml) throws SOAPException, IOException, ParserConfigurationException, SAXException {
         LOG.debug("Creating SOAPMessage from rawXML [{}]", rawXml);
 
@@ -1,15 +1,21 @@
 package eu.domibus.web.rest;
 
+import eu.domibus.api.csv.CsvException;
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.core.csv.CsvPageProvider;
 import eu.domibus.core.csv.CsvService;
 import eu.domibus.core.csv.CsvServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static eu.domibus.core.csv.CsvServiceImpl.APPLICATION_EXCEL_STR;
 
@@ -71,6 +77,68 @@ public abstract class BaseResource {
                 .body(result);
     }
 
+    /**
+     * Writes the CSV directly to the response
+     *
+     * @param response          the HTTP response the CSV is written to
+     * @param list              the list of objects to export
+     * @param itemClass         the class of the object instances, used to determine the columns
+     * @param customColumnNames needed in case different column titles than the attribute name
+     * @param excludedColumns   the list of excluded columns from the final export
+     * @param moduleName        the seed of the name of the generated file
+     */
+    protected void exportToCSV(HttpServletResponse response, List<?> list, Class<?> itemClass, final Map<String, String> customColumnNames,
+                               List<String> excludedColumns, final String moduleName) {
+        String result = getCsvService().exportToCSV(list, itemClass, customColumnNames, excludedColumns);
+        setCsvHeaders(response, moduleName);
+        try {
+            response.getWriter().write(result);
+        } catch (IOException e) {
+            throw new CsvException(DomibusCoreErrorCode.DOM_001, "Could not write the CSV to the response", e);
+        }
+    }
+
+    /**
+     * Streams the CSV directly to the response, loading the items page by page
+     *
+     * @param response          the HTTP response the CSV is written to
+     * @param itemClass         the class of the items, used to determine the columns
+     * @param customColumnNames needed in case different column titles than the attribute name
+     * @param excludedColumns   the list of excluded columns from the final export
+     * @param moduleName        the seed of the name of the generated file
+     * @param pageProvider      loads a page of items
+     */
+    protected <T> void exportToCSV(HttpServletResponse response, Class<T> itemClass, final Map<String, String> customColumnNames,
+                                   List<String> excludedColumns, final String moduleName, CsvPageProvider<T> pageProvider) {
+        exportToCSV(response, itemClass, customColumnNames, excludedColumns, moduleName, pageProvider, Function.identity());
+    }
+
+    /**
+     * Streams the CSV directly to the response, loading the entities page by page and converting them to the exported items
+     *
+     * @param response          the HTTP response the CSV is written to
+     * @param itemClass         the class of the exported items, used to determine the columns
+     * @param customColumnNames needed in case different column titles than the attribute name
+     * @param excludedColumns   the list of excluded columns from the final export
+     * @param moduleName        the seed of the name of the generated file
+     * @param pageProvider      loads a page of entities
+     * @param converter         converts an entity to an exported item
+     */
+    protected <E> void exportToCSV(HttpServletResponse response, Class<?> itemClass, final Map<String, String> customColumnNames,
+                                   List<String> excludedColumns, final String moduleName, CsvPageProvider<E> pageProvider, Function<E, ?> converter) {
+        setCsvHeaders(response, moduleName);
+        try {
+            getCsvService().exportToCSV(response.getOutputStream(), itemClass, customColumnNames, excludedColumns, pageProvider, converter);
+        } catch (IOException e) {
+            throw new CsvException(DomibusCoreErrorCode.DOM_001, "Could not write the CSV to the response", e);
+        }
+    }
+
+    private void setCsvHeaders(HttpServletResponse response, final String moduleName) {
+        response.setContentType(MediaType.parseMediaType(APPLICATION_EXCEL_STR + ";charset=UTF-8").toString());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + getCsvService().getCsvFilename(moduleName, "") + "\"");
+    }
+
     /**
      * Overloaded method to export as CSV
      *
@@ -14,16 +14,17 @@ import eu.domibus.web.rest.ro.ErrorLogFilterRequestRO;
 import eu.domibus.web.rest.ro.ErrorLogRO;
 import eu.domibus.web.rest.ro.ErrorLogResultRO;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Cosmin Baciu
@@ -70,25 +71,34 @@ public class ErrorLogResource extends BaseResource {
     }
 
     /**
-     * This method returns a CSV file with the contents of Error Log table
-     *
-     * @return CSV file with the contents of Error Log table
+     * This method writes a CSV file with the contents of Error Log table to the response
      */
     @GetMapping(path = "/csv")
-    public ResponseEntity<String> getCsv(@Valid ErrorLogFilterRequestRO request) {
+    public void getCsv(@Valid ErrorLogFilterRequestRO request, HttpServletResponse response) {
         HashMap<String, Object> filters = createFilterMap(request);
+        final Map<String, String> customColumnNames = ImmutableMap.of(
+                "ErrorSignalMessageId".toUpperCase(), "Signal Message Id",
+                "MshRole".toUpperCase(), "AP Role",
+                "MessageInErrorId".toUpperCase(), "Message Id");
+
+        if (getCsvService().isStreamingExportEnabled()) {
+            exportToCSV(response, ErrorLogRO.class, customColumnNames, new ArrayList<>(), "errorlog",
+                    (ErrorLogEntry last, int max) -> errorLogService.findPagedAfter(last, max, request.getOrderBy(), request.getAsc(), filters),
+                    auditLogCoreMapper::errorLogEntryToErrorLogRO);
+            return;
+        }
+
         final List<ErrorLogEntry> entries = errorLogService.findPaged(0, getCsvService().getPageSizeForExport(),
                 request.getOrderBy(), request.getAsc(), filters);
         getCsvService().validateMaxRows(entries.size(), () -> errorLogService.countEntries(filters));
 
         final List<ErrorLogRO> errorLogROList = auditLogCoreMapper.errorLogEntryListToErrorLogROList(entries);
 
-        return exportToCSV(errorLogROList,
+        exportToCSV(response,
+                errorLogROList,
                 ErrorLogRO.class,
-                ImmutableMap.of(
-                        "ErrorSignalMessageId".toUpperCase(), "Signal Message Id",
-                        "MshRole".toUpperCase(), "AP Role",
-                        "MessageInErrorId".toUpperCase(), "Message Id"),
+                customColumnNames,
+                new ArrayList<>(),
                 "errorlog");
     }
 
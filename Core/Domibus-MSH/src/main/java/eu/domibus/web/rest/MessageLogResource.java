@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.HashMap;
 import java.util.List;
@@ -108,22 +109,31 @@ public class MessageLogResource extends BaseResource {
     }
 
     /**
-     * This method returns a CSV file with the contents of Messages table
-     *
-     * @return CSV file with the contents of Messages table
+     * This method writes a CSV file with the contents of Messages table to the response
      */
     @GetMapping(path = "/csv")
-    public ResponseEntity<String> getCsv(@Valid final MessageLogFilterRequestRO request) {
+    public void getCsv(@Valid final MessageLogFilterRequestRO request, HttpServletResponse response) {
         HashMap<String, Object> filters = requestFilterUtils.createFilterMap(request);
 
         filters.put(PROPERTY_RECEIVED_FROM, dateUtil.fromString(request.getReceivedFrom()));
         filters.put(PROPERTY_RECEIVED_TO, dateUtil.fromString(request.getReceivedTo()));
 
+        if (getCsvService().isStreamingExportEnabled()) {
+            exportToCSV(response,
+                    MessageLogInfo.class,
+                    ImmutableMap.of(PROPERTY_MSH_ROLE.toUpperCase(), COLUMN_NAME_AP_ROLE),
+                    getExcludedProperties(request.getFields()),
+                    MODULE_NAME_MESSAGES,
+                    (last, max) -> messagesLogService.findAllInfoCSV(request.getMessageType(), last, max, request.getOrderBy(), request.getAsc(), filters, request.getFields()));
+            return;
+        }
+
         int maxNumberRowsToExport = getCsvService().getPageSizeForExport();
         List<MessageLogInfo> resultList = messagesLogService.findAllInfoCSV(request.getMessageType(), maxNumberRowsToExport, request.getOrderBy(), request.getAsc(), filters, request.getFields());
         getCsvService().validateMaxRows(resultList.size(), () -> messagesLogService.countMessages(request.getMessageType(), filters));
 
-        return exportToCSV(resultList,
+        exportToCSV(response,
+                resultList,
                 MessageLogInfo.class,
                 ImmutableMap.of(PROPERTY_MSH_ROLE.toUpperCase(), COLUMN_NAME_AP_ROLE),
                 getExcludedProperties(request.getFields()),
@@ -161,7 +171,7 @@ public class MessageLogResource extends BaseResource {
         final List<String> excludedProperties = Lists.newArrayList(PROPERTY_SOURCE_MESSAGE, PROPERTY_MESSAGE_FRAGMENT,
                 PROPERTY_NEXT_ATTEMPT_TIMEZONEID, PROPERTY_NEXT_ATTEMPT_OFFSET, "testMessage", "pluginType", "partLength",
                 "messageStatusId","notificationStatusId", "mshRoleId", "nextAttemptTimezonePk", "fromPartyIdPk", "toPartyIdPk",
-                "actionId", "serviceId");
+                "actionId", "serviceId", "entityId");
         List<String> optionalFields = Lists.newArrayList(PROPERTY_ORIGINAL_SENDER, PROPERTY_FINAL_RECIPIENT, MESSAGE_ACTION,
                 MESSAGE_SERVICE_TYPE, MESSAGE_SERVICE_VALUE, PROPERTY_MESSAGE_STATUS, PROPERTY_MSH_ROLE, PROPERTY_NOTIFICATION_STATUS,
                 PROPERTY_NEXT_ATTEMPT_TIMEZONEID, PROPERTY_FROM_PARTY_ID, PROPERTY_TO_PARTY_ID);
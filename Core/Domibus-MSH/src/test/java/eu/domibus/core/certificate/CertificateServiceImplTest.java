@@ -52,6 +52,7 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 
 import static eu.domibus.logging.DomibusMessageCode.SEC_CERTIFICATE_SOON_REVOKED;
 import static eu.domibus.logging.DomibusMessageCode.SEC_DOMIBUS_CERTIFICATE_REVOKED;
@@ -109,6 +110,9 @@ public class CertificateServiceImplTest {
     @Injectable
     SecurityUtilImpl securityUtil;
 
+    @Injectable
+    CertificateValidationCache certificateValidationCache;
+
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
@@ -241,6 +245,24 @@ public class CertificateServiceImplTest {
         assertTrue(certificateValid);
     }
 
+    @Test
+    public void testIsCertificateValidFromCache(@Injectable final X509Certificate certificate) {
+        new Expectations() {{
+            certificateValidationCache.isEnabled();
+            result = true;
+
+            certificateValidationCache.getOrValidate(certificate, (Predicate<X509Certificate>) any);
+            result = true;
+        }};
+
+        assertTrue(certificateService.isCertificateValid(certificate));
+
+        new Verifications() {{
+            crlService.isCertificateRevoked(certificate);
+            times = 0;
+        }};
+    }
+
     @Test
     public void testIsCertificateValidWithExpiredCertificate(@Injectable final X509Certificate certificate) {
         new Expectations(certificateService) {{
@@ -0,0 +1,149 @@
+package eu.domibus.core.certificate;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.certificate.crl.CRLService;
+import eu.domibus.test.common.PKIUtil;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.math.BigInteger;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class CertificateValidationCacheTest {
+
+    @Injectable
+    CRLService crlService;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final Domain domain = new Domain("default", "Default");
+
+    private final AtomicInteger validations = new AtomicInteger();
+
+    private CertificateValidationCache certificateValidationCache;
+
+    private X509Certificate certificate;
+
+    @Before
+    public void init() throws Exception {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+        certificateValidationCache = new CertificateValidationCache(crlService, domibusPropertyProvider, domainContextProvider, metricRegistry);
+        certificate = new PKIUtil().createCertificate(BigInteger.ONE, DateUtils.addDays(new Date(), -1), DateUtils.addDays(new Date(), 1), null);
+    }
+
+    @Test
+    public void isEnabled() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+            returns(0, 600);
+        }};
+
+        assertFalse(certificateValidationCache.isEnabled());
+        assertTrue(certificateValidationCache.isEnabled());
+    }
+
+    @Test
+    public void getOrValidate_servedFromCache() {
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+            result = 600;
+        }};
+
+        assertTrue(certificateValidationCache.getOrValidate(certificate, this::validate));
+        assertTrue(certificateValidationCache.getOrValidate(certificate, this::validate));
+
+        assertEquals(1, validations.get());
+        assertEquals(1, metricRegistry.counter(name(CertificateValidationCache.class, "certificate_validation_cache_hit")).getCount());
+        assertEquals(1, metricRegistry.counter(name(CertificateValidationCache.class, "certificate_validation_cache_miss")).getCount());
+    }
+
+    @Test
+    public void getOrValidate_expiredCrlIsNotCached() {
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+            result = 600;
+
+            crlService.getNextUpdate(certificate);
+            result = DateUtils.addMinutes(new Date(), -1);
+        }};
+
+        certificateValidationCache.getOrValidate(certificate, this::validate);
+        certificateValidationCache.getOrValidate(certificate, this::validate);
+
+        assertEquals(2, validations.get());
+        assertTrue(certificateValidationCache.validations.isEmpty());
+    }
+
+    @Test
+    public void getExpiration_boundedByCrlNextUpdate() {
+        final Date nextUpdate = DateUtils.addMinutes(new Date(), 5);
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+            result = 3600;
+
+            crlService.getNextUpdate(certificate);
+            result = nextUpdate;
+        }};
+
+        assertEquals(nextUpdate.getTime(), certificateValidationCache.getExpiration(certificate, System.currentTimeMillis()));
+    }
+
+    @Test
+    public void getExpiration_boundedByCertificateExpiry() {
+        final long now = System.currentTimeMillis();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_VALIDATION_CACHE_TTL);
+            result = 7 * 24 * 3600;
+        }};
+
+        assertEquals(certificate.getNotAfter().getTime(), certificateValidationCache.getExpiration(certificate, now));
+    }
+
+    @Test
+    public void evict() {
+        certificateValidationCache.validations.put("default|fingerprint", new CertificateValidationCache.CachedValidation(true, Long.MAX_VALUE));
+        certificateValidationCache.validations.put("red|fingerprint", new CertificateValidationCache.CachedValidation(true, Long.MAX_VALUE));
+
+        certificateValidationCache.evict(domain);
+
+        assertEquals(1, certificateValidationCache.validations.size());
+        assertTrue(certificateValidationCache.validations.containsKey("red|fingerprint"));
+    }
+
+    private boolean validate(X509Certificate cert) {
+        validations.incrementAndGet();
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package eu.domibus.core.certificate.crl;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.multitenancy.DomainService;
+import eu.domibus.api.pki.MultiDomainCryptoService;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.api.security.AuthUtils;
+import eu.domibus.api.util.DatabaseUtil;
+import mockit.*;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.JobExecutionContext;
+
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class CRLPrefetchJobTest {
+
+    @Tested
+    CRLPrefetchJob crlPrefetchJob;
+
+    @Injectable
+    private CRLService crlService;
+
+    @Injectable
+    private MultiDomainCryptoService multiDomainCryptoService;
+
+    @Injectable
+    private DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    private AuthUtils authUtils;
+
+    @Injectable
+    private DomainService domainService;
+
+    @Injectable
+    private DomainContextProvider domainContextProvider;
+
+    @Injectable
+    private DatabaseUtil databaseUtil;
+
+    @Test
+    public void executeJob(@Mocked JobExecutionContext context, @Mocked Domain domain, @Mocked KeyStore trustStore,
+                           @Injectable X509Certificate certificate) throws Exception {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED);
+            result = true;
+
+            multiDomainCryptoService.getTrustStore(domain);
+            result = trustStore;
+
+            trustStore.aliases();
+            result = Collections.enumeration(Collections.singletonList("blue_gw"));
+
+            trustStore.getCertificate("blue_gw");
+            result = certificate;
+        }};
+
+        crlPrefetchJob.executeJob(context, domain);
+
+        new Verifications() {{
+            List<X509Certificate> certificates;
+            crlService.refreshCRLs(certificates = withCapture());
+            assertEquals(Collections.singletonList(certificate), certificates);
+        }};
+    }
+
+    @Test
+    public void executeJob_disabled(@Mocked JobExecutionContext context, @Mocked Domain domain) {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED);
+            result = false;
+        }};
+
+        crlPrefetchJob.executeJob(context, domain);
+
+        new Verifications() {{
+            crlService.refreshCRLs((List<X509Certificate>) any);
+            times = 0;
+        }};
+    }
+}
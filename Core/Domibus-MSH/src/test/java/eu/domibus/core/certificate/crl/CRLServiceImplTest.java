@@ -2,6 +2,8 @@ package eu.domibus.core.certificate.crl;
 
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.cache.DomibusLocalCacheService;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.test.common.PKIUtil;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
@@ -17,10 +19,15 @@ import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_CRL_PREFETCH_MAX_STALENESS;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_CERTIFICATE_CRL_PREFETCH_REFRESH_MARGIN;
+import static org.junit.Assert.*;
 
 /**
  * Created by Cosmin Baciu on 07-Jul-16.
@@ -43,8 +50,13 @@ public class CRLServiceImplTest {
     @Injectable
     private DomibusLocalCacheService domibusLocalCacheService;
 
+    @Injectable
+    private DomainContextProvider domainContextProvider;
+
     PKIUtil pkiUtil = new PKIUtil();
 
+    private final Domain domain = new Domain("default", "default");
+
     @Before
     public void init() {
         Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
@@ -216,4 +228,182 @@ public class CRLServiceImplTest {
             domibusLocalCacheService.clearCache(domibusLocalCacheService.CRL_BY_CERT);
         }};
     }
+
+    @Test
+    public void getNextUpdate(@Injectable final X509Certificate certificate) {
+        final Date earliestNextUpdate = new Date(System.currentTimeMillis() + 60000);
+        crlService.crlNextUpdates.put("http://domain1.crl", new Date(System.currentTimeMillis() + 120000));
+        crlService.crlNextUpdates.put("http://domain2.crl", earliestNextUpdate);
+
+        new Expectations() {{
+            crlUtil.getCrlDistributionPoints(certificate);
+            result = Arrays.asList("http://domain1.crl", "http://domain2.crl", "http://domain3.crl");
+        }};
+
+        assertEquals(earliestNextUpdate, crlService.getNextUpdate(certificate));
+    }
+
+    @Test
+    public void getNextUpdate_notChecked(@Injectable final X509Certificate certificate) {
+        new Expectations() {{
+            crlUtil.getCrlDistributionPoints(certificate);
+            result = Arrays.asList("http://domain1.crl");
+        }};
+
+        assertNull(crlService.getNextUpdate(certificate));
+    }
+
+    @Test
+    public void refreshCRLs(@Injectable final X509Certificate certificate) throws Exception {
+        final X509CRL crl = pkiUtil.createCRL(Arrays.asList(BigInteger.ONE));
+        new MockUp<CRLUrlType>() {
+            @Mock
+            boolean isURLSupported(final String crlURL) {
+                return true;
+            }
+        };
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+
+            crlUtil.getCrlDistributionPoints(certificate);
+            result = Arrays.asList("http://domain1.crl");
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_REFRESH_MARGIN);
+            result = 10;
+
+            crlUtil.downloadCRL("http://domain1.crl", false);
+            result = crl;
+            times = 1;
+        }};
+
+        crlService.refreshCRLs(Arrays.asList(certificate));
+        // the CRL is not downloaded again before its next update
+        crlService.refreshCRLs(Arrays.asList(certificate));
+
+        assertSame(crl, crlService.prefetchedCrls.get(domain).crls.get("http://domain1.crl").getBaseCrl());
+        assertEquals(crl.getNextUpdate(), crlService.crlNextUpdates.get("http://domain1.crl"));
+    }
+
+    @Test
+    public void refreshCRLs_lastGoodCrlIsKept(@Injectable final X509Certificate certificate) throws Exception {
+        final PrefetchedCRL lastGoodCrl = new PrefetchedCRL(pkiUtil.createCRL(Arrays.asList(BigInteger.ONE)), null);
+        final CRLServiceImpl.PrefetchedDomainCRLs domainCrls = getPrefetchedDomainCRLs();
+        domainCrls.crls.put("http://domain1.crl", lastGoodCrl);
+        domainCrls.usedCrlUrls.add("http://domain1.crl");
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_REFRESH_MARGIN);
+            result = 3600;
+
+            crlUtil.downloadCRL("http://domain1.crl", false);
+            result = new DomibusCRLException("Could not download");
+        }};
+
+        crlService.refreshCRLs(Collections.emptyList());
+
+        assertSame(lastGoodCrl, domainCrls.crls.get("http://domain1.crl"));
+    }
+
+    @Test
+    public void refreshCRLs_unusedCrlDropped() throws Exception {
+        final CRLServiceImpl.PrefetchedDomainCRLs domainCrls = getPrefetchedDomainCRLs();
+        domainCrls.crls.put("http://domain1.crl", new PrefetchedCRL(pkiUtil.createCRL(Arrays.asList(BigInteger.ONE)), null));
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+        }};
+
+        crlService.refreshCRLs(Collections.emptyList());
+
+        assertTrue(domainCrls.crls.isEmpty());
+        new Verifications() {{
+            crlUtil.downloadCRL(anyString, anyBoolean);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void isCertificateRevoked_prefetched() throws Exception {
+        getPrefetchedDomainCRLs().crls.put("http://domain1.crl", new PrefetchedCRL(pkiUtil.createCRL(Arrays.asList(BigInteger.ONE)), null));
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED);
+            result = true;
+        }};
+
+        assertTrue(crlService.isCertificateRevoked(pkiUtil.createCertificate(BigInteger.ONE, null), "http://domain1.crl"));
+        assertFalse(crlService.isCertificateRevoked(pkiUtil.createCertificate(BigInteger.TEN, null), "http://domain1.crl"));
+
+        new Verifications() {{
+            crlUtil.downloadCRL(anyString, anyBoolean);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void isCertificateRevoked_stalePrefetchedCrlDownloaded() throws Exception {
+        final PrefetchedCRL staleCrl = getStalePrefetchedCRL();
+        final X509CRL crl = pkiUtil.createCRL(Arrays.asList(BigInteger.TEN));
+        getPrefetchedDomainCRLs().crls.put("http://domain1.crl", staleCrl);
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED);
+            result = true;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_MAX_STALENESS);
+            result = 3600;
+
+            crlUtil.downloadCRL("http://domain1.crl", false);
+            result = crl;
+        }};
+
+        assertFalse(crlService.isCertificateRevoked(pkiUtil.createCertificate(BigInteger.ONE, null), "http://domain1.crl"));
+        assertSame(crl, getPrefetchedDomainCRLs().crls.get("http://domain1.crl").getBaseCrl());
+    }
+
+    @Test(expected = DomibusCRLException.class)
+    public void isCertificateRevoked_stalePrefetchedCrlNotDownloaded() throws Exception {
+        getPrefetchedDomainCRLs().crls.put("http://domain1.crl", getStalePrefetchedCRL());
+
+        new Expectations() {{
+            domainContextProvider.getCurrentDomain();
+            result = domain;
+
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_ENABLED);
+            result = true;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_CERTIFICATE_CRL_PREFETCH_MAX_STALENESS);
+            result = 3600;
+
+            crlUtil.downloadCRL("http://domain1.crl", false);
+            result = new DomibusCRLException("Could not download");
+        }};
+
+        crlService.isCertificateRevoked(pkiUtil.createCertificate(BigInteger.ONE, null), "http://domain1.crl");
+    }
+
+    private CRLServiceImpl.PrefetchedDomainCRLs getPrefetchedDomainCRLs() {
+        return crlService.prefetchedCrls.computeIfAbsent(domain, key -> new CRLServiceImpl.PrefetchedDomainCRLs());
+    }
+
+    private PrefetchedCRL getStalePrefetchedCRL() throws Exception {
+        final PrefetchedCRL staleCrl = new PrefetchedCRL(pkiUtil.createCRL(Arrays.asList(BigInteger.ONE)), null);
+        new Expectations(staleCrl) {{
+            staleCrl.getNextUpdate();
+            result = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        }};
+        return staleCrl;
+    }
 }
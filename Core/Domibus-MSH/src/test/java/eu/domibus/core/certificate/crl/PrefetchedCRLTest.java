@@ -0,0 +1,88 @@
+package eu.domibus.core.certificate.crl;
+
+import eu.domibus.test.common.PKIUtil;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.X509Extensions;
+import org.bouncycastle.x509.X509V2CRLGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.security.Security;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class PrefetchedCRLTest {
+
+    private final PKIUtil pkiUtil = new PKIUtil();
+
+    @Before
+    public void init() {
+        Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+    }
+
+    @Test
+    public void isRevoked() throws Exception {
+        final PrefetchedCRL prefetchedCRL = new PrefetchedCRL(pkiUtil.createCRL(Arrays.asList(BigInteger.ONE, BigInteger.TEN)), null);
+
+        assertTrue(prefetchedCRL.isRevoked(pkiUtil.createCertificate(BigInteger.ONE, null)));
+        assertTrue(prefetchedCRL.isRevoked(pkiUtil.createCertificate(BigInteger.TEN, null)));
+        assertFalse(prefetchedCRL.isRevoked(pkiUtil.createCertificate(BigInteger.valueOf(2), null)));
+    }
+
+    @Test
+    public void isRevoked_withDeltaCrl() throws Exception {
+        final X509CRL baseCrl = pkiUtil.createCRL(Arrays.asList(BigInteger.ONE, BigInteger.TEN));
+        final X509CRL deltaCrl = createDeltaCRL(new Date(System.currentTimeMillis() + 30000));
+        final PrefetchedCRL prefetchedCRL = new PrefetchedCRL(baseCrl, null).withDeltaCrl(deltaCrl);
+
+        final X509Certificate removedFromCrl = pkiUtil.createCertificate(BigInteger.TEN, null);
+        final X509Certificate revokedByDelta = pkiUtil.createCertificate(BigInteger.valueOf(3), null);
+        assertTrue(prefetchedCRL.isRevoked(pkiUtil.createCertificate(BigInteger.ONE, null)));
+        assertFalse(prefetchedCRL.isRevoked(removedFromCrl));
+        assertTrue(prefetchedCRL.isRevoked(revokedByDelta));
+        assertEquals(deltaCrl.getNextUpdate(), prefetchedCRL.getNextUpdate());
+    }
+
+    @Test
+    public void isRefreshNeeded() throws Exception {
+        final X509CRL baseCrl = pkiUtil.createCRL(Arrays.asList(BigInteger.ONE));
+        final X509CRL deltaCrl = createDeltaCRL(new Date(System.currentTimeMillis() + 30000));
+        final PrefetchedCRL prefetchedCRL = new PrefetchedCRL(baseCrl, deltaCrl);
+
+        final Date beforeDeltaUpdate = new Date(System.currentTimeMillis() + 10000);
+        assertFalse(prefetchedCRL.isBaseRefreshNeeded(beforeDeltaUpdate));
+        assertFalse(prefetchedCRL.isDeltaRefreshNeeded(beforeDeltaUpdate));
+
+        final Date afterDeltaUpdate = new Date(System.currentTimeMillis() + 45000);
+        assertFalse(prefetchedCRL.isBaseRefreshNeeded(afterDeltaUpdate));
+        assertTrue(prefetchedCRL.isDeltaRefreshNeeded(afterDeltaUpdate));
+
+        final Date afterBaseUpdate = new Date(System.currentTimeMillis() + 120000);
+        assertTrue(prefetchedCRL.isBaseRefreshNeeded(afterBaseUpdate));
+    }
+
+    private X509CRL createDeltaCRL(Date nextUpdate) throws Exception {
+        X509V2CRLGenerator crlGen = new X509V2CRLGenerator();
+        Date now = new Date();
+        crlGen.setIssuerDN(new X500Principal("CN=GlobalSign Root CA"));
+        crlGen.setThisUpdate(now);
+        crlGen.setNextUpdate(nextUpdate);
+        crlGen.setSignatureAlgorithm("SHA256WithRSAEncryption");
+        crlGen.addCRLEntry(BigInteger.valueOf(3), now, CRLReason.keyCompromise);
+        crlGen.addCRLEntry(BigInteger.TEN, now, CRLReason.removeFromCRL);
+        crlGen.addExtension(X509Extensions.CRLNumber, false, new CRLNumber(BigInteger.valueOf(2)));
+        crlGen.addExtension(X509Extensions.DeltaCRLIndicator, true, new CRLNumber(BigInteger.ONE));
+        return crlGen.generateX509CRL(pkiUtil.generateKeyPair().getPrivate(), "BC");
+    }
+}
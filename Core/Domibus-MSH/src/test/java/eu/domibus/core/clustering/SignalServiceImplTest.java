@@ -80,6 +80,28 @@ public class SignalServiceImplTest {
     }
 
 
+    @Test
+    public void testSignalPartyStatusChange_NoException_MessageSent() {
+        final String partyName = "red_gw";
+        final String connectivityStatus = "ERROR";
+
+        new Expectations(signalService) {{
+        }};
+
+        //tested method
+        signalService.signalPartyStatusChange(partyName, connectivityStatus);
+
+        new Verifications() {{
+            Map<String, String> commandPropertiesActual;
+            signalService.sendMessage(commandPropertiesActual = withCapture());
+            Assert.assertNotNull(commandPropertiesActual);
+            Assert.assertEquals(Command.PARTY_STATUS_CHANGE, commandPropertiesActual.get(Command.COMMAND));
+            Assert.assertEquals(partyName, commandPropertiesActual.get(CommandProperty.PARTY_NAME));
+            Assert.assertEquals(connectivityStatus, commandPropertiesActual.get(CommandProperty.CONNECTIVITY_STATUS));
+            Assert.assertEquals(domainContextProvider.getCurrentDomain().getCode(), commandPropertiesActual.get(MessageConstants.DOMAIN));
+        }};
+    }
+
     @Test
     public void testSignalLoggingSetLevel_NoException_MessageSent() {
         final String name = "eu.domibus";
@@ -100,6 +100,7 @@ public class MultiDomainCryptoServiceImplTest {
 
         new Verifications() {{
             cryptoService.resetTrustStore();
+            certificateService.resetCertificateValidationCache(domain);
         }};
     }
 
@@ -116,6 +117,7 @@ public class MultiDomainCryptoServiceImplTest {
 
         new Verifications() {{
             cryptoService.replaceTrustStore(storeInfo);
+            certificateService.resetCertificateValidationCache(domain);
         }};
     }
 
@@ -17,6 +17,7 @@ import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.core.Is;
@@ -26,15 +27,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_UI_CSV_MAX_ROWS;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE;
 
 /**
  * @author Tiago Miguel
@@ -159,12 +164,93 @@ public class CsvServiceImplTest {
                 date, date, 1, 5, date, 1L,
                 "conversationId", 1L, 1L, "originalSender", "finalRecipient",
                 "refToMessageId", date, date, testMessage, false, false, 1L, 1L,
-                "pluginType", 1L, date);
+                "pluginType", 1L, date, 1L);
         result.add(messageLog);
         return result;
     }
 
 
+    @Test
+    public void exportToCSV_streamedPageByPage() {
+        final List<String> requestedAfter = new ArrayList<>();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE);
+            result = 2;
+
+            domibusStringUtil.unCamelCase("stringField");
+            result = "String Field";
+        }};
+        setCsvSerializer();
+        final List<TestCsvFields> items = getTestCsvFields("first", "second", "third");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = csvServiceImpl.exportToCSV(outputStream, TestCsvFields.class, null,
+                Arrays.asList("nullField", "mapField", "dateField", "localDateTimeField"),
+                (TestCsvFields last, int max) -> {
+                    requestedAfter.add(last == null ? null : last.stringField);
+                    int from = last == null ? 0 : items.indexOf(last) + 1;
+                    return items.subList(from, Math.min(from + max, items.size()));
+                }, Function.identity());
+
+        Assert.assertEquals(3, rows);
+        Assert.assertEquals(Arrays.asList(null, "second"), requestedAfter);
+        Assert.assertEquals("\"String Field\"\n\"first\"\n\"second\"\n\"third\"\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void exportToCSV_streamedWithoutMaxRows() {
+        final List<Integer> requestedMax = new ArrayList<>();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE);
+            result = 2;
+
+            domibusStringUtil.unCamelCase("stringField");
+            result = "String Field";
+        }};
+        setCsvSerializer();
+        final List<TestCsvFields> items = getTestCsvFields("first", "second", "third", "fourth");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = csvServiceImpl.exportToCSV(outputStream, TestCsvFields.class, null,
+                Arrays.asList("nullField", "mapField", "dateField", "localDateTimeField"),
+                (TestCsvFields last, int max) -> {
+                    requestedMax.add(max);
+                    int from = last == null ? 0 : items.indexOf(last) + 1;
+                    return items.subList(from, Math.min(from + max, items.size()));
+                }, Function.identity());
+
+        Assert.assertEquals(4, rows);
+        Assert.assertEquals(Arrays.asList(2, 2, 2), requestedMax);
+        Assert.assertEquals("\"String Field\"\n\"first\"\n\"second\"\n\"third\"\n\"fourth\"\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        new Verifications() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_MAX_ROWS);
+            times = 0;
+        }};
+    }
+
+    @Test(expected = CsvException.class)
+    public void exportToCSV_streamingDisabled() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE);
+            result = 0;
+        }};
+
+        csvServiceImpl.exportToCSV(new ByteArrayOutputStream(), TestCsvFields.class, null, null,
+                (TestCsvFields last, int max) -> new ArrayList<TestCsvFields>(), Function.identity());
+    }
+
+    private List<TestCsvFields> getTestCsvFields(String... values) {
+        final List<TestCsvFields> items = new ArrayList<>();
+        for (String value : values) {
+            TestCsvFields item = new TestCsvFields();
+            item.setStringField(value);
+            items.add(item);
+        }
+        return items;
+    }
+
     @Test(expected = RequestValidationException.class)
     public void validateMaxRows() {
         new Expectations() {{
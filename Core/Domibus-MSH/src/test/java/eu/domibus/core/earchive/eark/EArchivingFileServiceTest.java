@@ -139,6 +139,53 @@ public class EArchivingFileServiceTest {
         Assert.assertThat(archivingFiles.get(MESSAGE + ".attachment.xml").getInputStream(), is(inputStream));
     }
 
+    @Test
+    public void getArchivingFiles_bulk(@Injectable PartInfo partInfo1,
+                                       @Injectable DataHandler dataHandler,
+                                       @Injectable InputStream inputStream) throws IOException {
+        final long otherEntityId = entityId + 1;
+        final List<Long> entityIds = Arrays.asList(entityId, otherEntityId);
+        RawEnvelopeDto rawEnvelopeDto = new RawEnvelopeDto(entityId, RAW_ENVELOPE_CONTENT.getBytes(StandardCharsets.UTF_8), false);
+        new Expectations() {{
+            userMessageRawEnvelopeDao.findRawXmlByEntityIds(entityIds);
+            result = Collections.singletonList(rawEnvelopeDto);
+            times = 1;
+
+            partInfoService.findPartInfos(entityIds);
+            result = Collections.singletonList(partInfo1);
+            times = 1;
+
+            partInfo1.getUserMessage().getEntityId();
+            result = otherEntityId;
+
+            partInfo1.getPayloadDatahandler();
+            result = dataHandler;
+
+            dataHandler.getInputStream();
+            result = inputStream;
+
+            partInfo1.getMime();
+            result = MimeTypes.XML;
+
+            partInfo1.getHref();
+            result = CID + MESSAGE;
+        }};
+
+        Map<Long, Map<String, ArchivingFileDTO>> archivingFiles = eArchivingFileService.getArchivingFiles(entityIds);
+
+        assertEquals(2, archivingFiles.size());
+        assertEquals(1, archivingFiles.get(entityId).size());
+        assertEquals(RAW_ENVELOPE_CONTENT, IOUtils.toString(archivingFiles.get(entityId).get(EArchivingFileService.SOAP_ENVELOPE_XML).getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(1, archivingFiles.get(otherEntityId).size());
+        assertEquals(inputStream, archivingFiles.get(otherEntityId).get(MESSAGE + ".attachment.xml").getInputStream());
+        new Verifications() {{
+            userMessageRawEnvelopeDao.findRawXmlByEntityId(anyLong);
+            times = 0;
+            partInfoService.findPartInfo(anyLong);
+            times = 0;
+        }};
+    }
+
     @Test
     public void getArchivingFiles_partInfoWithoutDataHandler(@Injectable RawEnvelopeDto rawEnvelopeDto,
                                                              @Injectable PartInfo partInfo1,
@@ -147,9 +194,6 @@ public class EArchivingFileServiceTest {
         List<PartInfo> partInfos = Collections.singletonList(partInfo1);
         new Expectations() {{
 
-            rawEnvelopeDto.getRawXmlMessageAsStream();
-            result = new ByteArrayInputStream(RAW_ENVELOPE_CONTENT.getBytes(StandardCharsets.UTF_8));
-
             userMessageRawEnvelopeDao.findRawXmlByEntityId(entityId);
             result = rawEnvelopeDto;
 
@@ -186,9 +230,6 @@ public class EArchivingFileServiceTest {
         List<PartInfo> partInfos = Collections.singletonList(partInfo1);
         new Expectations() {{
 
-            rawEnvelopeDto.getRawXmlMessageAsStream();
-            result = new ByteArrayInputStream(RAW_ENVELOPE_CONTENT.getBytes(StandardCharsets.UTF_8));
-
             userMessageRawEnvelopeDao.findRawXmlByEntityId(entityId);
             result = rawEnvelopeDto;
 
@@ -207,13 +248,11 @@ public class EArchivingFileServiceTest {
             partInfo1.getHref();
             result = CID + MESSAGE;
 
-            partInfo1.getUserMessage().getMessageId();
-            result = "messageId";
-
         }};
 
+        Map<String, ArchivingFileDTO> archivingFiles = eArchivingFileService.getArchivingFiles(entityId);
         try {
-            eArchivingFileService.getArchivingFiles(entityId);
+            archivingFiles.get(MESSAGE + ".attachment.xml").getInputStream();
             Assert.fail();
         } catch (DomibusEArchiveExportException e) {
             //ok
@@ -223,6 +262,58 @@ public class EArchivingFileServiceTest {
         };
     }
 
+    @Test
+    public void getArchivingFiles_bulkStreamsOpenedWhenRead(@Injectable RawEnvelopeDto rawEnvelopeDto,
+                                                            @Injectable PartInfo partInfo1,
+                                                            @Injectable DataHandler dataHandler,
+                                                            @Injectable InputStream inputStream) throws IOException {
+        final List<Long> entityIds = Collections.singletonList(entityId);
+        new Expectations() {{
+            rawEnvelopeDto.getId();
+            result = entityId;
+
+            userMessageRawEnvelopeDao.findRawXmlByEntityIds(entityIds);
+            result = Collections.singletonList(rawEnvelopeDto);
+
+            partInfoService.findPartInfos(entityIds);
+            result = Collections.singletonList(partInfo1);
+
+            partInfo1.getUserMessage().getEntityId();
+            result = entityId;
+
+            partInfo1.getPayloadDatahandler();
+            result = dataHandler;
+
+            partInfo1.getMime();
+            result = MimeTypes.XML;
+
+            partInfo1.getHref();
+            result = CID + MESSAGE;
+        }};
+
+        Map<Long, Map<String, ArchivingFileDTO>> archivingFiles = eArchivingFileService.getArchivingFiles(entityIds);
+
+        new Verifications() {{
+            rawEnvelopeDto.getRawXmlMessageAsStream();
+            times = 0;
+            dataHandler.getInputStream();
+            times = 0;
+        }};
+
+        new Expectations() {{
+            dataHandler.getInputStream();
+            result = inputStream;
+        }};
+
+        assertEquals(inputStream, archivingFiles.get(entityId).get(MESSAGE + ".attachment.xml").getInputStream());
+        new Verifications() {{
+            dataHandler.getInputStream();
+            times = 1;
+            rawEnvelopeDto.getRawXmlMessageAsStream();
+            times = 0;
+        }};
+    }
+
     @Test
     public void getFile(
             @Injectable PartInfo partInfo,
@@ -246,6 +337,7 @@ public class EArchivingFileServiceTest {
         ArchivingFileDTO file = eArchivingFileService.getArchivingFileDTO(1L, partInfo);
 
         assertNotNull("message.attachment.xml", file);
+        assertArrayEquals(compressedBytes, IOUtils.toByteArray(file.getInputStream()));
 
         new Verifications() {
         };
@@ -260,17 +352,15 @@ public class EArchivingFileServiceTest {
             partInfo.getPayloadDatahandler().getInputStream();
             result = new IOException("TEST");
 
-            partInfo.getUserMessage().getMessageId();
-            result = "partInfoMessageId";
-
             partInfo.getHref();
             result = "href";
         }};
+        ArchivingFileDTO file = eArchivingFileService.getArchivingFileDTO(1L, partInfo);
         try {
-            eArchivingFileService.getArchivingFileDTO(1L, partInfo);
+            file.getInputStream();
             fail();
         } catch (DomibusEArchiveExportException e) {
-            assertTrue(StringUtils.contains(e.getMessage(), "partInfoMessageId"));
+            assertTrue(StringUtils.contains(e.getMessage(), "href"));
         }
 
         new Verifications() {
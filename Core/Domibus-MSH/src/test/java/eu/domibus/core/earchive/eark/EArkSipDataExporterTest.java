@@ -0,0 +1,268 @@
+package eu.domibus.core.earchive.eark;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.earchive.DomibusEArchiveException;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.api.util.FileServiceUtil;
+import eu.domibus.core.earchive.EArchiveBatchUserMessage;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.roda_project.commons_ip2.model.MetsWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class EArkSipDataExporterTest {
+
+    @Tested
+    EArkSipDataExporter eArkSipDataExporter;
+
+    @Injectable
+    EArchivingFileService eArchivingFileService;
+
+    @Injectable
+    EARKSIPFileService eArkSipBuilderService;
+
+    @Injectable
+    FileServiceUtil fileServiceUtil;
+
+    @Injectable
+    DomainTaskExecutor domainTaskExecutor;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    MetricRegistry metricRegistry;
+
+    private final Path batchDirectory = Paths.get("batch");
+
+    private final List<EArchiveBatchUserMessage> userMessages = Arrays.asList(new EArchiveBatchUserMessage(1L, "msg1"), new EArchiveBatchUserMessage(2L, "msg2"));
+
+    @Test
+    public void exportUserMessages_sequential(@Injectable MetsWrapper metsWrapper) {
+        final ArchivingFileDTO envelope1 = getArchivingFile("envelope1");
+        final ArchivingFileDTO attachment1 = getArchivingFile("attachment1");
+        final ArchivingFileDTO envelope2 = getArchivingFile("envelope2");
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY);
+            result = 1;
+
+            eArchivingFileService.getArchivingFiles(1L);
+            result = getArchivingFiles(envelope1, attachment1);
+
+            eArchivingFileService.getArchivingFiles(2L);
+            result = getArchivingFiles(envelope2, null);
+
+            fileServiceUtil.URLEncode(anyString);
+            result = new Delegate<String>() {
+                public String URLEncode(String messageId) {
+                    return messageId;
+                }
+            };
+        }};
+        recordCreateDataFile();
+
+        eArkSipDataExporter.exportUserMessages(userMessages, batchDirectory, metsWrapper);
+
+        assertEquals(DigestUtils.sha256Hex("envelope1"), envelope1.getCheckSum());
+        assertEquals(Long.valueOf("envelope1".length()), envelope1.getSize());
+        assertEquals(DigestUtils.sha256Hex("attachment1"), attachment1.getCheckSum());
+        assertEquals(DigestUtils.sha256Hex("envelope2"), envelope2.getCheckSum());
+        assertEquals(Paths.get(batchDirectory.toFile().getAbsolutePath(), "representations", "representation1", "data", "msg1", EArchivingFileService.SOAP_ENVELOPE_XML), envelope1.getPath());
+        verifyMETSOrder(metsWrapper);
+        new Verifications() {{
+            domainTaskExecutor.submit((Runnable) any, anyBoolean);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void exportUserMessages_concurrent(@Injectable MetsWrapper metsWrapper) {
+        final ArchivingFileDTO envelope1 = getArchivingFile("envelope1");
+        final ArchivingFileDTO attachment1 = getArchivingFile("attachment1");
+        final ArchivingFileDTO envelope2 = getArchivingFile("envelope2");
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY);
+            result = 2;
+
+            eArchivingFileService.getArchivingFiles(1L);
+            result = getArchivingFiles(envelope1, attachment1);
+
+            eArchivingFileService.getArchivingFiles(2L);
+            result = getArchivingFiles(envelope2, null);
+
+            fileServiceUtil.URLEncode(anyString);
+            result = new Delegate<String>() {
+                public String URLEncode(String messageId) {
+                    return messageId;
+                }
+            };
+
+            domainTaskExecutor.submit((Runnable) any, false);
+            result = new Delegate<Future<?>>() {
+                public Future<?> submit(Runnable task, boolean waitForTask) {
+                    task.run();
+                    return CompletableFuture.completedFuture(null);
+                }
+            };
+            times = 2;
+        }};
+        recordCreateDataFile();
+
+        eArkSipDataExporter.exportUserMessages(userMessages, batchDirectory, metsWrapper);
+
+        assertEquals(DigestUtils.sha256Hex("attachment1"), attachment1.getCheckSum());
+        assertEquals(DigestUtils.sha256Hex("envelope2"), envelope2.getCheckSum());
+        verifyMETSOrder(metsWrapper);
+    }
+
+    @Test
+    public void exportUserMessages_prefetch(@Injectable MetsWrapper metsWrapper) {
+        final ArchivingFileDTO envelope1 = getArchivingFile("envelope1");
+        final ArchivingFileDTO attachment1 = getArchivingFile("attachment1");
+        final ArchivingFileDTO envelope2 = getArchivingFile("envelope2");
+        final Map<Long, Map<String, ArchivingFileDTO>> prefetchedFiles = new HashMap<>();
+        prefetchedFiles.put(1L, getArchivingFiles(envelope1, attachment1));
+        prefetchedFiles.put(2L, getArchivingFiles(envelope2, null));
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY);
+            result = 1;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE);
+            result = 10;
+
+            eArchivingFileService.getArchivingFiles(Arrays.asList(1L, 2L));
+            result = prefetchedFiles;
+            times = 1;
+
+            fileServiceUtil.URLEncode(anyString);
+            result = new Delegate<String>() {
+                public String URLEncode(String messageId) {
+                    return messageId;
+                }
+            };
+        }};
+        recordCreateDataFile();
+
+        eArkSipDataExporter.exportUserMessages(userMessages, batchDirectory, metsWrapper);
+
+        assertEquals(DigestUtils.sha256Hex("attachment1"), attachment1.getCheckSum());
+        assertEquals(DigestUtils.sha256Hex("envelope2"), envelope2.getCheckSum());
+        verifyMETSOrder(metsWrapper);
+        new Verifications() {{
+            eArchivingFileService.getArchivingFiles(anyLong);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void exportUserMessages_concurrentWriteFailure(@Injectable MetsWrapper metsWrapper) {
+        final ArchivingFileDTO envelope1 = getArchivingFile("envelope1");
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_CONCURRENCY);
+            result = 2;
+
+            eArchivingFileService.getArchivingFiles(anyLong);
+            result = getArchivingFiles(envelope1, null);
+
+            domainTaskExecutor.submit((Runnable) any, false);
+            result = new Delegate<Future<?>>() {
+                public Future<?> submit(Runnable task, boolean waitForTask) {
+                    CompletableFuture<?> future = new CompletableFuture<>();
+                    future.completeExceptionally(new DomibusEArchiveException("Could not write"));
+                    return future;
+                }
+            };
+        }};
+
+        try {
+            eArkSipDataExporter.exportUserMessages(userMessages, batchDirectory, metsWrapper);
+            fail();
+        } catch (DomibusEArchiveException e) {
+            assertEquals("Could not write", e.getMessage());
+        }
+
+        new Verifications() {{
+            eArkSipBuilderService.addDataFileInfoToMETS(metsWrapper, anyString, (ArchivingFileDTO) any);
+            times = 0;
+        }};
+    }
+
+    private void recordCreateDataFile() {
+        new Expectations() {{
+            eArkSipBuilderService.createDataFile((Path) any, (InputStream) any);
+            result = new Delegate<Void>() {
+                public void createDataFile(Path path, InputStream inputStream) throws IOException {
+                    IOUtils.consume(inputStream);
+                }
+            };
+        }};
+    }
+
+    private void verifyMETSOrder(MetsWrapper metsWrapper) {
+        new Verifications() {{
+            List<String> relativePaths = new ArrayList<>();
+            eArkSipBuilderService.addDataFileInfoToMETS(metsWrapper, withCapture(relativePaths), (ArchivingFileDTO) any);
+            assertEquals(Arrays.asList(
+                    "data/msg1/message.attachment.txt",
+                    "data/msg1/" + EArchivingFileService.SOAP_ENVELOPE_XML,
+                    "data/msg2/" + EArchivingFileService.SOAP_ENVELOPE_XML), relativePaths);
+        }};
+    }
+
+    private Map<String, ArchivingFileDTO> getArchivingFiles(ArchivingFileDTO envelope, ArchivingFileDTO attachment) {
+        Map<String, ArchivingFileDTO> files = new HashMap<>();
+        files.put(EArchivingFileService.SOAP_ENVELOPE_XML, envelope);
+        if (attachment != null) {
+            files.put("message.attachment.txt", attachment);
+        }
+        return files;
+    }
+
+    private ArchivingFileDTO getArchivingFile(String content) {
+        return ArchivingFileDTOBuilder.getInstance()
+                .setInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    @Test
+    public void getPrefetchSize_cappedToTheInListLimit() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_EXPORT_PREFETCH_SIZE);
+            returns(5000, 10);
+        }};
+
+        assertEquals(EArkSipDataExporter.MAX_PREFETCH_SIZE, eArkSipDataExporter.getPrefetchSize());
+        assertEquals(10, eArkSipDataExporter.getPrefetchSize());
+    }
+}
@@ -71,6 +71,9 @@ public class FileSystemEArchivePersistenceIT {
     @Injectable
     private FileServiceUtil fileServiceUtil;
 
+    @Injectable
+    private EArkSipDataExporter eArkSipDataExporter;
+
     @Tested
     private FileSystemEArchivePersistence fileSystemEArchivePersistence;
 
@@ -0,0 +1,101 @@
+package eu.domibus.core.earchive.job;
+
+import eu.domibus.api.earchive.EArchiveRequestType;
+import eu.domibus.api.jms.JMSManager;
+import eu.domibus.api.jms.JmsMessage;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.earchive.EArchiveBatchStart;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.jms.Queue;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class EArchiveBatchDispatcherServiceTest {
+
+    @Tested
+    EArchiveBatchDispatcherService eArchiveBatchDispatcherService;
+
+    @Injectable
+    JMSManager jmsManager;
+
+    @Injectable
+    Queue eArchiveQueue;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    EArchivingJobService eArchivingJobService;
+
+    @Test
+    public void getNumberOfBatchesToCreate_backPressureDisabled() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_BATCH_QUEUED_MAX);
+            result = 0;
+        }};
+
+        assertEquals(10, eArchiveBatchDispatcherService.getNumberOfBatchesToCreate(10));
+
+        new Verifications() {{
+            eArchivingJobService.countPendingExportBatches();
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void getNumberOfBatchesToCreate_limitedByPendingBatches() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_EARCHIVE_BATCH_QUEUED_MAX);
+            result = 20;
+
+            eArchivingJobService.countPendingExportBatches();
+            returns(15L, 25L, 2L);
+        }};
+
+        assertEquals(5, eArchiveBatchDispatcherService.getNumberOfBatchesToCreate(10));
+        assertEquals(0, eArchiveBatchDispatcherService.getNumberOfBatchesToCreate(10));
+        assertEquals(10, eArchiveBatchDispatcherService.getNumberOfBatchesToCreate(10));
+    }
+
+    @Test
+    public void startBatch_exportQueueFull(@Injectable EArchiveBatchStart eArchiveBatchStart) {
+        new Expectations() {{
+            domibusPropertyProvider.getProperty((Domain) any, DOMIBUS_EARCHIVE_ACTIVE);
+            result = "true";
+
+            eArchivingJobService.getContinuousStartDate(EArchiveRequestType.CONTINUOUS);
+            result = eArchiveBatchStart;
+
+            domibusPropertyProvider.getIntegerProperty(anyString);
+            result = 10;
+
+            eArchivingJobService.countPendingExportBatches();
+            result = 10L;
+        }};
+
+        eArchiveBatchDispatcherService.startBatch(new Domain("default", "Default"), EArchiveRequestType.CONTINUOUS);
+
+        new Verifications() {{
+            eArchivingJobService.findMessagesForArchivingAsc(anyLong, anyLong, anyInt, anyInt);
+            times = 0;
+            eArchivingJobService.updateLastEntityIdExported(anyLong, (EArchiveRequestType) any);
+            times = 0;
+            jmsManager.sendMessageToQueue((JmsMessage) any, (Queue) any);
+            times = 0;
+        }};
+    }
+}
@@ -3,6 +3,7 @@ package eu.domibus.core.earchive.job;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.uuid.NoArgGenerator;
 import eu.domibus.api.earchive.DomibusEArchiveException;
+import eu.domibus.api.earchive.EArchiveBatchStatus;
 import eu.domibus.api.earchive.EArchiveRequestType;
 import eu.domibus.api.model.MessageStatus;
 import eu.domibus.api.payload.PartInfoService;
@@ -74,6 +75,16 @@ public class EArchivingJobServiceTest {
     @Injectable
     private DateUtil dateUtil;
 
+    @Test
+    public void countPendingExportBatches() {
+        new Expectations() {{
+            eArchiveBatchDao.countBatchesByStatus(asList(EArchiveBatchStatus.QUEUED, EArchiveBatchStatus.STARTED));
+            result = 3L;
+        }};
+
+        assertEquals(3L, eArchivingJobService.countPendingExportBatches());
+    }
+
     @Test
     public void getMpcs() {
 
@@ -418,7 +418,7 @@ public class AbstractEbms3UserMessageSenderTest {
             Assert.assertEquals(legConfiguration.getName(), legConfigurationActual.getName());
             Assert.assertEquals(senderName, senderPartyNameActual);
 
-            soapUtil.getRawXMLMessage(soapMessage);
+            soapUtil.getCompressedRawXMLMessage(soapMessage);
 
             policyService.isNoSecurityPolicy(policy);
 
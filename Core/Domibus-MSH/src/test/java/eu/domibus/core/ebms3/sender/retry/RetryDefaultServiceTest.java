@@ -5,6 +5,7 @@ import eu.domibus.api.jms.JMSManager;
 import eu.domibus.api.jms.JmsMessage;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.api.model.UserMessageLog;
+import eu.domibus.api.model.UserMessageLogRetryDto;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.common.model.configuration.LegConfiguration;
@@ -22,6 +23,7 @@ import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,12 +31,11 @@ import org.junit.runner.RunWith;
 import javax.jms.Queue;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Ioana Dragusanu,
@@ -108,32 +109,53 @@ public class RetryDefaultServiceTest {
 
     @Test
     public void getMessagesNotAlreadyQueuedWithNoAlreadyQueuedMessagesTest() {
-        List<Long> retryMessageIds = Arrays.asList(123L, 456L, 789L);
-
         new Expectations(retryService) {{
             pModeProvider.getMaxRetryTimeout();
             result = 12;
-            userMessageLogDao.findRetryMessages(anyLong, anyLong);
-            result = new ArrayList<>(retryMessageIds);
-
-            userMessageLogDao.findByEntityId(123L);
-            result = getUserMessageLog(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(5));
-            userMessageLogDao.findByEntityId(456L);
-            result = getUserMessageLog(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(10));
-            userMessageLogDao.findByEntityId(789L);
-            result = getUserMessageLog(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(15));
+            userMessageLogDao.findRetryMessagesPage(anyLong, anyLong, anyLong, RetryDefaultService.RETRY_MESSAGES_PAGE_SIZE);
+            result = Arrays.asList(
+                    getRetryMessage(123L, ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(5), "mpc1"),
+                    getRetryMessage(456L, ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(10), "mpc2"),
+                    getRetryMessage(789L, ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(15), "mpc1"));
         }};
 
         List<Long> result = retryService.getMessagesNotAlreadyScheduled();
         assertEquals(2, result.size());
 
         assertEquals(result, Arrays.asList(123L, 456L));
+
+        new Verifications() {{
+            userMessageLogDao.findByEntityId(anyLong);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void pickInTurns() {
+        Map<String, List<Long>> messageEntityIdsByMpc = new LinkedHashMap<>();
+        messageEntityIdsByMpc.put("mpc1", Arrays.asList(1L, 2L, 3L, 4L));
+        messageEntityIdsByMpc.put("mpc2", Arrays.asList(5L));
+        messageEntityIdsByMpc.put("mpc3", Arrays.asList(6L, 7L));
+
+        assertEquals(Arrays.asList(1L, 5L, 6L, 2L, 7L), retryService.pickInTurns(messageEntityIdsByMpc, 5));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), retryService.pickInTurns(messageEntityIdsByMpc, 0));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L), retryService.pickInTurns(messageEntityIdsByMpc, 7));
+    }
+
+    @Test
+    public void isEveryMpcFull() {
+        Map<String, List<Long>> messageEntityIdsByMpc = new LinkedHashMap<>();
+        assertFalse(retryService.isEveryMpcFull(messageEntityIdsByMpc, 2));
+
+        messageEntityIdsByMpc.put("mpc1", Arrays.asList(1L, 2L));
+        messageEntityIdsByMpc.put("mpc2", Arrays.asList(3L));
+        assertFalse(retryService.isEveryMpcFull(messageEntityIdsByMpc, 2));
+        assertTrue(retryService.isEveryMpcFull(messageEntityIdsByMpc, 1));
+        assertFalse(retryService.isEveryMpcFull(messageEntityIdsByMpc, 0));
     }
 
-    private UserMessageLog getUserMessageLog(ZonedDateTime localDateTime) {
-        UserMessageLog userMessageLog = new UserMessageLog();
-        userMessageLog.setCreationTime(asDate(localDateTime));
-        return userMessageLog;
+    private UserMessageLogRetryDto getRetryMessage(long entityId, ZonedDateTime creationTime, String mpc) {
+        return new UserMessageLogRetryDto(entityId, asDate(creationTime), null, mpc);
     }
 
     private Date asDate(ZonedDateTime zonedDateTime) {
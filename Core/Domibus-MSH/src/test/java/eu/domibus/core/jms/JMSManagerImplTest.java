@@ -8,6 +8,7 @@ import eu.domibus.api.multitenancy.Domain;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.multitenancy.DomainService;
 import eu.domibus.api.property.DomibusConfigurationService;
+import eu.domibus.api.property.DomibusPropertyMetadataManagerSPI;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.security.AuthUtils;
 import eu.domibus.common.NotificationType;
@@ -463,7 +464,7 @@ public class JMSManagerImplTest {
             jmsMessage2.getCustomStringProperty(MessageConstants.MESSAGE_ID);
             result = messageId2;
 
-            jmsManager.browseClusterMessages(queueName, selector);
+            jmsManager.browseClusterMessages(queueName, selector, anyInt);
             result = jmsMessages;
         }};
 
@@ -471,6 +472,32 @@ public class JMSManagerImplTest {
         assertEquals(2, messageList.size());
     }
 
+    @Test
+    public void browseQueue_cappedBrowse(@Injectable JmsMessage jmsMessage1) {
+        String queueName = "myqueue";
+        String selector = "name = value";
+
+        new Expectations(jmsManager) {{
+            domibusPropertyProvider.getIntegerProperty(DomibusPropertyMetadataManagerSPI.DOMIBUS_LIST_PENDING_MESSAGES_MAX_COUNT);
+            result = 1;
+
+            jmsManager.getDomainSelector(anyString);
+            result = selector;
+
+            jmsMessage1.getCustomStringProperty(MessageConstants.MESSAGE_ID);
+            result = "msg1";
+
+            internalJmsManager.browseClusterMessages(queueName, selector, 1);
+            result = Collections.singletonList(new InternalJmsMessage());
+
+            jmsMessageMapper.convert((List<InternalJmsMessage>) any);
+            result = Collections.singletonList(jmsMessage1);
+        }};
+
+        Collection<String> messageList = jmsManager.browseQueue(queueName, NotificationType.MESSAGE_RECEIVED, "C1");
+        assertEquals(Collections.singletonList("msg1"), new ArrayList<>(messageList));
+    }
+
     @Test
     public void removeFromPending(@Injectable JmsMessage message) {
         String queueName = "myqueue";
@@ -1,5 +1,6 @@
 package eu.domibus.core.message;
 
+import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.core.message.dictionary.*;
 import eu.domibus.core.scheduler.ReprogrammableService;
@@ -34,8 +35,9 @@ public class MessageConfig {
     }
 
     @Bean
-    public UserMessageDao userMessageDao(MessageStatusDao messageStatusDao, MshRoleDao mshRoleDao, PartyIdDao partyIdDao) {
-        return new UserMessageDao(messageStatusDao, mshRoleDao, partyIdDao);
+    public UserMessageDao userMessageDao(MessageStatusDao messageStatusDao, MshRoleDao mshRoleDao, PartyIdDao partyIdDao,
+                                         DomibusConfigurationService domibusConfigurationService) {
+        return new UserMessageDao(messageStatusDao, mshRoleDao, partyIdDao, domibusConfigurationService);
     }
 
     @Bean
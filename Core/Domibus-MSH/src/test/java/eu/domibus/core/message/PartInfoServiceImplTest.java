@@ -4,10 +4,12 @@ import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.PartProperty;
 import eu.domibus.api.model.UserMessage;
 import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.ErrorCode;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.payload.persistence.PayloadPersistenceHelper;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileLayout;
 import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
@@ -16,9 +18,11 @@ import mockit.integration.junit4.JMockit;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_FILES_ASYNC;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.fail;
 
@@ -44,6 +48,15 @@ public class PartInfoServiceImplTest {
     @Injectable
     private PayloadPersistenceHelper payloadPersistenceHelper;
 
+    @Injectable
+    private PayloadFileLayout payloadFileLayout;
+
+    @Injectable
+    private DomainContextProvider domainContextProvider;
+
+    @Injectable
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Test
     public void clearPayloadData_empty() {
         new Expectations(partInfoService) {{
@@ -137,6 +150,27 @@ public class PartInfoServiceImplTest {
         };
     }
 
+    @Test
+    public void deletePayloadFiles_afterCommit(@Injectable Domain domain) {
+        final List<String> filenames = asList("payload1", "payload2");
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_PAYLOAD_FILES_ASYNC);
+            result = true;
+
+            domainContextProvider.getCurrentDomainSafely();
+            result = domain;
+        }};
+
+        partInfoService.deletePayloadFiles(filenames);
+
+        new FullVerifications() {{
+            PayloadFilesDeletionEvent event;
+            applicationEventPublisher.publishEvent(event = withCapture());
+            Assert.assertEquals(filenames, event.getFilenames());
+            Assert.assertEquals(domain, event.getDomain());
+        }};
+    }
+
     private PartInfo getPartInfo(String name, String value) {
         return getPartInfo(name, value, null);
     }
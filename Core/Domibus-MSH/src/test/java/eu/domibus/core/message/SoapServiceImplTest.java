@@ -0,0 +1,92 @@
+package eu.domibus.core.message;
+
+import eu.domibus.api.ebms3.model.Ebms3Messaging;
+import eu.domibus.api.ebms3.model.ObjectFactory;
+import eu.domibus.core.util.DomibusDateFormatter;
+import eu.domibus.core.util.DomibusDateFormatterTest;
+import eu.domibus.core.util.MessageUtil;
+import eu.domibus.core.util.xml.XMLUtilImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that the Messaging header read from the SOAP stream is the same as the one read from the DOM of the whole SOAP envelope
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+public class SoapServiceImplTest {
+
+    private static final String[] INCOMING_MESSAGES = {
+            "RawXMLMessageWithSpaces.xml",
+            "RawXMLMessageWithSpacesAndPkiPath.xml",
+            "bst_X509PKIPathv1_incoming_message.xml",
+            "bst_x509v3_incoming_message.xml",
+            "is_incoming_message.xml",
+            "ski_incoming_message.xml"
+    };
+
+    private SoapServiceImpl soapService;
+
+    private MessageUtil messageUtil;
+
+    @Before
+    public void setUp() {
+        final XMLUtilImpl xmlUtil = new XMLUtilImpl(null);
+        messageUtil = new MessageUtil(null, null, new DomibusDateFormatter(DateTimeFormatter.ofPattern(DomibusDateFormatterTest.DEFAULT_PATTERN)), null, xmlUtil, null);
+        soapService = new SoapServiceImpl();
+        soapService.xmlUtil = xmlUtil;
+        soapService.messageUtil = messageUtil;
+    }
+
+    @Test
+    public void readMessagingNode_sameMessagingAsTheWholeEnvelope() throws Exception {
+        for (String incomingMessage : INCOMING_MESSAGES) {
+            final Ebms3Messaging expected = messageUtil.getMessagingWithDom(getMessagingNodeFromDocument(incomingMessage));
+            final Ebms3Messaging actual = messageUtil.getMessagingWithDom(getMessagingNodeFromStream(incomingMessage));
+
+            assertNotNull(incomingMessage, actual.getUserMessage());
+            assertEquals(incomingMessage, expected.getUserMessage(), actual.getUserMessage());
+            assertEquals(incomingMessage, expected.getSignalMessage(), actual.getSignalMessage());
+            assertEquals(incomingMessage, expected.getOtherAttributes(), actual.getOtherAttributes());
+        }
+    }
+
+    @Test
+    public void readMessagingNode_noMessaging() throws Exception {
+        final String envelope = "<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\"><env:Header/><env:Body/></env:Envelope>";
+        final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(envelope));
+
+        assertNull(soapService.readMessagingNode(reader));
+    }
+
+    private Node getMessagingNodeFromDocument(String incomingMessage) throws Exception {
+        try (InputStream inputStream = getIncomingMessage(incomingMessage)) {
+            final Document document = soapService.xmlUtil.getDocumentBuilderFactoryNamespaceAware().newDocumentBuilder().parse(inputStream);
+            return document.getElementsByTagNameNS(ObjectFactory._Messaging_QNAME.getNamespaceURI(), ObjectFactory._Messaging_QNAME.getLocalPart()).item(0);
+        }
+    }
+
+    private Node getMessagingNodeFromStream(String incomingMessage) throws Exception {
+        try (InputStream inputStream = getIncomingMessage(incomingMessage)) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+            final Node messagingNode = soapService.readMessagingNode(reader);
+            assertEquals(ObjectFactory._Messaging_QNAME.getLocalPart(), reader.getLocalName());
+            return messagingNode;
+        }
+    }
+
+    private InputStream getIncomingMessage(String incomingMessage) {
+        return getClass().getClassLoader().getResourceAsStream("dataset/as4/" + incomingMessage);
+    }
+}
@@ -520,6 +520,73 @@ public class UserMessageDefaultServiceTest {
         }};
     }
 
+    @Test
+    public void deleteMessagesByEntityIds(@Injectable UserMessage userMessage,
+                                          @Injectable UserMessageLog userMessageLog,
+                                          @Injectable MSHRoleEntity mshRoleEntity) {
+        final String messageId = "1";
+
+        new Expectations() {{
+            userMessageLogDao.findByEntityIdSafely(1L);
+            result = userMessageLog;
+
+            userMessageLogDao.findByEntityIdSafely(2L);
+            result = null;
+
+            userMessageLog.getUserMessage();
+            result = userMessage;
+
+            userMessage.getMessageId();
+            result = messageId;
+
+            userMessage.getMshRole();
+            result = mshRoleEntity;
+
+            mshRoleEntity.getRole();
+            result = MSHRole.RECEIVING;
+
+            signalMessageDao.findByUserMessageIdWithUserMessage(messageId, MSHRole.RECEIVING);
+            result = null;
+
+            userMessageLog.getMessageStatus();
+            result = MessageStatus.DOWNLOADED;
+        }};
+
+        userMessageDefaultService.deleteMessagesByEntityIds(Arrays.asList(1L, 2L));
+
+        new Verifications() {{
+            backendNotificationService.notifyMessageDeleted(userMessage, userMessageLog);
+            times = 1;
+
+            userMessageLogService.setMessageAsDeleted(userMessage, userMessageLog);
+            times = 1;
+
+            userMessageLogService.setSignalMessageAsDeleted((SignalMessage) null);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void deleteMessagesByEntityIds_failedDeletionDoesNotStopTheOthers() {
+        new Expectations() {{
+            userMessageLogDao.findByEntityIdSafely(1L);
+            result = new RuntimeException("database error");
+
+            userMessageLogDao.findByEntityIdSafely(2L);
+            result = null;
+        }};
+
+        userMessageDefaultService.deleteMessagesByEntityIds(Arrays.asList(1L, 2L));
+
+        new Verifications() {{
+            userMessageLogDao.findByEntityIdSafely(2L);
+            times = 1;
+
+            backendNotificationService.notifyMessageDeleted((UserMessage) any, (UserMessageLog) any);
+            times = 0;
+        }};
+    }
+
     @Test
     public void test_sendEnqueued(final @Injectable UserMessageLog userMessageLog,
                                   final @Injectable UserMessage userMessage) {
@@ -1,12 +1,24 @@
 package eu.domibus.core.message;
 
+import eu.domibus.api.model.MessageStatus;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
 import org.apache.commons.lang3.tuple.Pair;
 import org.hamcrest.core.Is;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -15,6 +27,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
  * @author François Gautier
  * @since 5.0
  */
+@RunWith(JMockit.class)
 public class UserMessageLogDaoTest {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(UserMessageLogDao.class);
@@ -37,6 +50,44 @@ public class UserMessageLogDaoTest {
         assertThat(result.get(1).getRight(), Is.is(1499L));
     }
 
+    @Test
+    public void countMessagesNotArchivedOnPartition_mysql(@Mocked EntityManager em, @Mocked Query query, @Injectable MessageStatusDao messageStatusDao) {
+        // MySQL returns COUNT(*) as a BigInteger
+        new Expectations() {{
+            query.getSingleResult();
+            result = BigInteger.valueOf(3);
+        }};
+
+        assertThat(getUserMessageLogDao(em, messageStatusDao).countMessagesNotArchivedOnPartition("P23070200"), Is.is(3));
+    }
+
+    @Test
+    public void countMessagesOnPartitionWithStatusNotInList_mysql(@Mocked EntityManager em, @Mocked Query query, @Injectable MessageStatusDao messageStatusDao) {
+        new Expectations() {{
+            query.getSingleResult();
+            result = BigInteger.ZERO;
+        }};
+
+        assertThat(getUserMessageLogDao(em, messageStatusDao).countMessagesOnPartitionWithStatusNotInList(Collections.singletonList(MessageStatus.DELETED), "P23070200"), Is.is(0));
+    }
+
+    @Test
+    public void countMessagesOnPartitionWithStatusNotInList_oracle(@Mocked EntityManager em, @Mocked Query query, @Injectable MessageStatusDao messageStatusDao) {
+        // Oracle returns COUNT(*) as a BigDecimal
+        new Expectations() {{
+            query.getSingleResult();
+            result = BigDecimal.valueOf(5);
+        }};
+
+        assertThat(getUserMessageLogDao(em, messageStatusDao).countMessagesOnPartitionWithStatusNotInList(Collections.singletonList(MessageStatus.DELETED), "SYS_P15"), Is.is(5));
+    }
+
+    private UserMessageLogDao getUserMessageLogDao(EntityManager em, MessageStatusDao messageStatusDao) {
+        UserMessageLogDao userMessageLogDao = new UserMessageLogDao(null, null, messageStatusDao, null, null, null, null);
+        ReflectionTestUtils.setField(userMessageLogDao, "em", em);
+        return userMessageLogDao;
+    }
+
     private List<Long> getResultList() {
         List<Long> result = new ArrayList<>();
         for (int i = 0; i < 1500; i++) {
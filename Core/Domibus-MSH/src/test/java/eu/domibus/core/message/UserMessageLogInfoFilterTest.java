@@ -13,6 +13,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -158,4 +159,59 @@ public class UserMessageLogInfoFilterTest {
         Assert.assertTrue(result.contains("message.service IN :serviceType"));
         Assert.assertTrue(result.contains("message.service IN :serviceValue"));
     }
+
+    @Test
+    public void getKeysetMessageLogQuery_firstPage() {
+        String result = userMessageLogInfoFilter.getKeysetMessageLogQuery(null, "received", true,
+                ImmutableMap.of("messageId", "111"), Collections.emptyList());
+
+        Assert.assertTrue(result.contains("message.messageId = :messageId"));
+        Assert.assertFalse(result.contains(MessageLogInfoFilter.KEYSET_LAST_ENTITY_ID));
+        Assert.assertTrue(result.endsWith(" order by case when log.received is null then 0 else 1 end asc, log.received asc, log.entityId asc"));
+    }
+
+    @Test
+    public void getKeysetMessageLogQuery_afterLastRow() {
+        MessageLogInfo last = new MessageLogInfo();
+        last.setEntityId(5L);
+        last.setReceived(new Date());
+
+        String result = userMessageLogInfoFilter.getKeysetMessageLogQuery(last, "received", false,
+                ImmutableMap.of("messageId", "111"), Collections.emptyList());
+
+        Assert.assertTrue(result.contains("message.messageId = :messageId and (log.received is null or log.received < :keysetLastValue " +
+                "or (log.received = :keysetLastValue and log.entityId > :keysetLastEntityId))"));
+        Assert.assertTrue(result.endsWith(" order by case when log.received is null then 0 else 1 end desc, log.received desc, log.entityId asc"));
+    }
+
+    @Test
+    public void getKeysetMessageLogQuery_afterLastRowWithNullValue() {
+        MessageLogInfo last = new MessageLogInfo();
+        last.setEntityId(5L);
+
+        String result = userMessageLogInfoFilter.getKeysetMessageLogQuery(last, "deleted", true,
+                ImmutableMap.of("messageId", "111"), Collections.emptyList());
+
+        Assert.assertTrue(result.contains("((log.deleted is null and log.entityId > :keysetLastEntityId) or log.deleted is not null)"));
+        Assert.assertFalse(result.contains(MessageLogInfoFilter.KEYSET_LAST_VALUE));
+    }
+
+    @Test
+    public void getKeysetMessageLogQuery_dictionaryColumn() {
+        String result = userMessageLogInfoFilter.getKeysetMessageLogQuery(null, "messageStatus", true,
+                ImmutableMap.of("messageId", "111"), Collections.emptyList());
+
+        Assert.assertTrue(result.endsWith(" order by case when log.messageStatus.entityId is null then 0 else 1 end asc, log.messageStatus.entityId asc, log.entityId asc"));
+    }
+
+    @Test
+    public void getKeysetMessageLogQuery_unsupportedColumnOrderedByEntityId() {
+        MessageLogInfo last = new MessageLogInfo();
+        last.setEntityId(5L);
+
+        String result = userMessageLogInfoFilter.getKeysetMessageLogQuery(last, "originalSender", true,
+                ImmutableMap.of("messageId", "111"), Collections.emptyList());
+
+        Assert.assertTrue(result.endsWith("message.messageId = :messageId and log.entityId > :keysetLastEntityId order by log.entityId asc"));
+    }
 }
@@ -0,0 +1,113 @@
+package eu.domibus.core.message.dictionary;
+
+import eu.domibus.api.cache.CacheConstants;
+import eu.domibus.api.model.ActionEntity;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class ActionDictionaryServiceTest {
+
+    private static final String ACTION = "TC1Leg1";
+
+    @Tested
+    private ActionDictionaryService actionDictionaryService;
+
+    @Injectable
+    private ActionDao actionDao;
+
+    @Injectable
+    private CacheManager cacheManager;
+
+    @Injectable
+    private DomainContextProvider domainContextProvider;
+
+    private ConcurrentMapCache cache;
+
+    private ActionEntity actionEntity;
+
+    @Before
+    public void setUp() {
+        cache = new ConcurrentMapCache(CacheConstants.DICTIONARY_ENTITY_IDS);
+        actionEntity = new ActionEntity();
+        actionEntity.setEntityId(5L);
+        actionEntity.setValue(ACTION);
+    }
+
+    @Test
+    public void findOrCreateAction_readsCachedEntityById() {
+        new Expectations() {{
+            cacheManager.getCache(CacheConstants.DICTIONARY_ENTITY_IDS);
+            result = cache;
+
+            domainContextProvider.getCurrentDomainSafely();
+            result = new Domain("default", "Default");
+
+            actionDao.findByValue(ACTION);
+            result = actionEntity;
+
+            actionDao.read(5L);
+            result = actionEntity;
+        }};
+
+        assertSame(actionEntity, actionDictionaryService.findOrCreateAction(ACTION));
+        assertSame(actionEntity, actionDictionaryService.findOrCreateAction(ACTION));
+
+        new Verifications() {{
+            actionDao.findByValue(ACTION);
+            times = 1;
+            actionDao.read(5L);
+            times = 1;
+            actionDao.findOrCreateAction(anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void findOrCreateAction_cachedEntityNoLongerExists() {
+        new Expectations() {{
+            cacheManager.getCache(CacheConstants.DICTIONARY_ENTITY_IDS);
+            result = cache;
+
+            domainContextProvider.getCurrentDomainSafely();
+            result = new Domain("default", "Default");
+
+            actionDao.read(5L);
+            result = null;
+
+            actionDao.findByValue(ACTION);
+            result = actionEntity;
+        }};
+        cache.put("default:ActionEntity value=[" + ACTION + "]", 5L);
+
+        assertSame(actionEntity, actionDictionaryService.findOrCreateAction(ACTION));
+
+        assertEquals(5L, cache.get("default:ActionEntity value=[" + ACTION + "]").get());
+    }
+
+    @Test
+    public void getCacheKey_perDomain() {
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            returns(new Domain("domain1", "Domain1"), new Domain("domain2", "Domain2"));
+        }};
+
+        assertNotEquals(actionDictionaryService.getCacheKey("ActionEntity value=[a]"), actionDictionaryService.getCacheKey("ActionEntity value=[a]"));
+    }
+}
@@ -4,6 +4,7 @@ import eu.domibus.api.messaging.MessageNotFoundException;
 import eu.domibus.api.model.MSHRole;
 import eu.domibus.api.model.RawEnvelopeDto;
 import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.model.UserMessageRaw;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.core.audit.AuditService;
 import eu.domibus.core.audit.envers.ModificationType;
@@ -12,12 +13,20 @@ import eu.domibus.core.message.signal.SignalMessageDao;
 import eu.domibus.core.util.SoapUtil;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import javax.xml.soap.SOAPMessage;
+import javax.xml.transform.TransformerException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_NONREPUDIATION_AUDIT_ACTIVE;
 import static org.junit.Assert.*;
 
 /**
@@ -154,20 +163,93 @@ public class NonRepudiationDefaultServiceTest {
     }
 
     @Test
-    public void getMessageEnvelopes() {
+    public void getMessageEnvelopes() throws IOException {
         String userMessageId = "msgid", userMessageEnvelope = "userMessageEnvelope", signalEnvelope = "signalEnvelope";
         new Expectations(nonRepudiationService) {{
-            nonRepudiationService.getUserMessageEnvelope(userMessageId, MSHRole.SENDING);
-            result = userMessageEnvelope;
+            nonRepudiationService.getUserMessageEnvelopeDto(userMessageId, MSHRole.SENDING);
+            result = new RawEnvelopeDto(1L, compress(userMessageEnvelope), true);
 
-            nonRepudiationService.getSignalMessageEnvelope(userMessageId, MSHRole.SENDING);
-            result = signalEnvelope;
+            nonRepudiationService.getSignalMessageEnvelopeDto(userMessageId, MSHRole.SENDING);
+            result = new RawEnvelopeDto(2L, signalEnvelope.getBytes(StandardCharsets.UTF_8), false);
         }};
 
         Map<String, InputStream> result = nonRepudiationService.getMessageEnvelopes(userMessageId, MSHRole.SENDING);
 
-        assertNotNull(result.get("user_message_envelope.xml"));
-        assertNotNull(result.get("signal_message_envelope.xml"));
+        assertEquals(userMessageEnvelope, IOUtils.toString(result.get("user_message_envelope.xml"), StandardCharsets.UTF_8));
+        assertEquals(signalEnvelope, IOUtils.toString(result.get("signal_message_envelope.xml"), StandardCharsets.UTF_8));
         assertEquals(2, result.size());
     }
+
+    @Test
+    public void saveRequest(@Injectable SOAPMessage request, @Injectable UserMessage userMessage) throws TransformerException, IOException {
+        final byte[] compressedRawXml = compress("rawXml");
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_NONREPUDIATION_AUDIT_ACTIVE);
+            result = true;
+
+            soapUtil.getCompressedRawXMLMessage(request);
+            result = compressedRawXml;
+        }};
+
+        nonRepudiationService.saveRequest(request, userMessage);
+
+        new Verifications() {{
+            UserMessageRaw userMessageRaw;
+            rawEnvelopeLogDao.create(userMessageRaw = withCapture());
+            assertTrue(userMessageRaw.getCompressed());
+            assertEquals("rawXml", new String(userMessageRaw.getRawXML(), StandardCharsets.UTF_8));
+
+            soapUtil.getRawXMLMessage((SOAPMessage) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void saveRawEnvelope(@Injectable UserMessage userMessage) throws IOException {
+        final byte[] compressedRawXml = compress("rawXml");
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_NONREPUDIATION_AUDIT_ACTIVE);
+            result = true;
+        }};
+
+        nonRepudiationService.saveRawEnvelope(compressedRawXml, userMessage);
+
+        new Verifications() {{
+            UserMessageRaw userMessageRaw;
+            rawEnvelopeLogDao.create(userMessageRaw = withCapture());
+            assertTrue(userMessageRaw.getCompressed());
+            assertEquals("rawXml", new String(userMessageRaw.getRawXML(), StandardCharsets.UTF_8));
+        }};
+    }
+
+    @Test
+    public void saveResponse(@Injectable SOAPMessage response) throws TransformerException, IOException {
+        final byte[] compressedRawXml = compress("rawXml");
+        final Long signalMessageEntityId = 10L;
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_NONREPUDIATION_AUDIT_ACTIVE);
+            result = true;
+
+            soapUtil.getCompressedRawXMLMessage(response);
+            result = compressedRawXml;
+        }};
+
+        nonRepudiationService.saveResponse(response, signalMessageEntityId);
+
+        new Verifications() {{
+            signalMessageRawService.saveCompressedSignalMessageRaw(compressedRawXml, signalMessageEntityId);
+            times = 1;
+
+            soapUtil.getRawXMLMessage((SOAPMessage) any);
+            times = 0;
+        }};
+    }
+
+    private byte[] compress(String content) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream zipStream = new GZIPOutputStream(byteStream)) {
+            zipStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return byteStream.toByteArray();
+    }
 }
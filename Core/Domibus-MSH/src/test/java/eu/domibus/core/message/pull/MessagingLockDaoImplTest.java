@@ -14,7 +14,10 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -170,6 +173,120 @@ public class MessagingLockDaoImplTest {
         assertNull(nextPullMessageToProcess);
     }
 
+    @Test
+    public void getNextPullMessagesToProcess(@Mocked final Query query, @Mocked final MessagingLock firstLock, @Mocked final MessagingLock expiredLock) {
+        final String mpc = "mpc", initiator = "domibus-red";
+        final Date future = new Date(System.currentTimeMillis() + 20000);
+        new Expectations() {{
+            domibusConfigurationService.getDataBaseEngine();
+            result = DataBaseEngine.MYSQL;
+
+            entityManager.createNamedQuery("MessagingLock.lockBatchQuerySkipBlocked_MySQL", MessagingLock.class);
+            result = query;
+
+            query.getResultList();
+            result = Arrays.asList(firstLock, expiredLock);
+
+            firstLock.getMessageId();
+            result = "firstMessageId";
+            firstLock.getSendAttempts();
+            result = 0;
+            firstLock.getSendAttemptsMax();
+            result = 5;
+            firstLock.getStaled();
+            result = future;
+
+            expiredLock.getMessageId();
+            result = "expiredMessageId";
+            expiredLock.getSendAttempts();
+            result = 5;
+            expiredLock.getSendAttemptsMax();
+            result = 5;
+            expiredLock.getStaled();
+            result = future;
+        }};
+
+        final List<PullMessageId> pullMessageIds = messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+
+        assertEquals(2, pullMessageIds.size());
+        assertEquals("firstMessageId", pullMessageIds.get(0).getMessageId());
+        assertEquals(PullMessageState.FIRST_ATTEMPT, pullMessageIds.get(0).getState());
+        assertEquals("expiredMessageId", pullMessageIds.get(1).getMessageId());
+        assertEquals(PullMessageState.EXPIRED, pullMessageIds.get(1).getState());
+        new Verifications() {{
+            query.setParameter("BATCH_SIZE", 10);
+            firstLock.setMessageState(MessageState.RESERVED);
+            expiredLock.setMessageState(MessageState.DEL);
+        }};
+    }
+
+    @Test
+    public void markReservedPullMessageServed(@Mocked final Query query) {
+        new Expectations() {{
+            entityManager.createNamedQuery("MessagingLock.markReservedServed");
+            result = query;
+
+            query.executeUpdate();
+            returns(1, 0);
+        }};
+
+        assertTrue(messagingLockDao.markReservedPullMessageServed("messageId"));
+        assertFalse("The message is not reserved anymore", messagingLockDao.markReservedPullMessageServed("messageId"));
+
+        new Verifications() {{
+            query.setParameter("MESSAGE_ID", "messageId");
+            times = 2;
+        }};
+    }
+
+    @Test
+    public void releaseReservedPullMessages(@Mocked final Query query) {
+        final List<String> messageIds = Arrays.asList("messageId1", "messageId2");
+        final Date reservedBefore = new Date();
+        new Expectations() {{
+            entityManager.createNamedQuery("MessagingLock.releaseReserved");
+            result = query;
+
+            query.executeUpdate();
+            result = 2;
+        }};
+
+        assertEquals(2, messagingLockDao.releaseReservedPullMessages(messageIds, reservedBefore));
+
+        new Verifications() {{
+            query.setParameter("MESSAGE_IDS", messageIds);
+            query.setParameter("RESERVED_BEFORE", reservedBefore);
+        }};
+    }
+
+    @Test
+    public void resetStaleReservations(@Mocked final Query query) {
+        final Date reservedBefore = new Date();
+        new Expectations() {{
+            entityManager.createNamedQuery("MessagingLock.resetStaleReservations");
+            result = query;
+
+            query.executeUpdate();
+            result = 3;
+        }};
+
+        assertEquals(3, messagingLockDao.resetStaleReservations(reservedBefore));
+
+        new Verifications() {{
+            query.setParameter("RESERVED_BEFORE", reservedBefore);
+        }};
+    }
+
+    @Test
+    public void releaseReservedPullMessages_empty() {
+        assertEquals(0, messagingLockDao.releaseReservedPullMessages(Collections.emptyList(), new Date()));
+
+        new Verifications() {{
+            entityManager.createNamedQuery(anyString);
+            times = 0;
+        }};
+    }
+
     @Test
     public void delete(@Mocked final Query query) {
         final String messageId = "messageId";
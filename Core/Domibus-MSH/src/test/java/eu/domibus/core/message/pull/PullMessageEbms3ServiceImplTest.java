@@ -53,6 +53,9 @@ public class PullMessageEbms3ServiceImplTest {
     @Injectable
     private MessagingLockDao messagingLockDao;
 
+    @Injectable
+    private PullMessageReservationService pullMessageReservationService;
+
     @Injectable
     private PModeProvider pModeProvider;
 
@@ -0,0 +1,258 @@
+package eu.domibus.core.message.pull;
+
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LOCK_BATCH_LEASE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PULL_LOCK_BATCH_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class PullMessageReservationServiceTest {
+
+    @Tested
+    PullMessageReservationService pullMessageReservationService;
+
+    @Injectable
+    MessagingLockDao messagingLockDao;
+
+    @Injectable
+    PullMessageStateService pullMessageStateService;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    private final String initiator = "domibus-red";
+
+    private final String mpc = "mpc";
+
+    @Test
+    public void isBatchedLockActive() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            returns(1, 10);
+        }};
+
+        assertFalse(pullMessageReservationService.isBatchedLockActive());
+        assertTrue(pullMessageReservationService.isBatchedLockActive());
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_servedFromReservation() {
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            result = new Domain("default", "Default");
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+
+            messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+            result = Arrays.asList(new PullMessageId("messageId1"), new PullMessageId("messageId2", PullMessageState.RETRY));
+            times = 1;
+
+            messagingLockDao.markReservedPullMessageServed(anyString);
+            result = true;
+        }};
+
+        assertEquals("messageId1", pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc).getMessageId());
+        final PullMessageId second = pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc);
+        assertEquals("messageId2", second.getMessageId());
+        assertEquals(PullMessageState.RETRY, second.getState());
+        assertTrue("The emptied reservation is removed", pullMessageReservationService.reservations.isEmpty());
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_expiredMessagesAreNotReserved() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+
+            messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+            result = Arrays.asList(new PullMessageId("expiredMessageId", PullMessageState.EXPIRED, "expired"), new PullMessageId("messageId1"));
+
+            messagingLockDao.markReservedPullMessageServed("messageId1");
+            result = true;
+        }};
+
+        assertEquals("messageId1", pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc).getMessageId());
+
+        new Verifications() {{
+            pullMessageStateService.expirePullMessage("expiredMessageId");
+        }};
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_resetReservationNotServed() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+
+            messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+            result = Arrays.asList(new PullMessageId("resetMessageId"), new PullMessageId("messageId1"));
+            times = 1;
+
+            messagingLockDao.markReservedPullMessageServed("resetMessageId");
+            result = false;
+
+            messagingLockDao.markReservedPullMessageServed("messageId1");
+            result = true;
+        }};
+
+        assertEquals("messageId1", pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc).getMessageId());
+        assertTrue(pullMessageReservationService.reservations.isEmpty());
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_noMessage() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+
+            messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+            result = Collections.emptyList();
+        }};
+
+        assertNull(pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc));
+    }
+
+    @Test
+    public void getNextPullMessageToProcess_expiredLeaseIsReleased() {
+        final PullMessageReservationService.Reservation reservation = new PullMessageReservationService.Reservation(null);
+        reservation.messages.add(new PullMessageId("reservedMessageId"));
+        reservation.expiration = System.currentTimeMillis() - 1000;
+        pullMessageReservationService.reservations.put(pullMessageReservationService.getReservationKey(initiator, mpc), reservation);
+
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+
+            messagingLockDao.getNextPullMessagesToProcess(initiator, mpc, 10);
+            result = Collections.singletonList(new PullMessageId("newMessageId"));
+
+            messagingLockDao.markReservedPullMessageServed("newMessageId");
+            result = true;
+        }};
+
+        assertEquals("newMessageId", pullMessageReservationService.getNextPullMessageToProcess(initiator, mpc).getMessageId());
+
+        new Verifications() {{
+            messagingLockDao.releaseReservedPullMessages(Collections.singletonList("reservedMessageId"), (Date) any);
+        }};
+    }
+
+    @Test
+    public void releaseExpiredReservations() {
+        final PullMessageReservationService.Reservation expired = new PullMessageReservationService.Reservation(null);
+        expired.messages.add(new PullMessageId("expiredLeaseMessageId"));
+        expired.expiration = System.currentTimeMillis() - 1000;
+        final PullMessageReservationService.Reservation active = new PullMessageReservationService.Reservation(null);
+        active.messages.add(new PullMessageId("activeLeaseMessageId"));
+        active.expiration = System.currentTimeMillis() + 60000;
+        pullMessageReservationService.reservations.put(pullMessageReservationService.getReservationKey(initiator, "mpc1"), expired);
+        pullMessageReservationService.reservations.put(pullMessageReservationService.getReservationKey(initiator, "mpc2"), active);
+
+        pullMessageReservationService.releaseExpiredReservations();
+
+        assertTrue(expired.messages.isEmpty());
+        assertTrue(expired.removed);
+        assertEquals(1, active.messages.size());
+        assertEquals(1, pullMessageReservationService.reservations.size());
+        new Verifications() {{
+            List<String> messageIds;
+            messagingLockDao.releaseReservedPullMessages(messageIds = withCapture(), (Date) any);
+            times = 1;
+            assertEquals(Collections.singletonList("expiredLeaseMessageId"), messageIds);
+        }};
+    }
+
+    @Test
+    public void resetStaleReservations() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 10;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_LEASE);
+            result = 10;
+        }};
+        final long before = System.currentTimeMillis();
+
+        pullMessageReservationService.resetStaleReservations();
+
+        new Verifications() {{
+            Date reservedBefore;
+            messagingLockDao.resetStaleReservations(reservedBefore = withCapture());
+            times = 1;
+            assertTrue(reservedBefore.getTime() <= before - 20000 + 1000);
+            assertTrue(reservedBefore.getTime() >= before - 20000);
+        }};
+    }
+
+    @Test
+    public void resetStaleReservations_batchedLockInactive() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PULL_LOCK_BATCH_SIZE);
+            result = 1;
+        }};
+
+        pullMessageReservationService.resetStaleReservations();
+
+        new Verifications() {{
+            messagingLockDao.resetStaleReservations((Date) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void releaseReservations(@Injectable Domain domain) {
+        final PullMessageReservationService.Reservation reservation = new PullMessageReservationService.Reservation(domain);
+        reservation.messages.add(new PullMessageId("reservedMessageId"));
+        reservation.expiration = System.currentTimeMillis() + 60000;
+        pullMessageReservationService.reservations.put("default|" + initiator + "|" + mpc, reservation);
+
+        pullMessageReservationService.releaseReservations();
+
+        assertTrue(pullMessageReservationService.reservations.isEmpty());
+        assertTrue(reservation.messages.isEmpty());
+        new Verifications() {{
+            domainContextProvider.setCurrentDomain(domain);
+            messagingLockDao.releaseReservedPullMessages(Collections.singletonList("reservedMessageId"), (Date) any);
+            times = 1;
+            domainContextProvider.clearCurrentDomain();
+        }};
+    }
+}
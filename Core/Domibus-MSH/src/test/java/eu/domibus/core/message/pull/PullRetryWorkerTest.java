@@ -32,6 +32,9 @@ public class PullRetryWorkerTest {
     @Injectable
     private AuthUtils authUtils;
 
+    @Injectable
+    private PullMessageReservationService pullMessageReservationService;
+
     @Injectable
     private DomainService domainService;
 
@@ -50,6 +53,8 @@ public class PullRetryWorkerTest {
         new FullVerifications() {{
             retryService.bulkExpirePullMessages();
             retryService.resetWaitingForReceiptPullMessages();
+            pullMessageReservationService.releaseExpiredReservations();
+            pullMessageReservationService.resetStaleReservations();
             retryService.bulkDeletePullMessages();
         }};
     }
@@ -0,0 +1,235 @@
+package eu.domibus.core.message.reliability;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.cluster.SignalService;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.multitenancy.DomainContextProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class PartyCircuitBreakerTest {
+
+    private static final String PARTY_NAME = "red_gw";
+
+    private static final String ERROR = "ERROR";
+
+    @Tested
+    PartyCircuitBreaker partyCircuitBreaker;
+
+    @Injectable
+    PartyStatusDao partyStatusDao;
+
+    @Injectable
+    SignalService signalService;
+
+    @Injectable
+    DomainContextProvider domainContextProvider;
+
+    @Injectable
+    MetricRegistry metricRegistry;
+
+    @Test
+    public void isReachable_statusLoadedOnce() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = getPartyStatus(ERROR);
+        }};
+
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+
+        new Verifications() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void isReachable_noStatus() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = null;
+        }};
+
+        assertTrue(partyCircuitBreaker.isReachable(PARTY_NAME));
+        assertTrue(partyCircuitBreaker.isReachable(PARTY_NAME));
+
+        new Verifications() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void recordStatus_changeSignaledAndSaved() {
+        final PartyStatusEntity partyStatus = getPartyStatus(ReliabilityServiceImpl.SUCCESS);
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = partyStatus;
+        }};
+
+        partyCircuitBreaker.recordStatus(PARTY_NAME, ERROR);
+
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+        assertEquals(1, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.OPEN));
+        assertEquals(ERROR, partyStatus.getConnectivityStatus());
+        new Verifications() {{
+            signalService.signalPartyStatusChange(PARTY_NAME, ERROR);
+            times = 1;
+
+            partyStatusDao.update(partyStatus);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void recordStatus_sameStatusNotSignaled() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = getPartyStatus(ReliabilityServiceImpl.SUCCESS);
+        }};
+
+        partyCircuitBreaker.recordStatus(PARTY_NAME, ReliabilityServiceImpl.SUCCESS);
+
+        assertTrue(partyCircuitBreaker.isReachable(PARTY_NAME));
+        new Verifications() {{
+            signalService.signalPartyStatusChange(anyString, anyString);
+            times = 0;
+
+            partyStatusDao.update((PartyStatusEntity) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void probeSubmitted_failedProbeOpensTheCircuitAgain() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = getPartyStatus(ERROR);
+        }};
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+
+        partyCircuitBreaker.probeSubmitted(PARTY_NAME);
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+        assertEquals(1, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.HALF_OPEN));
+
+        partyCircuitBreaker.recordStatus(PARTY_NAME, ERROR);
+        assertEquals(0, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.HALF_OPEN));
+        assertEquals(1, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.OPEN));
+
+        new Verifications() {{
+            signalService.signalPartyStatusChange(anyString, anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void probeSubmitted_successfulProbeClosesTheCircuit() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = getPartyStatus(ERROR);
+        }};
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+
+        partyCircuitBreaker.probeSubmitted(PARTY_NAME);
+        partyCircuitBreaker.recordStatus(PARTY_NAME, ReliabilityServiceImpl.SUCCESS);
+
+        assertTrue(partyCircuitBreaker.isReachable(PARTY_NAME));
+        new Verifications() {{
+            signalService.signalPartyStatusChange(PARTY_NAME, ReliabilityServiceImpl.SUCCESS);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void probeSubmitted_closedCircuitNotChanged() {
+        partyCircuitBreaker.probeSubmitted(PARTY_NAME);
+
+        assertEquals(0, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.HALF_OPEN));
+    }
+
+    @Test
+    public void statusChanged_notSignaledAgain() {
+        partyCircuitBreaker.statusChanged(PARTY_NAME, ERROR);
+
+        assertFalse(partyCircuitBreaker.isReachable(PARTY_NAME));
+        new Verifications() {{
+            partyStatusDao.findByName(anyString);
+            times = 0;
+
+            signalService.signalPartyStatusChange(anyString, anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void onDomainRemoved_circuitsOfTheDomainDropped() {
+        final Domain domain = new Domain("domain1", "domain1");
+        final Domain otherDomain = new Domain("domain2", "domain2");
+        new Expectations() {{
+            domainContextProvider.getCurrentDomainSafely();
+            returns(domain, otherDomain);
+        }};
+        partyCircuitBreaker.statusChanged(PARTY_NAME, ERROR);
+        partyCircuitBreaker.statusChanged(PARTY_NAME, ERROR);
+        assertEquals(2, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.OPEN));
+
+        partyCircuitBreaker.onDomainRemoved(domain);
+
+        assertEquals(1, partyCircuitBreaker.countCircuits(PartyCircuitBreaker.State.OPEN));
+        assertTrue(partyCircuitBreaker.circuits.containsKey("domain2:" + PARTY_NAME));
+    }
+
+    @Test
+    public void persistStatus_created() {
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = null;
+        }};
+
+        partyCircuitBreaker.persistStatus(PARTY_NAME, ERROR);
+
+        new Verifications() {{
+            PartyStatusEntity partyStatus;
+            partyStatusDao.create(partyStatus = withCapture());
+            assertEquals(PARTY_NAME, partyStatus.getPartyName());
+            assertEquals(ERROR, partyStatus.getConnectivityStatus());
+        }};
+    }
+
+    @Test
+    public void persistStatus_updated() {
+        final PartyStatusEntity partyStatus = getPartyStatus(ReliabilityServiceImpl.SUCCESS);
+        new Expectations() {{
+            partyStatusDao.findByName(PARTY_NAME);
+            result = partyStatus;
+        }};
+
+        partyCircuitBreaker.persistStatus(PARTY_NAME, ERROR);
+
+        assertEquals(ERROR, partyStatus.getConnectivityStatus());
+        new Verifications() {{
+            partyStatusDao.update(partyStatus);
+            times = 1;
+        }};
+    }
+
+    private PartyStatusEntity getPartyStatus(String connectivityStatus) {
+        PartyStatusEntity partyStatus = new PartyStatusEntity();
+        partyStatus.setPartyName(PARTY_NAME);
+        partyStatus.setConnectivityStatus(connectivityStatus);
+        return partyStatus;
+    }
+}
@@ -0,0 +1,64 @@
+package eu.domibus.core.message.reliability;
+
+import eu.domibus.api.cluster.Command;
+import eu.domibus.api.cluster.CommandProperty;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class PartyStatusChangeCommandTaskTest {
+
+    @Tested
+    private PartyStatusChangeCommandTask partyStatusChangeCommandTask;
+
+    @Injectable
+    protected PartyCircuitBreaker partyCircuitBreaker;
+
+    @Test
+    public void canHandle() {
+        assertTrue(partyStatusChangeCommandTask.canHandle(Command.PARTY_STATUS_CHANGE));
+    }
+
+    @Test
+    public void canHandleWithDifferentCommand() {
+        assertFalse(partyStatusChangeCommandTask.canHandle("anothercommand"));
+    }
+
+    @Test
+    public void execute() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(CommandProperty.PARTY_NAME, "red_gw");
+        properties.put(CommandProperty.CONNECTIVITY_STATUS, "ERROR");
+
+        partyStatusChangeCommandTask.execute(properties);
+
+        new FullVerifications() {{
+            partyCircuitBreaker.statusChanged("red_gw", "ERROR");
+        }};
+    }
+
+    @Test
+    public void execute_missingStatus() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(CommandProperty.PARTY_NAME, "red_gw");
+
+        partyStatusChangeCommandTask.execute(properties);
+
+        new FullVerifications() {{
+        }};
+    }
+}
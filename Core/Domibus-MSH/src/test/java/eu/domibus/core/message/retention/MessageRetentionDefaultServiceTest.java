@@ -0,0 +1,204 @@
+package eu.domibus.core.message.retention;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.jms.JMSManager;
+import eu.domibus.api.jms.JmsMessage;
+import eu.domibus.api.model.UserMessageLogDto;
+import eu.domibus.api.payload.PartInfoService;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.message.UserMessageDefaultService;
+import eu.domibus.core.message.UserMessageLogDao;
+import eu.domibus.core.message.UserMessageLogDefaultService;
+import eu.domibus.core.message.UserMessageServiceHelper;
+import eu.domibus.core.plugin.notification.BackendNotificationService;
+import eu.domibus.core.pmode.provider.PModeProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.jms.Queue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class MessageRetentionDefaultServiceTest {
+
+    private static final String MPC = "defaultMpc";
+
+    @Tested
+    MessageRetentionDefaultService messageRetentionDefaultService;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    PModeProvider pModeProvider;
+
+    @Injectable
+    UserMessageLogDao userMessageLogDao;
+
+    @Injectable
+    JMSManager jmsManager;
+
+    @Injectable
+    Queue retentionMessageQueue;
+
+    @Injectable
+    UserMessageDefaultService userMessageDefaultService;
+
+    @Injectable
+    UserMessageLogDefaultService userMessageLogService;
+
+    @Injectable
+    UserMessageServiceHelper userMessageServiceHelper;
+
+    @Injectable
+    PartInfoService partInfoService;
+
+    @Injectable
+    BackendNotificationService backendNotificationService;
+
+    @Injectable
+    MetricRegistry metricRegistry;
+
+    @Test
+    public void deleteMessages_inBatches() {
+        messageRetentionDefaultService.deleteMessages(createUserMessageLogs(5), 2);
+
+        new Verifications() {{
+            List<List<UserMessageLogDto>> batches = new ArrayList<>();
+            userMessageDefaultService.deleteMessages(withCapture(batches));
+            assertEquals(3, batches.size());
+            assertEquals(Arrays.asList(1L, 2L), getEntityIds(batches.get(0)));
+            assertEquals(Arrays.asList(3L, 4L), getEntityIds(batches.get(1)));
+            assertEquals(Arrays.asList(5L), getEntityIds(batches.get(2)));
+        }};
+    }
+
+    @Test
+    public void scheduleDeleteMessagesByMessageLog_inBatches() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE);
+            result = 2;
+        }};
+
+        messageRetentionDefaultService.scheduleDeleteMessagesByMessageLog(createUserMessageLogs(3));
+
+        new Verifications() {{
+            List<JmsMessage> messages = new ArrayList<>();
+            jmsManager.sendMessageToQueue(withCapture(messages), retentionMessageQueue);
+            assertEquals(2, messages.size());
+            assertEquals(MessageDeleteType.MULTI.name(), messages.get(0).getStringProperty(MessageRetentionDefaultService.DELETE_TYPE));
+            assertEquals("1,2", messages.get(0).getStringProperty(MessageRetentionDefaultService.MESSAGE_ENTITY_IDS));
+            assertEquals("3", messages.get(1).getStringProperty(MessageRetentionDefaultService.MESSAGE_ENTITY_IDS));
+        }};
+    }
+
+    @Test
+    public void scheduleDeleteMessagesByMessageLog_oneByOne() {
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCHEDULE_BATCH_SIZE);
+            result = 0;
+        }};
+
+        messageRetentionDefaultService.scheduleDeleteMessagesByMessageLog(createUserMessageLogs(3));
+
+        new Verifications() {{
+            List<JmsMessage> messages = new ArrayList<>();
+            jmsManager.sendMessageToQueue(withCapture(messages), retentionMessageQueue);
+            assertEquals(3, messages.size());
+            assertEquals(MessageDeleteType.SINGLE.name(), messages.get(0).getStringProperty(MessageRetentionDefaultService.DELETE_TYPE));
+        }};
+    }
+
+    @Test
+    public void scanAndDeleteExpiredMessages_keysetPaged() {
+        final List<UserMessageLogDto> expiredMessages = createUserMessageLogs(5);
+        final List<Long> lastEntityIds = new ArrayList<>();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE);
+            result = 2;
+        }};
+
+        messageRetentionDefaultService.scanAndDeleteExpiredMessages(MPC, 10, false, (maxResults, lastEntityId) -> {
+            lastEntityIds.add(lastEntityId);
+            return expiredMessages.stream()
+                    .filter(userMessageLog -> userMessageLog.getEntityId() > lastEntityId)
+                    .limit(maxResults)
+                    .collect(Collectors.toList());
+        });
+
+        assertEquals(Arrays.asList(0L, 2L, 4L), lastEntityIds);
+        new Verifications() {{
+            List<List<Long>> pages = new ArrayList<>();
+            userMessageDefaultService.clearPayloadData(withCapture(pages));
+            assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L), Arrays.asList(5L)), pages);
+
+            metricRegistry.meter(name(MessageRetentionDefaultService.class, "retention_payloads_deleted", MPC));
+            times = 3;
+        }};
+    }
+
+    @Test
+    public void scanAndDeleteExpiredMessages_stopsAtLimit() {
+        final List<UserMessageLogDto> expiredMessages = createUserMessageLogs(10);
+        final List<Integer> maxResultsRequested = new ArrayList<>();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE);
+            result = 2;
+        }};
+
+        messageRetentionDefaultService.scanAndDeleteExpiredMessages(MPC, 3, false, (maxResults, lastEntityId) -> {
+            maxResultsRequested.add(maxResults);
+            return expiredMessages.stream()
+                    .filter(userMessageLog -> userMessageLog.getEntityId() > lastEntityId)
+                    .limit(maxResults)
+                    .collect(Collectors.toList());
+        });
+
+        assertEquals(Arrays.asList(2, 1), maxResultsRequested);
+    }
+
+    @Test
+    public void scanAndDeleteExpiredMessages_singleQueryWhenPagingDisabled() {
+        final List<Long> lastEntityIds = new ArrayList<>();
+        new Expectations() {{
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_RETENTION_WORKER_MESSAGE_RETENTION_SCAN_PAGE_SIZE);
+            result = 0;
+        }};
+
+        messageRetentionDefaultService.scanAndDeleteExpiredMessages(MPC, 50, false, (maxResults, lastEntityId) -> {
+            lastEntityIds.add(lastEntityId);
+            assertEquals(50, maxResults);
+            return createUserMessageLogs(5);
+        });
+
+        assertEquals(Arrays.asList(0L), lastEntityIds);
+    }
+
+    private List<UserMessageLogDto> createUserMessageLogs(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(entityId -> new UserMessageLogDto(entityId, "messageId" + entityId, "backend"))
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> getEntityIds(List<UserMessageLogDto> userMessageLogs) {
+        return userMessageLogs.stream().map(UserMessageLogDto::getEntityId).collect(Collectors.toList());
+    }
+}
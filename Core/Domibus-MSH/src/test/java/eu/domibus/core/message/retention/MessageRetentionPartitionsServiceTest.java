@@ -3,6 +3,7 @@ package eu.domibus.core.message.retention;
 import eu.domibus.api.model.DatabasePartition;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.multitenancy.DomainService;
+import eu.domibus.api.property.DataBaseEngine;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.DateUtil;
@@ -16,6 +17,7 @@ import eu.domibus.core.pmode.provider.PModeProvider;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.junit.Assert;
 import org.junit.Test;
@@ -23,10 +25,12 @@ import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_EARCHIVE_ACTIVE;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PARTITIONS_CREATION_DAYS_TO_CHECK;
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PARTITIONS_DROP_CHECK_MESSAGES_EARCHIVED;
 import static eu.domibus.core.message.retention.MessageRetentionPartitionsService.DEFAULT_PARTITION;
 import static eu.domibus.core.message.retention.MessageRetentionPartitionsService.PARTITION_NAME_REGEXP;
@@ -202,4 +206,47 @@ public class MessageRetentionPartitionsServiceTest {
         ));
         assertEquals(DB_PARTITION_UNTIL_NOW_PLUS_1H, newestNonDefaultPartition);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createMissingPartitions() {
+        final List<DatabasePartition> partitions = Arrays.asList(DB_PARTITION_DEFAULT, DB_PARTITION_UNTIL_NOW);
+        new Expectations() {{
+            domibusConfigurationService.getDataBaseEngine();
+            result = DataBaseEngine.MYSQL;
+
+            domibusConfigurationService.isMultiTenantAware();
+            result = false;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PARTITIONS_CREATION_DAYS_TO_CHECK);
+            result = 7;
+
+            userMessageDao.findAllPartitions();
+            result = partitions;
+
+            partitionService.getPartitionsToCreate(partitions, (Date) any, 7);
+            result = Collections.singletonMap("P23070300", 230704000000000000L);
+        }};
+
+        messageRetentionPartitionsService.createMissingPartitions();
+
+        new Verifications() {{
+            userMessageDao.createPartition("P23070300", 230704000000000000L);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void createMissingPartitions_notOnOracle() {
+        new Expectations() {{
+            domibusConfigurationService.getDataBaseEngine();
+            result = DataBaseEngine.ORACLE;
+        }};
+
+        messageRetentionPartitionsService.createMissingPartitions();
+
+        new Verifications() {{
+            userMessageDao.createPartition(anyString, anyLong);
+            times = 0;
+        }};
+    }
+}
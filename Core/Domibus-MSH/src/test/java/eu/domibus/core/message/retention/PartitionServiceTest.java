@@ -0,0 +1,54 @@
+package eu.domibus.core.message.retention;
+
+import eu.domibus.api.model.DatabasePartition;
+import eu.domibus.core.util.DateUtilImpl;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class PartitionServiceTest {
+
+    private static final Date NOW = Date.from(ZonedDateTime.parse("2023-07-02T09:15:00Z").toInstant());
+
+    private final PartitionService partitionService = new PartitionService(new DateUtilImpl());
+
+    @Test
+    public void getPartitionsToCreate_fromDefaultPartition() {
+        final DatabasePartition defaultPartition = new DatabasePartition(MessageRetentionPartitionsService.DEFAULT_PARTITION, 230703000000000000L);
+
+        final Map<String, Long> partitionsToCreate = partitionService.getPartitionsToCreate(Collections.singletonList(defaultPartition), NOW, 2);
+
+        final Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("P23070300", 230704000000000000L);
+        expected.put("P23070400", 230705000000000000L);
+        assertEquals(expected, partitionsToCreate);
+    }
+
+    @Test
+    public void getPartitionsToCreate_alreadyCreated() {
+        final Map<String, Long> partitionsToCreate = partitionService.getPartitionsToCreate(Arrays.asList(
+                new DatabasePartition(MessageRetentionPartitionsService.DEFAULT_PARTITION, 230703000000000000L),
+                new DatabasePartition("P23070300", 230704000000000000L),
+                new DatabasePartition("P23070400", 230705000000000000L)), NOW, 2);
+
+        assertEquals(Collections.emptyMap(), partitionsToCreate);
+    }
+
+    @Test
+    public void getPartitionsToCreate_noPartitions() {
+        final Map<String, Long> partitionsToCreate = partitionService.getPartitionsToCreate(Collections.emptyList(), NOW, 0);
+
+        assertEquals(Collections.singletonMap("P23070200", 230703000000000000L), partitionsToCreate);
+    }
+}
@@ -7,6 +7,7 @@ import eu.domibus.api.ebms3.model.mf.Ebms3MessageFragmentType;
 import eu.domibus.api.ebms3.model.mf.Ebms3MessageHeaderType;
 import eu.domibus.api.model.*;
 import eu.domibus.api.model.splitandjoin.MessageGroupEntity;
+import eu.domibus.api.model.splitandjoin.MessageHeaderEntity;
 import eu.domibus.api.multitenancy.Domain;
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusPropertyProvider;
@@ -36,6 +37,7 @@ import eu.domibus.core.util.SoapUtil;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.neethi.Policy;
@@ -55,9 +57,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.zip.GZIPOutputStream;
 
 import static eu.domibus.core.message.splitandjoin.SplitAndJoinDefaultService.ERROR_GENERATING_THE_SIGNAL_SOAPMESSAGE_FOR_SOURCE_MESSAGE;
 import static org.junit.Assert.*;
@@ -159,6 +163,9 @@ public class SplitAndJoinDefaultServiceTest {
     @Injectable
     SplitAndJoinHelper splitAndJoinHelper;
 
+    @Injectable
+    SplitAndJoinPipelinedSplitter splitAndJoinPipelinedSplitter;
+
     @Injectable
     UserMessagePayloadService userMessagePayloadService;
 
@@ -985,6 +992,53 @@ public class SplitAndJoinDefaultServiceTest {
         Assert.assertTrue(fragmentFiles.stream().anyMatch(s -> s.contains("file.txt_2")));
     }
 
+    @Test
+    public void createMessageHeaderEntity() {
+        final MessageHeaderEntity messageHeaderEntity = splitAndJoinDefaultService.createMessageHeaderEntity("multipart/related; boundary=myboundary; start=\"<mystart>\"");
+
+        Assert.assertEquals("myboundary", messageHeaderEntity.getBoundary());
+        Assert.assertEquals("mystart", messageHeaderEntity.getStart());
+    }
+
+    @Test
+    public void createUserFragmentsPipelined(@Injectable SOAPMessage sourceMessageRequest,
+                                             @Injectable UserMessage userMessage,
+                                             @Injectable LegConfiguration legConfiguration,
+                                             @Injectable SplitAndJoinPipelinedSplitter.Fragment fragment) throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        final File storageDirectory = testFolder.getRoot();
+        final MessageGroupEntity messageGroupEntity = new MessageGroupEntity();
+        messageGroupEntity.setGroupId("groupId");
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = Arrays.asList(fragment, fragment);
+
+        new Expectations(splitAndJoinDefaultService) {{
+            legConfiguration.getSplitting().getFragmentSize();
+            result = 2;
+
+            splitAndJoinDefaultService.getFragmentStorageDirectory();
+            result = storageDirectory;
+
+            splitAndJoinPipelinedSplitter.getFragments(sourceFile, storageDirectory, 2 * 1048576L);
+            result = fragments;
+
+            splitAndJoinHelper.createMessageGroup(userMessage, messageGroupEntity);
+            result = "backend";
+        }};
+
+        splitAndJoinDefaultService.createUserFragmentsPipelined(sourceFile, sourceMessageRequest, userMessage, messageGroupEntity,
+                "multipart/related; boundary=myboundary; start=\"<mystart>\"", legConfiguration, 4);
+
+        assertEquals(Long.valueOf(2), messageGroupEntity.getFragmentCount());
+        assertEquals("myboundary", messageGroupEntity.getMessageHeaderEntity().getBoundary());
+        Assert.assertFalse(sourceFile.exists());
+        new Verifications() {{
+            splitAndJoinPipelinedSplitter.splitAndSubmit(sourceFile, fragments, 4, userMessage, messageGroupEntity, "backend");
+            attachmentCleanupService.cleanAttachments(sourceMessageRequest);
+            splitAndJoinHelper.createMessageFragments((UserMessage) any, (MessageGroupEntity) any, (List<String>) any);
+            times = 0;
+        }};
+    }
+
     @Test
     public void createContentType() {
         String boundary = "myboundary";
@@ -1059,6 +1113,88 @@ public class SplitAndJoinDefaultServiceTest {
         Assert.assertEquals(text1, FileUtils.readFileToString(decompressed, Charset.defaultCharset()));
     }
 
+    @Test
+    public void openSourceMessageStream() throws IOException {
+        final File file1 = testFolder.newFile("file1.txt");
+        FileUtils.writeStringToFile(file1, "text1", Charset.defaultCharset());
+        final File file2 = testFolder.newFile("file2.txt");
+        FileUtils.writeStringToFile(file2, "text2", Charset.defaultCharset());
+
+        try (InputStream inputStream = splitAndJoinDefaultService.openSourceMessageStream(Arrays.asList(file1, file2), false)) {
+            Assert.assertEquals("text1text2", IOUtils.toString(inputStream, Charset.defaultCharset()));
+        }
+    }
+
+    @Test
+    public void openSourceMessageStream_compressed() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write("text1text2".getBytes(Charset.defaultCharset()));
+        }
+        final byte[] compressedBytes = compressed.toByteArray();
+        final int half = compressedBytes.length / 2;
+
+        final File file1 = testFolder.newFile("file1.gz");
+        FileUtils.writeByteArrayToFile(file1, Arrays.copyOfRange(compressedBytes, 0, half));
+        final File file2 = testFolder.newFile("file2.gz");
+        FileUtils.writeByteArrayToFile(file2, Arrays.copyOfRange(compressedBytes, half, compressedBytes.length));
+
+        try (InputStream inputStream = splitAndJoinDefaultService.openSourceMessageStream(Arrays.asList(file1, file2), true)) {
+            Assert.assertEquals("text1text2", IOUtils.toString(inputStream, Charset.defaultCharset()));
+        }
+    }
+
+    @Test(expected = SplitAndJoinException.class)
+    public void openSourceMessageStream_missingFragment() throws IOException {
+        final File file1 = testFolder.newFile("file1.txt");
+        FileUtils.writeStringToFile(file1, "text1", Charset.defaultCharset());
+        final File missingFile = new File(testFolder.getRoot(), "missing.txt");
+
+        try (InputStream inputStream = splitAndJoinDefaultService.openSourceMessageStream(Arrays.asList(file1, missingFile), false)) {
+            IOUtils.toString(inputStream, Charset.defaultCharset());
+        }
+    }
+
+    @Test
+    public void rejoinSourceMessageFromFragments(@Injectable MessageGroupEntity messageGroupEntity,
+                                                 @Injectable SOAPMessage sourceRequest) throws IOException {
+        String groupId = "123";
+        String contentType = "application/xml";
+        List<File> fragmentFiles = Collections.singletonList(new File("fragment_1"));
+        InputStream sourceMessageStream = new ByteArrayInputStream(new byte[0]);
+
+        new Expectations(splitAndJoinDefaultService) {{
+            messageGroupDao.findByGroupIdWithMessageHeader(groupId);
+            result = messageGroupEntity;
+
+            splitAndJoinDefaultService.getFragmentFilesInOrder(groupId, messageGroupEntity);
+            result = fragmentFiles;
+
+            splitAndJoinDefaultService.createContentType(anyString, anyString);
+            result = contentType;
+
+            splitAndJoinDefaultService.isSourceMessageCompressed(messageGroupEntity);
+            result = true;
+
+            splitAndJoinDefaultService.openSourceMessageStream(fragmentFiles, true);
+            result = sourceMessageStream;
+
+            splitAndJoinDefaultService.getUserMessage(sourceMessageStream, contentType);
+            result = sourceRequest;
+
+            splitAndJoinDefaultService.processRejoinedSourceMessage(groupId, sourceRequest);
+        }};
+
+        splitAndJoinDefaultService.rejoinSourceMessageFromFragments(groupId, "backend");
+
+        new Verifications() {{
+            splitAndJoinDefaultService.processRejoinedSourceMessage(groupId, sourceRequest);
+            times = 1;
+            splitAndJoinDefaultService.mergeSourceFile((List<File>) any, (MessageGroupEntity) any);
+            times = 0;
+        }};
+    }
+
     @Test
     public void getUserMessage(@Injectable FileInputStream fileInputStream,
                                @Injectable InputStream inputStream,
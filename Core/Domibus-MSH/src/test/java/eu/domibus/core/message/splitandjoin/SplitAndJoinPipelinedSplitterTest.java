@@ -0,0 +1,145 @@
+package eu.domibus.core.message.splitandjoin;
+
+import com.codahale.metrics.MetricRegistry;
+import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.model.splitandjoin.MessageGroupEntity;
+import eu.domibus.api.multitenancy.DomainTaskExecutor;
+import mockit.*;
+import mockit.integration.junit4.JMockit;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class SplitAndJoinPipelinedSplitterTest {
+
+    @Tested
+    SplitAndJoinPipelinedSplitter splitAndJoinPipelinedSplitter;
+
+    @Injectable
+    DomainTaskExecutor domainTaskExecutor;
+
+    @Injectable
+    SplitAndJoinHelper splitAndJoinHelper;
+
+    @Injectable
+    MetricRegistry metricRegistry;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void getFragments() throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        FileUtils.writeStringToFile(sourceFile, "0123456789", Charset.defaultCharset());
+        final File storageDirectory = testFolder.newFolder("storage");
+
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = splitAndJoinPipelinedSplitter.getFragments(sourceFile, storageDirectory, 4);
+
+        assertEquals(3, fragments.size());
+        assertFragment(fragments.get(0), 1, 0, 4);
+        assertFragment(fragments.get(1), 2, 4, 4);
+        assertFragment(fragments.get(2), 3, 8, 2);
+        assertEquals(storageDirectory.getAbsolutePath() + File.separator + "source.txt_3", fragments.get(2).getFileName());
+    }
+
+    @Test
+    public void getFragments_smallerThanFragmentSize() throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        FileUtils.writeStringToFile(sourceFile, "0123", Charset.defaultCharset());
+
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = splitAndJoinPipelinedSplitter.getFragments(sourceFile, testFolder.getRoot(), 4);
+
+        assertEquals(1, fragments.size());
+        assertFragment(fragments.get(0), 1, 0, 4);
+    }
+
+    @Test
+    public void splitAndSubmit(@Injectable UserMessage sourceMessage) throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        FileUtils.writeStringToFile(sourceFile, "0123456789", Charset.defaultCharset());
+        final MessageGroupEntity messageGroupEntity = new MessageGroupEntity();
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = splitAndJoinPipelinedSplitter.getFragments(sourceFile, testFolder.newFolder("storage"), 4);
+        runTasksSynchronously();
+
+        splitAndJoinPipelinedSplitter.splitAndSubmit(sourceFile, fragments, 2, sourceMessage, messageGroupEntity, "backend");
+
+        assertEquals("0123", FileUtils.readFileToString(new File(fragments.get(0).getFileName()), Charset.defaultCharset()));
+        assertEquals("4567", FileUtils.readFileToString(new File(fragments.get(1).getFileName()), Charset.defaultCharset()));
+        assertEquals("89", FileUtils.readFileToString(new File(fragments.get(2).getFileName()), Charset.defaultCharset()));
+        new Verifications() {{
+            List<Integer> indexes = new ArrayList<>();
+            splitAndJoinHelper.createMessageFragment(sourceMessage, messageGroupEntity, "backend", anyString, withCapture(indexes));
+            times = 3;
+            assertEquals(3, indexes.size());
+            assertEquals(Integer.valueOf(1), indexes.get(0));
+            assertEquals(Integer.valueOf(2), indexes.get(1));
+            assertEquals(Integer.valueOf(3), indexes.get(2));
+        }};
+    }
+
+    @Test
+    public void splitAndSubmit_writeFails(@Injectable UserMessage sourceMessage) throws IOException {
+        final File sourceFile = testFolder.newFile("source.txt");
+        FileUtils.writeStringToFile(sourceFile, "0123456789", Charset.defaultCharset());
+        final MessageGroupEntity messageGroupEntity = new MessageGroupEntity();
+        messageGroupEntity.setGroupId("groupId");
+        final List<SplitAndJoinPipelinedSplitter.Fragment> fragments = new ArrayList<>();
+        fragments.add(new SplitAndJoinPipelinedSplitter.Fragment(1, 0, 4, new File(testFolder.getRoot(), "missing" + File.separator + "fragment_1").getAbsolutePath()));
+        runTasksSynchronously();
+
+        try {
+            splitAndJoinPipelinedSplitter.splitAndSubmit(sourceFile, fragments, 2, sourceMessage, messageGroupEntity, "backend");
+            fail("The split should have failed");
+        } catch (SplitAndJoinException e) {
+            // expected
+        }
+
+        new Verifications() {{
+            splitAndJoinHelper.setMessageGroupAsRejected("groupId");
+            splitAndJoinHelper.createMessageFragment((UserMessage) any, (MessageGroupEntity) any, anyString, anyString, anyInt);
+            times = 0;
+        }};
+    }
+
+    private void runTasksSynchronously() {
+        new Expectations() {{
+            domainTaskExecutor.submit((Runnable) any, false);
+            result = new Delegate<Future<?>>() {
+                @SuppressWarnings("unused")
+                Future<?> submit(Runnable task, boolean waitForTask) {
+                    final CompletableFuture<Object> future = new CompletableFuture<>();
+                    try {
+                        task.run();
+                        future.complete(null);
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                    return future;
+                }
+            };
+        }};
+    }
+
+    private void assertFragment(SplitAndJoinPipelinedSplitter.Fragment fragment, int index, long offset, long length) {
+        assertEquals(index, fragment.getIndex());
+        assertEquals(offset, fragment.getOffset());
+        assertEquals(length, fragment.getLength());
+    }
+}
@@ -4,6 +4,7 @@ import com.codahale.metrics.MetricRegistry;
 import eu.domibus.api.model.MessageStatus;
 import eu.domibus.api.party.PartyService;
 import eu.domibus.api.property.DomibusPropertyProvider;
+import eu.domibus.core.message.reliability.PartyCircuitBreaker;
 import eu.domibus.core.message.testservice.TestService;
 import eu.domibus.messaging.MessagingProcessingException;
 import eu.domibus.web.rest.ro.ConnectionMonitorRO;
@@ -49,6 +50,9 @@ public class ConnectionMonitoringServiceImplTest {
     @Injectable
     MetricRegistry metricRegistry;
 
+    @Injectable
+    PartyCircuitBreaker partyCircuitBreaker;
+
     @Test
     public void sendTestMessages_NotApplicable() throws IOException, MessagingProcessingException {
         String selfParty = "self";
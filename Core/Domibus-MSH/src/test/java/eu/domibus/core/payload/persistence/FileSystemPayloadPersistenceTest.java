@@ -2,12 +2,15 @@ package eu.domibus.core.payload.persistence;
 
 import eu.domibus.api.multitenancy.DomainContextProvider;
 import eu.domibus.api.property.DomibusConfigurationService;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.model.configuration.LegConfiguration;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.message.compression.CompressionService;
 import eu.domibus.api.payload.encryption.PayloadEncryptionService;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileLayout;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorage;
 import eu.domibus.core.payload.persistence.filesystem.PayloadFileStorageProvider;
+import eu.domibus.core.payload.persistence.filesystem.PayloadFileSyncService;
 import eu.domibus.core.plugin.notification.BackendNotificationService;
 import eu.domibus.api.model.PartInfo;
 import eu.domibus.api.model.UserMessage;
@@ -15,13 +18,19 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
+import javax.crypto.Cipher;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_CHANNEL_WRITE_ACTIVE;
+import static eu.domibus.core.payload.persistence.FileSystemPayloadPersistence.PAYLOAD_EXTENSION;
 
 /**
  * @author Cosmin Baciu
@@ -53,6 +62,18 @@ public class FileSystemPayloadPersistenceTest {
     @Injectable
     protected PayloadEncryptionService encryptionService;
 
+    @Injectable
+    protected PayloadFileWriter payloadFileWriter;
+
+    @Injectable
+    protected DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    protected PayloadFileLayout payloadFileLayout;
+
+    @Injectable
+    protected PayloadFileSyncService payloadFileSyncService;
+
     @Tested
     FileSystemPayloadPersistence fileSystemPayloadPersistence;
 
@@ -97,7 +118,7 @@ public class FileSystemPayloadPersistenceTest {
 
         String path = "/home/invoice.pdf";
         new Expectations(fileSystemPayloadPersistence) {{
-            new File((File) any, anyString);
+            payloadFileLayout.createPayloadFile((File) any);
             result = file;
 
             file.getAbsolutePath();
@@ -115,6 +136,8 @@ public class FileSystemPayloadPersistenceTest {
             fileSystemPayloadPersistence.saveIncomingFileToDisk(file, inputStream, false);
             times = 1;
 
+            payloadFileSyncService.sync(file, (File) any);
+
             partInfo.setFileName(path);
         }};
     }
@@ -165,7 +188,7 @@ public class FileSystemPayloadPersistenceTest {
             partInfo.getFileName();
             result = myfile;
 
-            new File((File) any, anyString);
+            payloadFileLayout.createPayloadFile((File) any);
             result = file;
 
             file.getAbsolutePath();
@@ -188,6 +211,55 @@ public class FileSystemPayloadPersistenceTest {
             partInfo.setLength(length);
             partInfo.setFileName(myFilePath);
             partInfo.setEncrypted(false);
+            payloadFileSyncService.sync(file, (File) any);
+        }};
+    }
+
+    @Test
+    public void testSaveIncomingFileToDisk_usingChannels(@Injectable File file,
+                                                         @Injectable InputStream inputStream,
+                                                         @Injectable Cipher cipher) throws IOException {
+        new Expectations() {{
+            domibusPropertyProvider.getBooleanProperty(DOMIBUS_PAYLOAD_FILESYSTEM_CHANNEL_WRITE_ACTIVE);
+            result = true;
+
+            encryptionService.getEncryptCipherForPayload();
+            result = cipher;
+
+            payloadFileWriter.writeEncrypted(inputStream, file, cipher);
+            result = 10L;
+        }};
+
+        Assert.assertEquals(10L, fileSystemPayloadPersistence.saveIncomingFileToDisk(file, inputStream, true));
+
+        new Verifications() {{
+            payloadFileWriter.write((InputStream) any, (File) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void testSaveOutgoingFileToDisk_compressionUsesStreams(@Injectable PartInfo partInfo,
+                                                                  @Injectable UserMessage userMessage,
+                                                                  @Injectable LegConfiguration legConfiguration) throws IOException, EbMS3Exception {
+        final File file = File.createTempFile("payload", PAYLOAD_EXTENSION);
+        file.deleteOnExit();
+        final byte[] content = "payload content".getBytes(StandardCharsets.UTF_8);
+
+        new Expectations() {{
+            compressionService.handleCompression(anyString, partInfo, legConfiguration);
+            result = true;
+        }};
+
+        final long total = fileSystemPayloadPersistence.saveOutgoingFileToDisk(file, partInfo, new ByteArrayInputStream(content), userMessage, legConfiguration, false);
+
+        Assert.assertEquals(content.length, total);
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(file))) {
+            Assert.assertArrayEquals(content, IOUtils.toByteArray(inputStream));
+        }
+        new Verifications() {{
+            payloadFileWriter.write((InputStream) any, (File) any);
+            times = 0;
         }};
     }
-}
\ No newline at end of file
+}
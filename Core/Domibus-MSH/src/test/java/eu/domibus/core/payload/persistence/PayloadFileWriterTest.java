@@ -0,0 +1,89 @@
+package eu.domibus.core.payload.persistence;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.*;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class PayloadFileWriterTest {
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private final PayloadFileWriter payloadFileWriter = new PayloadFileWriter();
+
+    @Test
+    public void write() throws IOException {
+        final byte[] content = randomContent(PayloadFileWriter.DIRECT_BUFFER_SIZE * 3 + 17);
+        final File file = testFolder.newFile("payload");
+
+        final long total = payloadFileWriter.write(new ByteArrayInputStream(content), file);
+
+        Assert.assertEquals(content.length, total);
+        Assert.assertArrayEquals(content, FileUtils.readFileToByteArray(file));
+    }
+
+    @Test
+    public void write_fromFile() throws IOException {
+        final byte[] content = randomContent(1024 * 1024 + 3);
+        final File source = testFolder.newFile("source");
+        FileUtils.writeByteArrayToFile(source, content);
+        final File file = testFolder.newFile("payload");
+
+        final long total;
+        try (FileInputStream inputStream = new FileInputStream(source)) {
+            total = payloadFileWriter.write(inputStream, file);
+        }
+
+        Assert.assertEquals(content.length, total);
+        Assert.assertArrayEquals(content, FileUtils.readFileToByteArray(file));
+    }
+
+    @Test
+    public void writeEncrypted_sameAsCipherOutputStream() throws Exception {
+        final byte[] content = randomContent(PayloadFileWriter.DIRECT_BUFFER_SIZE * 2 + 101);
+        final SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+        final GCMParameterSpec parameterSpec = new GCMParameterSpec(128, new byte[12]);
+        final File file = testFolder.newFile("payload");
+
+        final long total = payloadFileWriter.writeEncrypted(new ByteArrayInputStream(content), file, cipher(Cipher.ENCRYPT_MODE, secretKey, parameterSpec));
+
+        Assert.assertEquals(content.length, total);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new CipherOutputStream(expected, cipher(Cipher.ENCRYPT_MODE, secretKey, parameterSpec))) {
+            outputStream.write(content);
+        }
+        Assert.assertArrayEquals(expected.toByteArray(), FileUtils.readFileToByteArray(file));
+        try (InputStream inputStream = new CipherInputStream(new FileInputStream(file), cipher(Cipher.DECRYPT_MODE, secretKey, parameterSpec))) {
+            Assert.assertArrayEquals(content, IOUtils.toByteArray(inputStream));
+        }
+    }
+
+    private Cipher cipher(int mode, SecretKey secretKey, GCMParameterSpec parameterSpec) throws GeneralSecurityException {
+        final Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, secretKey, parameterSpec);
+        return cipher;
+    }
+
+    private byte[] randomContent(int size) {
+        final byte[] content = new byte[size];
+        new Random().nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,136 @@
+package eu.domibus.core.payload.persistence.filesystem;
+
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.integration.junit4.JMockit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class PayloadFileLayoutTest {
+
+    @Tested
+    PayloadFileLayout payloadFileLayout;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    @Injectable
+    PayloadFileStorageProvider storageProvider;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void createPayloadFile_flat() throws IOException {
+        final File storageDirectory = testFolder.getRoot();
+        new Expectations() {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT);
+            result = PayloadFileLayout.LAYOUT_FLAT;
+        }};
+
+        final File payloadFile = payloadFileLayout.createPayloadFile(storageDirectory);
+
+        assertEquals(storageDirectory, payloadFile.getParentFile());
+        assertTrue(payloadFile.getName().endsWith(PayloadFileLayout.PAYLOAD_EXTENSION));
+    }
+
+    @Test
+    public void createPayloadFile_sharded() throws IOException {
+        final File storageDirectory = testFolder.getRoot();
+        new Expectations() {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_LAYOUT);
+            result = PayloadFileLayout.LAYOUT_SHARDED;
+        }};
+
+        final File payloadFile = payloadFileLayout.createPayloadFile(storageDirectory);
+
+        final File shardDirectory = payloadFile.getParentFile();
+        assertTrue(shardDirectory.isDirectory());
+        assertEquals(payloadFile.getName().substring(0, 2), shardDirectory.getName());
+        assertEquals(LocalDate.now().toString(), shardDirectory.getParentFile().getName());
+        assertEquals(storageDirectory, shardDirectory.getParentFile().getParentFile());
+    }
+
+    @Test
+    public void resolvePayloadFile_existing() throws IOException {
+        final File payloadFile = testFolder.newFile("existing.payload");
+
+        assertEquals(payloadFile, payloadFileLayout.resolvePayloadFile(payloadFile.getAbsolutePath()));
+    }
+
+    @Test
+    public void resolvePayloadFile_movedStorage(@Injectable PayloadFileStorage currentStorage) throws IOException {
+        final File storageDirectory = testFolder.newFolder("newStorage");
+        final File shardedFile = new File(new File(new File(storageDirectory, "2023-05-01"), "ab"), "ab12.payload");
+        assertTrue(shardedFile.getParentFile().mkdirs());
+        assertTrue(shardedFile.createNewFile());
+        final File flatFile = new File(storageDirectory, "cd34.payload");
+        assertTrue(flatFile.createNewFile());
+
+        new Expectations() {{
+            storageProvider.getCurrentStorage();
+            result = currentStorage;
+
+            currentStorage.getStorageDirectory();
+            result = storageDirectory;
+        }};
+
+        assertEquals(shardedFile, payloadFileLayout.resolvePayloadFile("/oldStorage/2023-05-01/ab/ab12.payload"));
+        assertEquals(flatFile, payloadFileLayout.resolvePayloadFile("/oldStorage/cd34.payload"));
+        assertEquals(new File("/oldStorage/missing.payload"), payloadFileLayout.resolvePayloadFile("/oldStorage/missing.payload"));
+    }
+
+    @Test
+    public void deleteEmptyShardDirectories() throws IOException {
+        final File dayDirectory = new File(testFolder.getRoot(), "2023-05-01");
+        final File shardDirectory = new File(dayDirectory, "ab");
+        final File otherShardDirectory = new File(dayDirectory, "cd");
+        assertTrue(shardDirectory.mkdirs());
+        assertTrue(otherShardDirectory.mkdirs());
+
+        payloadFileLayout.deleteEmptyShardDirectories(new File(shardDirectory, "ab12.payload"));
+
+        assertFalse(shardDirectory.exists());
+        assertTrue(dayDirectory.exists());
+
+        payloadFileLayout.deleteEmptyShardDirectories(new File(otherShardDirectory, "cd12.payload"));
+
+        assertFalse(dayDirectory.exists());
+    }
+
+    @Test
+    public void deleteEmptyShardDirectories_keepsCurrentDay() throws IOException {
+        final File shardDirectory = new File(new File(testFolder.getRoot(), LocalDate.now().toString()), "ab");
+        assertTrue(shardDirectory.mkdirs());
+
+        payloadFileLayout.deleteEmptyShardDirectories(new File(shardDirectory, "ab12.payload"));
+
+        assertTrue(shardDirectory.exists());
+    }
+
+    @Test
+    public void deleteEmptyShardDirectories_keepsPreviousDay() throws IOException {
+        final File shardDirectory = new File(new File(testFolder.getRoot(), LocalDate.now().minusDays(1).toString()), "ab");
+        assertTrue(shardDirectory.mkdirs());
+
+        payloadFileLayout.deleteEmptyShardDirectories(new File(shardDirectory, "ab12.payload"));
+
+        assertTrue(shardDirectory.exists());
+    }
+}
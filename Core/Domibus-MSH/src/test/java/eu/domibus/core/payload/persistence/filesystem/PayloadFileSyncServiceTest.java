@@ -0,0 +1,227 @@
+package eu.domibus.core.payload.persistence.filesystem;
+
+import eu.domibus.api.exceptions.DomibusCoreErrorCode;
+import eu.domibus.api.exceptions.DomibusCoreException;
+import eu.domibus.api.property.DomibusPropertyProvider;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY;
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class PayloadFileSyncServiceTest {
+
+    @Tested
+    PayloadFileSyncService payloadFileSyncService;
+
+    @Injectable
+    DomibusPropertyProvider domibusPropertyProvider;
+
+    private static final File STORAGE_DIRECTORY = new File("storage1");
+
+    @Test
+    public void sync_none() {
+        final File file = new File("file1.payload");
+        new Expectations(payloadFileSyncService) {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC);
+            result = PayloadFileSyncService.FSYNC_NONE;
+        }};
+
+        payloadFileSyncService.sync(file, STORAGE_DIRECTORY);
+
+        new Verifications() {{
+            payloadFileSyncService.syncFiles((List<File>) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void sync_file() {
+        final File file = new File("file1.payload");
+        new Expectations(payloadFileSyncService) {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC);
+            result = PayloadFileSyncService.FSYNC_FILE;
+
+            payloadFileSyncService.syncFiles((List<File>) any);
+        }};
+
+        payloadFileSyncService.sync(file, STORAGE_DIRECTORY);
+
+        new Verifications() {{
+            payloadFileSyncService.syncFiles(Collections.singletonList(file));
+        }};
+    }
+
+    @Test
+    public void sync_group() {
+        final File file = new File("file1.payload");
+        new Expectations(payloadFileSyncService) {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC);
+            result = PayloadFileSyncService.FSYNC_GROUP;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE);
+            result = 1;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY);
+            result = 20;
+
+            payloadFileSyncService.syncFiles((List<File>) any);
+        }};
+
+        payloadFileSyncService.sync(file, STORAGE_DIRECTORY);
+
+        new Verifications() {{
+            payloadFileSyncService.syncFiles(Collections.singletonList(file));
+            times = 1;
+        }};
+        assertTrue(payloadFileSyncService.groups.containsKey(String.valueOf(STORAGE_DIRECTORY)));
+    }
+
+    @Test
+    public void syncInGroup_writersWaitForTheFullGroup() throws Exception {
+        final File file1 = new File("file1.payload");
+        final File file2 = new File("file2.payload");
+        final List<List<File>> syncedGroups = Collections.synchronizedList(new ArrayList<>());
+        final PayloadFileSyncService.SyncGroup group = new PayloadFileSyncService.SyncGroup();
+        new Expectations(payloadFileSyncService) {{
+            payloadFileSyncService.syncFiles((List<File>) any);
+            result = new Delegate<Void>() {
+                void syncFiles(List<File> files) {
+                    syncedGroups.add(files);
+                }
+            };
+        }};
+
+        final Thread writer = new Thread(() -> payloadFileSyncService.syncInGroup(group, file1, 2, 60000));
+        writer.start();
+        waitForPendingFiles(group, 1);
+        assertTrue("The first writer waits until its group is synced", writer.isAlive());
+        assertTrue(syncedGroups.isEmpty());
+
+        payloadFileSyncService.syncInGroup(group, file2, 2, 60000);
+        writer.join(10000);
+
+        assertFalse(writer.isAlive());
+        assertEquals(Collections.singletonList(Arrays.asList(file1, file2)), syncedGroups);
+        assertTrue(group.pendingFiles.isEmpty());
+        assertTrue(group.isSynced(0));
+    }
+
+    @Test
+    public void syncInGroup_maxDelay() {
+        final File file1 = new File("file1.payload");
+        final PayloadFileSyncService.SyncGroup group = new PayloadFileSyncService.SyncGroup();
+        new Expectations(payloadFileSyncService) {{
+            payloadFileSyncService.syncFiles((List<File>) any);
+        }};
+
+        payloadFileSyncService.syncInGroup(group, file1, 10, 50);
+
+        new Verifications() {{
+            payloadFileSyncService.syncFiles(Collections.singletonList(file1));
+            times = 1;
+        }};
+        assertTrue(group.pendingFiles.isEmpty());
+        assertTrue(group.isSynced(0));
+    }
+
+    @Test
+    public void syncInGroup_failureFailsEveryWriterOfTheGroup() throws Exception {
+        final File file1 = new File("file1.payload");
+        final File file2 = new File("file2.payload");
+        final PayloadFileSyncService.SyncGroup group = new PayloadFileSyncService.SyncGroup();
+        final AtomicReference<Throwable> firstWriterError = new AtomicReference<>();
+        new Expectations(payloadFileSyncService) {{
+            payloadFileSyncService.syncFiles((List<File>) any);
+            result = new DomibusCoreException(DomibusCoreErrorCode.DOM_001, "fsync failed");
+        }};
+
+        final Thread writer = new Thread(() -> {
+            try {
+                payloadFileSyncService.syncInGroup(group, file1, 2, 60000);
+            } catch (Throwable e) {
+                firstWriterError.set(e);
+            }
+        });
+        writer.start();
+        waitForPendingFiles(group, 1);
+
+        try {
+            payloadFileSyncService.syncInGroup(group, file2, 2, 60000);
+            fail("The writer syncing the group should fail");
+        } catch (DomibusCoreException e) {
+            // expected
+        }
+        writer.join(10000);
+
+        assertFalse(writer.isAlive());
+        assertTrue("The waiting writer should fail", firstWriterError.get() instanceof DomibusCoreException);
+        assertTrue(group.failedBatches.isEmpty());
+    }
+
+    @Test(expected = DomibusCoreException.class)
+    public void syncPath_failure() {
+        payloadFileSyncService.syncPath(new File("missingDirectory", "missing.payload").toPath());
+    }
+
+    @Test
+    public void sync_groupPerStorageDirectory() {
+        final File file1 = new File("file1.payload");
+        final File file2 = new File("file2.payload");
+        new Expectations(payloadFileSyncService) {{
+            domibusPropertyProvider.getProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC);
+            result = PayloadFileSyncService.FSYNC_GROUP;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_SIZE);
+            result = 2;
+
+            domibusPropertyProvider.getIntegerProperty(DOMIBUS_PAYLOAD_FILESYSTEM_FSYNC_GROUP_MAX_DELAY);
+            result = 20;
+
+            payloadFileSyncService.syncFiles((List<File>) any);
+        }};
+
+        payloadFileSyncService.sync(file1, STORAGE_DIRECTORY);
+        payloadFileSyncService.sync(file2, new File("storage2"));
+
+        new Verifications() {{
+            payloadFileSyncService.syncFiles(Collections.singletonList(file1));
+            times = 1;
+            payloadFileSyncService.syncFiles(Collections.singletonList(file2));
+            times = 1;
+        }};
+        assertEquals(2, payloadFileSyncService.groups.size());
+    }
+
+    private void waitForPendingFiles(PayloadFileSyncService.SyncGroup group, int count) throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            synchronized (group) {
+                if (group.pendingFiles.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("The files were not added to the group");
+    }
+}
@@ -0,0 +1,231 @@
+package eu.domibus.core.plugin.routing;
+
+import eu.domibus.api.model.ActionEntity;
+import eu.domibus.api.model.From;
+import eu.domibus.api.model.PartyId;
+import eu.domibus.api.model.PartyInfo;
+import eu.domibus.api.model.ServiceEntity;
+import eu.domibus.api.model.UserMessage;
+import eu.domibus.api.routing.BackendFilter;
+import eu.domibus.api.routing.RoutingCriteria;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class CompiledRoutingRulesTest {
+
+    private Map<String, IRoutingCriteria> criteriaMap;
+
+    @Before
+    public void setUp() {
+        criteriaMap = new HashMap<>();
+        ActionRoutingCriteriaFactory actionRoutingCriteriaFactory = new ActionRoutingCriteriaFactory();
+        ServiceRoutingCriteriaFactory serviceRoutingCriteriaFactory = new ServiceRoutingCriteriaFactory();
+        FromRoutingCriteriaFactory fromRoutingCriteriaFactory = new FromRoutingCriteriaFactory();
+        criteriaMap.put(actionRoutingCriteriaFactory.getName(), actionRoutingCriteriaFactory.getInstance());
+        criteriaMap.put(serviceRoutingCriteriaFactory.getName(), serviceRoutingCriteriaFactory.getInstance());
+        criteriaMap.put(fromRoutingCriteriaFactory.getName(), fromRoutingCriteriaFactory.getInstance());
+    }
+
+    @Test
+    public void getMatchingBackendFilter_literalCriteria() {
+        BackendFilter filter1 = backendFilter("plugin1", true, criteria("action", "TC1Leg1"));
+        BackendFilter filter2 = backendFilter("plugin2", true, criteria("action", "TC1Leg2"), criteria("service", "bdx:noprocess:tc1"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Arrays.asList(filter1, filter2), criteriaMap);
+
+        assertEquals(filter2, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg2", "bdx:noprocess", "tc1")));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg2", "bdx:noprocess", "tc2")));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg3", "bdx:noprocess", "tc1")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_keepsPriority() {
+        BackendFilter filter1 = backendFilter("plugin1", true, criteria("service", "bdx:.*"));
+        BackendFilter filter2 = backendFilter("plugin2", true, criteria("action", "TC1Leg1"));
+        BackendFilter filter3 = backendFilter("plugin3", true);
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Arrays.asList(filter1, filter2, filter3), criteriaMap);
+
+        assertEquals(filter1, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "bdx:noprocess", "tc1")));
+        assertEquals(filter2, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "other", "tc1")));
+        assertEquals(filter3, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg2", "other", "tc1")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_skipsInactiveAndUnknownCriteria() {
+        BackendFilter filter1 = backendFilter("plugin1", false, criteria("action", "TC1Leg1"));
+        BackendFilter filter2 = backendFilter("plugin2", true, criteria("unknown", "TC1Leg1"));
+        BackendFilter filter3 = backendFilter("plugin3", true, criteria("ACTION", "TC1Leg1"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Arrays.asList(filter1, filter2, filter3), criteriaMap);
+
+        assertEquals(filter3, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "bdx:noprocess", "tc1")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_allCriteriaMustMatch() {
+        BackendFilter filter = backendFilter("plugin1", true, criteria("action", "TC1Leg1"), criteria("service", "bdx:.*"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertEquals(filter, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "bdx:noprocess", "tc1")));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "other", "tc1")));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg2", "bdx:noprocess", "tc1")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_noRoutingCriteria() {
+        BackendFilter filter = backendFilter("plugin1", true);
+        filter.setRoutingCriterias(null);
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertEquals(filter, compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "bdx:noprocess", "tc1")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_fromAndActionMatching() {
+        BackendFilter filter = backendFilter("plugin1", true, criteria("FROM", "domibus-blue:partyType"), criteria("ACTION", "myAction"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertEquals(filter, compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "myAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_fromMatchingAndActionNotMatching() {
+        CountingActionCriteria actionCriteria = new CountingActionCriteria();
+        criteriaMap.put("ACTION", actionCriteria);
+        BackendFilter filter = backendFilter("plugin1", true, criteria("FROM", "domibus-blue:partyType"), criteria("ACTION", "domibus-blue:partyType"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "myAction")));
+        assertEquals("The action is extracted once", 1, actionCriteria.extractions);
+    }
+
+    @Test
+    public void getMatchingBackendFilter_fromNotMatching_actionNotEvaluated() {
+        CountingActionCriteria actionCriteria = new CountingActionCriteria();
+        criteriaMap.put("ACTION", actionCriteria);
+        BackendFilter filter = backendFilter("plugin1", true, criteria("FROM", "domibus-blue:partyType"), criteria("ACTION", "myAction"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-red", "partyType", "otherAction")));
+        assertEquals(0, actionCriteria.extractions);
+    }
+
+    @Test
+    public void getMatchingBackendFilter_fromNotMatchingAndActionMatching() {
+        BackendFilter filter = backendFilter("plugin1", true, criteria("FROM", "domibus-blue:partyType"), criteria("ACTION", "myAction"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Collections.singletonList(filter), criteriaMap);
+
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-red", "partyType", "myAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_firstFilterNotMatching() {
+        BackendFilter filter1 = backendFilter("plugin1", true, criteria("FROM", "domibus-red:partyType"));
+        BackendFilter filter2 = backendFilter("plugin2", true, criteria("FROM", "domibus-blue:.*"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Arrays.asList(filter1, filter2), criteriaMap);
+
+        assertEquals(filter2, compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "myAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_noFilters() {
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(new ArrayList<>(), criteriaMap);
+
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "myAction")));
+    }
+
+    @Test
+    public void getMatchingBackendFilter_criteriaWithoutValueExtractor() {
+        criteriaMap.put("CUSTOM", new RoutingCriteriaEntity("CUSTOM", null, null) {
+            @Override
+            public boolean matches(UserMessage candidate, String expression) {
+                return expression.equals(candidate.getActionValue());
+            }
+        });
+        BackendFilter filter1 = backendFilter("plugin1", true, criteria("CUSTOM", "otherAction"));
+        BackendFilter filter2 = backendFilter("plugin2", true, criteria("CUSTOM", "myAction"), criteria("FROM", "domibus-blue:partyType"));
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(Arrays.asList(filter1, filter2), criteriaMap);
+
+        assertEquals(filter2, compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "myAction")));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessageFrom("domibus-blue", "partyType", "anotherAction")));
+    }
+
+    @Test
+    public void isBuiltFor() {
+        List<BackendFilter> backendFilters = new ArrayList<>();
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(backendFilters, criteriaMap);
+
+        assertTrue(compiledRoutingRules.isBuiltFor(backendFilters));
+        assertFalse(compiledRoutingRules.isBuiltFor(new ArrayList<>()));
+        assertNull(compiledRoutingRules.getMatchingBackendFilter(userMessage("TC1Leg1", "bdx:noprocess", "tc1")));
+    }
+
+    @Test
+    public void isLiteral() {
+        assertTrue(CompiledRoutingRules.isLiteral("bdx:noprocess:tc1"));
+        assertFalse(CompiledRoutingRules.isLiteral("bdx:.*"));
+        assertFalse(CompiledRoutingRules.isLiteral("TC1Leg[12]"));
+    }
+
+    private BackendFilter backendFilter(String backendName, boolean active, RoutingCriteria... routingCriterias) {
+        BackendFilter backendFilter = new BackendFilter();
+        backendFilter.setBackendName(backendName);
+        backendFilter.setActive(active);
+        backendFilter.setRoutingCriterias(new ArrayList<>(Arrays.asList(routingCriterias)));
+        return backendFilter;
+    }
+
+    private RoutingCriteria criteria(String name, String expression) {
+        RoutingCriteria routingCriteria = new RoutingCriteria();
+        routingCriteria.setName(name);
+        routingCriteria.setExpression(expression);
+        return routingCriteria;
+    }
+
+    private UserMessage userMessageFrom(String fromPartyId, String fromPartyIdType, String actionValue) {
+        UserMessage userMessage = userMessage(actionValue, "bdx:noprocess", "tc1");
+        PartyId partyId = new PartyId();
+        partyId.setValue(fromPartyId);
+        partyId.setType(fromPartyIdType);
+        From from = new From();
+        from.setFromPartyId(partyId);
+        PartyInfo partyInfo = new PartyInfo();
+        partyInfo.setFrom(from);
+        userMessage.setPartyInfo(partyInfo);
+        return userMessage;
+    }
+
+    private UserMessage userMessage(String actionValue, String serviceValue, String serviceType) {
+        UserMessage userMessage = new UserMessage();
+        userMessage.setMessageId("messageId");
+        ActionEntity action = new ActionEntity();
+        action.setValue(actionValue);
+        userMessage.setAction(action);
+        ServiceEntity service = new ServiceEntity();
+        service.setValue(serviceValue);
+        service.setType(serviceType);
+        userMessage.setService(service);
+        return userMessage;
+    }
+
+    private static class CountingActionCriteria extends RoutingCriteriaEntity implements RoutingCriteriaValueExtractor {
+
+        private int extractions;
+
+        CountingActionCriteria() {
+            super("ACTION", null, null);
+        }
+
+        @Override
+        public String getCandidateValue(UserMessage candidate) {
+            extractions++;
+            return candidate.getActionValue();
+        }
+    }
+}
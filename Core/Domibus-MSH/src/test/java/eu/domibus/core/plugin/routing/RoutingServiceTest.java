@@ -234,306 +234,42 @@ public class RoutingServiceTest {
     }
 
     @Test
-    public void testIsBackendFilterMatchingANDOperationWithFromAndActionMatching(@Injectable final BackendFilter filter,
-                                                                                 @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                                 @Injectable final UserMessage userMessage,
-                                                                                 @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                                 @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                                 @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                                 @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        // these 2 filters are defined by the user in the Message Filter screen
-        final List<RoutingCriteria> criteriaList = new ArrayList<>();
-        criteriaList.add(fromRoutingCriteria);
-        criteriaList.add(actionRoutingCriteria);
-
-        final String fromCriteriaName = "FROM";
-        final String actionCriteriaName = "ACTION";
-
-        new Expectations() {{
-
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = criteriaList;
-
-            fromRoutingCriteria.getName();
-            result = fromCriteriaName;
-
-            fromRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(fromCriteriaName);
-            result = fromRoutingCriteriaConfiguration;
-
-            actionRoutingCriteria.getName();
-            result = actionCriteriaName;
-
-            actionRoutingCriteria.getExpression();
-            result = "myAction";
-
-            criteriaMap.get(actionCriteriaName);
-            result = actionRoutingCriteriaConfiguration;
-
-            fromRoutingCriteriaConfiguration.matches(userMessage, fromRoutingCriteria.getExpression());
-            result = true;
-
-            actionRoutingCriteriaConfiguration.matches(userMessage, actionRoutingCriteria.getExpression());
-            result = true;
-        }};
-
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertTrue(backendFilterMatching);
-    }
-
-    @Test
-    public void testIsBackendFilterMatchingANDOperationWithFromMatchingAndActionNotMatching(@Injectable final BackendFilter filter,
-                                                                                            @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                                            @Injectable final UserMessage userMessage,
-                                                                                            @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                                            @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                                            @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                                            @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        // these 2 filters are defined by the user in the Message Filter screen
-        final List<RoutingCriteria> criteriaList = new ArrayList<>();
-        criteriaList.add(fromRoutingCriteria);
-        criteriaList.add(actionRoutingCriteria);
-
-        final String fromCriteriaName = "FROM";
-        final String actionCriteriaName = "ACTION";
-
-        new Expectations() {{
-
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = criteriaList;
-
-            fromRoutingCriteria.getName();
-            result = fromCriteriaName;
-
-            fromRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(fromCriteriaName);
-            result = fromRoutingCriteriaConfiguration;
-
-            actionRoutingCriteria.getName();
-            result = actionCriteriaName;
-
-            actionRoutingCriteria.getExpression();
-            result = "myAction";
-
-            criteriaMap.get(actionCriteriaName);
-            result = actionRoutingCriteriaConfiguration;
-
-            fromRoutingCriteriaConfiguration.matches(userMessage, fromRoutingCriteria.getExpression());
-            result = true;
-
-            actionRoutingCriteriaConfiguration.matches(userMessage, actionRoutingCriteria.getExpression());
-            result = false;
-        }};
-
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertFalse(backendFilterMatching);
-    }
-
-
-    @Test
-    public void testIsBackendFilterMatchingANDOperationWithFromNotMatching(@Injectable final BackendFilter filter,
-                                                                           @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                           @Injectable final UserMessage userMessage,
-                                                                           @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                           @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                           @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                           @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        // these 2 filters are defined by the user in the Message Filter screen
-        final List<RoutingCriteria> criteriaList = new ArrayList<>();
-        criteriaList.add(fromRoutingCriteria);
-        criteriaList.add(actionRoutingCriteria);
-
-        final String fromCriteriaName = "FROM";
-        final String actionCriteriaName = "ACTION";
-
-        new Expectations() {{
-
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = criteriaList;
-
-            fromRoutingCriteria.getName();
-            result = fromCriteriaName;
-
-            fromRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(fromCriteriaName);
-            result = fromRoutingCriteriaConfiguration;
-
-            fromRoutingCriteriaConfiguration.matches(userMessage, fromRoutingCriteria.getExpression());
-            result = false;
-        }};
-
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertFalse(backendFilterMatching);
-
-        new FullVerifications() {{
-            criteriaMap.get(actionCriteriaName);
-            times = 0;
-
-            actionRoutingCriteriaConfiguration.matches(userMessage, anyString);
-            times = 0;
-
-            fromRoutingCriteria.toString();
-            userMessage.toString();
-        }};
-    }
-
-    @Test
-    public void testIsBackendFilterMatchingWithFromMatchingAndActionNotMatching(@Injectable final BackendFilter filter,
-                                                                                @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                                @Injectable final UserMessage userMessage,
-                                                                                @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                                @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                                @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                                @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        // these 2 filters are defined by the user in the Message Filter screen
-        final List<RoutingCriteria> criteriaList = new ArrayList<>();
-        criteriaList.add(fromRoutingCriteria);
-        criteriaList.add(actionRoutingCriteria);
-
-        final String fromCriteriaName = "FROM";
-        final String actionCriteriaName = "ACTION";
-
-        new Expectations() {{
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = criteriaList;
-
-            fromRoutingCriteria.getName();
-            result = fromCriteriaName;
-
-            fromRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(fromCriteriaName);
-            result = fromRoutingCriteriaConfiguration;
-
-            fromRoutingCriteriaConfiguration.matches(userMessage, fromRoutingCriteria.getExpression());
-            result = true;
-
-            actionRoutingCriteria.getName();
-            result = actionCriteriaName;
-
-            actionRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(actionCriteriaName);
-            result = actionRoutingCriteriaConfiguration;
-
-            actionRoutingCriteriaConfiguration.matches(userMessage, actionRoutingCriteria.getExpression());
-            result = false;
-        }};
-
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertFalse(backendFilterMatching);
-
-        new FullVerifications() {{
-            actionRoutingCriteriaConfiguration.matches(userMessage, anyString);
-            times = 1;
-
-            fromRoutingCriteria.toString();
-            actionRoutingCriteria.toString();
-            userMessage.toString();
-        }};
-    }
-
-    @Test
-    public void testIsBackendFilterMatchingWithNoRoutingCriteriaDefined(@Injectable final BackendFilter filter,
-                                                                        @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                        @Injectable final UserMessage userMessage,
-                                                                        @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                        @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                        @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                        @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        new Expectations() {{
-
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = null;
+    public void testGetMatchingBackendFilter(@Injectable final UserMessage userMessage,
+                                             @Injectable final List<BackendFilter> backendFilters,
+                                             @Injectable final CompiledRoutingRules compiledRoutingRules,
+                                             @Injectable final BackendFilter backendFilter) {
+        new Expectations(routingService) {{
+            routingService.getBackendFiltersWithCache();
+            result = backendFilters;
+            routingService.getCompiledRoutingRules(backendFilters);
+            result = compiledRoutingRules;
+            compiledRoutingRules.getMatchingBackendFilter(userMessage);
+            result = backendFilter;
         }};
 
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertTrue(backendFilterMatching);
+        assertEquals(backendFilter, routingService.getMatchingBackendFilter(userMessage));
 
-        new FullVerifications() {{
-            criteriaMap.get(anyString);
-            times = 0;
-
-            userMessage.toString();
-        }};
+        new Verifications() {
+        };
     }
 
     @Test
-    public void testIsBackendFilterMatchingANDOperationWithFromNotMatchingAndActionMatching(@Injectable final BackendFilter filter,
-                                                                                            @Injectable final Map<String, IRoutingCriteria> criteriaMap,
-                                                                                            @Injectable final UserMessage userMessage,
-                                                                                            @Injectable final IRoutingCriteria fromRoutingCriteriaConfiguration,
-                                                                                            @Injectable final IRoutingCriteria actionRoutingCriteriaConfiguration,
-                                                                                            @Injectable final RoutingCriteria fromRoutingCriteria, //contains the FROM filter defined by the user
-                                                                                            @Injectable final RoutingCriteria actionRoutingCriteria) { //contains the ACTION filter defined by the user
-        // these 2 filters are defined by the user in the Message Filter screen
-        final List<RoutingCriteria> criteriaList = new ArrayList<>();
-        criteriaList.add(fromRoutingCriteria);
-        criteriaList.add(actionRoutingCriteria);
-
-        final String fromCriteriaName = "FROM";
+    public void getCompiledRoutingRules() {
+        Domain domain = new Domain("D1", "DOMAIN1");
+        routingService.domainContextProvider = domainContextProvider;
+        routingService.criteriaMap = new HashMap<>();
+        List<BackendFilter> backendFilters = new ArrayList<>();
 
         new Expectations() {{
-
-            filter.isActive();
-            result = true;
-
-            filter.getRoutingCriterias();
-            result = criteriaList;
-
-            fromRoutingCriteria.getName();
-            result = fromCriteriaName;
-
-            fromRoutingCriteria.getExpression();
-            result = "domibus-blue:partyType";
-
-            criteriaMap.get(fromCriteriaName);
-            result = fromRoutingCriteriaConfiguration;
-
-            fromRoutingCriteriaConfiguration.matches(userMessage, fromRoutingCriteria.getExpression());
-            result = false;
-        }};
-
-        final boolean backendFilterMatching = routingService.isBackendFilterMatching(filter, criteriaMap, userMessage);
-        Assert.assertFalse(backendFilterMatching);
-    }
-
-    @Test
-    public void testGetMatchingBackendFilter(@Injectable final UserMessage userMessage,
-                                             @Injectable final List<BackendFilter> backendFilters) {
-        new Expectations(routingService) {{
-            routingService.getBackendFiltersWithCache();
-            result = backendFilters;
-            routingService.getMatchingBackendFilter(backendFilters, withAny(new HashMap<>()), userMessage);
+            domainContextProvider.getCurrentDomain();
+            result = domain;
         }};
 
-        routingService.getMatchingBackendFilter(userMessage);
+        CompiledRoutingRules compiledRoutingRules = routingService.getCompiledRoutingRules(backendFilters);
 
-        new FullVerifications() {
-        };
+        assertTrue(compiledRoutingRules.isBuiltFor(backendFilters));
+        assertSame(compiledRoutingRules, routingService.getCompiledRoutingRules(backendFilters));
+        assertNotSame(compiledRoutingRules, routingService.getCompiledRoutingRules(new ArrayList<>()));
     }
 
     @Test
@@ -702,53 +438,6 @@ public class RoutingServiceTest {
         }};
     }
 
-    @Test
-    public void getMatchingBackendFilter(
-            @Injectable Map<String, IRoutingCriteria> criteriaMap,
-            @Injectable UserMessage userMessage,
-            @Injectable BackendFilter backendFilter1,
-            @Injectable BackendFilter backendFilter2) {
-        List<BackendFilter> backendFilters = asList(backendFilter1, backendFilter2);
-
-        new Expectations(routingService) {{
-            userMessage.getMessageId();
-            result = MESSAGE_ID;
-
-            routingService.isBackendFilterMatching(backendFilter1, criteriaMap, userMessage);
-            result = false;
-
-            routingService.isBackendFilterMatching(backendFilter2, criteriaMap, userMessage);
-            result = true;
-        }};
-
-        BackendFilter matchingBackendFilter = routingService.getMatchingBackendFilter(backendFilters, criteriaMap, userMessage);
-
-        assertEquals(backendFilter2, matchingBackendFilter);
-
-        //No fullVerifications because of UnexpectedInvocation BackendFilter#toString()
-        new Verifications() {
-        };
-    }
-
-    @Test
-    public void getMatchingBackendFilter_noFilters(
-            @Injectable Map<String, IRoutingCriteria> criteriaMap,
-            @Injectable UserMessage userMessage) {
-        List<BackendFilter> backendFilters = new ArrayList<>();
-
-        new Expectations() {{
-            userMessage.getMessageId();
-            result = MESSAGE_ID;
-        }};
-
-        BackendFilter matchingBackendFilter = routingService.getMatchingBackendFilter(backendFilters, criteriaMap, userMessage);
-
-        assertNull(matchingBackendFilter);
-
-        new FullVerifications() {
-        };
-    }
-
     @Test
     public void getMaxIndex_empty() {
         int maxIndex = routingService.getMaxIndex(new ArrayList<>());
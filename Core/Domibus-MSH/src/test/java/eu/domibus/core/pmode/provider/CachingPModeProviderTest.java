@@ -29,10 +29,12 @@ import eu.domibus.core.pmode.validation.PModeValidationService;
 import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.test.common.PojoInstaciatorUtil;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -1740,4 +1742,34 @@ public class CachingPModeProviderTest {
         new FullVerifications() {
         };
     }
+
+    @Test
+    public void getLookupIndex_invalidatedWhileBuilt(@Injectable PModeLookupIndex staleIndex, @Injectable PModeLookupIndex index) {
+        new Expectations(cachingPModeProvider) {{
+            cachingPModeProvider.getConfiguration();
+            result = configuration;
+
+            cachingPModeProvider.createLookupIndex(configuration);
+            result = new Delegate<PModeLookupIndex>() {
+                PModeLookupIndex createLookupIndex(Configuration configuration) {
+                    // a party is removed from the configuration while the index is built
+                    cachingPModeProvider.invalidateLookupIndex();
+                    return staleIndex;
+                }
+            };
+            result = index;
+
+            index.isBuiltFor(configuration);
+            result = true;
+        }};
+
+        assertSame(staleIndex, cachingPModeProvider.getLookupIndex());
+        assertSame("The index built before the invalidation is not published", index, cachingPModeProvider.getLookupIndex());
+        assertSame(index, cachingPModeProvider.getLookupIndex());
+
+        new Verifications() {{
+            cachingPModeProvider.createLookupIndex(configuration);
+            times = 2;
+        }};
+    }
 }
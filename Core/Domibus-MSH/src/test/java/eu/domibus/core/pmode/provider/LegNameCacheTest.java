@@ -0,0 +1,69 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.Role;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class LegNameCacheTest {
+
+    private final Role initiatorRole = new Role("defaultInitiatorRole", "http://docs.oasis-open.org/ebxml-msg/ebms/v3.0/ns/core/200704/initiator");
+    private final Role responderRole = new Role("defaultResponderRole", "http://docs.oasis-open.org/ebxml-msg/ebms/v3.0/ns/core/200704/responder");
+
+    @Test
+    public void getAndPut() {
+        LegNameCache legNameCache = new LegNameCache(10);
+
+        legNameCache.put(key("action1", 1), "leg1");
+
+        assertEquals("leg1", legNameCache.get(key("action1", 1)));
+        assertNull(legNameCache.get(key("action1", 3)));
+        assertNull(legNameCache.get(key("action2", 1)));
+    }
+
+    @Test
+    public void put_evictsWhenFull() {
+        LegNameCache legNameCache = new LegNameCache(2);
+
+        legNameCache.put(key("action1", 1), "leg1");
+        legNameCache.put(key("action2", 1), "leg2");
+        legNameCache.put(key("action3", 1), "leg3");
+
+        assertEquals(2, legNameCache.size());
+        assertEquals("leg3", legNameCache.get(key("action3", 1)));
+    }
+
+    @Test
+    public void put_evictsTheLeastRecentlyUsedEntry() {
+        LegNameCache legNameCache = new LegNameCache(2);
+
+        legNameCache.put(key("action1", 1), "leg1");
+        legNameCache.put(key("action2", 1), "leg2");
+        assertEquals("leg1", legNameCache.get(key("action1", 1)));
+        legNameCache.put(key("action3", 1), "leg3");
+
+        assertEquals(2, legNameCache.size());
+        assertEquals("leg1", legNameCache.get(key("action1", 1)));
+        assertNull(legNameCache.get(key("action2", 1)));
+        assertEquals("leg3", legNameCache.get(key("action3", 1)));
+    }
+
+    @Test
+    public void disabled() {
+        LegNameCache legNameCache = new LegNameCache(0);
+
+        legNameCache.put(key("action1", 1), "leg1");
+
+        assertFalse(legNameCache.isEnabled());
+        assertNull(legNameCache.get(key("action1", 1)));
+        assertEquals(0, legNameCache.size());
+    }
+
+    private LegNameCache.Key key(String action, int matchingFlags) {
+        return new LegNameCache.Key(false, "agreement1110", "blue_gw", "red_gw", "noSecService", action, null, initiatorRole, responderRole, null, matchingFlags);
+    }
+}
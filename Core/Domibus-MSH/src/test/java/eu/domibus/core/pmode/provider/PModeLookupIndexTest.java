@@ -0,0 +1,91 @@
+package eu.domibus.core.pmode.provider;
+
+import eu.domibus.common.model.configuration.Configuration;
+import eu.domibus.common.model.configuration.Party;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class PModeLookupIndexTest {
+
+    private static final String VALID_PMODE_CONFIG_URI = "samplePModes/domibus-configuration-valid.xml";
+    private static final String DEFAULT_MPC_URI = "http://docs.oasis-open.org/ebxml-msg/ebms/v3.0/ns/core/200704/defaultMpc";
+
+    private Configuration configuration;
+
+    private PModeLookupIndex pModeLookupIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        InputStream xmlStream = getClass().getClassLoader().getResourceAsStream(VALID_PMODE_CONFIG_URI);
+        Unmarshaller unmarshaller = JAXBContext.newInstance(Configuration.class).createUnmarshaller();
+        configuration = (Configuration) unmarshaller.unmarshal(xmlStream);
+        Method m = configuration.getClass().getDeclaredMethod("preparePersist");
+        m.setAccessible(true);
+        m.invoke(configuration);
+
+        pModeLookupIndex = new PModeLookupIndex(configuration);
+    }
+
+    @Test
+    public void isBuiltFor() {
+        assertTrue(pModeLookupIndex.isBuiltFor(configuration));
+        assertFalse(pModeLookupIndex.isBuiltFor(new Configuration()));
+    }
+
+    @Test
+    public void findPartyByIdentifierAndType_emptyTypeMatchesNullType() {
+        Party party = pModeLookupIndex.findPartyByIdentifierAndType("urn:oasis:names:tc:ebcore:partyid-type:unregistered:domibus-blue", null);
+        assertEquals("blue_gw", party.getName());
+
+        party = pModeLookupIndex.findPartyByIdentifierAndType("URN:OASIS:NAMES:TC:EBCORE:PARTYID-TYPE:UNREGISTERED:DOMIBUS-BLUE", "");
+        assertEquals("blue_gw", party.getName());
+
+        assertNull(pModeLookupIndex.findPartyByIdentifierAndType("urn:oasis:names:tc:ebcore:partyid-type:unregistered:domibus-blue", "anotherType"));
+    }
+
+    @Test
+    public void findPartyByIdentifierAndName() {
+        assertEquals("red_gw", pModeLookupIndex.findPartyByIdentifier("urn:oasis:names:tc:ebcore:partyid-type:unregistered:domibus-red").getName());
+        assertEquals("red_gw", pModeLookupIndex.findPartyByName("RED_GW").getName());
+        assertNull(pModeLookupIndex.findPartyByName("unknown_gw"));
+    }
+
+    @Test
+    public void findServiceByValueAndType() {
+        assertEquals("testService2", pModeLookupIndex.findServiceByValueAndType("bdx:noprocess", "TC2").getName());
+        assertEquals("noSecService", pModeLookupIndex.findServiceByValueAndType("InternalTesting", " ").getName());
+        assertNull(pModeLookupIndex.findServiceByValueAndType("bdx:noprocess", null));
+    }
+
+    @Test
+    public void findActionAndAgreement() {
+        assertEquals("noSecAction", pModeLookupIndex.findActionByValue("nosecurity").getName());
+        assertEquals("NoSecurity", pModeLookupIndex.findActionByName("noSecAction").getValue());
+        assertEquals("agreement1110", pModeLookupIndex.findAgreementByValueAndType("EDELIVERY-1110", null).getName());
+        assertNull(pModeLookupIndex.findAgreementByValueAndType("EDELIVERY-1110", "someType"));
+    }
+
+    @Test
+    public void findMpc() {
+        assertEquals("defaultMpc", pModeLookupIndex.findMpcByQualifiedName(DEFAULT_MPC_URI).getName());
+        assertEquals(DEFAULT_MPC_URI, pModeLookupIndex.findMpcByName("DEFAULTMPC").getQualifiedName());
+        assertNull(pModeLookupIndex.findMpcByName("NonExistantMpc"));
+    }
+
+    @Test
+    public void findLegConfigurationByName() {
+        assertNotNull(pModeLookupIndex.findLegConfigurationByName("pushTestcase1tc1Action"));
+        assertNull(pModeLookupIndex.findLegConfigurationByName("unknownLeg"));
+    }
+}
@@ -20,6 +20,7 @@ import eu.domibus.core.audit.AuditService;
 import eu.domibus.core.certificate.CertificateDaoImpl;
 import eu.domibus.core.certificate.CertificateHelper;
 import eu.domibus.core.certificate.CertificateServiceImpl;
+import eu.domibus.core.certificate.CertificateValidationCache;
 import eu.domibus.core.certificate.crl.CRLServiceImpl;
 import eu.domibus.core.ebms3.EbMS3Exception;
 import eu.domibus.core.message.UserMessageServiceHelper;
@@ -155,7 +156,8 @@ public class DynamicDiscoveryPModeProviderTest {
                 Mockito.spy(DomainContextProvider.class),
                 Mockito.spy(SecurityUtilImpl.class),
                 Mockito.spy(AlertConfigurationService.class),
-                Mockito.spy(AuditService.class));
+                Mockito.spy(AuditService.class),
+                Mockito.mock(CertificateValidationCache.class));
     }
 
     private Configuration initializeConfiguration(String resourceXML) throws Exception {
@@ -0,0 +1,131 @@
+package eu.domibus.core.property;
+
+import eu.domibus.api.multitenancy.Domain;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class PropertyHandleTest {
+
+    private static final String PROPERTY_NAME = "domibus.property.name";
+
+    @After
+    public void cleanMDC() {
+        MDC.remove(PropertyHandle.DOMAIN_MDC_KEY);
+    }
+
+    @Test
+    public void getValue_loadedOnce() {
+        final AtomicInteger loads = new AtomicInteger();
+        final PropertyHandle<Integer> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> {
+            loads.incrementAndGet();
+            return 10;
+        });
+
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void getValue_reloadedAfterRefresh() {
+        final List<Integer> values = new ArrayList<>(Arrays.asList(10, 20));
+        final PropertyHandle<Integer> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> values.remove(0));
+
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        propertyHandle.refresh();
+        assertEquals(Integer.valueOf(20), propertyHandle.getValue());
+        assertEquals(Integer.valueOf(20), propertyHandle.getValue());
+    }
+
+    @Test
+    public void getValue_perDomain() {
+        final List<String> loadedDomainCodes = new ArrayList<>();
+        final PropertyHandle<String> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> true, domainCode -> {
+            loadedDomainCodes.add(domainCode);
+            return "value_" + domainCode;
+        });
+
+        MDC.put(PropertyHandle.DOMAIN_MDC_KEY, "red");
+        assertEquals("value_red", propertyHandle.getValue());
+        assertEquals("value_red", propertyHandle.getValue());
+        MDC.put(PropertyHandle.DOMAIN_MDC_KEY, "blue");
+        assertEquals("value_blue", propertyHandle.getValue());
+        assertEquals("value_red", propertyHandle.getValue(new Domain("red", "red")));
+
+        assertEquals(Arrays.asList("red", "blue"), loadedDomainCodes);
+    }
+
+    @Test
+    public void getValue_globalPropertyIgnoresTheDomain() {
+        final List<String> loadedDomainCodes = new ArrayList<>();
+        final PropertyHandle<String> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> {
+            loadedDomainCodes.add(domainCode);
+            return "global";
+        });
+
+        MDC.put(PropertyHandle.DOMAIN_MDC_KEY, "red");
+        assertEquals("global", propertyHandle.getValue());
+        assertEquals("global", propertyHandle.getValue(new Domain("blue", "blue")));
+
+        assertEquals(Collections.singletonList(null), loadedDomainCodes);
+    }
+
+    @Test
+    public void getValue_notKeptWhenRefreshedWhileLoading() {
+        final List<PropertyHandle<Integer>> holder = new ArrayList<>();
+        final AtomicInteger loads = new AtomicInteger();
+        final PropertyHandle<Integer> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> {
+            if (loads.incrementAndGet() == 1) {
+                // the property changes while the former value is being read
+                holder.get(0).refresh();
+                return 10;
+            }
+            return 20;
+        });
+        holder.add(propertyHandle);
+
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        assertEquals(Integer.valueOf(20), propertyHandle.getValue());
+    }
+
+    @Test
+    public void getValue_nullValuesAreNotKept() {
+        final AtomicInteger loads = new AtomicInteger();
+        final PropertyHandle<Integer> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertNull(propertyHandle.getValue());
+        assertNull(propertyHandle.getValue());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void registry_refreshesTheHandlesOfTheProperty() {
+        final PropertyHandleRegistry propertyHandleRegistry = new PropertyHandleRegistry();
+        final List<Integer> values = new ArrayList<>(Arrays.asList(10, 20));
+        final PropertyHandle<Integer> propertyHandle = new PropertyHandle<>(PROPERTY_NAME, () -> false, domainCode -> values.remove(0));
+        propertyHandleRegistry.register(propertyHandle);
+
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        propertyHandleRegistry.refresh("domibus.other.property");
+        assertEquals(Integer.valueOf(10), propertyHandle.getValue());
+        propertyHandleRegistry.refresh(PROPERTY_NAME);
+        assertEquals(Integer.valueOf(20), propertyHandle.getValue());
+    }
+}
@@ -42,6 +42,9 @@ public class PropertyProviderDispatcherTest {
     @Injectable
     PropertyProviderHelper propertyProviderHelper;
 
+    @Injectable
+    PropertyHandleRegistry propertyHandleRegistry;
+
     @Mocked
     DomibusPropertyMetadata propMeta;
 
@@ -131,6 +134,7 @@ public class PropertyProviderDispatcherTest {
             times = 0;
             propertyProviderDispatcher.setExternalPropertyValue(domain, propertyName, propertyValue, true, (DomibusPropertyManagerExt) any);
             times = 0;
+            propertyHandleRegistry.refresh(propertyName);
         }};
     }
 
@@ -8,6 +8,7 @@ import eu.domibus.api.messaging.MessagingException;
 import eu.domibus.api.model.*;
 import eu.domibus.api.util.xml.XMLUtil;
 import eu.domibus.core.ebms3.EbMS3Exception;
+import eu.domibus.core.property.PropertyHandleProvider;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.hamcrest.CoreMatchers;
@@ -61,6 +62,9 @@ public class MessageUtilTest {
     @Injectable
     SoapUtil soapUtil;
 
+    @Injectable
+    PropertyHandleProvider propertyHandleProvider;
+
     @Test
     public void getMessaging(@Injectable SOAPMessage soapMessage,
                              @Injectable XMLStreamReader reader,
@@ -69,9 +73,11 @@ public class MessageUtilTest {
                              @Injectable JAXBElement<Messaging> root
     ) throws SOAPException, JAXBException, XMLStreamException, TransformerException {
         Ebms3Messaging expectedMessaging = new Ebms3Messaging();
-        new Expectations() {{
+        new Expectations(messageUtil) {{
             soapMessage.getSOAPHeader().getChildElements(ObjectFactory._Messaging_QNAME);
             result = node;
+            messageUtil.isFastParsingActive();
+            result = false;
             xmlUtil.getXmlStreamReaderFromNode(node);
             result = reader;
             jaxbContextEBMS.createUnmarshaller();
@@ -89,6 +95,36 @@ public class MessageUtilTest {
         }};
     }
 
+    @Test
+    public void getMessaging_fastParsing(@Injectable SOAPMessage soapMessage,
+                                         @Injectable Node node,
+                                         @Injectable Unmarshaller unmarshaller,
+                                         @Injectable JAXBElement<Ebms3Messaging> root
+    ) throws SOAPException, JAXBException, XMLStreamException, TransformerException {
+        Ebms3Messaging expectedMessaging = new Ebms3Messaging();
+        new Expectations(messageUtil) {{
+            soapMessage.getSOAPHeader().getChildElements(ObjectFactory._Messaging_QNAME);
+            result = node;
+            messageUtil.isFastParsingActive();
+            result = true;
+            jaxbContextEBMS.createUnmarshaller();
+            result = unmarshaller;
+            times = 1;
+            unmarshaller.unmarshal(node, Ebms3Messaging.class);
+            result = root;
+            root.getValue();
+            result = expectedMessaging;
+        }};
+
+        Assert.assertEquals(expectedMessaging, messageUtil.getMessaging(soapMessage));
+        Assert.assertEquals(expectedMessaging, messageUtil.getMessaging(soapMessage));
+
+        new FullVerifications() {{
+            xmlUtil.getXmlStreamReaderFromNode((Node) any);
+            times = 0;
+        }};
+    }
+
     @Test
     public void getMessagingWithDom(@Injectable SOAPMessage soapMessage,
                                     @Injectable Node messagingNode,
@@ -958,6 +994,8 @@ public class MessageUtilTest {
             result = true;
             iterator.next();
             result = messagingXml;
+            messageUtil.isFastParsingActive();
+            result = false;
             jaxbContextMessageFragment.createUnmarshaller();
             result = unmarshaller;
             unmarshaller.unmarshal(reader);
@@ -23,10 +23,14 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.soap.*;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.dom.DOMSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_LOGGING_EBMS3_ERROR_PRINT;
 
@@ -59,6 +63,32 @@ public class SoapUtilTest {
 
     }
 
+    @Test
+    public void getCompressedRawXMLMessageTest() throws Exception {
+        SOAPMessage soapMessage = SoapUtilTest.createSOAPMessage("SOAPMessage.xml");
+        final String rawXMLMessage = getSoapUtil().getRawXMLMessage(soapMessage);
+
+        byte[] compressedRawXMLMessage = getSoapUtil().getCompressedRawXMLMessage(soapMessage);
+
+        try (GZIPInputStream unzipStream = new GZIPInputStream(new ByteArrayInputStream(compressedRawXMLMessage))) {
+            Assert.assertEquals(rawXMLMessage, IOUtils.toString(unzipStream, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void writeRawXMLMessageTest() throws Exception {
+        SOAPMessage soapMessage = SoapUtilTest.createSOAPMessage("SOAPMessage.xml");
+        final SoapUtil soapUtil = getSoapUtil();
+        final String rawXMLMessage = soapUtil.getRawXMLMessage(soapMessage);
+        final Transformer transformer = soapUtil.getRawXmlTransformer();
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        soapUtil.writeRawXMLMessage(soapMessage.getSOAPPart(), outputStream);
+
+        Assert.assertEquals(rawXMLMessage, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertSame(transformer, soapUtil.getRawXmlTransformer());
+    }
+
     protected SoapUtil getSoapUtil() {
         return new SoapUtil(null, new XMLUtilImpl(null));
     }
@@ -6,6 +6,7 @@ import eu.domibus.api.model.MSHRoleEntity;
 import eu.domibus.api.util.DateUtil;
 import eu.domibus.common.ErrorCode;
 import eu.domibus.core.converter.AuditLogCoreMapper;
+import eu.domibus.core.csv.CsvPageProvider;
 import eu.domibus.core.csv.CsvServiceImpl;
 import eu.domibus.core.error.ErrorLogEntry;
 import eu.domibus.core.error.ErrorLogService;
@@ -15,14 +16,19 @@ import eu.domibus.web.rest.ro.ErrorLogResultRO;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import mockit.integration.junit4.JMockit;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 /**
  * @author Tiago Miguel
@@ -93,7 +99,7 @@ public class ErrorLogResourceTest {
     }
 
     @Test
-    public void testGetCsv() throws CsvException {
+    public void testGetCsv() throws CsvException, UnsupportedEncodingException {
         // Given
         Date date = new Date();
         List<ErrorLogEntry> errorLogEntries = new ArrayList<>();
@@ -137,16 +143,43 @@ public class ErrorLogResourceTest {
         }};
 
         // When
-        final ResponseEntity<String> csv = errorLogResource.getCsv(new ErrorLogFilterRequestRO() {{
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        errorLogResource.getCsv(new ErrorLogFilterRequestRO() {{
             setOrderBy("timestamp");
             setAsc(false);
-        }});
+        }}, response);
 
         // Then
-        Assert.assertEquals(HttpStatus.OK, csv.getStatusCode());
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatus());
         Assert.assertEquals(CSV_TITLE +
                         signalMessageIdStr + "," + MSHRole.RECEIVING + "," + refToMessageIdStr + "," + ErrorCode.EBMS_0001.getErrorCodeName() + "," +
                         errorDetailStr + "," + date + "," + date + System.lineSeparator(),
-                csv.getBody());
+                response.getContentAsString());
+    }
+
+    @Test
+    public void testGetCsv_streamedWithoutMaxRows() {
+        new Expectations() {{
+            csvServiceImpl.isStreamingExportEnabled();
+            result = true;
+        }};
+
+        errorLogResource.getCsv(new ErrorLogFilterRequestRO() {{
+            setOrderBy("timestamp");
+            setAsc(false);
+        }}, new MockHttpServletResponse());
+
+        new Verifications() {{
+            csvServiceImpl.exportToCSV((OutputStream) any, ErrorLogRO.class, (Map<String, String>) any, (List<String>) any,
+                    (CsvPageProvider<ErrorLogEntry>) any, (Function<ErrorLogEntry, ?>) any);
+            times = 1;
+
+            csvServiceImpl.validateMaxRows(anyLong);
+            times = 0;
+            csvServiceImpl.validateMaxRows(anyLong, (LongSupplier) any);
+            times = 0;
+            errorLogService.countEntries((HashMap<String, Object>) any);
+            times = 0;
+        }};
     }
 }
@@ -8,6 +8,7 @@ import eu.domibus.api.model.NotificationStatus;
 import eu.domibus.api.property.DomibusConfigurationService;
 import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.api.util.DateUtil;
+import eu.domibus.core.csv.CsvPageProvider;
 import eu.domibus.core.csv.CsvServiceImpl;
 import eu.domibus.core.message.MessageLogInfo;
 import eu.domibus.core.message.MessagesLogService;
@@ -20,14 +21,19 @@ import eu.domibus.web.rest.ro.MessageLogResultRO;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Tested;
+import mockit.Verifications;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 /**
  * @author Tiago Miguel
@@ -119,7 +125,7 @@ public class MessageLogResourceParamTest {
     }
 
     @Test
-    public void testMessageLogInfoGetCsv() throws CsvException {
+    public void testMessageLogInfoGetCsv() throws CsvException, UnsupportedEncodingException {
         // Given
         Date date = new Date();
         List<MessageLogInfo> messageList = getMessageList(messageType, date, testMessage);
@@ -136,19 +142,48 @@ public class MessageLogResourceParamTest {
         }};
 
         // When
-        final ResponseEntity<String> csv = messageLogResource.getCsv(new MessageLogFilterRequestRO() {{
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        messageLogResource.getCsv(new MessageLogFilterRequestRO() {{
             setOrderBy("received");
             setMessageType(messageType);
             setTestMessage(testMessage);
             setFields(new ArrayList<>());
-        }});
+        }}, response);
 
         // Then
-        Assert.assertEquals(HttpStatus.OK, csv.getStatusCode());
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatus());
         Assert.assertEquals(CSV_TITLE +
                         "conversationId,fromPartyId,toPartyId,originalSender,finalRecipient,refToMessageId,messageId," + MessageStatus.ACKNOWLEDGED + "," + NotificationStatus.NOTIFIED + "," +
                         MSHRole.RECEIVING + "," + messageType + "," + date + "," + date + ",1,5," + date + "," + date + "," + date + "," + testMessage + System.lineSeparator(),
-                csv.getBody());
+                response.getContentAsString());
+    }
+
+    @Test
+    public void testMessageLogInfoGetCsv_streamedWithoutMaxRows() {
+        new Expectations() {{
+            csvServiceImpl.isStreamingExportEnabled();
+            result = true;
+        }};
+
+        messageLogResource.getCsv(new MessageLogFilterRequestRO() {{
+            setOrderBy("received");
+            setMessageType(messageType);
+            setTestMessage(testMessage);
+            setFields(new ArrayList<>());
+        }}, new MockHttpServletResponse());
+
+        new Verifications() {{
+            csvServiceImpl.exportToCSV((OutputStream) any, MessageLogInfo.class, (Map<String, String>) any, (List<String>) any,
+                    (CsvPageProvider<MessageLogInfo>) any, (Function<MessageLogInfo, ?>) any);
+            times = 1;
+
+            csvServiceImpl.getMaxNumberRowsToExport();
+            times = 0;
+            csvServiceImpl.validateMaxRows(anyLong, (LongSupplier) any);
+            times = 0;
+            messagesLogService.countMessages(messageType, (Map<String, Object>) any);
+            times = 0;
+        }};
     }
 
     /**
@@ -210,7 +245,7 @@ public class MessageLogResourceParamTest {
                 date, date, 1, 5, date, 1L,
                 "conversationId", 1L, 1L, "originalSender", "finalRecipient",
                 "refToMessageId", date, date, testMessage, false, false, 1L, 1L,
-                "pluginType", 1L, date);
+                "pluginType", 1L, date, 1L);
         result.add(messageLog);
         return result;
     }
@@ -80,6 +80,22 @@ public class WSBackendMessageLogDao extends WSBasicDao<WSBackendMessageLogEntity
         return query.getResultList();
     }
 
+    /**
+     * Find the oldest notifications of the rules with batching enabled that were not pushed yet
+     *
+     * @param maxCount the maximum number of notifications returned; the remaining ones are found by the next calls
+     */
+    public List<WSBackendMessageLogEntity> findBatchPendingMessages(int maxCount) {
+        TypedQuery<WSBackendMessageLogEntity> query = em.createNamedQuery(
+                "WSBackendMessageLogEntity.findBatchPendingMessages",
+                WSBackendMessageLogEntity.class);
+        query.setParameter("CURRENT_TIMESTAMP", dateExtService.getUtcDate());
+        query.setParameter("BACKEND_MESSAGE_STATUS", WSBackendMessageStatus.WAITING_FOR_RETRY);
+        query.setMaxResults(maxCount);
+
+        return query.getResultList();
+    }
+
     public WSBackendMessageLogEntity getById(long backendMessageEntityId) {
         return em.find(typeOfT, backendMessageEntityId);
     }
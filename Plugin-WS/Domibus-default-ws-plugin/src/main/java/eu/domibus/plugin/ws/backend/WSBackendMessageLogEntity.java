@@ -27,6 +27,14 @@ import java.util.Date;
                 "and 1 <= backendMessage.sendAttempts " +
                 "and backendMessage.sendAttempts <= backendMessage.sendAttemptsMax " +
                 "and (backendMessage.scheduled is null or backendMessage.scheduled=false)")
+@NamedQuery(name = "WSBackendMessageLogEntity.findBatchPendingMessages",
+        query = "select backendMessage " +
+                "from WSBackendMessageLogEntity backendMessage " +
+                "where backendMessage.backendMessageStatus = :BACKEND_MESSAGE_STATUS " +
+                "and backendMessage.nextAttempt < :CURRENT_TIMESTAMP " +
+                "and backendMessage.sendAttempts = 0 " +
+                "and (backendMessage.scheduled is null or backendMessage.scheduled=false) " +
+                "order by backendMessage.entityId")
 public class WSBackendMessageLogEntity extends AbstractWSEntity {
 
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSBackendMessageLogEntity.class);
@@ -0,0 +1,167 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import eu.domibus.ext.domain.metrics.Timer;
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.springframework.stereotype.Service;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_CLIENT_POOL_SIZE;
+
+/**
+ * Pool of dispatch clients, per domain and endpoint, used to push the notifications to the backends.
+ * <p>
+ * Creating the dispatch client (JAX-WS service, CXF conduit, TLS and proxy configuration) is expensive so the clients
+ * are reused, keeping their HTTP connections alive. A client is used by one thread at a time: it is borrowed before the
+ * dispatch and released afterwards. The pooled clients are discarded when they were idle for longer than the configured
+ * timeout, when the TLS configuration of the domain was reloaded or when the dispatcher or proxy properties change.
+ * <p>
+ * The metric wsplugin_dispatch_client_borrow counts all the clients borrowed while wsplugin_dispatch_client_create
+ * counts the pool misses.
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class WSPluginDispatchClientPool {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchClientPool.class);
+
+    protected final Map<String, Deque<PooledDispatchClient>> idleClients = new ConcurrentHashMap<>();
+
+    private final WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+
+    private final WSPluginPropertyManager wsPluginPropertyManager;
+
+    public WSPluginDispatchClientPool(WSPluginDispatchClientProvider wsPluginDispatchClientProvider,
+                                      WSPluginPropertyManager wsPluginPropertyManager) {
+        this.wsPluginDispatchClientProvider = wsPluginDispatchClientProvider;
+        this.wsPluginPropertyManager = wsPluginPropertyManager;
+    }
+
+    @Timer(clazz = WSPluginDispatchClientPool.class, value = "wsplugin_dispatch_client_borrow")
+    public Dispatch<SOAPMessage> borrowClient(String domain, String endpoint) {
+        final Deque<PooledDispatchClient> clients = getIdleClients(domain, endpoint);
+        final TLSClientParameters tlsClientParameters = wsPluginDispatchClientProvider.getTlsClientParameters(domain, endpoint);
+        final long idleSince = System.currentTimeMillis() - getIdleTimeout(domain);
+
+        PooledDispatchClient pooledClient;
+        while ((pooledClient = clients.pollFirst()) != null) {
+            if (pooledClient.isReusable(tlsClientParameters, idleSince)) {
+                LOG.debug("Reusing the dispatch client for ws plugin endpoint [{}] on domain [{}]", endpoint, domain);
+                return pooledClient.getDispatch();
+            }
+            LOG.debug("Discarding the stale dispatch client for ws plugin endpoint [{}] on domain [{}]", endpoint, domain);
+            wsPluginDispatchClientProvider.destroyClient(pooledClient.getDispatch());
+        }
+        return wsPluginDispatchClientProvider.getClient(domain, endpoint);
+    }
+
+    public void releaseClient(String domain, String endpoint, Dispatch<SOAPMessage> dispatch) {
+        final Deque<PooledDispatchClient> clients = getIdleClients(domain, endpoint);
+        final long now = System.currentTimeMillis();
+        removeIdleClients(clients, now - getIdleTimeout(domain));
+
+        if (clients.size() >= getPoolSize(domain)) {
+            LOG.debug("Pool of dispatch clients for ws plugin endpoint [{}] on domain [{}] is full", endpoint, domain);
+            wsPluginDispatchClientProvider.destroyClient(dispatch);
+            return;
+        }
+        clients.offerFirst(new PooledDispatchClient(dispatch, wsPluginDispatchClientProvider.getTlsClientParameters(dispatch), now));
+    }
+
+    /**
+     * Destroys a borrowed client that should not be reused, e.g. after a failed dispatch
+     */
+    public void discardClient(Dispatch<SOAPMessage> dispatch) {
+        wsPluginDispatchClientProvider.destroyClient(dispatch);
+    }
+
+    /**
+     * Discards the pooled clients of the domain or of all the domains if the domain is blank
+     */
+    public void invalidate(String domain) {
+        LOG.debug("Discarding the pooled dispatch clients of domain [{}]", domain);
+        final String keyPrefix = StringUtils.isBlank(domain) ? StringUtils.EMPTY : getKey(domain, StringUtils.EMPTY);
+        idleClients.forEach((key, clients) -> {
+            if (key.startsWith(keyPrefix)) {
+                PooledDispatchClient pooledClient;
+                while ((pooledClient = clients.pollFirst()) != null) {
+                    wsPluginDispatchClientProvider.destroyClient(pooledClient.getDispatch());
+                }
+            }
+        });
+    }
+
+    protected void removeIdleClients(Deque<PooledDispatchClient> clients, long idleSince) {
+        final Iterator<PooledDispatchClient> iterator = clients.descendingIterator();
+        while (iterator.hasNext()) {
+            final PooledDispatchClient pooledClient = iterator.next();
+            if (pooledClient.getReleaseTime() >= idleSince) {
+                return;
+            }
+            if (clients.removeLastOccurrence(pooledClient)) {
+                wsPluginDispatchClientProvider.destroyClient(pooledClient.getDispatch());
+            }
+        }
+    }
+
+    protected Deque<PooledDispatchClient> getIdleClients(String domain, String endpoint) {
+        return idleClients.computeIfAbsent(getKey(domain, endpoint), key -> new ConcurrentLinkedDeque<>());
+    }
+
+    protected String getKey(String domain, String endpoint) {
+        return domain + "|" + endpoint;
+    }
+
+    protected int getPoolSize(String domain) {
+        return NumberUtils.toInt(wsPluginPropertyManager.getKnownPropertyValue(domain, DISPATCHER_CLIENT_POOL_SIZE));
+    }
+
+    protected long getIdleTimeout(String domain) {
+        return TimeUnit.SECONDS.toMillis(NumberUtils.toLong(wsPluginPropertyManager.getKnownPropertyValue(domain, DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT)));
+    }
+
+    protected static class PooledDispatchClient {
+
+        private final Dispatch<SOAPMessage> dispatch;
+
+        private final TLSClientParameters tlsClientParameters;
+
+        private final long releaseTime;
+
+        protected PooledDispatchClient(Dispatch<SOAPMessage> dispatch, TLSClientParameters tlsClientParameters, long releaseTime) {
+            this.dispatch = dispatch;
+            this.tlsClientParameters = tlsClientParameters;
+            this.releaseTime = releaseTime;
+        }
+
+        /**
+         * The TLS parameters are cached per domain by Domibus and replaced when the TLS truststore is reloaded
+         */
+        protected boolean isReusable(TLSClientParameters currentTlsClientParameters, long idleSince) {
+            return releaseTime >= idleSince && tlsClientParameters == currentTlsClientParameters;
+        }
+
+        protected Dispatch<SOAPMessage> getDispatch() {
+            return dispatch;
+        }
+
+        protected long getReleaseTime() {
+            return releaseTime;
+        }
+    }
+}
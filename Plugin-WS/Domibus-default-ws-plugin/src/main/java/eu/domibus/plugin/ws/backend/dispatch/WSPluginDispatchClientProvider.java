@@ -1,5 +1,6 @@
 package eu.domibus.plugin.ws.backend.dispatch;
 
+import eu.domibus.ext.domain.metrics.Timer;
 import eu.domibus.ext.services.ProxyCxfUtilExtService;
 import eu.domibus.ext.services.TLSReaderExtService;
 import eu.domibus.logging.DomibusLogger;
@@ -58,6 +59,7 @@ public class WSPluginDispatchClientProvider {
         this.wsLoggingFeature = wsLoggingFeature;
     }
 
+    @Timer(clazz = WSPluginDispatchClientProvider.class, value = "wsplugin_dispatch_client_create")
     public Dispatch<SOAPMessage> getClient(String domain, String endpoint) {
         LOG.debug("Getting the dispatch client for ws plugin endpoint [{}] on domain [{}]", endpoint, domain);
 
@@ -69,11 +71,9 @@ public class WSPluginDispatchClientProvider {
         httpConduit.setClient(httpClientPolicy);
         setHttpClientPolicy(httpClientPolicy);
 
-        if (endpoint.startsWith("https://")) {
-            final TLSClientParameters params = tlsReaderDelegate.getTlsClientParameters(domain);
-            if (params != null) {
-                httpConduit.setTlsClientParameters(params);
-            }
+        final TLSClientParameters params = getTlsClientParameters(domain, endpoint);
+        if (params != null) {
+            httpConduit.setTlsClientParameters(params);
         }
 
         proxyUtilExtService.configureProxy(httpClientPolicy, httpConduit);
@@ -82,6 +82,29 @@ public class WSPluginDispatchClientProvider {
         return dispatch;
     }
 
+    public TLSClientParameters getTlsClientParameters(String domain, String endpoint) {
+        if (!endpoint.startsWith("https://")) {
+            return null;
+        }
+        return tlsReaderDelegate.getTlsClientParameters(domain);
+    }
+
+    public TLSClientParameters getTlsClientParameters(Dispatch<SOAPMessage> dispatch) {
+        return getHttpConduit(dispatch).getTlsClientParameters();
+    }
+
+    public void destroyClient(Dispatch<SOAPMessage> dispatch) {
+        try {
+            ((DispatchImpl<SOAPMessage>) dispatch).getClient().destroy();
+        } catch (RuntimeException e) {
+            LOG.debug("Could not destroy the dispatch client", e);
+        }
+    }
+
+    protected HTTPConduit getHttpConduit(Dispatch<SOAPMessage> dispatch) {
+        return (HTTPConduit) ((DispatchImpl<SOAPMessage>) dispatch).getClient().getConduit();
+    }
+
     protected Dispatch<SOAPMessage> createWSServiceDispatcher(String endpoint) {
 
         final javax.xml.ws.Service service = javax.xml.ws.Service.create(SERVICE_NAME);
@@ -28,48 +28,59 @@ public class WSPluginDispatcher {
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatcher.class);
     private final DomainContextExtService domainContextExtService;
 
-    private final WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+    private final WSPluginDispatchClientPool wsPluginDispatchClientPool;
     private final WSPluginPropertyManager wsPluginPropertyManager;
 
     public WSPluginDispatcher(DomainContextExtService domainContextExtService,
-                              WSPluginDispatchClientProvider wsPluginDispatchClientProvider,
+                              WSPluginDispatchClientPool wsPluginDispatchClientPool,
                               WSPluginPropertyManager wsPluginPropertyManager) {
         this.domainContextExtService = domainContextExtService;
-        this.wsPluginDispatchClientProvider = wsPluginDispatchClientProvider;
+        this.wsPluginDispatchClientPool = wsPluginDispatchClientPool;
         this.wsPluginPropertyManager = wsPluginPropertyManager;
     }
 
     public SOAPMessage dispatch(final SOAPMessage soapMessage, String endpoint) {
         DomainDTO domain = domainContextExtService.getCurrentDomain();
 
-        final Dispatch<SOAPMessage> dispatch = wsPluginDispatchClientProvider.getClient(domain.getCode(), endpoint);
+        final Dispatch<SOAPMessage> dispatch = wsPluginDispatchClientPool.borrowClient(domain.getCode(), endpoint);
 
         final SOAPMessage result;
+        boolean reusable = false;
         try {
             // adding basic authentication when notifying C4 via push events
             String username = wsPluginPropertyManager.getKnownPropertyValue(WSPluginPropertyManager.DISPATCHER_PUSH_AUTH_USERNAME);
             String password = wsPluginPropertyManager.getKnownPropertyValue(WSPluginPropertyManager.DISPATCHER_PUSH_AUTH_PASSWORD);
+            Map<String, List<String>> requestHeaders = (Map<String, List<String>>) dispatch.getRequestContext().get(MessageContext.HTTP_REQUEST_HEADERS);
+            if (requestHeaders == null) {
+                requestHeaders = new HashMap<>();
+            }
             if (isNoneBlank(username, password)) {
                 String credentials = username+":"+password;
                 String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes());
 
-                Map<String, List<String>> requestHeaders = (Map<String, List<String>>) dispatch.getRequestContext().get(MessageContext.HTTP_REQUEST_HEADERS);
-                if (requestHeaders == null) {
-                    requestHeaders = new HashMap<>();
-                }
                 requestHeaders.put("Authorization", Arrays.asList("Basic " + encodedCredentials));
-
-                dispatch.getRequestContext().put(MessageContext.HTTP_REQUEST_HEADERS, requestHeaders);
                 LOG.debug("Authorization header added for user [{}]", username);
+            } else {
+                // the dispatch client is reused so the header of a previous configuration has to be removed
+                requestHeaders.remove("Authorization");
             }
+            dispatch.getRequestContext().put(MessageContext.HTTP_REQUEST_HEADERS, requestHeaders);
 
             result = dispatch.invoke(soapMessage);
+            reusable = true;
         } catch (final WebServiceException e) {
             Exception exception = e;
             if (e.getCause() instanceof ConnectException) {
                 exception = new WebServiceException("Error dispatching message to [" + endpoint + "]: possible reason is that the receiver is not available", e);
             }
             throw new WSPluginException("Error dispatching message to " + endpoint, exception);
+        } finally {
+            // the state of a client that failed is unknown so it is not given back to the pool
+            if (reusable) {
+                wsPluginDispatchClientPool.releaseClient(domain.getCode(), endpoint, dispatch);
+            } else {
+                wsPluginDispatchClientPool.discardClient(dispatch);
+            }
         }
         return result;
     }
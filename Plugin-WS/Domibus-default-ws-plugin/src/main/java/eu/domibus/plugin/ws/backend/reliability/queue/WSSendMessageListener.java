@@ -8,19 +8,14 @@ import eu.domibus.logging.DomibusLogger;
 import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.logging.MDCKey;
 import eu.domibus.messaging.MessageConstants;
-import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
-import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
-import eu.domibus.plugin.ws.backend.dispatch.WSPluginMessageSender;
+import eu.domibus.plugin.ws.backend.reliability.retry.WSPluginBackendScheduleRetryService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
 
-import static eu.domibus.plugin.ws.backend.WSBackendMessageType.DELETED_BATCH;
 import static eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener.WS_SEND_MESSAGE_LISTENER;
 
 /**
@@ -40,24 +35,28 @@ public class WSSendMessageListener implements MessageListener {
 
     public static final String TYPE = "TYPE";
 
-    private final WSPluginMessageSender wsPluginMessageSender;
-    private final WSBackendMessageLogDao wsBackendMessageLogDao;
+    /**
+     * Entity ids, separated by {@link WSPluginBackendScheduleRetryService#BACKEND_MESSAGE_ID_SEPARATOR}, of the backend messages sent in batch
+     */
+    public static final String IDS = "IDS";
+
+    private final WSSendMessageService wsSendMessageService;
     private final DomainContextExtService domainContextExtService;
     private final AuthenticationExtService authenticationExtService;
 
 
-    public WSSendMessageListener(WSPluginMessageSender wsPluginMessageSender,
-                                 WSBackendMessageLogDao wsBackendMessageLogDao,
+    public WSSendMessageListener(WSSendMessageService wsSendMessageService,
                                  DomainContextExtService domainContextExtService,
                                  AuthenticationExtService authenticationExtService) {
-        this.wsPluginMessageSender = wsPluginMessageSender;
-        this.wsBackendMessageLogDao = wsBackendMessageLogDao;
+        this.wsSendMessageService = wsSendMessageService;
         this.domainContextExtService = domainContextExtService;
         this.authenticationExtService = authenticationExtService;
     }
 
+    /**
+     * The notifications are sent by {@link WSSendMessageService}, each one in its own transaction
+     */
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 1200)// 20 minutes
     @MDCKey(value = {DomibusLogger.MDC_MESSAGE_ID, DomibusLogger.MDC_MESSAGE_ROLE, DomibusLogger.MDC_MESSAGE_ENTITY_ID}, cleanOnStart = true)
     public void onMessage(Message message) {
         authenticationExtService.runWithSecurityContext(() -> doOnMessage(message),
@@ -71,6 +70,12 @@ public class WSSendMessageListener implements MessageListener {
         String type;
         try {
             domain = message.getStringProperty(MessageConstants.DOMAIN);
+            String ids = message.getStringProperty(IDS);
+            if (StringUtils.isNotBlank(ids)) {
+                domainContextExtService.setCurrentDomain(new DomainDTO(domain, domain));
+                sendBatch(domain, ids);
+                return;
+            }
             messageId = message.getStringProperty(MessageConstants.MESSAGE_ID);
             id = message.getLongProperty(ID);
             type = message.getStringProperty(TYPE);
@@ -82,34 +87,17 @@ public class WSSendMessageListener implements MessageListener {
         domainContextExtService.setCurrentDomain(new DomainDTO(domain, domain));
         LOG.debug("received message on wsPluginSendQueue for domain: [{}], backend message id [{}] and type [{}]", domain, id, type);
 
-        WSBackendMessageLogEntity backendMessage = wsBackendMessageLogDao.getById(id);
-
-        if (backendMessage == null) {
-            LOG.error("Error while consuming JMS message: [{}] entity not found.", id);
-            return;
-        }
-
-        putMDCDomibusId(backendMessage, messageId);
-
-        if (!StringUtils.equalsAnyIgnoreCase(messageId, backendMessage.getMessageId())) {
-            LOG.error("Error while consuming JMS message: domibus message id incoherent [{}] =/= [{}]", messageId, backendMessage.getMessageId());
-            return;
-        }
-
-        if (!StringUtils.equalsAnyIgnoreCase(type, backendMessage.getType().name())) {
-            LOG.error("Error while consuming JMS message: type incoherent [{}] =/= [{}]", type, backendMessage.getType().name());
-            return;
-        }
-
-        wsPluginMessageSender.sendNotification(backendMessage);
-        backendMessage.setScheduled(false);
+        wsSendMessageService.sendNotification(id, messageId, type);
     }
 
-    private void putMDCDomibusId(WSBackendMessageLogEntity backendMessage, String messageId) {
-        if (backendMessage.getType() == DELETED_BATCH) {
-            LOG.debug("MessageIds for DELETED_BATCH: [{}]", backendMessage.getMessageIds());
-            return;
+    protected void sendBatch(String domain, String ids) {
+        LOG.debug("received batch on wsPluginSendQueue for domain: [{}] and backend message ids [{}]", domain, ids);
+        for (String id : StringUtils.split(ids, WSPluginBackendScheduleRetryService.BACKEND_MESSAGE_ID_SEPARATOR)) {
+            try {
+                wsSendMessageService.sendBatchNotification(Long.parseLong(StringUtils.trim(id)));
+            } catch (RuntimeException e) {
+                LOG.error("Error while sending the backend message [{}] of the batch", id, e);
+            }
         }
-        LOG.putMDC(DomibusLogger.MDC_MESSAGE_ID, messageId);
     }
 }
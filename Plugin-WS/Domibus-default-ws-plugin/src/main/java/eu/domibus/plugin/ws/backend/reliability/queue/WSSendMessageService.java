@@ -0,0 +1,92 @@
+package eu.domibus.plugin.ws.backend.reliability.queue;
+
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginMessageSender;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static eu.domibus.plugin.ws.backend.WSBackendMessageType.DELETED_BATCH;
+
+/**
+ * Sends the backend notifications consumed from the WS plugin send queue, each notification in its own transaction
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class WSSendMessageService {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSSendMessageService.class);
+
+    private final WSPluginMessageSender wsPluginMessageSender;
+
+    private final WSBackendMessageLogDao wsBackendMessageLogDao;
+
+    public WSSendMessageService(WSPluginMessageSender wsPluginMessageSender,
+                                WSBackendMessageLogDao wsBackendMessageLogDao) {
+        this.wsPluginMessageSender = wsPluginMessageSender;
+        this.wsBackendMessageLogDao = wsBackendMessageLogDao;
+    }
+
+    /**
+     * Sends the notification scheduled alone on the send queue, after checking it matches the JMS message
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 1200)// 20 minutes
+    public void sendNotification(long id, String messageId, String type) {
+        WSBackendMessageLogEntity backendMessage = wsBackendMessageLogDao.getById(id);
+
+        if (backendMessage == null) {
+            LOG.error("Error while consuming JMS message: [{}] entity not found.", id);
+            return;
+        }
+
+        putMDCDomibusId(backendMessage, messageId);
+
+        if (!StringUtils.equalsAnyIgnoreCase(messageId, backendMessage.getMessageId())) {
+            LOG.error("Error while consuming JMS message: domibus message id incoherent [{}] =/= [{}]", messageId, backendMessage.getMessageId());
+            return;
+        }
+
+        if (!StringUtils.equalsAnyIgnoreCase(type, backendMessage.getType().name())) {
+            LOG.error("Error while consuming JMS message: type incoherent [{}] =/= [{}]", type, backendMessage.getType().name());
+            return;
+        }
+
+        wsPluginMessageSender.sendNotification(backendMessage);
+        backendMessage.setScheduled(false);
+    }
+
+    /**
+     * Sends one notification of a batch; the notification is committed independently of the other notifications of the batch.
+     * A notification already handled, e.g. when the JMS message of the batch is redelivered, is not sent again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 1200)// 20 minutes
+    public void sendBatchNotification(long id) {
+        WSBackendMessageLogEntity backendMessage = wsBackendMessageLogDao.getById(id);
+        if (backendMessage == null) {
+            LOG.error("Error while consuming JMS message: [{}] entity not found.", id);
+            return;
+        }
+        if (BooleanUtils.isNotTrue(backendMessage.getScheduled())) {
+            LOG.debug("Backend message [{}] of the batch was already handled", id);
+            return;
+        }
+        putMDCDomibusId(backendMessage, backendMessage.getMessageId());
+        wsPluginMessageSender.sendNotification(backendMessage);
+        backendMessage.setScheduled(false);
+    }
+
+    private void putMDCDomibusId(WSBackendMessageLogEntity backendMessage, String messageId) {
+        if (backendMessage.getType() == DELETED_BATCH) {
+            LOG.debug("MessageIds for DELETED_BATCH: [{}]", backendMessage.getMessageIds());
+            return;
+        }
+        LOG.putMDC(DomibusLogger.MDC_MESSAGE_ID, messageId);
+    }
+}
@@ -10,9 +10,12 @@ import eu.domibus.logging.DomibusLoggerFactory;
 import eu.domibus.messaging.MessageConstants;
 import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
 import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.backend.WSBackendMessageStatus;
 import eu.domibus.plugin.ws.backend.WSBackendMessageType;
 import eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener;
 import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRule;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -22,13 +25,24 @@ import org.springframework.util.CollectionUtils;
 import javax.jms.JMSException;
 import javax.jms.Queue;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static eu.domibus.plugin.ws.backend.reliability.queue.WSMessageListenerContainerConfiguration.WS_PLUGIN_SEND_QUEUE;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_WORKER_BATCH_MAX_COUNT;
 import static java.lang.String.join;
 
 /**
+ * Schedules the backend notifications on the WS plugin send queue.
+ * <p>
+ * The notifications of the rules with batching enabled are not scheduled right away: they are persisted and grouped per
+ * rule by the retry worker, each group of up to {@link WSPluginDispatchRule#getBatchSize()} notifications being sent to
+ * the backend by one JMS message. One run of the worker schedules at most
+ * {@link WSPluginPropertyManager#DISPATCHER_WORKER_BATCH_MAX_COUNT} of these notifications.
+ *
  * @author Francois Gautier
  * @since 5.0
  */
@@ -36,6 +50,8 @@ import static java.lang.String.join;
 public class WSPluginBackendScheduleRetryService {
     public static final String MESSAGE_ID_SEPARATOR = ";";
 
+    public static final String BACKEND_MESSAGE_ID_SEPARATOR = ",";
+
     private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginBackendScheduleRetryService.class);
 
     private final WSBackendMessageLogDao wsBackendMessageLogDao;
@@ -44,12 +60,20 @@ public class WSPluginBackendScheduleRetryService {
 
     protected Queue wsPluginSendQueue;
 
+    protected WSPluginDispatchRulesService rulesService;
+
+    protected WSPluginPropertyManager wsPluginPropertyManager;
+
     public WSPluginBackendScheduleRetryService(WSBackendMessageLogDao wsBackendMessageLogDao,
                                                JMSExtService jmsExtService,
-                                               @Qualifier(WS_PLUGIN_SEND_QUEUE) Queue wsPluginSendQueue) {
+                                               @Qualifier(WS_PLUGIN_SEND_QUEUE) Queue wsPluginSendQueue,
+                                               WSPluginDispatchRulesService rulesService,
+                                               WSPluginPropertyManager wsPluginPropertyManager) {
         this.wsBackendMessageLogDao = wsBackendMessageLogDao;
         this.jmsExtService = jmsExtService;
         this.wsPluginSendQueue = wsPluginSendQueue;
+        this.rulesService = rulesService;
+        this.wsPluginPropertyManager = wsPluginPropertyManager;
     }
 
     public List<WSBackendMessageLogEntity> getMessagesNotAlreadyScheduled() {
@@ -73,11 +97,62 @@ public class WSPluginBackendScheduleRetryService {
             for (final WSBackendMessageLogEntity backendMessage : messagesNotAlreadyQueued) {
                 scheduleBackendMessage(backendMessage);
             }
+            scheduleBatchPendingMessages();
         } catch (Exception e) {
             LOG.error("Error while sending notifications.", e);
         }
     }
 
+    protected void scheduleBatchPendingMessages() {
+        final int maxCount = wsPluginPropertyManager.getKnownIntegerPropertyValue(DISPATCHER_WORKER_BATCH_MAX_COUNT);
+        final List<WSBackendMessageLogEntity> pendingMessages = wsBackendMessageLogDao.findBatchPendingMessages(maxCount);
+        if (CollectionUtils.isEmpty(pendingMessages)) {
+            LOG.trace("No backend message found to be sent in batch");
+            return;
+        }
+        LOG.debug("Found [{}] backend messages to be sent in batch.", pendingMessages.size());
+
+        final Map<String, List<WSBackendMessageLogEntity>> pendingMessagesByRule = pendingMessages.stream()
+                .collect(Collectors.groupingBy(message -> StringUtils.defaultString(message.getRuleName()), LinkedHashMap::new, Collectors.toList()));
+        pendingMessagesByRule.forEach((ruleName, messages) -> {
+            final int batchSize = getBatchSize(ruleName);
+            for (int i = 0; i < messages.size(); i += batchSize) {
+                scheduleBackendMessages(messages.subList(i, Math.min(i + batchSize, messages.size())));
+            }
+        });
+    }
+
+    /**
+     * Returns the batch size of the rule, or 1 when the rule was removed or renamed since the messages were persisted
+     */
+    protected int getBatchSize(String ruleName) {
+        final WSPluginDispatchRule rule = rulesService.getRule(ruleName);
+        if (rule == null || !StringUtils.equalsIgnoreCase(ruleName, rule.getRuleName())) {
+            LOG.warn("Rule [{}] not found: its pending backend messages are sent one by one", ruleName);
+            return 1;
+        }
+        return Math.max(1, rule.getBatchSize());
+    }
+
+    public void scheduleBackendMessages(List<WSBackendMessageLogEntity> backendMessages) {
+        if (backendMessages.size() == 1) {
+            scheduleBackendMessage(backendMessages.get(0));
+            return;
+        }
+        final String backendMessageIds = backendMessages.stream()
+                .map(backendMessage -> String.valueOf(backendMessage.getEntityId()))
+                .collect(Collectors.joining(BACKEND_MESSAGE_ID_SEPARATOR));
+        LOG.debug("Send batch of backendMessages [{}] to queue [{}]", backendMessageIds, getQueueName());
+
+        final JmsMessageDTO jmsMessage = JMSMessageDTOBuilder.
+                create()
+                .property(MessageConstants.MSH_ROLE, MSHRole.SENDING.name())
+                .property(WSSendMessageListener.IDS, backendMessageIds)
+                .build();
+        jmsExtService.sendMessageToQueue(jmsMessage, wsPluginSendQueue);
+        backendMessages.forEach(backendMessage -> backendMessage.setScheduled(true));
+    }
+
     public void scheduleBackendMessage(WSBackendMessageLogEntity backendMessage) {
         LOG.debug("Send backendMessage [{}] to queue [{}]", backendMessage.getEntityId(), getQueueName());
 
@@ -104,6 +179,14 @@ public class WSPluginBackendScheduleRetryService {
     @Transactional
     public void schedule(String messageId, long messageEntityId, Map<String, String> props, WSPluginDispatchRule rule, WSBackendMessageType messageType) {
         WSBackendMessageLogEntity backendMessage = createWsBackendMessageLogEntity(messageId, messageEntityId, messageType, props, rule);
+        if (rule.isBatchEnabled()) {
+            LOG.debug("Backend message for domibus message [{}] deferred to be sent in batch by rule [{}]", messageId, rule.getRuleName());
+            backendMessage.setBackendMessageStatus(WSBackendMessageStatus.WAITING_FOR_RETRY);
+            backendMessage.setNextAttempt(new Date());
+            backendMessage.setScheduled(false);
+            wsBackendMessageLogDao.create(backendMessage);
+            return;
+        }
         wsBackendMessageLogDao.create(backendMessage);
         scheduleBackendMessage(backendMessage);
     }
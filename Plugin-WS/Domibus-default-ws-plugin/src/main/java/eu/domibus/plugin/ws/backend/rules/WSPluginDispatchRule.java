@@ -20,6 +20,7 @@ public class WSPluginDispatchRule {
     private final Integer retryTimeout;
     private final Integer retryCount;
     private final WSPluginRetryStrategyType retryStrategy;
+    private final int batchSize;
 
     public WSPluginDispatchRule(String description,
                                 String recipient,
@@ -29,7 +30,8 @@ public class WSPluginDispatchRule {
                                 String retry,
                                 Integer retryTimeout,
                                 Integer retryCount,
-                                WSPluginRetryStrategyType retryStrategy) {
+                                WSPluginRetryStrategyType retryStrategy,
+                                int batchSize) {
         this.description = description;
         this.recipient = recipient;
         this.ruleName = ruleName;
@@ -39,6 +41,7 @@ public class WSPluginDispatchRule {
         this.retryTimeout = retryTimeout;
         this.retryCount = retryCount;
         this.retryStrategy = retryStrategy;
+        this.batchSize = batchSize;
     }
 
     public String getDescription() {
@@ -77,6 +80,17 @@ public class WSPluginDispatchRule {
         return retryStrategy;
     }
 
+    /**
+     * @return the maximum number of notifications of this rule pushed together, in one transaction and over the same connection
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchSize > 1;
+    }
+
     @Override
     public String toString() {
         return "WSPluginDispatchRule{" +
@@ -88,6 +102,7 @@ public class WSPluginDispatchRule {
                 ", retryTimeout=" + retryTimeout +
                 ", retryCount=" + retryCount +
                 ", retryStrategy=" + retryStrategy +
+                ", batchSize=" + batchSize +
                 '}';
     }
 }
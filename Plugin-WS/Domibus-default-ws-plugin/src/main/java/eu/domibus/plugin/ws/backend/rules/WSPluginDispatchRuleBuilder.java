@@ -19,6 +19,7 @@ public class WSPluginDispatchRuleBuilder {
     private Integer retryTimeout;
     private Integer retryCount;
     private WSPluginRetryStrategyType retryStrategy;
+    private int batchSize = 1;
 
     public WSPluginDispatchRule build() {
         return new WSPluginDispatchRule(
@@ -30,7 +31,8 @@ public class WSPluginDispatchRuleBuilder {
                 retry,
                 retryTimeout,
                 retryCount,
-                retryStrategy);
+                retryStrategy,
+                batchSize);
     }
 
     public WSPluginDispatchRuleBuilder(String ruleName) {
@@ -79,4 +81,9 @@ public class WSPluginDispatchRuleBuilder {
         this.retryStrategy = strategy;
         return this;
     }
+
+    public WSPluginDispatchRuleBuilder withBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
 }
@@ -37,6 +37,8 @@ public class WSPluginDispatchRulesService {
 
     public static final String PUSH_RULE_TYPE = ".type";
 
+    public static final String PUSH_RULE_BATCH_SIZE = ".batch.size";
+
     private final DomibusPropertyExtService domibusPropertyExtService;
     private final Map<String, List<WSPluginDispatchRule>> rules = new HashMap<>();
 
@@ -80,6 +82,7 @@ public class WSPluginDispatchRulesService {
             ruleBuilder.withEndpoint(domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_ENDPOINT));
             ruleBuilder.withType(getTypes(domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_TYPE)));
             setRetryInformation(ruleBuilder, domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_RETRY));
+            setBatchSize(ruleBuilder, domibusPropertyExtService.getProperty(PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_BATCH_SIZE));
             WSPluginDispatchRule dispatchRule = ruleBuilder.build();
             result.add(dispatchRule);
             LOG.info("WSPlugin reliability dispatch rule found: [{}]", dispatchRule);
@@ -172,4 +175,22 @@ public class WSPluginDispatchRulesService {
                             "Format: retryTimeout;retryCount;(CONSTANT - SEND_ONCE) (ex: 4;12;CONSTANT)", e);
         }
     }
+
+    protected void setBatchSize(WSPluginDispatchRuleBuilder ruleBuilder, String property) {
+        LOG.debug("set batch size with property value: [{}]", property);
+        if (isBlank(property)) {
+            return;
+        }
+        try {
+            int batchSize = Integer.parseInt(trim(property));
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("The batch size must be a positive number");
+            }
+            ruleBuilder.withBatchSize(batchSize);
+        } catch (IllegalArgumentException e) {
+            throw new WSPluginException(
+                    "The format of the property [" + PUSH_RULE_PREFIX + ruleBuilder.getRuleName() + PUSH_RULE_BATCH_SIZE + "] " +
+                            "is incorrect :[" + property + "]. It should be a positive number (ex: 50)", e);
+        }
+    }
 }
@@ -43,7 +43,10 @@ public class WSPluginPropertyManager extends DomibusPropertyExtServiceDelegateAb
     public static final String DISPATCHER_ALLOW_CHUNKING = "wsplugin.dispatcher.allowChunking";
     public static final String DISPATCHER_CHUNKING_THRESHOLD = "wsplugin.dispatcher.chunkingThreshold";
     public static final String DISPATCHER_CONNECTION_KEEP_ALIVE = "wsplugin.dispatcher.connection.keepAlive";
+    public static final String DISPATCHER_CLIENT_POOL_SIZE = "wsplugin.dispatcher.client.pool.size";
+    public static final String DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT = "wsplugin.dispatcher.client.pool.idleTimeout";
     public static final String DISPATCHER_CRON_EXPRESSION = "wsplugin.dispatcher.worker.cronExpression";
+    public static final String DISPATCHER_WORKER_BATCH_MAX_COUNT = "wsplugin.dispatcher.worker.batch.maxCount";
     public static final String DISPATCHER_SEND_QUEUE_NAME = "wsplugin.send.queue";
     public static final String DISPATCHER_SEND_QUEUE_CONCURRENCY = "wsplugin.send.queue.concurrency";
     public static final String DISPATCHER_PUSH_AUTH_USERNAME = "wsplugin.push.auth.username";
@@ -78,7 +81,10 @@ public class WSPluginPropertyManager extends DomibusPropertyExtServiceDelegateAb
                 new DomibusPropertyMetadataDTO(DISPATCHER_ALLOW_CHUNKING, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CHUNKING_THRESHOLD, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CONNECTION_KEEP_ALIVE, Type.BOOLEAN, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(DISPATCHER_CLIENT_POOL_SIZE, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_CRON_EXPRESSION, Type.CRON, Module.WS_PLUGIN, Usage.DOMAIN, true),
+                new DomibusPropertyMetadataDTO(DISPATCHER_WORKER_BATCH_MAX_COUNT, Type.NUMERIC, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_SEND_QUEUE_NAME, Type.STRING, Module.WS_PLUGIN, Usage.GLOBAL),
                 new DomibusPropertyMetadataDTO(DISPATCHER_SEND_QUEUE_CONCURRENCY, Type.CONCURRENCY, Module.WS_PLUGIN, Usage.DOMAIN, true),
                 new DomibusPropertyMetadataDTO(DISPATCHER_PUSH_AUTH_USERNAME, Type.STRING, Module.WS_PLUGIN, Usage.DOMAIN),
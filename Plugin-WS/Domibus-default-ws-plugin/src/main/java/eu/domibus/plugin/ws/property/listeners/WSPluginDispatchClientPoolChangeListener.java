@@ -0,0 +1,53 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.logging.DomibusLogger;
+import eu.domibus.logging.DomibusLoggerFactory;
+import eu.domibus.plugin.property.PluginPropertyChangeListener;
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginDispatchClientPool;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.*;
+
+/**
+ * Discards the pooled dispatch clients when the properties used to configure them change
+ *
+ * @author agent
+ * @since 5.1.4
+ */
+@Service
+public class WSPluginDispatchClientPoolChangeListener implements PluginPropertyChangeListener {
+
+    private static final DomibusLogger LOG = DomibusLoggerFactory.getLogger(WSPluginDispatchClientPoolChangeListener.class);
+
+    protected static final String DOMIBUS_PROXY_PREFIX = "domibus.proxy.";
+
+    private final WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    public WSPluginDispatchClientPoolChangeListener(WSPluginDispatchClientPool wsPluginDispatchClientPool) {
+        this.wsPluginDispatchClientPool = wsPluginDispatchClientPool;
+    }
+
+    @Override
+    public boolean handlesProperty(String propertyName) {
+        boolean doesHandle = StringUtils.equalsAny(propertyName,
+                DISPATCHER_CONNECTION_TIMEOUT,
+                DISPATCHER_RECEIVE_TIMEOUT,
+                DISPATCHER_ALLOW_CHUNKING,
+                DISPATCHER_CHUNKING_THRESHOLD,
+                DISPATCHER_CONNECTION_KEEP_ALIVE)
+                || StringUtils.startsWith(propertyName, DOMIBUS_PROXY_PREFIX);
+        LOG.trace("Handling [{}] property: [{}]", propertyName, doesHandle);
+        return doesHandle;
+    }
+
+    @Override
+    public void propertyValueChanged(String domainCode, String propertyName, String propertyValue) {
+        if (StringUtils.startsWith(propertyName, DOMIBUS_PROXY_PREFIX)) {
+            // the proxy is configured globally
+            wsPluginDispatchClientPool.invalidate(null);
+            return;
+        }
+        wsPluginDispatchClientPool.invalidate(domainCode);
+    }
+}
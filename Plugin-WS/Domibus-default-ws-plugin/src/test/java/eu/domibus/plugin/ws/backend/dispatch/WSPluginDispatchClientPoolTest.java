@@ -0,0 +1,144 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_CLIENT_POOL_SIZE;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatchClientPoolTest {
+
+    private static final String DOMAIN = "default";
+
+    private static final String ENDPOINT = "https://localhost:8080/backend";
+
+    @Tested
+    private WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    @Injectable
+    private WSPluginDispatchClientProvider wsPluginDispatchClientProvider;
+
+    @Injectable
+    private WSPluginPropertyManager wsPluginPropertyManager;
+
+    @Test
+    public void borrowClient_miss(@Injectable Dispatch<SOAPMessage> dispatch) {
+        new Expectations() {{
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            result = dispatch;
+        }};
+
+        assertSame(dispatch, wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT));
+    }
+
+    @Test
+    public void borrowClient_hit(@Injectable Dispatch<SOAPMessage> dispatch,
+                                 @Injectable TLSClientParameters tlsClientParameters) {
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_CLIENT_POOL_SIZE);
+            result = "10";
+
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT);
+            result = "300";
+
+            wsPluginDispatchClientProvider.getTlsClientParameters(dispatch);
+            result = tlsClientParameters;
+
+            wsPluginDispatchClientProvider.getTlsClientParameters(DOMAIN, ENDPOINT);
+            result = tlsClientParameters;
+        }};
+
+        wsPluginDispatchClientPool.releaseClient(DOMAIN, ENDPOINT, dispatch);
+
+        assertSame(dispatch, wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT));
+        new Verifications() {{
+            wsPluginDispatchClientProvider.getClient(anyString, anyString);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void borrowClient_tlsReloaded(@Injectable Dispatch<SOAPMessage> pooledDispatch,
+                                         @Injectable Dispatch<SOAPMessage> newDispatch,
+                                         @Injectable TLSClientParameters oldTlsClientParameters,
+                                         @Injectable TLSClientParameters newTlsClientParameters) {
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_CLIENT_POOL_SIZE);
+            result = "10";
+
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT);
+            result = "300";
+
+            wsPluginDispatchClientProvider.getTlsClientParameters(pooledDispatch);
+            result = oldTlsClientParameters;
+
+            wsPluginDispatchClientProvider.getTlsClientParameters(DOMAIN, ENDPOINT);
+            result = newTlsClientParameters;
+
+            wsPluginDispatchClientProvider.getClient(DOMAIN, ENDPOINT);
+            result = newDispatch;
+        }};
+
+        wsPluginDispatchClientPool.releaseClient(DOMAIN, ENDPOINT, pooledDispatch);
+
+        assertSame(newDispatch, wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT));
+        new Verifications() {{
+            wsPluginDispatchClientProvider.destroyClient(pooledDispatch);
+        }};
+    }
+
+    @Test
+    public void releaseClient_poolDisabled(@Injectable Dispatch<SOAPMessage> dispatch) {
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownPropertyValue(DOMAIN, DISPATCHER_CLIENT_POOL_SIZE);
+            result = "0";
+        }};
+
+        wsPluginDispatchClientPool.releaseClient(DOMAIN, ENDPOINT, dispatch);
+
+        assertTrue(wsPluginDispatchClientPool.getIdleClients(DOMAIN, ENDPOINT).isEmpty());
+        new Verifications() {{
+            wsPluginDispatchClientProvider.destroyClient(dispatch);
+        }};
+    }
+
+    @Test
+    public void invalidate(@Injectable Dispatch<SOAPMessage> dispatch, @Injectable Dispatch<SOAPMessage> otherDomainDispatch) {
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownPropertyValue(anyString, DISPATCHER_CLIENT_POOL_SIZE);
+            result = "10";
+
+            wsPluginPropertyManager.getKnownPropertyValue(anyString, DISPATCHER_CLIENT_POOL_IDLE_TIMEOUT);
+            result = "300";
+        }};
+        wsPluginDispatchClientPool.releaseClient(DOMAIN, ENDPOINT, dispatch);
+        wsPluginDispatchClientPool.releaseClient("domain2", ENDPOINT, otherDomainDispatch);
+
+        wsPluginDispatchClientPool.invalidate(DOMAIN);
+
+        assertTrue(wsPluginDispatchClientPool.getIdleClients(DOMAIN, ENDPOINT).isEmpty());
+        assertEquals(1, wsPluginDispatchClientPool.getIdleClients("domain2", ENDPOINT).size());
+        new Verifications() {{
+            wsPluginDispatchClientProvider.destroyClient(dispatch);
+            times = 1;
+            wsPluginDispatchClientProvider.destroyClient(otherDomainDispatch);
+            times = 0;
+        }};
+    }
+}
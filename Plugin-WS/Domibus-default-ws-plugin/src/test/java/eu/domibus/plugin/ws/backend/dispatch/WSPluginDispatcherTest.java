@@ -0,0 +1,137 @@
+package eu.domibus.plugin.ws.backend.dispatch;
+
+import eu.domibus.ext.domain.DomainDTO;
+import eu.domibus.ext.services.DomainContextExtService;
+import eu.domibus.plugin.ws.exception.WSPluginException;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Tested;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.xml.soap.SOAPMessage;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.WebServiceException;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatcherTest {
+
+    private static final String DOMAIN = "default";
+
+    private static final String ENDPOINT = "https://localhost:8080/backend";
+
+    @Tested
+    private WSPluginDispatcher wsPluginDispatcher;
+
+    @Injectable
+    private DomainContextExtService domainContextExtService;
+
+    @Injectable
+    private WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    @Injectable
+    private WSPluginPropertyManager wsPluginPropertyManager;
+
+    @Test
+    public void dispatch_clientReleased(@Injectable Dispatch<SOAPMessage> dispatch,
+                                        @Injectable SOAPMessage soapMessage,
+                                        @Injectable SOAPMessage response) {
+        new Expectations() {{
+            domainContextExtService.getCurrentDomain();
+            result = new DomainDTO(DOMAIN, DOMAIN);
+
+            wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT);
+            result = dispatch;
+
+            dispatch.getRequestContext();
+            result = new HashMap<>();
+
+            dispatch.invoke(soapMessage);
+            result = response;
+        }};
+
+        assertSame(response, wsPluginDispatcher.dispatch(soapMessage, ENDPOINT));
+
+        new Verifications() {{
+            wsPluginDispatchClientPool.releaseClient(DOMAIN, ENDPOINT, dispatch);
+            times = 1;
+
+            wsPluginDispatchClientPool.discardClient((Dispatch<SOAPMessage>) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void dispatch_webServiceException_clientDiscarded(@Injectable Dispatch<SOAPMessage> dispatch,
+                                                             @Injectable SOAPMessage soapMessage) {
+        new Expectations() {{
+            domainContextExtService.getCurrentDomain();
+            result = new DomainDTO(DOMAIN, DOMAIN);
+
+            wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT);
+            result = dispatch;
+
+            dispatch.getRequestContext();
+            result = new HashMap<>();
+
+            dispatch.invoke(soapMessage);
+            result = new WebServiceException("error");
+        }};
+
+        try {
+            wsPluginDispatcher.dispatch(soapMessage, ENDPOINT);
+            fail();
+        } catch (WSPluginException e) {
+            // expected
+        }
+
+        new Verifications() {{
+            wsPluginDispatchClientPool.discardClient(dispatch);
+            times = 1;
+
+            wsPluginDispatchClientPool.releaseClient(anyString, anyString, (Dispatch<SOAPMessage>) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void dispatch_runtimeException_clientDiscarded(@Injectable Dispatch<SOAPMessage> dispatch,
+                                                          @Injectable SOAPMessage soapMessage) {
+        new Expectations() {{
+            domainContextExtService.getCurrentDomain();
+            result = new DomainDTO(DOMAIN, DOMAIN);
+
+            wsPluginDispatchClientPool.borrowClient(DOMAIN, ENDPOINT);
+            result = dispatch;
+
+            dispatch.getRequestContext();
+            result = new IllegalStateException("error");
+        }};
+
+        try {
+            wsPluginDispatcher.dispatch(soapMessage, ENDPOINT);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        new Verifications() {{
+            wsPluginDispatchClientPool.discardClient(dispatch);
+            times = 1;
+
+            wsPluginDispatchClientPool.releaseClient(anyString, anyString, (Dispatch<SOAPMessage>) any);
+            times = 0;
+        }};
+    }
+}
@@ -1,14 +1,9 @@
 package eu.domibus.plugin.ws.backend.reliability.queue;
 
-import eu.domibus.api.security.AuthUtils;
 import eu.domibus.ext.domain.DomainDTO;
 import eu.domibus.ext.services.DomainContextExtService;
 import eu.domibus.ext.services.AuthenticationExtService;
 import eu.domibus.messaging.MessageConstants;
-import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
-import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
-import eu.domibus.plugin.ws.backend.WSBackendMessageType;
-import eu.domibus.plugin.ws.backend.dispatch.WSPluginMessageSender;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.junit.Assert;
@@ -18,7 +13,6 @@ import org.junit.runner.RunWith;
 import javax.jms.JMSException;
 import javax.jms.Message;
 
-import static eu.domibus.plugin.ws.backend.WSBackendMessageType.RECEIVE_SUCCESS;
 import static eu.domibus.plugin.ws.backend.WSBackendMessageType.SUBMIT_MESSAGE;
 
 /**
@@ -33,9 +27,7 @@ public class WSSendMessageListenerTest {
     private WSSendMessageListener wsSendMessageListener;
 
     @Injectable
-    private WSPluginMessageSender wsPluginMessageSender;
-    @Injectable
-    private WSBackendMessageLogDao wsBackendMessageLogDao;
+    private WSSendMessageService wsSendMessageService;
     @Injectable
     private DomainContextExtService domainContextExtService;
     @Injectable
@@ -43,9 +35,6 @@ public class WSSendMessageListenerTest {
     @Injectable
     private Message message;
 
-    @Injectable
-    private WSBackendMessageLogEntity backendMessage;
-
     @Test
     public void onMessage_JMSException() throws JMSException {
         new Expectations() {{
@@ -59,42 +48,14 @@ public class WSSendMessageListenerTest {
     }
 
     @Test
-    public void onMessage_noMessage() throws JMSException {
+    public void onMessage_() throws JMSException {
         new Expectations() {{
             message.getStringProperty(MessageConstants.DOMAIN);
             result = MessageConstants.DOMAIN;
 
-            message.getStringProperty(MessageConstants.MESSAGE_ID);
-            result = MessageConstants.MESSAGE_ID;
-
-            message.getLongProperty(WSSendMessageListener.ID);
-            result = ID;
-
-            message.getStringProperty(WSSendMessageListener.TYPE);
-            result = SUBMIT_MESSAGE.name();
-
-            wsBackendMessageLogDao.getById(ID);
+            message.getStringProperty(WSSendMessageListener.IDS);
             result = null;
 
-        }};
-
-        wsSendMessageListener.doOnMessage(message);
-
-        new FullVerifications() {{
-            DomainDTO domain;
-            domainContextExtService.setCurrentDomain(domain = withCapture());
-
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getCode());
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getName());
-        }};
-    }
-
-    @Test
-    public void onMessage_wrongId() throws JMSException {
-        new Expectations() {{
-            message.getStringProperty(MessageConstants.DOMAIN);
-            result = MessageConstants.DOMAIN;
-
             message.getStringProperty(MessageConstants.MESSAGE_ID);
             result = MessageConstants.MESSAGE_ID;
 
@@ -103,18 +64,6 @@ public class WSSendMessageListenerTest {
 
             message.getStringProperty(WSSendMessageListener.TYPE);
             result = SUBMIT_MESSAGE.name();
-
-            wsBackendMessageLogDao.getById(ID);
-            result = backendMessage;
-
-            backendMessage.getMessageId();
-            result = "nope";
-
-            backendMessage.getMessageIds();
-            result = "nope";
-
-            backendMessage.getType();
-            result = WSBackendMessageType.DELETED_BATCH;
         }};
         wsSendMessageListener.doOnMessage(message);
 
@@ -124,82 +73,34 @@ public class WSSendMessageListenerTest {
 
             Assert.assertEquals(MessageConstants.DOMAIN, domain.getCode());
             Assert.assertEquals(MessageConstants.DOMAIN, domain.getName());
-        }};
-    }
-
-    @Test
-    public void onMessage_wrongType() throws JMSException {
-        new Expectations() {{
-            message.getStringProperty(MessageConstants.DOMAIN);
-            result = MessageConstants.DOMAIN;
-
-            message.getStringProperty(MessageConstants.MESSAGE_ID);
-            result = MessageConstants.MESSAGE_ID;
-
-            message.getLongProperty(WSSendMessageListener.ID);
-            result = ID;
-
-            message.getStringProperty(WSSendMessageListener.TYPE);
-            result = SUBMIT_MESSAGE.name();
-
-            wsBackendMessageLogDao.getById(ID);
-            result = backendMessage;
 
-            backendMessage.getMessageId();
-            result = MessageConstants.MESSAGE_ID;
-
-            backendMessage.getType();
-            result = RECEIVE_SUCCESS;
-        }};
-        wsSendMessageListener.doOnMessage(message);
-
-        new FullVerifications() {{
-            DomainDTO domain;
-            domainContextExtService.setCurrentDomain(domain = withCapture());
-
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getCode());
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getName());
+            wsSendMessageService.sendNotification(ID, MessageConstants.MESSAGE_ID, SUBMIT_MESSAGE.name());
+            times = 1;
         }};
     }
 
     @Test
-    public void onMessage_() throws JMSException {
+    public void onMessage_batch() throws JMSException {
         new Expectations() {{
             message.getStringProperty(MessageConstants.DOMAIN);
             result = MessageConstants.DOMAIN;
 
-            message.getStringProperty(MessageConstants.MESSAGE_ID);
-            result = MessageConstants.MESSAGE_ID;
-
-            message.getLongProperty(WSSendMessageListener.ID);
-            result = ID;
-
-            message.getStringProperty(WSSendMessageListener.TYPE);
-            result = SUBMIT_MESSAGE.name();
-
-            wsBackendMessageLogDao.getById(ID);
-            result = backendMessage;
+            message.getStringProperty(WSSendMessageListener.IDS);
+            result = "1,2,3";
 
-            backendMessage.getMessageId();
-            result = MessageConstants.MESSAGE_ID;
-
-            backendMessage.getType();
-            result = SUBMIT_MESSAGE;
+            wsSendMessageService.sendBatchNotification(2L);
+            result = new RuntimeException("ERROR");
         }};
         wsSendMessageListener.doOnMessage(message);
 
         new FullVerifications() {{
-            DomainDTO domain;
-            domainContextExtService.setCurrentDomain(domain = withCapture());
+            domainContextExtService.setCurrentDomain((DomainDTO) any);
 
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getCode());
-            Assert.assertEquals(MessageConstants.DOMAIN, domain.getName());
-
-            wsPluginMessageSender.sendNotification(backendMessage);
+            // each notification is sent in its own transaction: a failure does not stop the rest of the batch
+            wsSendMessageService.sendBatchNotification(1L);
             times = 1;
-
-            backendMessage.setScheduled(false);
+            wsSendMessageService.sendBatchNotification(3L);
             times = 1;
         }};
     }
-}
\ No newline at end of file
+}
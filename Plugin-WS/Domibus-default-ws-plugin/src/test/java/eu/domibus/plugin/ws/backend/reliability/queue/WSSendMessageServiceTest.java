@@ -0,0 +1,171 @@
+package eu.domibus.plugin.ws.backend.reliability.queue;
+
+import eu.domibus.messaging.MessageConstants;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
+import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.backend.WSBackendMessageType;
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginMessageSender;
+import mockit.*;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static eu.domibus.plugin.ws.backend.WSBackendMessageType.RECEIVE_SUCCESS;
+import static eu.domibus.plugin.ws.backend.WSBackendMessageType.SUBMIT_MESSAGE;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@SuppressWarnings("ResultOfMethodCallIgnored")
+@RunWith(JMockit.class)
+public class WSSendMessageServiceTest {
+    public static final long ID = 1L;
+
+    @Tested
+    private WSSendMessageService wsSendMessageService;
+
+    @Injectable
+    private WSPluginMessageSender wsPluginMessageSender;
+
+    @Injectable
+    private WSBackendMessageLogDao wsBackendMessageLogDao;
+
+    @Injectable
+    private WSBackendMessageLogEntity backendMessage;
+
+    @Test
+    public void sendNotification_noMessage() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = null;
+        }};
+
+        wsSendMessageService.sendNotification(ID, MessageConstants.MESSAGE_ID, SUBMIT_MESSAGE.name());
+
+        new FullVerifications() {
+        };
+    }
+
+    @Test
+    public void sendNotification_wrongId() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            backendMessage.getMessageId();
+            result = "nope";
+
+            backendMessage.getMessageIds();
+            result = "nope";
+
+            backendMessage.getType();
+            result = WSBackendMessageType.DELETED_BATCH;
+        }};
+
+        wsSendMessageService.sendNotification(ID, MessageConstants.MESSAGE_ID, SUBMIT_MESSAGE.name());
+
+        new FullVerifications() {
+        };
+    }
+
+    @Test
+    public void sendNotification_wrongType() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            backendMessage.getMessageId();
+            result = MessageConstants.MESSAGE_ID;
+
+            backendMessage.getType();
+            result = RECEIVE_SUCCESS;
+        }};
+
+        wsSendMessageService.sendNotification(ID, MessageConstants.MESSAGE_ID, SUBMIT_MESSAGE.name());
+
+        new FullVerifications() {
+        };
+    }
+
+    @Test
+    public void sendNotification() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            backendMessage.getMessageId();
+            result = MessageConstants.MESSAGE_ID;
+
+            backendMessage.getType();
+            result = SUBMIT_MESSAGE;
+        }};
+
+        wsSendMessageService.sendNotification(ID, MessageConstants.MESSAGE_ID, SUBMIT_MESSAGE.name());
+
+        new FullVerifications() {{
+            wsPluginMessageSender.sendNotification(backendMessage);
+            times = 1;
+
+            backendMessage.setScheduled(false);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void sendBatchNotification() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            backendMessage.getScheduled();
+            result = true;
+
+            backendMessage.getType();
+            result = SUBMIT_MESSAGE;
+        }};
+
+        wsSendMessageService.sendBatchNotification(ID);
+
+        new FullVerifications() {{
+            backendMessage.getMessageId();
+
+            wsPluginMessageSender.sendNotification(backendMessage);
+            times = 1;
+
+            backendMessage.setScheduled(false);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void sendBatchNotification_alreadyHandled() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = backendMessage;
+
+            backendMessage.getScheduled();
+            result = false;
+        }};
+
+        wsSendMessageService.sendBatchNotification(ID);
+
+        new FullVerifications() {{
+            wsPluginMessageSender.sendNotification((WSBackendMessageLogEntity) any);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void sendBatchNotification_noMessage() {
+        new Expectations() {{
+            wsBackendMessageLogDao.getById(ID);
+            result = null;
+        }};
+
+        wsSendMessageService.sendBatchNotification(ID);
+
+        new FullVerifications() {
+        };
+    }
+}
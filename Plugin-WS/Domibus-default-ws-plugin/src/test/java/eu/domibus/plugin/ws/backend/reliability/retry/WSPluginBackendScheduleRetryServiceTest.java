@@ -5,9 +5,13 @@ import eu.domibus.ext.services.JMSExtService;
 import eu.domibus.messaging.MessageConstants;
 import eu.domibus.plugin.ws.backend.WSBackendMessageLogDao;
 import eu.domibus.plugin.ws.backend.WSBackendMessageLogEntity;
+import eu.domibus.plugin.ws.backend.WSBackendMessageStatus;
 import eu.domibus.plugin.ws.backend.WSBackendMessageType;
 import eu.domibus.plugin.ws.backend.reliability.queue.WSSendMessageListener;
 import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRule;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRuleBuilder;
+import eu.domibus.plugin.ws.backend.rules.WSPluginDispatchRulesService;
+import eu.domibus.plugin.ws.property.WSPluginPropertyManager;
 import mockit.*;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
@@ -18,6 +22,7 @@ import javax.jms.Queue;
 import java.util.*;
 
 import static eu.domibus.common.MessageStatus.ACKNOWLEDGED;
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_WORKER_BATCH_MAX_COUNT;
 import static org.junit.Assert.*;
 
 /**
@@ -49,6 +54,12 @@ public class WSPluginBackendScheduleRetryServiceTest {
     @Injectable
     protected Queue wsPluginSendQueue;
 
+    @Injectable
+    protected WSPluginDispatchRulesService rulesService;
+
+    @Injectable
+    protected WSPluginPropertyManager wsPluginPropertyManager;
+
 
     @Test
     public void getMessagesNotAlreadyScheduled() {
@@ -145,6 +156,12 @@ public class WSPluginBackendScheduleRetryServiceTest {
 
             wsPluginSendQueue.getQueueName();
             result = "queueName";
+
+            wsPluginPropertyManager.getKnownIntegerPropertyValue(DISPATCHER_WORKER_BATCH_MAX_COUNT);
+            result = 1000;
+
+            wsBackendMessageLogDao.findBatchPendingMessages(1000);
+            result = new ArrayList<>();
         }};
 
         retryService.scheduleWaitingForRetry();
@@ -192,4 +209,124 @@ public class WSPluginBackendScheduleRetryServiceTest {
 
         }};
     }
+
+    @Test
+    public void schedule_batchEnabled(@Injectable WSPluginDispatchRule rule) {
+        new Expectations() {{
+            rule.getRuleName();
+            result = RULE_NAME;
+
+            rule.getRetryCount();
+            result = RETRY_MAX;
+
+            rule.isBatchEnabled();
+            result = true;
+        }};
+
+        retryService.schedule(MESSAGE_ID, MESSAGE_ENTITY_ID, new HashMap<>(), rule, WSBackendMessageType.SEND_SUCCESS);
+
+        new Verifications() {{
+            WSBackendMessageLogEntity wsBackendMessageLogEntity;
+            wsBackendMessageLogDao.create(wsBackendMessageLogEntity = withCapture());
+            times = 1;
+
+            assertEquals(WSBackendMessageStatus.WAITING_FOR_RETRY, wsBackendMessageLogEntity.getBackendMessageStatus());
+            assertNotNull(wsBackendMessageLogEntity.getNextAttempt());
+            assertFalse(wsBackendMessageLogEntity.getScheduled());
+
+            jmsExtService.sendMessageToQueue((JmsMessageDTO) any, wsPluginSendQueue);
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void scheduleBatchPendingMessages() {
+        List<WSBackendMessageLogEntity> entities = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            WSBackendMessageLogEntity entity = new WSBackendMessageLogEntity();
+            entity.setEntityId(i);
+            entity.setMessageId(MESSAGE_ID + i);
+            entity.setRuleName(RULE_NAME);
+            entity.setType(WSBackendMessageType.SEND_SUCCESS);
+            entities.add(entity);
+        }
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownIntegerPropertyValue(DISPATCHER_WORKER_BATCH_MAX_COUNT);
+            result = 1000;
+
+            wsBackendMessageLogDao.findBatchPendingMessages(1000);
+            result = entities;
+
+            rulesService.getRule(RULE_NAME);
+            result = new WSPluginDispatchRuleBuilder(RULE_NAME).withBatchSize(2).build();
+        }};
+
+        retryService.scheduleBatchPendingMessages();
+
+        new Verifications() {{
+            List<JmsMessageDTO> jmsMessageDTO = new ArrayList<>();
+            jmsExtService.sendMessageToQueue(withCapture(jmsMessageDTO), wsPluginSendQueue);
+            times = 2;
+
+            assertEquals("1,2", jmsMessageDTO.get(0).getProperties().get(WSSendMessageListener.IDS));
+            assertEquals(MESSAGE_ID + 3, jmsMessageDTO.get(1).getProperties().get(MessageConstants.MESSAGE_ID));
+            assertEquals(3L, jmsMessageDTO.get(1).getProperties().get(WSSendMessageListener.ID));
+        }};
+        entities.forEach(entity -> assertTrue(entity.getScheduled()));
+    }
+
+    @Test
+    public void scheduleBatchPendingMessages_ruleRemoved() {
+        List<WSBackendMessageLogEntity> entities = new ArrayList<>();
+        for (long i = 1; i <= 2; i++) {
+            WSBackendMessageLogEntity entity = new WSBackendMessageLogEntity();
+            entity.setEntityId(i);
+            entity.setMessageId(MESSAGE_ID + i);
+            entity.setRuleName(RULE_NAME);
+            entity.setType(WSBackendMessageType.SEND_SUCCESS);
+            entities.add(entity);
+        }
+        new Expectations() {{
+            wsPluginPropertyManager.getKnownIntegerPropertyValue(DISPATCHER_WORKER_BATCH_MAX_COUNT);
+            result = 1000;
+
+            wsBackendMessageLogDao.findBatchPendingMessages(1000);
+            result = entities;
+
+            rulesService.getRule(RULE_NAME);
+            result = null;
+        }};
+
+        retryService.scheduleBatchPendingMessages();
+
+        new Verifications() {{
+            List<JmsMessageDTO> jmsMessageDTO = new ArrayList<>();
+            jmsExtService.sendMessageToQueue(withCapture(jmsMessageDTO), wsPluginSendQueue);
+            times = 2;
+
+            assertEquals(1L, jmsMessageDTO.get(0).getProperties().get(WSSendMessageListener.ID));
+            assertEquals(2L, jmsMessageDTO.get(1).getProperties().get(WSSendMessageListener.ID));
+        }};
+        entities.forEach(entity -> assertTrue(entity.getScheduled()));
+    }
+
+    @Test
+    public void getBatchSize_ruleRenamed() {
+        new Expectations() {{
+            rulesService.getRule(RULE_NAME);
+            result = new WSPluginDispatchRuleBuilder("").withBatchSize(5).build();
+        }};
+
+        assertEquals(1, retryService.getBatchSize(RULE_NAME));
+    }
+
+    @Test
+    public void getBatchSize() {
+        new Expectations() {{
+            rulesService.getRule(RULE_NAME);
+            result = new WSPluginDispatchRuleBuilder(RULE_NAME).withBatchSize(5).build();
+        }};
+
+        assertEquals(5, retryService.getBatchSize(RULE_NAME));
+    }
 }
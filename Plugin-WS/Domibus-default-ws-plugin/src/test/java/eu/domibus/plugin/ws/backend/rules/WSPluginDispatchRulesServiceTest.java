@@ -83,6 +83,30 @@ public class WSPluginDispatchRulesServiceTest {
         rulesService.setRetryInformation(ruleBuilder, "60;5");
     }
 
+    @Test
+    public void setBatchSize_empty() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setBatchSize(ruleBuilder, "");
+        WSPluginDispatchRule build = ruleBuilder.build();
+        assertEquals(1, build.getBatchSize());
+        assertFalse(build.isBatchEnabled());
+    }
+
+    @Test
+    public void setBatchSize_ok() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setBatchSize(ruleBuilder, " 50 ");
+        WSPluginDispatchRule build = ruleBuilder.build();
+        assertEquals(50, build.getBatchSize());
+        assertTrue(build.isBatchEnabled());
+    }
+
+    @Test(expected = WSPluginException.class)
+    public void setBatchSize_notPositive() {
+        WSPluginDispatchRuleBuilder ruleBuilder = new WSPluginDispatchRuleBuilder(RULE_NAME_1);
+        rulesService.setBatchSize(ruleBuilder, "0");
+    }
+
     @Test
     public void initRules_noRuleFound() {
         new Expectations() {{
@@ -0,0 +1,63 @@
+package eu.domibus.plugin.ws.property.listeners;
+
+import eu.domibus.plugin.ws.backend.dispatch.WSPluginDispatchClientPool;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.integration.junit4.JMockit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static eu.domibus.plugin.ws.property.WSPluginPropertyManager.DISPATCHER_RECEIVE_TIMEOUT;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+@RunWith(JMockit.class)
+public class WSPluginDispatchClientPoolChangeListenerTest {
+
+    public static final String DEFAULT = "default";
+
+    @Injectable
+    private WSPluginDispatchClientPool wsPluginDispatchClientPool;
+
+    protected WSPluginDispatchClientPoolChangeListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new WSPluginDispatchClientPoolChangeListener(wsPluginDispatchClientPool);
+    }
+
+    @Test
+    public void handlesProperty_true() {
+        Assert.assertTrue(listener.handlesProperty(DISPATCHER_RECEIVE_TIMEOUT));
+        Assert.assertTrue(listener.handlesProperty("domibus.proxy.http.host"));
+    }
+
+    @Test
+    public void handlesProperty_false() {
+        Assert.assertFalse(listener.handlesProperty("I hate pickles"));
+    }
+
+    @Test
+    public void propertyValueChanged_dispatcherProperty() {
+        listener.propertyValueChanged(DEFAULT, DISPATCHER_RECEIVE_TIMEOUT, "1000");
+
+        new FullVerifications() {{
+            wsPluginDispatchClientPool.invalidate(DEFAULT);
+            times = 1;
+        }};
+    }
+
+    @Test
+    public void propertyValueChanged_proxyProperty() {
+        listener.propertyValueChanged(DEFAULT, "domibus.proxy.http.host", "proxy");
+
+        new FullVerifications() {{
+            wsPluginDispatchClientPool.invalidate(null);
+            times = 1;
+        }};
+    }
+}
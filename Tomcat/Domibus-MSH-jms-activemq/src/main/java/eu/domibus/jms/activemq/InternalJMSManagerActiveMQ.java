@@ -174,6 +174,21 @@ public class InternalJMSManagerActiveMQ implements InternalJMSManager {
         return browseMessages(source, null, null, null, selector);
     }
 
+    /**
+     * The capped browse uses a queue browser instead of the JMX browse operation, which reads all the matching messages
+     */
+    @Override
+    public List<InternalJmsMessage> browseClusterMessages(String source, String selector, int maxCount) {
+        if (maxCount <= 0) {
+            return browseClusterMessages(source, selector);
+        }
+        try {
+            return getMessagesFromDestination(source, selector, maxCount);
+        } catch (JMSActiveMQException e) {
+            throw new InternalJMSException("Error getting messages for [" + source + "] with selector [" + selector + "]", e);
+        }
+    }
+
     @Override
     public List<InternalJmsMessage> browseMessages(String source, String jmsType, Date fromDate, Date toDate, String selectorClause) {
         if (StringUtils.isEmpty(source)) {
@@ -345,6 +360,10 @@ public class InternalJMSManagerActiveMQ implements InternalJMSManager {
     }
 
     protected List<InternalJmsMessage> getMessagesFromDestination(String destination, String selector) throws JMSActiveMQException {
+        return getMessagesFromDestination(destination, selector, 0);
+    }
+
+    protected List<InternalJmsMessage> getMessagesFromDestination(String destination, String selector, int maxCount) throws JMSActiveMQException {
         Queue queue;
 
         try {
@@ -360,7 +379,7 @@ public class InternalJMSManagerActiveMQ implements InternalJMSManager {
         return jmsSender.browseSelected(queue, selector, (session, browser) -> {
             List<InternalJmsMessage> result = new ArrayList<>();
             Enumeration enumeration = browser.getEnumeration();
-            while (enumeration.hasMoreElements()) {
+            while (enumeration.hasMoreElements() && (maxCount <= 0 || result.size() < maxCount)) {
                 TextMessage textMessage = null;
                 try {
                     textMessage = (TextMessage) enumeration.nextElement();
@@ -234,6 +234,17 @@ public class UserMessageLogDaoIT extends AbstractIT {
         assertEquals(1, downloadedUserMessagesOlderThan.size());
     }
 
+    @Test
+    public void getDownloadedUserMessagesOlderThan_keysetPaged() {
+        List<UserMessageLogDto> firstPage = userMessageLogDao.getDownloadedUserMessagesOlderThan(after, MPC, 1, false, 0L);
+        assertEquals(1, firstPage.size());
+
+        List<UserMessageLogDto> secondPage = userMessageLogDao.getDownloadedUserMessagesOlderThan(after, MPC, 10, false, firstPage.get(0).getEntityId());
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getEntityId() > firstPage.get(0).getEntityId());
+        assertThat(Arrays.asList(firstPage.get(0).getMessageId(), secondPage.get(0).getMessageId()), hasItems(downloadedNoProperties, downloadedWithProperties));
+    }
+
     @Test
     public void getDownloadedUserMessagesOlderThan_notFound() {
         List<UserMessageLogDto> deletedUserMessagesOlderThan =
@@ -492,8 +503,8 @@ public class UserMessageLogDaoIT extends AbstractIT {
 
     @Test
     @Transactional
-    public void findRetryMessages() {
-        List<Long> retryMessages = userMessageLogDao.findRetryMessages(0, 999999999999999999L);
+    public void findRetryMessagesPage() {
+        List<UserMessageLogRetryDto> retryMessages = userMessageLogDao.findRetryMessagesPage(0, 999999999999999999L, 0, 100);
 
         assertEquals(2, retryMessages.size());
     }
@@ -12,7 +12,11 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @author François Gautier
@@ -35,12 +39,20 @@ public class SignalMessageRawServiceIT extends AbstractIT {
 
     @Test
     @Transactional
-    public void SignalFoundNoRaw() {
+    public void SignalFoundNoRaw() throws IOException {
         messageDaoTestUtil.createSignalMessageLog("msg1", new Date());
         SignalMessage msg1 = signalMessageDao.findByUserMessageIdWithUserMessage("msg1", MSHRole.SENDING);
 
-        signalMessageRawService.saveSignalMessageRawService(RAW_XML, msg1.getEntityId());
+        signalMessageRawService.saveCompressedSignalMessageRaw(compress(RAW_XML), msg1.getEntityId());
 
         Assert.assertEquals(RAW_XML, signalMessageRawEnvelopeDao.findSignalMessageByUserMessageId("msg1", MSHRole.SENDING).getRawXmlMessage());
     }
+
+    private byte[] compress(String rawXml) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream zipStream = new GZIPOutputStream(byteStream)) {
+            zipStream.write(rawXml.getBytes(StandardCharsets.UTF_8));
+        }
+        return byteStream.toByteArray();
+    }
 }
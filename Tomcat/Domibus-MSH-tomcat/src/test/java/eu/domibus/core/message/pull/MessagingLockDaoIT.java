@@ -0,0 +1,99 @@
+package eu.domibus.core.message.pull;
+
+import eu.domibus.api.model.MessageState;
+import eu.domibus.test.AbstractIT;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ * @since 5.1.4
+ */
+public class MessagingLockDaoIT extends AbstractIT {
+
+    private static final String RESERVED_MESSAGE_ID = "MessagingLockDaoIT-reserved";
+
+    private static final String SERVED_MESSAGE_ID = "MessagingLockDaoIT-served";
+
+    private static final String PROCESSED_MESSAGE_ID = "MessagingLockDaoIT-processed";
+
+    @Autowired
+    private MessagingLockDao messagingLockDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        saveLock(RESERVED_MESSAGE_ID, MessageState.RESERVED);
+        saveLock(SERVED_MESSAGE_ID, MessageState.RESERVED);
+        saveLock(PROCESSED_MESSAGE_ID, MessageState.PROCESS);
+    }
+
+    @After
+    public void cleanup() {
+        transactionTemplate.execute(status -> {
+            messagingLockDao.delete(RESERVED_MESSAGE_ID);
+            messagingLockDao.delete(SERVED_MESSAGE_ID);
+            messagingLockDao.delete(PROCESSED_MESSAGE_ID);
+            return null;
+        });
+    }
+
+    @Test
+    public void markReservedPullMessageServed() {
+        assertTrue(messagingLockDao.markReservedPullMessageServed(SERVED_MESSAGE_ID));
+        assertFalse("The message was already served", messagingLockDao.markReservedPullMessageServed(SERVED_MESSAGE_ID));
+        assertFalse("The message was not reserved", messagingLockDao.markReservedPullMessageServed(PROCESSED_MESSAGE_ID));
+
+        assertEquals(MessageState.PROCESS, getMessageState(SERVED_MESSAGE_ID));
+    }
+
+    @Test
+    public void resetStaleReservations_servedMessagesNotReset() {
+        messagingLockDao.markReservedPullMessageServed(SERVED_MESSAGE_ID);
+
+        final int reset = messagingLockDao.resetStaleReservations(new Date(System.currentTimeMillis() + 60000));
+
+        assertEquals(1, reset);
+        assertEquals(MessageState.READY, getMessageState(RESERVED_MESSAGE_ID));
+        assertEquals("A served message still in flight is not reset", MessageState.PROCESS, getMessageState(SERVED_MESSAGE_ID));
+        assertEquals(MessageState.PROCESS, getMessageState(PROCESSED_MESSAGE_ID));
+    }
+
+    @Test
+    public void resetStaleReservations_recentReservationsNotReset() {
+        final int reset = messagingLockDao.resetStaleReservations(new Date(System.currentTimeMillis() - 60000));
+
+        assertEquals(0, reset);
+        assertEquals(MessageState.RESERVED, getMessageState(RESERVED_MESSAGE_ID));
+    }
+
+    private void saveLock(String messageId, MessageState messageState) {
+        transactionTemplate.execute(status -> {
+            final Date now = new Date();
+            final MessagingLock messagingLock = new MessagingLock(messageId, "initiator", "mpc", now,
+                    new Date(now.getTime() + 3600000), now, null, 0, 5);
+            messagingLock.setMessageState(messageState);
+            messagingLockDao.save(messagingLock);
+            return null;
+        });
+    }
+
+    private MessageState getMessageState(String messageId) {
+        return transactionTemplate.execute(status -> messagingLockDao.findMessagingLockForMessageId(messageId).getMessageState());
+    }
+}
@@ -2,6 +2,8 @@ package eu.domibus.rest;
 
 import eu.domibus.test.AbstractIT;
 import eu.domibus.api.model.MSHRole;
+import eu.domibus.api.multitenancy.Domain;
+import eu.domibus.api.property.DomibusPropertyProvider;
 import eu.domibus.common.ErrorCode;
 import eu.domibus.core.error.ErrorLogDao;
 import eu.domibus.core.error.ErrorLogEntry;
@@ -14,11 +16,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.UnsupportedEncodingException;
 import java.util.Date;
 
+import static eu.domibus.api.property.DomibusPropertyMetadataManagerSPI.DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE;
+
 @Transactional
 public class ErrorLogResourceIT extends AbstractIT {
 
@@ -34,6 +39,9 @@ public class ErrorLogResourceIT extends AbstractIT {
     @Autowired
     MshRoleDao mshRoleDao;
 
+    @Autowired
+    DomibusPropertyProvider domibusPropertyProvider;
+
     private String mockMessageId = "9008713e-1912-460c-97b3-40ec12a29f49@domibus.eu";
 
     @Before
@@ -51,15 +59,36 @@ public class ErrorLogResourceIT extends AbstractIT {
     }
 
     @Test
-    public void testCsv() {
+    public void testCsv() throws UnsupportedEncodingException {
         ErrorLogFilterRequestRO filters = new ErrorLogFilterRequestRO();
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        ResponseEntity<String> result = errorLogResource.getCsv(filters);
-        String csv = result.getBody();
+        errorLogResource.getCsv(filters, response);
+        String csv = response.getContentAsString();
 
         Assert.assertTrue(csv.contains(mockMessageId));
     }
 
+    @Test
+    public void testCsv_streamed() throws UnsupportedEncodingException {
+        Domain defaultDomain = new Domain("default", "default");
+        String previousPageSize = domibusPropertyProvider.getProperty(defaultDomain, DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE);
+        try {
+            domibusPropertyProvider.setProperty(defaultDomain, DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE, "1", false);
+            ErrorLogFilterRequestRO filters = new ErrorLogFilterRequestRO();
+            filters.setOrderBy("timestamp");
+            filters.setAsc(false);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            errorLogResource.getCsv(filters, response);
+            String csv = response.getContentAsString();
+
+            Assert.assertTrue(csv.contains(mockMessageId));
+        } finally {
+            domibusPropertyProvider.setProperty(defaultDomain, DOMIBUS_UI_CSV_STREAMING_PAGE_SIZE, previousPageSize, false);
+        }
+    }
+
     private void createEntries() {
         ErrorLogEntry logEntry = new ErrorLogEntry();
         logEntry.setMessageInErrorId(mockMessageId);
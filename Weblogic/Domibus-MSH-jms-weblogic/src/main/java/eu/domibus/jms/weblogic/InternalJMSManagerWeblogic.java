@@ -530,17 +530,25 @@ public class InternalJMSManagerWeblogic implements InternalJMSManager {
     }
 
     protected List<InternalJmsMessage> getMessagesFromDestination(final ObjectName destination, final String selectorString) {
+        return getMessagesFromDestination(destination, selectorString, 0);
+    }
+
+    protected List<InternalJmsMessage> getMessagesFromDestination(final ObjectName destination, final String selectorString, final int maxCount) {
         return jmxTemplate.query(
                 new JMXOperation() {
                     @Override
                     public List<InternalJmsMessage> execute(MBeanServerConnection mbsc) {
-                        return doGetMessagesFromDestination(mbsc, selectorString, destination);
+                        return doGetMessagesFromDestination(mbsc, selectorString, destination, maxCount);
                     }
                 }
         );
     }
 
     protected List<InternalJmsMessage> doGetMessagesFromDestination(MBeanServerConnection mbsc, String selectorString, ObjectName destination) {
+        return doGetMessagesFromDestination(mbsc, selectorString, destination, 0);
+    }
+
+    protected List<InternalJmsMessage> doGetMessagesFromDestination(MBeanServerConnection mbsc, String selectorString, ObjectName destination, int maxCount) {
         try {
             List<InternalJmsMessage> messages = new ArrayList<>();
             String selector = selectorString;
@@ -568,6 +576,10 @@ public class InternalJMSManagerWeblogic implements InternalJMSManager {
                 LOG.debug("Setting JMS maxBrowse size to [{}]", configuredMaxBrowseCount);
                 maxBrowseSize = configuredMaxBrowseCount;
             }
+            if (maxCount > 0 && maxCount < maxBrowseSize) {
+                LOG.debug("Browsing only the first [{}] messages", maxCount);
+                maxBrowseSize = maxCount;
+            }
 
             CompositeData[] allMessageMetaData = (CompositeData[]) mbsc.invoke(
                     destination,
@@ -652,15 +664,27 @@ public class InternalJMSManagerWeblogic implements InternalJMSManager {
      */
     @Override
     public List<InternalJmsMessage> browseClusterMessages(String source, String selector) {
+        return browseClusterMessages(source, selector, 0);
+    }
+
+    /**
+     * Browses the members of the distributed queue until the maximum number of messages was found
+     */
+    @Override
+    public List<InternalJmsMessage> browseClusterMessages(String source, String selector, int maxCount) {
         List<InternalJmsMessage> internalJmsMessages = new ArrayList<>();
         final String sourceWithoutJMSModule = removeJmsModule(source);
         List<InternalJMSDestination> destinations = getInternalJMSDestinations(sourceWithoutJMSModule);
         for (InternalJMSDestination destination : destinations) {
+            if (maxCount > 0 && internalJmsMessages.size() >= maxCount) {
+                break;
+            }
             String destinationType = destination.getType();
             if (InternalJMSConstants.QUEUE.equals(destinationType)) {
                 try {
                     ObjectName jmsDestination = destination.getProperty(PROPERTY_OBJECT_NAME);
-                    internalJmsMessages.addAll(getMessagesFromDestination(jmsDestination, selector));
+                    final int remainingCount = maxCount > 0 ? maxCount - internalJmsMessages.size() : 0;
+                    internalJmsMessages.addAll(getMessagesFromDestination(jmsDestination, selector, remainingCount));
                 } catch (Exception e) {
                     throw new InternalJMSException("Error getting messages for [" + source + "] with selector [" + selector + "]", e);
                 }
@@ -431,8 +431,20 @@ public class InternalJMSManagerWildFlyArtemis implements InternalJMSManager {
         return browseMessages(source, null, null, null, selector);
     }
 
+    /**
+     * The queue browser stops as soon as the maximum number of messages was read
+     */
+    @Override
+    public List<InternalJmsMessage> browseClusterMessages(String source, String selector, int maxCount) {
+        return browseMessages(source, null, null, null, selector, maxCount);
+    }
+
     @Override
     public List<InternalJmsMessage> browseMessages(String source, String jmsType, Date fromDate, Date toDate, String selectorClause) {
+        return browseMessages(source, jmsType, fromDate, toDate, selectorClause, 0);
+    }
+
+    protected List<InternalJmsMessage> browseMessages(String source, String jmsType, Date fromDate, Date toDate, String selectorClause, int maxCount) {
         if (StringUtils.isEmpty(source)) {
             throw new InternalJMSException("Source has not been specified");
         }
@@ -447,7 +459,7 @@ public class InternalJMSManagerWildFlyArtemis implements InternalJMSManager {
         if ("Queue".equals(destinationType)) {
             String selector = getSelector(jmsType, fromDate, toDate, selectorClause);
             try {
-                internalJmsMessages.addAll(getMessagesFromDestination(source, selector));
+                internalJmsMessages.addAll(getMessagesFromDestination(source, selector, maxCount));
             } catch (Exception e) {
                 throw new InternalJMSException("Error getting messages for [" + source + "] with selector [" + selector + "]", e);
             }
@@ -475,13 +487,17 @@ public class InternalJMSManagerWildFlyArtemis implements InternalJMSManager {
     }
 
     private List<InternalJmsMessage> getMessagesFromDestination(String destination, String selector) throws NamingException {
+        return getMessagesFromDestination(destination, selector, 0);
+    }
+
+    private List<InternalJmsMessage> getMessagesFromDestination(String destination, String selector, int maxCount) throws NamingException {
         Queue queue = getQueue(destination);
         return jmsSender.browseSelected(queue, selector, new BrowserCallback<List<InternalJmsMessage>>() {
             @Override
             public List<InternalJmsMessage> doInJms(Session session, QueueBrowser browser) throws JMSException {
                 List<InternalJmsMessage> result = new ArrayList<>();
                 Enumeration enumeration = browser.getEnumeration();
-                while (enumeration.hasMoreElements()) {
+                while (enumeration.hasMoreElements() && (maxCount <= 0 || result.size() < maxCount)) {
                     Object message = enumeration.nextElement();
                     try {
                         if (message instanceof TextMessage) {